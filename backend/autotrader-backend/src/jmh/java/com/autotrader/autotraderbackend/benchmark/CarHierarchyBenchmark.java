@@ -0,0 +1,152 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.model.CarBrand;
+import com.autotrader.autotraderbackend.model.CarModel;
+import com.autotrader.autotraderbackend.model.CarTrim;
+import com.autotrader.autotraderbackend.repository.CarBrandRepository;
+import com.autotrader.autotraderbackend.repository.CarModelRepository;
+import com.autotrader.autotraderbackend.repository.CarTrimRepository;
+import com.autotrader.autotraderbackend.service.CarBrandService;
+import com.autotrader.autotraderbackend.service.CarModelService;
+import com.autotrader.autotraderbackend.service.CarReferenceFilterService;
+import com.autotrader.autotraderbackend.service.CarTrimService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the active brand/model/trim hierarchy of a global-size catalogue (tens of thousands of trims) the
+ * way {@link CarReferenceFilterService#getActiveCarHierarchy} used to, with a query per brand and per model,
+ * and the way it does now, with one flat query per level assembled by ID. Also times a broad
+ * {@link CarReferenceFilterService#searchCarHierarchy} whose matches are merged into the tree.
+ *
+ * <p>The services run on Spring Data repositories over an in-memory H2 database, each invocation in a
+ * read-only transaction like a request. Run with {@code ./gradlew jmh -Djmh.includes=CarHierarchyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CarHierarchyBenchmark {
+
+    private static final int BRANDS = 300;
+    private static final int MODELS_PER_BRAND = 12;
+    private static final int TRIMS_PER_MODEL = 8;
+
+    private SessionFactory sessionFactory;
+    private TransactionTemplate readOnlyTransaction;
+    private CarBrandService carBrandService;
+    private CarModelService carModelService;
+    private CarTrimService carTrimService;
+    private CarReferenceFilterService carReferenceFilterService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:car-hierarchy;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.SHOW_SQL, "false");
+        for (Class<?> entity : List.of(CarBrand.class, CarModel.class, CarTrim.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        sessionFactory = configuration.buildSessionFactory();
+        seed();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(sessionFactory);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        CarModelRepository carModelRepository = repositoryFactory.getRepository(CarModelRepository.class);
+        CarTrimRepository carTrimRepository = repositoryFactory.getRepository(CarTrimRepository.class);
+        carBrandService = new CarBrandService(repositoryFactory.getRepository(CarBrandRepository.class));
+        carModelService = new CarModelService(carModelRepository, carBrandService);
+        carTrimService = new CarTrimService(carTrimRepository, carModelService);
+        carReferenceFilterService = new CarReferenceFilterService(carBrandService, carModelService, carTrimService,
+                carModelRepository, carTrimRepository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * The previous implementation: brands, then the models of each brand, then the trims of each model.
+     */
+    @Benchmark
+    public void perParentQueries(Blackhole blackhole) {
+        blackhole.consume(readOnlyTransaction.execute(status -> {
+            List<CarBrand> brands = carBrandService.getActiveBrands();
+            int trims = 0;
+            for (CarBrand brand : brands) {
+                for (CarModel model : carModelService.getActiveModelsByBrandId(brand.getId())) {
+                    trims += carTrimService.getActiveTrimsByModelId(model.getId()).size();
+                }
+            }
+            return trims;
+        }));
+    }
+
+    @Benchmark
+    public void flatQueries(Blackhole blackhole) {
+        blackhole.consume(readOnlyTransaction.execute(status -> carReferenceFilterService.getActiveCarHierarchy()));
+    }
+
+    @Benchmark
+    public void broadSearch(Blackhole blackhole) {
+        blackhole.consume(readOnlyTransaction.execute(status -> carReferenceFilterService.searchCarHierarchy("e")));
+    }
+
+    private void seed() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int b = 0; b < BRANDS; b++) {
+                CarBrand brand = new CarBrand();
+                brand.setName("brand" + b);
+                brand.setSlug("brand-" + b);
+                brand.setDisplayNameEn("Brand " + b);
+                brand.setDisplayNameAr("ماركة " + b);
+                brand.setIsActive(b % 50 != 49);
+                session.persist(brand);
+                for (int m = 0; m < MODELS_PER_BRAND; m++) {
+                    CarModel model = new CarModel();
+                    model.setBrand(brand);
+                    model.setName("model" + m);
+                    model.setSlug("brand-" + b + "-model-" + m);
+                    model.setDisplayNameEn("Model " + b + "-" + m);
+                    model.setDisplayNameAr("موديل " + b + "-" + m);
+                    model.setIsActive(m % 10 != 9);
+                    session.persist(model);
+                    for (int t = 0; t < TRIMS_PER_MODEL; t++) {
+                        CarTrim trim = new CarTrim();
+                        trim.setModel(model);
+                        trim.setName("trim" + t);
+                        trim.setDisplayNameEn("Trim " + t);
+                        trim.setDisplayNameAr("فئة " + t);
+                        trim.setIsActive(true);
+                        session.persist(trim);
+                    }
+                }
+                if (b % 10 == 9) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+}
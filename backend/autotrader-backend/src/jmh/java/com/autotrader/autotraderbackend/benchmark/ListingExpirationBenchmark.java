@@ -0,0 +1,175 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires {@value #LISTINGS} due listings the way {@code ListingExpirationService} does, one
+ * {@code UPDATE ... WHERE id = ANY(?)} transaction per batch of IDs found through the
+ * {@code (expired, expiration_date)} index, against a single {@code UPDATE} of all due listings
+ * ({@code batchSize = 0}). Meanwhile a seller keeps editing random listings; the aux counters report the
+ * longest expiration transaction and the longest time an edit waited on row locks held by it.
+ *
+ * <p>Run with {@code ./gradlew jmh -Djmh.includes=ListingExpirationBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class ListingExpirationBenchmark {
+
+    private static final int LISTINGS = 1_000_000;
+    private static final String URL = "jdbc:h2:mem:listing-expiration;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000";
+
+    @Param({"0", "500", "5000"})
+    public int batchSize;
+
+    private Connection connection;
+    private Thread seller;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong longestEditNanos = new AtomicLong();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LockTimes {
+        public long longestTransactionMillis;
+        public long longestEditWaitMillis;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE car_listings (id BIGINT PRIMARY KEY, price DECIMAL(12, 2) NOT NULL, "
+                    + "expired BOOLEAN NOT NULL, archived BOOLEAN NOT NULL, sold BOOLEAN NOT NULL, "
+                    + "is_user_active BOOLEAN NOT NULL, expiration_date TIMESTAMP)");
+            statement.execute("INSERT INTO car_listings SELECT X, 10000 + X % 5000, FALSE, FALSE, FALSE, TRUE, "
+                    + "DATEADD('MINUTE', -X, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, " + LISTINGS + ")");
+            statement.execute("CREATE INDEX idx_car_listings_expiration ON car_listings(expired, expiration_date)");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE car_listings SET expired = FALSE, is_user_active = TRUE WHERE expired");
+        }
+        longestEditNanos.set(0);
+        running.set(true);
+        seller = new Thread(this::editListings, "seller");
+        seller.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopSeller() throws InterruptedException {
+        running.set(false);
+        seller.join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int expireAll(LockTimes lockTimes) throws SQLException {
+        connection.setAutoCommit(false);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int total = 0;
+        long longest = 0;
+        try {
+            if (batchSize == 0) {
+                long start = System.nanoTime();
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE car_listings SET expired = TRUE, is_user_active = FALSE "
+                                + "WHERE expired = FALSE AND expiration_date <= ? AND archived = FALSE AND sold = FALSE")) {
+                    update.setTimestamp(1, now);
+                    total = update.executeUpdate();
+                }
+                connection.commit();
+                longest = System.nanoTime() - start;
+            } else {
+                int expired;
+                do {
+                    long start = System.nanoTime();
+                    expired = expireBatch(now);
+                    connection.commit();
+                    longest = Math.max(longest, System.nanoTime() - start);
+                    total += expired;
+                } while (expired >= batchSize);
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        lockTimes.longestTransactionMillis = TimeUnit.NANOSECONDS.toMillis(longest);
+        lockTimes.longestEditWaitMillis = TimeUnit.NANOSECONDS.toMillis(longestEditNanos.get());
+        return total;
+    }
+
+    private int expireBatch(Timestamp now) throws SQLException {
+        List<Long> ids = new ArrayList<>(batchSize);
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT id FROM car_listings WHERE expired = FALSE AND expiration_date <= ? "
+                        + "AND archived = FALSE AND sold = FALSE ORDER BY expiration_date, id LIMIT ?")) {
+            query.setTimestamp(1, now);
+            query.setInt(2, batchSize);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    ids.add(rows.getLong(1));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE car_listings SET expired = TRUE, is_user_active = FALSE "
+                        + "WHERE id = ANY(?) AND expired = FALSE AND archived = FALSE AND sold = FALSE")) {
+            Array idArray = connection.createArrayOf("BIGINT", ids.toArray());
+            update.setArray(1, idArray);
+            update.executeUpdate();
+        }
+        return ids.size();
+    }
+
+    /**
+     * A seller changing the price of random listings, one autocommitted update at a time.
+     */
+    private void editListings() {
+        try (Connection sellerConnection = DriverManager.getConnection(URL);
+             PreparedStatement edit = sellerConnection.prepareStatement(
+                     "UPDATE car_listings SET price = price + 1 WHERE id = ?")) {
+            while (running.get()) {
+                edit.setLong(1, ThreadLocalRandom.current().nextLong(1, LISTINGS + 1));
+                long start = System.nanoTime();
+                edit.executeUpdate();
+                longestEditNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+                Thread.sleep(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Seller edit failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search over {@value #LISTINGS} public listings on PostgreSQL, the way {@code CarListingSpecification}
+ * renders it: {@code containsKeywords}, every term matched with {@code lower(field) LIKE '%term%'} and the newest
+ * first, against {@code matchesFullText}, the {@code search_vector} GIN index ranked with {@code ts_rank}.
+ *
+ * <p>Setup prints, per query, the recall of each mode and its precision in the first page of 20, against
+ * relevance defined by how the listings were seeded: LIKE misses Arabic spelling variants and matches inside
+ * unrelated words ({@code rio} in "interior"). The benchmark itself measures the latency of the first page.</p>
+ *
+ * <p>Needs a PostgreSQL database, migrated here with Flyway: set {@code BENCH_POSTGRES_URL},
+ * {@code BENCH_POSTGRES_USER} and {@code BENCH_POSTGRES_PASSWORD}, then run
+ * {@code ./gradlew jmh -Djmh.includes=ListingKeywordSearchBenchmark}. The seeded listings are tagged with
+ * the {@code bench} stock number and deleted afterwards.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ListingKeywordSearchBenchmark {
+
+    private static final int LISTINGS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String STOCK_NUMBER = "bench";
+    private static final String PUBLIC_LISTING = "l.approved AND NOT l.sold AND NOT l.archived AND l.is_user_active "
+            + "AND NOT l.expired";
+    private static final String[] FIELDS = {"l.title", "l.description", "l.brand_name_en", "l.brand_name_ar",
+            "l.model_name_en", "l.model_name_ar"};
+
+    // The listings each query is looking for
+    private static final Map<String, String> RELEVANT = Map.of(
+            "camry", "l.model_name_en = 'Camry'",
+            "rio", "l.model_name_en = 'Rio'",
+            "النترا", "l.model_name_en = 'Elantra'",
+            "سياره نظيفه", "l.description LIKE 'سيار_ نظيف_%'");
+
+    @Param({"like", "fullText"})
+    public String mode;
+
+    @Param({"camry", "rio", "النترا", "سياره نظيفه"})
+    public String keywords;
+
+    private Connection connection;
+    private PreparedStatement firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = env("BENCH_POSTGRES_URL", "jdbc:postgresql://localhost:5432/autotrader_bench");
+        String user = env("BENCH_POSTGRES_USER", "postgres");
+        String password = env("BENCH_POSTGRES_PASSWORD", "postgres");
+        Flyway.configure().dataSource(url, user, password).locations("classpath:db/migration").load().migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM car_listings WHERE stock_number = '" + STOCK_NUMBER + "'");
+            statement.executeUpdate("INSERT INTO car_listings (title, description, price, mileage, model_year, brand, "
+                    + "model, model_id, seller_id, stock_number, approved, sold, archived, expired, is_user_active, "
+                    + "brand_name_en, brand_name_ar, model_name_en, model_name_ar, created_at, updated_at) "
+                    + "SELECT c.brand_en || ' ' || c.model_en || ' ' || (2005 + g % 20), "
+                    + "(ARRAY['سيارة نظيفة جدا، صيانة وكالة', 'سياره نظيفه، فحص كامل', 'Clean interior, one owner', "
+                    + "'Sunroof and leather seats', 'بحالة ممتازة، بدون حوادث'])[1 + g % 5], "
+                    + "5000 + g % 20000, g % 200000, 2005 + g % 20, c.brand_en, c.model_en, "
+                    + "(SELECT MIN(id) FROM models), (SELECT MIN(id) FROM users), '" + STOCK_NUMBER + "', "
+                    + "true, false, false, false, true, c.brand_en, c.brand_ar, c.model_en, c.model_ar, "
+                    + "now() - g * interval '1 minute', now() "
+                    + "FROM generate_series(1, " + LISTINGS + ") g "
+                    + "CROSS JOIN LATERAL (SELECT "
+                    + "(ARRAY['Toyota', 'Toyota', 'Hyundai', 'Kia', 'Nissan'])[1 + g % 7 % 5] AS brand_en, "
+                    + "(ARRAY['تويوتا', 'تويوتا', 'هيونداي', 'كيا', 'نيسان'])[1 + g % 7 % 5] AS brand_ar, "
+                    + "(ARRAY['Camry', 'Corolla', 'Elantra', 'Rio', 'Sunny'])[1 + g % 7 % 5] AS model_en, "
+                    // Elantra is spelled both with and without hamza
+                    + "(ARRAY['كامري', 'كورولا', CASE WHEN g % 2 = 0 THEN 'إلنترا' ELSE 'النترا' END, 'ريو', 'صني'])"
+                    + "[1 + g % 7 % 5] AS model_ar) c");
+            statement.execute("ANALYZE car_listings");
+        }
+        printRelevance();
+        firstPage = connection.prepareStatement(search(keywords, mode) + " LIMIT " + (PAGE_SIZE + 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        firstPage.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM car_listings WHERE stock_number = '" + STOCK_NUMBER + "'");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void firstPage(Blackhole blackhole) throws SQLException {
+        bind(firstPage, keywords, mode);
+        try (ResultSet rows = firstPage.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * Recall and precision of the first page for the current mode and keywords, once per trial.
+     */
+    private void printRelevance() throws SQLException {
+        String relevant = RELEVANT.get(keywords);
+        try (Statement statement = connection.createStatement();
+             ResultSet total = statement.executeQuery("SELECT count(*) FROM car_listings l WHERE l.stock_number = '"
+                     + STOCK_NUMBER + "' AND " + relevant)) {
+            total.next();
+            int relevantListings = total.getInt(1);
+            int found = 0;
+            int matches = 0;
+            int relevantInFirstPage = 0;
+            try (PreparedStatement query = connection.prepareStatement(search(keywords, mode)
+                    .replace("SELECT l.id", "SELECT l.id, " + relevant))) {
+                bind(query, keywords, mode);
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        if (rows.getBoolean(2)) {
+                            found++;
+                            if (matches < PAGE_SIZE) {
+                                relevantInFirstPage++;
+                            }
+                        }
+                        matches++;
+                    }
+                }
+            }
+            System.out.printf("%n%s '%s': %d matches, recall %.2f, precision@%d %.2f%n", mode, keywords, matches,
+                    (double) found / relevantListings, PAGE_SIZE,
+                    (double) relevantInFirstPage / Math.max(1, Math.min(PAGE_SIZE, matches)));
+        }
+    }
+
+    private static String search(String keywords, String mode) {
+        StringBuilder sql = new StringBuilder("SELECT l.id FROM car_listings l WHERE ")
+                .append(PUBLIC_LISTING).append(" AND l.stock_number = '").append(STOCK_NUMBER).append("'");
+        if ("fullText".equals(mode)) {
+            return sql.append(" AND l.search_vector @@ listing_search_query(?)")
+                    .append(" ORDER BY ts_rank(l.search_vector, listing_search_query(?), 1) DESC,")
+                    .append(" l.created_at DESC, l.id DESC")
+                    .toString();
+        }
+        for (String ignored : terms(keywords)) {
+            sql.append(" AND (");
+            for (int i = 0; i < FIELDS.length; i++) {
+                sql.append(i > 0 ? " OR " : "").append("lower(").append(FIELDS[i]).append(") LIKE ? ESCAPE '\\'");
+            }
+            sql.append(')');
+        }
+        return sql.append(" ORDER BY l.created_at DESC, l.id DESC").toString();
+    }
+
+    private static void bind(PreparedStatement query, String keywords, String mode) throws SQLException {
+        int parameter = 1;
+        if ("fullText".equals(mode)) {
+            query.setString(parameter++, keywords);
+            query.setString(parameter, keywords);
+            return;
+        }
+        for (String term : terms(keywords)) {
+            for (int i = 0; i < FIELDS.length; i++) {
+                query.setString(parameter++, "%" + escapeLike(term.toLowerCase(Locale.ROOT)) + "%");
+            }
+        }
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String[] terms(String keywords) {
+        return keywords.trim().split("\\s+");
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,131 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.mapper.CarListingMapper;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.service.storage.PresignedUrlCache;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Maps a 20-listing page with 10 photos per listing through {@link CarListingMapper}, presigning with a
+ * real SigV4 {@link S3Presigner} (signing is local, no network), with and without the {@link PresignedUrlCache}.
+ *
+ * <p>Run with {@code ./gradlew jmh -Djmh.includes=ListingPageMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListingPageMappingBenchmark {
+
+    private static final int LISTINGS_PER_PAGE = 20;
+    private static final int MEDIA_PER_LISTING = 10;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private S3Presigner presigner;
+    private CarListingMapper mapper;
+    private List<CarListing> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("benchmark", "benchmark-secret")))
+                .build();
+        PresignedUrlCache cache = cached ? new PresignedUrlCache(new StorageProperties(), new SimpleMeterRegistry()) : null;
+        mapper = new CarListingMapper(new PresigningStorageService(presigner, cache));
+
+        User seller = new User();
+        seller.setId(1L);
+        seller.setUsername("seller");
+        page = new ArrayList<>(LISTINGS_PER_PAGE);
+        for (long id = 1; id <= LISTINGS_PER_PAGE; id++) {
+            CarListing listing = new CarListing();
+            listing.setId(id);
+            listing.setTitle("Listing " + id);
+            listing.setPrice(BigDecimal.valueOf(10000 + id));
+            listing.setCreatedAt(LocalDateTime.now());
+            listing.setSeller(seller);
+            for (int i = 0; i < MEDIA_PER_LISTING; i++) {
+                ListingMedia media = new ListingMedia();
+                media.setId(id * 100 + i);
+                media.setFileKey("listings/" + id + "/" + i + "_photo.jpg");
+                media.setSortOrder(i);
+                media.setIsPrimary(i == 0);
+                media.setMediaType("image");
+                listing.addMedia(media);
+            }
+            page.add(listing);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        presigner.close();
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) {
+        blackhole.consume(mapper.toCarListingResponses(page));
+    }
+
+    /**
+     * Minimal storage service that presigns GET requests the same way StorageUrlGenerator does.
+     */
+    private static final class PresigningStorageService implements StorageService {
+
+        private final S3Presigner presigner;
+        private final PresignedUrlCache cache;
+
+        PresigningStorageService(S3Presigner presigner, PresignedUrlCache cache) {
+            this.presigner = presigner;
+            this.cache = cache;
+        }
+
+        @Override
+        public String getSignedUrl(String key, long expirationSeconds) {
+            return cache != null
+                    ? cache.get("autotrader-assets", key, expirationSeconds, () -> presign(key, expirationSeconds))
+                    : presign(key, expirationSeconds);
+        }
+
+        private String presign(String key, long expirationSeconds) {
+            GetObjectPresignRequest request = GetObjectPresignRequest.builder()
+                    .getObjectRequest(GetObjectRequest.builder().bucket("autotrader-assets").key(key).build())
+                    .signatureDuration(Duration.ofSeconds(expirationSeconds))
+                    .build();
+            return presigner.presignGetObject(request).url().toString();
+        }
+
+        @Override public void init() { }
+        @Override public String store(MultipartFile file, String key) { throw new UnsupportedOperationException(); }
+        @Override public Stream<Path> loadAll() { return Stream.empty(); }
+        @Override public Path load(String key) { throw new UnsupportedOperationException(); }
+        @Override public Resource loadAsResource(String key) { throw new UnsupportedOperationException(); }
+        @Override public void deleteAll() { }
+        @Override public boolean delete(String key) { return false; }
+    }
+}
@@ -0,0 +1,181 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.config.ListingSearchProperties;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument;
+import com.autotrader.autotraderbackend.service.search.ListingSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory {@link ListingSearchIndex} against the SQL that
+ * {@code CarListingSpecification.fromFilter} produces for a brand/model search
+ * ({@code lower(col) LIKE '%x%'} over the denormalized columns, count + page).
+ *
+ * <p>Run with {@code ./gradlew jmh -Djmh.includes=ListingSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListingSearchBenchmark {
+
+    private static final String[][] BRANDS = {
+            {"Toyota", "تويوتا"}, {"Honda", "هوندا"}, {"Nissan", "نيسان"}, {"Hyundai", "هيونداي"},
+            {"Kia", "كيا"}, {"Mercedes-Benz", "مرسيدس بنز"}, {"BMW", "بي إم دبليو"}, {"Chevrolet", "شفروليه"}
+    };
+    private static final String[] MODELS = {"Camry", "Corolla", "Civic", "Accord", "Sunny", "Elantra", "Rio", "Cruze"};
+
+    private static final String WHERE = " WHERE (LOWER(brand_name_en) LIKE ? OR LOWER(brand_name_ar) LIKE ?)"
+            + " AND (LOWER(model_name_en) LIKE ? OR LOWER(model_name_ar) LIKE ?)"
+            + " AND approved = TRUE AND sold = FALSE AND archived = FALSE AND is_user_active = TRUE";
+
+    @Param({"100000", "1000000"})
+    public int listings;
+
+    private Connection connection;
+    private ListingSearchIndex index;
+    private final ListingFilterRequest filter = new ListingFilterRequest();
+    private final Pageable pageable = PageRequest.of(2, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:listing-search-" + listings + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE car_listings (id BIGINT PRIMARY KEY, brand_name_en VARCHAR(100),"
+                    + " brand_name_ar VARCHAR(100), model_name_en VARCHAR(100), model_name_ar VARCHAR(100),"
+                    + " model_year INT, price DECIMAL(12,2), mileage INT, location_id BIGINT, created_at TIMESTAMP,"
+                    + " approved BOOLEAN, sold BOOLEAN, archived BOOLEAN, is_user_active BOOLEAN)");
+            // Same single-column indexes as V8; the leading wildcard keeps them unusable for the LIKE path
+            statement.execute("CREATE INDEX idx_car_listings_brand_name_en ON car_listings(brand_name_en)");
+            statement.execute("CREATE INDEX idx_car_listings_brand_name_ar ON car_listings(brand_name_ar)");
+            statement.execute("CREATE INDEX idx_car_listings_model_name_en ON car_listings(model_name_en)");
+            statement.execute("CREATE INDEX idx_car_listings_model_name_ar ON car_listings(model_name_ar)");
+        }
+
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<ListingSearchDocument> documents = new ArrayList<>(listings);
+        for (long id = 1; id <= listings; id++) {
+            String[] brand = BRANDS[random.nextInt(BRANDS.length)];
+            String model = MODELS[random.nextInt(MODELS.length)];
+            documents.add(new ListingSearchDocument(id, brand[0], brand[1], model, model,
+                    2005 + random.nextInt(20), BigDecimal.valueOf(2000 + random.nextInt(80000)),
+                    random.nextInt(300000), (long) (1 + random.nextInt(50)), base.plusMinutes(id),
+                    random.nextInt(10) != 0, random.nextInt(8) == 0, random.nextInt(20) == 0, random.nextInt(15) != 0,
+                    false, null));
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO car_listings VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (ListingSearchDocument document : documents) {
+                insert.setLong(1, document.id());
+                insert.setString(2, document.brandNameEn());
+                insert.setString(3, document.brandNameAr());
+                insert.setString(4, document.modelNameEn());
+                insert.setString(5, document.modelNameAr());
+                insert.setInt(6, document.modelYear());
+                insert.setBigDecimal(7, document.price());
+                insert.setInt(8, document.mileage());
+                insert.setLong(9, document.locationId());
+                insert.setTimestamp(10, Timestamp.valueOf(document.createdAt()));
+                insert.setBoolean(11, document.approved());
+                insert.setBoolean(12, document.sold());
+                insert.setBoolean(13, document.archived());
+                insert.setBoolean(14, document.isUserActive());
+                insert.addBatch();
+                if (++pending % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        // Load the index through its normal keyset-batched rebuild, backed by the generated documents
+        ListingSearchProperties properties = new ListingSearchProperties();
+        properties.setEnabled(true);
+        index = new ListingSearchIndex(documentRepository(documents), properties);
+        index.rebuild();
+
+        filter.setBrand("toy");
+        filter.setModel("cam");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void inMemoryIndex(Blackhole blackhole) {
+        blackhole.consume(index.search(filter, null, pageable));
+    }
+
+    @Benchmark
+    public void specificationSql(Blackhole blackhole) throws Exception {
+        try (PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM car_listings" + WHERE)) {
+            bindNames(count);
+            try (ResultSet resultSet = count.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT id FROM car_listings" + WHERE + " ORDER BY created_at DESC LIMIT ? OFFSET ?")) {
+            int next = bindNames(page);
+            page.setInt(next, pageable.getPageSize());
+            page.setLong(next + 1, pageable.getOffset());
+            try (ResultSet resultSet = page.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getLong(1));
+                }
+            }
+        }
+    }
+
+    private static CarListingRepository documentRepository(List<ListingSearchDocument> documents) {
+        return (CarListingRepository) Proxy.newProxyInstance(CarListingRepository.class.getClassLoader(),
+                new Class<?>[]{CarListingRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findSearchDocumentsAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int from = ((Long) args[0]).intValue(); // ids are 1..n, so afterId is also the list offset
+                    int to = Math.min(documents.size(), from + ((Pageable) args[1]).getPageSize());
+                    return documents.subList(Math.min(from, to), to);
+                });
+    }
+
+    private int bindNames(PreparedStatement statement) throws Exception {
+        String brand = "%" + filter.getBrand().toLowerCase() + "%";
+        String model = "%" + filter.getModel().toLowerCase() + "%";
+        statement.setString(1, brand);
+        statement.setString(2, brand);
+        statement.setString(3, model);
+        statement.setString(4, model);
+        return 5;
+    }
+}
@@ -0,0 +1,93 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.service.storage.LocalFileResponder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves a 16 MB image to concurrent clients from the local file system. Compares copying it through an
+ * 8 KB heap buffer, as {@code ResourceHttpMessageConverter} does for a {@code Resource} body, with
+ * {@link LocalFileResponder#transfer}, which hands the copy to the kernel when the target is a file or
+ * socket channel.
+ *
+ * <p>The response body goes to the null device, whose stream is backed by a {@code FileChannel} like a
+ * connector's socket. Run with {@code ./gradlew jmh -Djmh.includes=LocalFileServingBenchmark}; add
+ * {@code profilers = ['gc']} to the {@code jmh} block in {@code build.gradle} to compare
+ * {@code gc.alloc.rate.norm} as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class LocalFileServingBenchmark {
+
+    private static final int IMAGE_SIZE = 16 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 8192;
+
+    private Path directory;
+    private Path image;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private OutputStream connection;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            String nullDevice = System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null";
+            connection = new FileOutputStream(new File(nullDevice));
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] content = new byte[IMAGE_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        directory = Files.createTempDirectory("local-file-serving");
+        image = Files.write(directory.resolve("photo.jpg"), content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(image);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void bufferedCopy(Client client) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(image)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                client.connection.write(buffer, 0, read);
+            }
+        }
+    }
+
+    @Benchmark
+    public void channelTransfer(Client client) throws IOException {
+        LocalFileResponder.transfer(image, 0, IMAGE_SIZE, client.connection);
+    }
+
+    /**
+     * The second half of the image, as a resumed download or a video player's seek would request it.
+     */
+    @Benchmark
+    public void channelTransferRange(Client client) throws IOException {
+        LocalFileResponder.transfer(image, IMAGE_SIZE / 2, IMAGE_SIZE / 2, client.connection);
+    }
+}
@@ -0,0 +1,131 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.service.storage.PresignedUrlCache;
+import com.autotrader.autotraderbackend.service.storage.S3StorageService;
+import com.autotrader.autotraderbackend.service.storage.StorageConfigurationManager;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageObjectCache;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads 10 MB images from concurrent clients to an in-process S3 stand-in that reads each request body
+ * to its end. Compares the buffered path, which holds the whole file in memory to detect its type and
+ * hash it before the PUT, with {@link StreamingImageIngestor} piping the body into a single PUT when the
+ * length is known and into a multipart upload when it is not.
+ *
+ * <p>The interesting numbers are allocation per upload rather than time. Run with
+ * {@code ./gradlew jmh -Djmh.includes=StreamingUploadBenchmark}; add {@code profilers = ['gc']} to the
+ * {@code jmh} block in {@code build.gradle} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class StreamingUploadBenchmark {
+
+    private static final int IMAGE_SIZE = 10 * 1024 * 1024;
+    private static final String KEY = "listings/1/20240101_120000_photo.jpg";
+    private static final Tika TIKA = new Tika();
+
+    private byte[] image;
+    private S3StorageService storageService;
+    private StreamingImageIngestor ingestor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        image = new byte[IMAGE_SIZE];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) (i * 31);
+        }
+        image[0] = (byte) 0xFF;
+        image[1] = (byte) 0xD8;
+        image[2] = (byte) 0xFF;
+        image[3] = (byte) 0xE0;
+
+        StorageProperties storageProperties = new StorageProperties();
+        StorageConfigurationManager configManager = new StorageConfigurationManager(storageProperties,
+                new StorageKeyGenerator(storageProperties));
+        PresignedUrlCache presignedUrlCache = new PresignedUrlCache(new StorageProperties.PresignCache(),
+                new SimpleMeterRegistry(), Clock.systemUTC());
+        storageService = new S3StorageService(drainingS3Client(), configManager, null, presignedUrlCache,
+                new StorageObjectCache(storageProperties, new SimpleMeterRegistry()));
+
+        FileUploadProperties uploadProperties = new FileUploadProperties();
+        uploadProperties.setMaxFileSize(IMAGE_SIZE);
+        ingestor = new StreamingImageIngestor(storageService, uploadProperties);
+    }
+
+    /**
+     * The whole body read into memory, as a {@code MultipartFile} holds it, then checked and stored.
+     */
+    @Benchmark
+    public void buffered(Blackhole blackhole) throws Exception {
+        byte[] body = new ByteArrayInputStream(image).readAllBytes();
+        String contentType = TIKA.detect(new ByteArrayInputStream(body));
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        storageService.storeStream(new ByteArrayInputStream(body), KEY, contentType, body.length);
+        blackhole.consume(sha256);
+    }
+
+    @Benchmark
+    public void streamedKnownLength(Blackhole blackhole) {
+        blackhole.consume(ingestor.ingest(new ByteArrayInputStream(image), image.length, KEY));
+    }
+
+    @Benchmark
+    public void streamedUnknownLength(Blackhole blackhole) {
+        blackhole.consume(ingestor.ingest(new ByteArrayInputStream(image), -1L, KEY));
+    }
+
+    /**
+     * An {@link S3Client} that consumes request bodies like the network would and answers with empty responses.
+     */
+    private static S3Client drainingS3Client() {
+        return (S3Client) Proxy.newProxyInstance(StreamingUploadBenchmark.class.getClassLoader(),
+                new Class<?>[] {S3Client.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "putObject" -> {
+                        drain((RequestBody) args[1]);
+                        yield PutObjectResponse.builder().eTag("etag").build();
+                    }
+                    case "createMultipartUpload" -> CreateMultipartUploadResponse.builder().uploadId("upload").build();
+                    case "uploadPart" -> {
+                        drain((RequestBody) args[1]);
+                        yield UploadPartResponse.builder().eTag("etag").build();
+                    }
+                    case "completeMultipartUpload" -> CompleteMultipartUploadResponse.builder().build();
+                    case "abortMultipartUpload" -> AbortMultipartUploadResponse.builder().build();
+                    case "serviceName" -> "s3";
+                    default -> null;
+                });
+    }
+
+    private static void drain(RequestBody body) throws IOException {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.autotrader.autotraderbackend.benchmark;
+
+import com.autotrader.autotraderbackend.config.ThrottledDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed browse and upload traffic at a fixed 512 MB heap, served by a Tomcat-sized pool of 200 platform
+ * threads or by one virtual thread per request, in front of a 10-connection Hikari pool. Browsing holds a
+ * connection for a query; uploading buffers a 256 KB image while waiting on a simulated S3 PUT, then records
+ * it. With virtual threads all requests are in flight at once, so {@code virtual-throttled} puts the
+ * {@link ThrottledDataSource} in front of the pool to queue them instead of letting them race for connections.
+ *
+ * <p>Run with {@code ./gradlew jmh -Djmh.includes=VirtualThreadRequestBenchmark}; add {@code profilers = ['gc']}
+ * to the {@code jmh} block in {@code build.gradle} to compare allocation and GC time as well.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class VirtualThreadRequestBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int UPLOAD_PERCENT = 20;
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int IMAGE_SIZE = 256 * 1024;
+    private static final long QUERY_MILLIS = 2;
+    private static final long S3_PUT_MILLIS = 20;
+
+    @Param({"platform", "virtual", "virtual-throttled"})
+    public String mode;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:virtual-thread-requests;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        pool.setConnectionTimeout(Duration.ofSeconds(30).toMillis());
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS listing_media (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "listing_id BIGINT NOT NULL, file_key VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_listing_media_listing ON listing_media(listing_id)");
+            statement.execute("INSERT INTO listing_media (listing_id, file_key) "
+                    + "SELECT X % 500, 'listings/' || (X % 500) || '/' || X || '.jpg' FROM SYSTEM_RANGE(1, 5000)");
+        }
+
+        dataSource = "virtual-throttled".equals(mode)
+                ? new ThrottledDataSource(pool, POOL_SIZE, Duration.ofSeconds(30))
+                : pool;
+        executor = "platform".equals(mode)
+                ? Executors.newFixedThreadPool(PLATFORM_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+        pool.close();
+    }
+
+    /**
+     * One burst of {@value #REQUESTS} requests, {@value #UPLOAD_PERCENT}% of them uploads.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void mixedTraffic(Blackhole blackhole) throws Exception {
+        List<Callable<Integer>> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            long listingId = i % 500;
+            requests.add(i % 100 < UPLOAD_PERCENT ? () -> upload(listingId) : () -> browse(listingId));
+        }
+        for (Future<Integer> response : executor.invokeAll(requests)) {
+            blackhole.consume(response.get());
+        }
+    }
+
+    private int browse(long listingId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement query = connection.prepareStatement(
+                     "SELECT file_key FROM listing_media WHERE listing_id = ?")) {
+            query.setLong(1, listingId);
+            int media = 0;
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    media += rows.getString(1).length();
+                }
+            }
+            // Round trip to a database server
+            Thread.sleep(QUERY_MILLIS);
+            return media;
+        }
+    }
+
+    private int upload(long listingId) throws Exception {
+        byte[] image = new byte[IMAGE_SIZE];
+        image[0] = (byte) listingId;
+        // PUT to S3, with the request body held in memory
+        Thread.sleep(S3_PUT_MILLIS);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO listing_media (listing_id, file_key) VALUES (?, ?)")) {
+            insert.setLong(1, listingId);
+            insert.setString(2, "listings/" + listingId + "/upload.jpg");
+            Thread.sleep(QUERY_MILLIS);
+            return insert.executeUpdate() + image[0];
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.mapper.CarListingMapper;
+import com.autotrader.autotraderbackend.model.*;
+import com.autotrader.autotraderbackend.service.storage.NoOpStorageService;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of rendering a page of public listings: managed entities loaded with
+ * {@link CarListingRepositoryCustom#findAllForDisplay} versus the read-only projections of
+ * {@link CarListingRepositoryCustom#findSummariesForDisplay}, both mapped to responses.
+ * Each invocation runs in its own read-only session, like a request in a read-only transaction.
+ *
+ * <p>Lives in the repository package to reach the package-private fragment implementation.
+ * Run with {@code ./gradlew jmh -Djmh.includes=ListingReadModelBenchmark}; add {@code profilers = ['gc']}
+ * to the {@code jmh} block to report allocation per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListingReadModelBenchmark {
+
+    private static final int LISTINGS = 500;
+    private static final int MEDIA_PER_LISTING = 10;
+    private static final String DESCRIPTION = "Well maintained, full service history, single owner. ".repeat(40);
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+    private CarListingMapper mapper;
+    private List<Long> pageIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:listing-read-model;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.SHOW_SQL, "false");
+        for (Class<?> entity : List.of(Role.class, User.class, Country.class, Governorate.class, Location.class,
+                CarBrand.class, CarModel.class, CarTrim.class, CarCondition.class, BodyStyle.class, Transmission.class,
+                FuelType.class, DriveType.class, SellerType.class, CarListing.class, ListingMedia.class, Favorite.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        sessionFactory = configuration.buildSessionFactory();
+        mapper = new CarListingMapper(new NoOpStorageService());
+        pageIds = seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole blackhole) {
+        try (Session session = openReadOnlySession()) {
+            session.beginTransaction();
+            List<CarListing> listings = new CarListingRepositoryCustomImpl(session).findAllForDisplay(pageIds);
+            blackhole.consume(mapper.toCarListingResponses(listings));
+            session.getTransaction().commit();
+        }
+    }
+
+    @Benchmark
+    public void projection(Blackhole blackhole) {
+        try (Session session = openReadOnlySession()) {
+            session.beginTransaction();
+            var summaries = new CarListingRepositoryCustomImpl(session).findSummariesForDisplay(pageIds);
+            blackhole.consume(mapper.toCarListingResponsesFromSummaries(summaries));
+            session.getTransaction().commit();
+        }
+    }
+
+    private Session openReadOnlySession() {
+        // Same session settings Spring applies to @Transactional(readOnly = true)
+        Session session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
+    private List<Long> seed() {
+        List<Long> ids = new ArrayList<>(LISTINGS);
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            Country country = new Country();
+            session.persist(country);
+            Governorate governorate = new Governorate();
+            governorate.setDisplayNameEn("Damascus");
+            governorate.setDisplayNameAr("دمشق");
+            governorate.setSlug("damascus");
+            governorate.setCountry(country);
+            governorate.setIsActive(true);
+            session.persist(governorate);
+            Location location = new Location();
+            location.setDisplayNameEn("Mazzeh");
+            location.setDisplayNameAr("المزة");
+            location.setSlug("mazzeh");
+            location.setGovernorate(governorate);
+            session.persist(location);
+
+            User seller = new User();
+            seller.setUsername("benchmark-seller");
+            seller.setEmail("seller@example.com");
+            seller.setPassword("password");
+            session.persist(seller);
+
+            CarBrand brand = new CarBrand();
+            brand.setName("toyota");
+            brand.setSlug("toyota");
+            brand.setDisplayNameEn("Toyota");
+            brand.setDisplayNameAr("تويوتا");
+            session.persist(brand);
+            CarModel model = new CarModel();
+            model.setBrand(brand);
+            model.setName("camry");
+            model.setSlug("toyota-camry");
+            model.setDisplayNameEn("Camry");
+            model.setDisplayNameAr("كامري");
+            session.persist(model);
+
+            for (int i = 0; i < LISTINGS; i++) {
+                CarListing listing = new CarListing();
+                listing.setTitle("Toyota Camry " + i);
+                listing.setModel(model);
+                listing.setModelYear(2015 + i % 10);
+                listing.setMileage(10000 + i * 100);
+                listing.setPrice(BigDecimal.valueOf(15000 + i));
+                listing.setDescription(DESCRIPTION);
+                listing.setBrandNameEn("Toyota");
+                listing.setBrandNameAr("تويوتا");
+                listing.setModelNameEn("Camry");
+                listing.setModelNameAr("كامري");
+                listing.setGovernorate(governorate);
+                listing.setGovernorateNameEn("Damascus");
+                listing.setGovernorateNameAr("دمشق");
+                listing.setLocation(location);
+                listing.setSeller(seller);
+                listing.setApproved(true);
+                listing.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+                for (int m = 0; m < MEDIA_PER_LISTING; m++) {
+                    ListingMedia media = new ListingMedia();
+                    media.setCarListing(listing);
+                    media.setFileKey("listings/" + i + "/" + m + ".jpg");
+                    media.setFileName(m + ".jpg");
+                    media.setContentType("image/jpeg");
+                    media.setSize(150_000L);
+                    media.setSortOrder(m);
+                    media.setIsPrimary(m == 0);
+                    media.setMediaType("image");
+                    listing.addMedia(media);
+                }
+                session.persist(listing);
+                ids.add(listing.getId());
+            }
+            session.getTransaction().commit();
+        }
+        return ids.subList(0, pageSize);
+    }
+}
@@ -0,0 +1,154 @@
+package com.autotrader.autotraderbackend.security.jwt;
+
+import com.autotrader.autotraderbackend.config.JwtAuthenticationProperties;
+import com.autotrader.autotraderbackend.model.Role;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.autotrader.autotraderbackend.security.services.UserDetailsServiceImpl;
+import com.autotrader.autotraderbackend.security.services.UserStateCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times authenticating one request with a bearer token three ways: as {@link AuthTokenFilter} used to,
+ * validating and then parsing the token again with a key and parser rebuilt on each call before loading
+ * the user; with the cached parser, parsing once but still loading the user; and from the token's ID and
+ * role claims, checking the user's existence through {@link UserStateCache}.
+ *
+ * <p>Users are stored in an in-memory H2 database behind a Spring Data repository, so the loading paths
+ * include a real query. Lives in the filter's package to call {@code doFilterInternal} directly.
+ * Run with {@code ./gradlew jmh -Djmh.includes=AuthTokenFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthTokenFilterBenchmark {
+
+    private static final int USERS = 1000;
+    private static final String SECRET = "YXV0b3RyYWRlclNlY3JldEtleTEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MA==";
+
+    private SessionFactory sessionFactory;
+    private UserDetailsServiceImpl userDetailsService;
+    private AuthTokenFilter loadingFilter;
+    private AuthTokenFilter claimsFilter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain filterChain;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:auth-token-filter;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.SHOW_SQL, "false");
+        for (Class<?> entity : List.of(Role.class, User.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        sessionFactory = configuration.buildSessionFactory();
+        User user = seed();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+        UserRepository userRepository = new JpaRepositoryFactory(entityManager).getRepository(UserRepository.class);
+        userDetailsService = new UserDetailsServiceImpl();
+        setField(userDetailsService, "userRepository", userRepository);
+
+        JwtUtils jwtUtils = new JwtUtils();
+        setField(jwtUtils, "jwtSecret", SECRET);
+        setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        token = jwtUtils.generateJwtTokenForUser(user);
+
+        JwtAuthenticationProperties properties = new JwtAuthenticationProperties();
+        loadingFilter = new AuthTokenFilter(jwtUtils, userDetailsService);
+        claimsFilter = new AuthTokenFilter(jwtUtils, userDetailsService, new UserStateCache(userRepository, properties),
+                properties);
+
+        request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class},
+                (proxy, method, args) -> "getHeader".equals(method.getName()) && "Authorization".equals(args[0])
+                        ? "Bearer " + token : null);
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> null);
+        filterChain = (req, res) -> { };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * The previous filter: validate, parse again for the username, then load the user with its roles.
+     */
+    @Benchmark
+    public void validateParseAndLoad(Blackhole blackhole) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Key usernameKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String username = Jwts.parserBuilder().setSigningKey(usernameKey).build().parseClaimsJws(token).getBody().getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        blackhole.consume(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @Benchmark
+    public void parseOnceAndLoad(Blackhole blackhole) throws Exception {
+        authenticate(loadingFilter, blackhole);
+    }
+
+    @Benchmark
+    public void claimsAuthentication(Blackhole blackhole) throws Exception {
+        authenticate(claimsFilter, blackhole);
+    }
+
+    private void authenticate(AuthTokenFilter filter, Blackhole blackhole) throws Exception {
+        filter.doFilterInternal(request, response, filterChain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private User seed() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Role role = new Role("ROLE_USER");
+            session.persist(role);
+            User user = null;
+            for (int i = 0; i < USERS; i++) {
+                user = new User("user" + i, "user" + i + "@example.com", "{noop}password");
+                user.getRoles().add(role);
+                session.persist(user);
+            }
+            session.getTransaction().commit();
+            return user;
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
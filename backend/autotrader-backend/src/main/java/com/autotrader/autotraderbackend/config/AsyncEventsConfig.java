@@ -1,59 +1,62 @@
 package com.autotrader.autotraderbackend.config;
 
+import com.autotrader.autotraderbackend.events.InstrumentedEventMulticaster;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.ApplicationEventMulticaster;
-import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.Executor;
+import java.time.Duration;
 
 /**
  * Configuration class for asynchronous event handling.
- * Enables asynchronous event processing for listing events.
+ * Dispatches application events to their listeners on a bounded executor.
  * Also configures transaction management for async events.
  */
 @Configuration
-@EnableAsync
 @EnableTransactionManagement
 @Slf4j
 public class AsyncEventsConfig {
 
     /**
-     * Creates an application event multicaster that uses
-     * an asynchronous task executor to dispatch events.
+     * Creates an application event multicaster that dispatches events to their listeners on a bounded
+     * executor, see {@link EventDispatchProperties}. Listeners run there directly rather than via @Async,
+     * so each event is handed off once.
      */
     @Bean(name = "applicationEventMulticaster")
-    public ApplicationEventMulticaster applicationEventMulticaster() {
-        SimpleApplicationEventMulticaster eventMulticaster = new SimpleApplicationEventMulticaster();
-        eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor("events-"));
-        log.info("Configured asynchronous event multicaster");
+    public InstrumentedEventMulticaster applicationEventMulticaster(EventDispatchProperties properties) {
+        InstrumentedEventMulticaster eventMulticaster = new InstrumentedEventMulticaster(properties.getListenerConcurrency());
+        if (properties.isVirtualThreads()) {
+            // Publishers wait once maxConcurrency listeners are running
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("events-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(Math.max(1, properties.getMaxConcurrency()));
+            eventMulticaster.setTaskExecutor(executor);
+            log.info("Configured event multicaster on virtual threads, at most {} concurrent listeners",
+                    executor.getConcurrencyLimit());
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(properties.getCorePoolSize());
+            executor.setMaxPoolSize(Math.max(properties.getCorePoolSize(), properties.getMaxPoolSize()));
+            executor.setQueueCapacity(properties.getQueueCapacity());
+            executor.setThreadNamePrefix("events-");
+            executor.setRejectedExecutionHandler(eventMulticaster.overflowHandler(
+                    properties.getOverflowPolicy(), Duration.ofMillis(properties.getBlockTimeoutMillis())));
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(10);
+            executor.initialize();
+            eventMulticaster.setTaskExecutor(executor);
+            log.info("Configured event multicaster with pool size {}-{}, queue capacity {} and overflow policy {}",
+                    executor.getCorePoolSize(), executor.getMaxPoolSize(), properties.getQueueCapacity(),
+                    properties.getOverflowPolicy());
+        }
         return eventMulticaster;
     }
 
-    /**
-     * Creates a task executor for methods annotated with @Async.
-     * This provides more control over the thread pool and error handling.
-     */
-    @Bean
-    public Executor asyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(3); // Minimum number of threads to keep alive
-        executor.setMaxPoolSize(10);  // Maximum pool size to handle spikes
-        executor.setQueueCapacity(25); // Queue capacity before rejecting
-        executor.setThreadNamePrefix("async-events-");
-        executor.initialize();
-        log.info("Configured async executor for @Async methods with pool size {}-{}", 
-                executor.getCorePoolSize(), executor.getMaxPoolSize());
-        return executor;
-    }
-    
     /**
      * Creates a transaction template for programmatic transaction management in async contexts.
      * This allows async operations to properly interact with the database using transactions.
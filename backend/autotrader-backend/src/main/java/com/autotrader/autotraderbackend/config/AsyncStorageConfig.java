@@ -0,0 +1,86 @@
+package com.autotrader.autotraderbackend.config;
+
+import com.autotrader.autotraderbackend.service.storage.AsyncStorageService;
+import com.autotrader.autotraderbackend.service.storage.BlockingAsyncStorageService;
+import com.autotrader.autotraderbackend.service.storage.PresignedUrlCache;
+import com.autotrader.autotraderbackend.service.storage.S3AsyncStorageService;
+import com.autotrader.autotraderbackend.service.storage.StorageConfigurationManager;
+import com.autotrader.autotraderbackend.service.storage.StorageObjectCache;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the non-blocking storage operations. With S3 and {@code storage.s3.async.enabled=true} they
+ * use an {@link S3AsyncClient} on a Netty connection pool; otherwise they run the blocking {@link StorageService}.
+ */
+@Configuration
+@Slf4j
+public class AsyncStorageConfig {
+
+    private static final String S3_ASYNC_ENABLED =
+            "'${storage.s3.enabled:true}' == 'true' and '${storage.s3.async.enabled:false}' == 'true'";
+
+    /**
+     * Create the S3 async storage service with its own client and completion threads.
+     */
+    @Bean
+    @ConditionalOnExpression(S3_ASYNC_ENABLED)
+    public S3AsyncStorageService s3AsyncStorageService(StorageProperties properties, StorageService storageService,
+                                                       StorageConfigurationManager configManager,
+                                                       PresignedUrlCache presignedUrlCache,
+                                                       StorageObjectCache objectCache) {
+        StorageProperties.S3 s3Props = properties.getS3();
+        StorageProperties.Async async = s3Props.getAsync();
+        int threads = Math.max(1, async.getCompletionThreads());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("storage-async-"));
+
+        log.info("Creating S3AsyncClient bean. Endpoint: {}, Region: {}, max concurrency: {}, completion threads: {}",
+                s3Props.getEndpointUrl(), s3Props.getRegion(), async.getMaxConcurrency(), threads);
+        S3AsyncClient s3AsyncClient = S3AsyncClient.builder()
+                .endpointOverride(URI.create(s3Props.getEndpointUrl()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(
+                                s3Props.getAccessKeyId(),
+                                s3Props.getSecretAccessKey()
+                        )
+                ))
+                .region(Region.of(s3Props.getRegion()))
+                .forcePathStyle(s3Props.isPathStyleAccessEnabled())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(async.getMaxConcurrency())
+                        .maxPendingConnectionAcquires(async.getMaxPendingConnectionAcquires())
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(async.getConnectionAcquisitionTimeoutSeconds())))
+                // Callbacks must not run on the Netty event loop, where blocking would stall other requests
+                .asyncConfiguration(configuration -> configuration
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, executor))
+                .build();
+        return new S3AsyncStorageService(s3AsyncClient, storageService, configManager, presignedUrlCache, objectCache, executor);
+    }
+
+    /**
+     * Run the non-blocking operations on the configured blocking storage service.
+     */
+    @Bean
+    @ConditionalOnExpression("!(" + S3_ASYNC_ENABLED + ")")
+    public AsyncStorageService blockingAsyncStorageService(StorageService storageService) {
+        log.info("Creating BlockingAsyncStorageService bean around {}", storageService.getClass().getSimpleName());
+        return new BlockingAsyncStorageService(storageService);
+    }
+}
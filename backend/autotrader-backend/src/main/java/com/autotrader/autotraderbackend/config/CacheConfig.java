@@ -1,18 +1,77 @@
 package com.autotrader.autotraderbackend.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded, instrumented caches for {@code @Cacheable}. Every cache records statistics, so Actuator
+ * exports its hits, misses, evictions and size as {@code cache.*} metrics tagged with the cache name.
+ */
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfig {
 
+    /**
+     * Caches used by the services. They are created up front so their metrics are registered at startup.
+     */
+    static final List<String> CACHE_NAMES = List.of("favorites", "locations", "locationsByCountry", "locationsByGovernorate");
+
     @Bean
-    public CacheManager cacheManager() {
-        // Using simple in-memory cache. For production, consider using Redis or similar
-        return new ConcurrentMapCacheManager("favorites");
+    public CacheManager cacheManager(CacheTuningProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Used for any cache name that is not registered below
+        cacheManager.setCaffeine(caffeine(properties.getDefaults()));
+
+        Set<String> cacheNames = new LinkedHashSet<>(CACHE_NAMES);
+        cacheNames.addAll(properties.getSpecs().keySet());
+        for (String cacheName : cacheNames) {
+            CacheTuningProperties.Spec spec = properties.specFor(cacheName);
+            cacheManager.registerCustomCache(cacheName, caffeine(spec).build());
+            log.info("Configured cache '{}': maximumSize={}, maximumWeight={}, expireAfterWrite={}, expireAfterAccess={}",
+                    cacheName, spec.getMaximumSize(), spec.getMaximumWeight(), spec.getExpireAfterWrite(), spec.getExpireAfterAccess());
+        }
+        return cacheManager;
+    }
+
+    static Caffeine<Object, Object> caffeine(CacheTuningProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(CacheConfig::weigh);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        return builder;
+    }
+
+    /**
+     * Weigh a cached value by the number of elements it holds, so a cache of location lists is bounded
+     * by the locations it keeps rather than by the number of lists.
+     */
+    static int weigh(Object key, Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
     }
 }
@@ -0,0 +1,42 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and expiry settings for the caches behind Spring's {@code @Cacheable}, per cache name.
+ * Caches without an entry in {@code specs} use {@code defaults}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class CacheTuningProperties {
+    private Spec defaults = new Spec(1000L, null, Duration.ofMinutes(10), null);
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    public Spec specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, defaults);
+    }
+
+    /**
+     * Bounds of one cache. Set either {@code maximumSize} (entries) or {@code maximumWeight}; the weight of an
+     * entry is the number of elements of a cached collection or map, and 1 for any other value.
+     * If both are set, the weight bound wins.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+        private Long maximumSize;
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+    }
+}
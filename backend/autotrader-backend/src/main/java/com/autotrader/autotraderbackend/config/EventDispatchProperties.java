@@ -0,0 +1,37 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for dispatching application events to their listeners. Listeners run on a pool of
+ * {@code corePoolSize}-{@code maxPoolSize} threads with a queue of {@code queueCapacity} events, or with
+ * {@code virtualThreads} on one virtual thread each, at most {@code maxConcurrency} at a time. When the queue
+ * is full, the publisher either runs the listener itself ({@code CALLER_RUNS}) or waits up to
+ * {@code blockTimeoutMillis} for space before doing so ({@code BLOCK}). {@code listenerConcurrency} caps the
+ * concurrent invocations of single listeners, keyed by {@code Class.method}, e.g.
+ * {@code ListingApprovedListener.handleListingApproved}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.events.dispatch")
+@Data
+public class EventDispatchProperties {
+
+    public enum OverflowPolicy {
+        CALLER_RUNS,
+        BLOCK
+    }
+
+    private boolean virtualThreads = false;
+    private int corePoolSize = 4;
+    private int maxPoolSize = 16;
+    private int queueCapacity = 1000;
+    private int maxConcurrency = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+    private long blockTimeoutMillis = 5000;
+    private Map<String, Integer> listenerConcurrency = new HashMap<>();
+}
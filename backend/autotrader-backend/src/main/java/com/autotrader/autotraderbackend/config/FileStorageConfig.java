@@ -1,7 +1,9 @@
 package com.autotrader.autotraderbackend.config;
 
+import com.autotrader.autotraderbackend.service.storage.PresignedUrlCache;
 import com.autotrader.autotraderbackend.service.storage.S3StorageService;
 import com.autotrader.autotraderbackend.service.storage.StorageConfigurationManager;
+import com.autotrader.autotraderbackend.service.storage.StorageObjectCache;
 import com.autotrader.autotraderbackend.service.storage.StorageUrlGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -27,10 +29,12 @@ public class FileStorageConfig {
      * Create an S3 storage service.
      */
     @Bean
-    public S3StorageService s3StorageService(S3Client s3Client, StorageConfigurationManager configManager, StorageUrlGenerator urlGenerator) {
-        log.info("Creating S3StorageService bean with configuration manager and URL generator");
+    public S3StorageService s3StorageService(S3Client s3Client, StorageConfigurationManager configManager,
+                                             StorageUrlGenerator urlGenerator, PresignedUrlCache presignedUrlCache,
+                                             StorageObjectCache objectCache) {
+        log.info("Creating S3StorageService bean with configuration manager, URL generator, pre-signed URL cache and object cache");
         // The init() method will be called by @PostConstruct in S3StorageService
-        return new S3StorageService(s3Client, configManager, urlGenerator);
+        return new S3StorageService(s3Client, configManager, urlGenerator, presignedUrlCache, objectCache);
     }
 
     /**
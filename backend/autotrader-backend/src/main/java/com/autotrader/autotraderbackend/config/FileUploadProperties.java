@@ -11,6 +11,8 @@ import java.util.Set;
 public class FileUploadProperties {
     private long maxFileSize = 5242880; // 5MB default
     private String imageBasePath = "listings";
+    private long directUploadExpirationSeconds = 900; // Lifetime of pre-signed direct upload URLs
+    private boolean contentAddressedStorage = false; // Key images by content hash and store each distinct image once
     private Set<String> allowedTypes = Set.of(
         "image/jpeg",
         "image/png",
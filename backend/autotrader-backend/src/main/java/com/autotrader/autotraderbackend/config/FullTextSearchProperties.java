@@ -0,0 +1,17 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for keyword search ({@code q}) over listings. When enabled, keywords are matched against the
+ * PostgreSQL full-text index and results are ranked by relevance; this requires PostgreSQL. When disabled,
+ * every keyword must occur in the title, description, brand or model name, found with {@code LIKE}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.search.full-text")
+@Data
+public class FullTextSearchProperties {
+    private boolean enabled = false;
+}
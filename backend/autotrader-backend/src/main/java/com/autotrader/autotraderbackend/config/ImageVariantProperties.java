@@ -0,0 +1,37 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the background generation of resized listing image variants.
+ * At most {@code workers} images are decoded at once and {@code queueCapacity} more wait; a submission
+ * that finds the queue full waits up to {@code submitTimeoutMillis} before the image is skipped.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.media.variants")
+@Data
+public class ImageVariantProperties {
+    private boolean enabled = true;
+    private int workers = 2;
+    private int queueCapacity = 100;
+    private long submitTimeoutMillis = 2000;
+    private float jpegQuality = 0.8f;
+    private int maxAttempts = 3;
+    private long retryBackoffMillis = 500;
+    /**
+     * Largest image in pixels (width × height) that is decoded; a decoded pixel takes 4 bytes or more.
+     */
+    private long maxPixels = 40_000_000;
+    /**
+     * Maximum width in pixels of each variant by name. Images are never upscaled.
+     */
+    private Map<String, Integer> widths = new LinkedHashMap<>(Map.of(
+            "card", 480,
+            "gallery", 1024,
+            "full", 1920));
+}
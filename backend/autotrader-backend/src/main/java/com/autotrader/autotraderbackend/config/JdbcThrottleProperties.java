@@ -0,0 +1,20 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the limiter in front of the JDBC connection pool. At most {@code maxConcurrent} threads
+ * (by default the pool's maximum size) hold or wait for a pooled connection; others queue in arrival order
+ * for up to {@code acquireTimeoutMillis}. Meant for virtual threads, which are cheap enough that thousands
+ * of them can pile onto a pool of a few dozen connections.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.throttle")
+@Data
+public class JdbcThrottleProperties {
+    private boolean enabled = false;
+    private int maxConcurrent = 0;
+    private long acquireTimeoutMillis = 30000;
+}
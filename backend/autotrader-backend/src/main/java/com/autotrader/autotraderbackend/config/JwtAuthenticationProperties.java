@@ -0,0 +1,22 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for authenticating requests from JWT claims.
+ *
+ * <p>With {@code claimsAuthentication} enabled, a token carrying the user ID and roles is authenticated
+ * without loading the user; only whether the user still exists is checked, through a cache that keeps
+ * each answer for {@code userStateTtlSeconds}. Role changes therefore take effect with the next token.
+ * Tokens without these claims are always authenticated by loading the user.</p>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.jwt")
+@Data
+public class JwtAuthenticationProperties {
+    private boolean claimsAuthentication = true;
+    private long userStateTtlSeconds = 30;
+    private long userStateMaxEntries = 100_000;
+}
@@ -0,0 +1,22 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the delivery of listing events queued in the {@code outbox_events} table. Events whose
+ * listeners fail are retried with a backoff doubling from {@code retryBackoffMillis} up to
+ * {@code maxRetryBackoffMillis}, and dropped after {@code maxAttempts}. When disabled, events are published
+ * to their listeners immediately, before the publishing transaction commits.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.events.outbox")
+@Data
+public class ListingEventOutboxProperties {
+    private boolean enabled = true;
+    private int batchSize = 100;
+    private int maxAttempts = 10;
+    private long retryBackoffMillis = 1000;
+    private long maxRetryBackoffMillis = 300000;
+}
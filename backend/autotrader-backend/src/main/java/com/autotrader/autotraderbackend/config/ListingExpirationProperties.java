@@ -0,0 +1,20 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the scheduled expiration of listings past their expiration date. Listings are expired
+ * {@code batchSize} at a time, one transaction per batch, so row locks are held only briefly. The job runs on
+ * one instance at a time, which holds its lock for at most {@code lockTimeoutMillis}; a run stops early once
+ * it would outlast that.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.listing.expiration")
+@Data
+public class ListingExpirationProperties {
+    private boolean enabled = true;
+    private int batchSize = 500;
+    private long lockTimeoutMillis = 600000;
+}
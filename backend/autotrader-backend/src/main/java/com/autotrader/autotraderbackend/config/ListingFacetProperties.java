@@ -0,0 +1,27 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the listing facet counts: the bucket boundaries of the range facets and the
+ * short-lived cache of computed counts. Bucket edges must be ascending; {@code n} edges yield
+ * {@code n + 1} buckets, the first and last of them open-ended.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.listing.facets")
+@Data
+public class ListingFacetProperties {
+    private long cacheTtlSeconds = 30;
+    private int cacheMaxEntries = 1000;
+    private List<Integer> modelYearBucketEdges = new ArrayList<>(List.of(2000, 2010, 2015, 2020));
+    private List<BigDecimal> priceBucketEdges = new ArrayList<>(List.of(
+            BigDecimal.valueOf(5000), BigDecimal.valueOf(10000), BigDecimal.valueOf(20000),
+            BigDecimal.valueOf(30000), BigDecimal.valueOf(50000)));
+    private List<Integer> mileageBucketEdges = new ArrayList<>(List.of(25000, 50000, 100000, 150000, 200000));
+}
@@ -0,0 +1,24 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the response cache of the first pages of the public listing endpoints.
+ * Only pages with a number below {@code maxPages} and at most {@code maxPageSize} listings are cached.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.listing.page-cache")
+@Data
+public class ListingPageCacheProperties {
+    private boolean enabled = true;
+    private long ttlSeconds = 30;
+    private int maxEntries = 500;
+    private int maxPages = 3;
+    private int maxPageSize = 50;
+    /**
+     * How long a request waits for a concurrent load of the same page before loading it itself.
+     */
+    private long loadWaitMillis = 5000;
+}
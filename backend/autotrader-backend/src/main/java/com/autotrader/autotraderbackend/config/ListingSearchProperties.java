@@ -0,0 +1,18 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the optional in-process listing search index.
+ * When disabled, listing filtering always goes through the JPA Specification path.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.search.index")
+@Data
+public class ListingSearchProperties {
+    private boolean enabled = false;
+    private int loadBatchSize = 5000;
+    private long resyncIntervalMillis = 300000; // How far behind the database the index of an instance may fall
+}
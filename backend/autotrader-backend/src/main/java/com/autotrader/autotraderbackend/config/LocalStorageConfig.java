@@ -0,0 +1,36 @@
+package com.autotrader.autotraderbackend.config;
+
+import com.autotrader.autotraderbackend.service.storage.LocalFileResponder;
+import com.autotrader.autotraderbackend.service.storage.LocalFileSystemStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for local file system storage. Requires {@code storage.s3.enabled=false}, so that only
+ * one storage service is created.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "storage.local.enabled", havingValue = "true")
+public class LocalStorageConfig {
+
+    /**
+     * Create a local file system storage service.
+     */
+    @Bean
+    public LocalFileSystemStorageService localFileSystemStorageService(StorageProperties properties) {
+        log.info("Creating LocalFileSystemStorageService bean. Root directory: {}", properties.getLocal().getRootDirectory());
+        // The init() method will be called by @PostConstruct in LocalFileSystemStorageService
+        return new LocalFileSystemStorageService(properties.getLocal());
+    }
+
+    /**
+     * Create the responder that serves locally stored files.
+     */
+    @Bean
+    public LocalFileResponder localFileResponder(StorageProperties properties) {
+        return new LocalFileResponder(properties.getLocal());
+    }
+}
@@ -0,0 +1,10 @@
+package com.autotrader.autotraderbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Jobs are declared with @Scheduled on the services that own them
+}
@@ -57,6 +57,8 @@ public class SecurityConfig {
                 .requestMatchers("/service-status").permitAll()
                 .requestMatchers("/actuator/health/**").permitAll()
                 .requestMatchers("/actuator/info").permitAll()
+                // Other endpoints expose internals, and DELETE /actuator/caches flushes every cache
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api-docs").permitAll()
                 .requestMatchers("/v3/api-docs").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
@@ -65,6 +67,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-resources/**").permitAll()
                 .requestMatchers("/webjars/**").permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/files/**").permitAll()
+                // Local storage URLs are signed; LocalStorageController checks the signature
+                .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/storage/**").permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/listings/**").permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/reference-data/**").permitAll()  // This covers all reference data including governorates
                 .anyRequest().authenticated()
@@ -0,0 +1,27 @@
+package com.autotrader.autotraderbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the background deletion of storage objects queued in the {@code storage_deletions} table.
+ * Failed deletions are retried with a backoff doubling from {@code retryBackoffMillis} up to
+ * {@code maxRetryBackoffMillis}, and dropped after {@code maxAttempts}; files left behind under the listing
+ * media prefix are picked up by the reconciliation job once they are {@code orphanMinAgeMinutes} old. The job
+ * runs on one instance at a time and holds its lock for at most {@code reconcileLockTimeoutMillis}, which must
+ * outlast a full run.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.storage.deletion")
+@Data
+public class StorageDeletionProperties {
+    private boolean enabled = true;
+    private int batchSize = 1000;
+    private int maxAttempts = 10;
+    private long retryBackoffMillis = 30000;
+    private long maxRetryBackoffMillis = 3600000;
+    private boolean reconcileEnabled = true;
+    private long orphanMinAgeMinutes = 1440;
+    private long reconcileLockTimeoutMillis = 3600000;
+}
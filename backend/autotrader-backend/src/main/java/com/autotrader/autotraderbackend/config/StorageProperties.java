@@ -2,6 +2,9 @@ package com.autotrader.autotraderbackend.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Comprehensive storage configuration properties that support multiple storage backends.
  * Designed to be environment-agnostic and easily configurable between development (MinIO)
@@ -25,6 +28,11 @@ public class StorageProperties {
      */
     private General general = new General();
 
+    /**
+     * Local file system storage properties (single-node and on-prem deployments)
+     */
+    private Local local = new Local();
+
     /**
      * General storage configuration
      */
@@ -57,6 +65,7 @@ public class StorageProperties {
         private String thumbnails = "thumbnails/{originalPath}/{filename}";
         private String backups = "backups/{date}/{category}/{filename}";
         private String logs = "logs/{date}/{level}/{filename}";
+        private String contentAddressedMedia = "media/{hashPrefix}/{hash}{extension}";
 
         // Getters and Setters
         public String getListingMedia() { return listingMedia; }
@@ -75,6 +84,8 @@ public class StorageProperties {
         public void setBackups(String backups) { this.backups = backups; }
         public String getLogs() { return logs; }
         public void setLogs(String logs) { this.logs = logs; }
+        public String getContentAddressedMedia() { return contentAddressedMedia; }
+        public void setContentAddressedMedia(String contentAddressedMedia) { this.contentAddressedMedia = contentAddressedMedia; }
     }
 
     /**
@@ -89,6 +100,10 @@ public class StorageProperties {
         private String endpointUrl; // Optional: for S3 compatible storage
         private boolean pathStyleAccessEnabled = false; // Optional: for S3 compatible storage
         private long signedUrlExpirationSeconds = 3600; // Default to 1 hour
+        private int multipartPartSizeBytes = 5 * 1024 * 1024; // Part size for streamed uploads of unknown length (S3 minimum: 5 MiB)
+        private PresignCache presignCache = new PresignCache();
+        private ObjectCache objectCache = new ObjectCache();
+        private Async async = new Async();
 
         // Getter and Setter for enabled
         public boolean isEnabled() {
@@ -156,6 +171,136 @@ public class StorageProperties {
         public void setSignedUrlExpirationSeconds(long signedUrlExpirationSeconds) {
             this.signedUrlExpirationSeconds = signedUrlExpirationSeconds;
         }
+
+        public int getMultipartPartSizeBytes() {
+            return multipartPartSizeBytes;
+        }
+
+        public void setMultipartPartSizeBytes(int multipartPartSizeBytes) {
+            this.multipartPartSizeBytes = multipartPartSizeBytes;
+        }
+
+        public PresignCache getPresignCache() {
+            return presignCache;
+        }
+
+        public void setPresignCache(PresignCache presignCache) {
+            this.presignCache = presignCache;
+        }
+
+        public ObjectCache getObjectCache() {
+            return objectCache;
+        }
+
+        public void setObjectCache(ObjectCache objectCache) {
+            this.objectCache = objectCache;
+        }
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public void setAsync(Async async) {
+            this.async = async;
+        }
+    }
+
+    /**
+     * Cache for generated pre-signed URLs, so repeated reads of the same object reuse one signature
+     */
+    public static class PresignCache {
+        private boolean enabled = true;
+        private long safetyMarginSeconds = 900; // A cached URL is always valid for at least this long
+        private int maxEntries = 50000;
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getSafetyMarginSeconds() { return safetyMarginSeconds; }
+        public void setSafetyMarginSeconds(long safetyMarginSeconds) { this.safetyMarginSeconds = safetyMarginSeconds; }
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    }
+
+    /**
+     * Read-through cache for object content, so popular files are not downloaded from the bucket on every read.
+     * Small objects are kept on the heap, larger ones in memory-mapped files in a bounded local directory.
+     */
+    public static class ObjectCache {
+        private boolean enabled = false;
+        private long heapMaxBytes = 64L * 1024 * 1024;
+        private long heapMaxObjectBytes = 256L * 1024; // Larger objects go to the disk tier
+        private String diskDirectory = System.getProperty("java.io.tmpdir") + "/autotrader-object-cache";
+        private long diskMaxBytes = 2L * 1024 * 1024 * 1024;
+        private long diskMaxObjectBytes = 64L * 1024 * 1024; // Larger objects are streamed from the bucket uncached
+        private long ttlSeconds = 300; // How long other instances may serve a replaced or deleted object
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getHeapMaxBytes() { return heapMaxBytes; }
+        public void setHeapMaxBytes(long heapMaxBytes) { this.heapMaxBytes = heapMaxBytes; }
+        public long getHeapMaxObjectBytes() { return heapMaxObjectBytes; }
+        public void setHeapMaxObjectBytes(long heapMaxObjectBytes) { this.heapMaxObjectBytes = heapMaxObjectBytes; }
+        public String getDiskDirectory() { return diskDirectory; }
+        public void setDiskDirectory(String diskDirectory) { this.diskDirectory = diskDirectory; }
+        public long getDiskMaxBytes() { return diskMaxBytes; }
+        public void setDiskMaxBytes(long diskMaxBytes) { this.diskMaxBytes = diskMaxBytes; }
+        public long getDiskMaxObjectBytes() { return diskMaxObjectBytes; }
+        public void setDiskMaxObjectBytes(long diskMaxObjectBytes) { this.diskMaxObjectBytes = diskMaxObjectBytes; }
+        public long getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    }
+
+    /**
+     * Non-blocking S3 client for uploads and deletes that should not hold a request thread while waiting on the bucket.
+     * Requests share a bounded connection pool; callbacks run on a small pool of completion threads.
+     */
+    public static class Async {
+        private boolean enabled = false;
+        private int maxConcurrency = 64; // Maximum open connections to the bucket
+        private int maxPendingConnectionAcquires = 1000; // Requests waiting for a connection before new ones fail
+        private long connectionAcquisitionTimeoutSeconds = 10;
+        private int completionThreads = 8; // Threads running callbacks, which may block on the database
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+        public int getMaxPendingConnectionAcquires() { return maxPendingConnectionAcquires; }
+        public void setMaxPendingConnectionAcquires(int maxPendingConnectionAcquires) { this.maxPendingConnectionAcquires = maxPendingConnectionAcquires; }
+        public long getConnectionAcquisitionTimeoutSeconds() { return connectionAcquisitionTimeoutSeconds; }
+        public void setConnectionAcquisitionTimeoutSeconds(long connectionAcquisitionTimeoutSeconds) { this.connectionAcquisitionTimeoutSeconds = connectionAcquisitionTimeoutSeconds; }
+        public int getCompletionThreads() { return completionThreads; }
+        public void setCompletionThreads(int completionThreads) { this.completionThreads = completionThreads; }
+    }
+
+    /**
+     * Local file system storage configuration. Enabled with {@code storage.local.enabled=true} together with
+     * {@code storage.s3.enabled=false}; files are then served by the application under {@code publicUrl}.
+     */
+    public static class Local {
+        private boolean enabled = false;
+        private String rootDirectory = "uploads";
+        private String publicUrl = "/api/storage"; // URL prefix returned for stored keys
+        private List<String> immutableKeyPrefixes = new ArrayList<>(List.of("listings/", "media/", "thumbnails/", "users/", "images/"));
+        private long immutableMaxAgeSeconds = 31536000; // Cache lifetime of files under an immutable prefix (1 year)
+        private String urlSigningKey = ""; // HMAC key for served URLs; a random per-process key if blank
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getRootDirectory() { return rootDirectory; }
+        public void setRootDirectory(String rootDirectory) { this.rootDirectory = rootDirectory; }
+        public String getPublicUrl() { return publicUrl; }
+        public void setPublicUrl(String publicUrl) { this.publicUrl = publicUrl; }
+        public List<String> getImmutableKeyPrefixes() { return immutableKeyPrefixes; }
+        public void setImmutableKeyPrefixes(List<String> immutableKeyPrefixes) { this.immutableKeyPrefixes = immutableKeyPrefixes; }
+        public long getImmutableMaxAgeSeconds() { return immutableMaxAgeSeconds; }
+        public void setImmutableMaxAgeSeconds(long immutableMaxAgeSeconds) { this.immutableMaxAgeSeconds = immutableMaxAgeSeconds; }
+        public String getUrlSigningKey() { return urlSigningKey; }
+        public void setUrlSigningKey(String urlSigningKey) { this.urlSigningKey = urlSigningKey; }
     }
 
     // Main class getters and setters
@@ -182,4 +327,12 @@ public class StorageProperties {
     public void setGeneral(General general) {
         this.general = general;
     }
+
+    public Local getLocal() {
+        return local;
+    }
+
+    public void setLocal(Local local) {
+        this.local = local;
+    }
 }
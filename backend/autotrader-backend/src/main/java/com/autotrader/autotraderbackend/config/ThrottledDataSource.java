@@ -0,0 +1,151 @@
+package com.autotrader.autotraderbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that admits at most a fixed number of threads to the connection pool at a time. Waiting
+ * threads park on a fair {@link Semaphore}, which virtual threads do without occupying a carrier thread, and
+ * are served in arrival order; the pool itself only ever sees as many borrowers as it has connections.
+ * A permit is held from {@link #getConnection()} until the connection is closed.
+ *
+ * <p>Metrics: {@code jdbc.connections.throttle.waiting}, {@code jdbc.connections.throttle.wait} and
+ * {@code jdbc.connections.throttle.timeouts}.</p>
+ */
+public class ThrottledDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private volatile Timer waitTimer;
+    private volatile Counter timeouts;
+
+    public ThrottledDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Register the limiter's metrics; until then waits are not recorded.
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.connections.throttle.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit to borrow a JDBC connection")
+                .register(registry);
+        waitTimer = Timer.builder("jdbc.connections.throttle.wait")
+                .description("Time spent waiting for a permit to borrow a JDBC connection")
+                .register(registry);
+        timeouts = Counter.builder("jdbc.connections.throttle.timeouts")
+                .description("Connection requests that gave up waiting for a permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC connection", e);
+        }
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            Counter counter = timeouts;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new SQLTransientConnectionException(String.format(
+                    "No JDBC connection available within %d ms, %d threads waiting",
+                    acquireTimeout.toMillis(), permits.getQueueLength()));
+        }
+    }
+
+    /**
+     * Wrap the connection so that closing it, once, returns the permit.
+     */
+    private Connection releasing(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ThrottledDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        case "unwrap" -> {
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Throttled " + connection;
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,72 @@
+package com.autotrader.autotraderbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Support for running on virtual threads with {@code spring.threads.virtual.enabled=true}, which Spring Boot
+ * applies to Tomcat's request handling and the task executor and scheduler; event dispatch follows through
+ * {@code app.events.dispatch.virtual-threads}. The JDBC limiter ({@link ThrottledDataSource}) and the pinning
+ * monitor ({@link VirtualThreadPinningMonitor}) default to the same switch.
+ */
+@Configuration
+@Slf4j
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wrap the application's data source in a {@link ThrottledDataSource}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.throttle.enabled", havingValue = "true")
+    public static BeanPostProcessor throttledDataSourcePostProcessor(ObjectProvider<JdbcThrottleProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ThrottledDataSource) {
+                    return bean;
+                }
+                JdbcThrottleProperties throttle = properties.getObject();
+                int maxConcurrent = throttle.getMaxConcurrent() > 0 ? throttle.getMaxConcurrent() : poolSize(dataSource);
+                log.info("Limiting JDBC connection requests to {} concurrent borrowers", maxConcurrent);
+                return new ThrottledDataSource(dataSource, maxConcurrent,
+                        Duration.ofMillis(throttle.getAcquireTimeoutMillis()));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.throttle.enabled", havingValue = "true")
+    public MeterBinder jdbcThrottleMetrics(DataSource dataSource) {
+        return (MeterRegistry registry) -> {
+            if (dataSource instanceof ThrottledDataSource throttled) {
+                throttled.bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.threads.pinning-monitor.threshold-millis:20}") long thresholdMillis) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(thresholdMillis));
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+}
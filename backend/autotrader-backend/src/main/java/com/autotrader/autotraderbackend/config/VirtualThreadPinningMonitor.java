@@ -0,0 +1,115 @@
+package com.autotrader.autotraderbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically by blocking inside a
+ * {@code synchronized} block or a native frame, for longer than the threshold. Pinned threads keep a carrier
+ * from running other virtual threads, so a hot spot of this kind caps throughput at the carrier count.
+ *
+ * <p>Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Each site, the innermost frame of
+ * application code, is logged with its stack the first time it is seen and counted in
+ * {@code jvm.threads.virtual.pinned} tagged with {@code site}; {@code jvm.threads.virtual.pinned.duration}
+ * records how long threads stayed pinned.</p>
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.autotrader.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Timer pinnedDuration;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.pinnedDuration = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads stayed pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        log.info("Monitoring virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = site(frames);
+        Counter.builder("jvm.threads.virtual.pinned")
+                .tag("site", site)
+                .description("Virtual threads pinned to their carrier thread for longer than the threshold")
+                .register(meterRegistry)
+                .increment();
+        pinnedDuration.record(event.getDuration());
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:{}", event.getDuration().toMillis(), site,
+                    stack(event.getStackTrace()));
+        }
+    }
+
+    /**
+     * The innermost application frame, or the innermost frame if the stack holds no application code.
+     */
+    static String site(List<RecordedFrame> frames) {
+        RecordedFrame innermost = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (innermost == null) {
+                innermost = frame;
+            }
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return name(frame);
+            }
+        }
+        return innermost != null ? name(innermost) : "unknown";
+    }
+
+    private static String name(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+    }
+
+    private static String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " no stack trace";
+        }
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            stack.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
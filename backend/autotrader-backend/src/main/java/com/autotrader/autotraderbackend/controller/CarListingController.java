@@ -1,26 +1,40 @@
 package com.autotrader.autotraderbackend.controller;
 
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.payload.request.CompleteImageUploadRequest;
 import com.autotrader.autotraderbackend.payload.request.CreateListingRequest;
+import com.autotrader.autotraderbackend.payload.request.ImageUploadUrlRequest;
 import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
 import com.autotrader.autotraderbackend.payload.request.UpdateListingRequest;
 import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.autotrader.autotraderbackend.payload.response.CursorPageResponse;
+import com.autotrader.autotraderbackend.payload.response.ImageUploadUrlResponse;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse;
 import com.autotrader.autotraderbackend.payload.response.PageResponse;
 import com.autotrader.autotraderbackend.service.CarListingService;
 import com.autotrader.autotraderbackend.service.CarListingStatusService;
+import com.autotrader.autotraderbackend.service.ListingImageUploadService;
+import com.autotrader.autotraderbackend.service.ListingFacetService;
+import com.autotrader.autotraderbackend.service.cache.ListingPageCache;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor.IngestedImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -30,9 +44,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/listings")
@@ -44,6 +61,9 @@ public class CarListingController {
 
     private final CarListingService carListingService;
     private final CarListingStatusService carListingStatusService;
+    private final ListingFacetService listingFacetService;
+    private final ListingPageCache listingPageCache;
+    private final ListingImageUploadService listingImageUploadService;
 
     @PutMapping("/{id}/pause")
     @PreAuthorize("isAuthenticated()")
@@ -189,7 +209,7 @@ public class CarListingController {
             @ApiResponse(responseCode = "500", description = "Failed to upload file")
         }
     )
-    public ResponseEntity<?> uploadListingImage(
+    public CompletableFuture<ResponseEntity<?>> uploadListingImage(
             @Parameter(description = "ID of the listing to upload image for", required = true)
             @PathVariable Long listingId,
             @Parameter(
@@ -204,30 +224,177 @@ public class CarListingController {
         // UserDetails null check might be redundant due to @PreAuthorize, but good practice
         if (userDetails == null) {
             log.warn("Unauthorized attempt to upload image for listing ID: {} (UserDetails is null)", listingId);
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User must be logged in to upload images."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User must be logged in to upload images.")));
         }
         if (file.isEmpty()) {
             log.warn("Upload request for listing ID {} received empty file.", listingId);
-            return ResponseEntity.badRequest().body(Map.of("message", "Error: File cannot be empty!"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("message", "Error: File cannot be empty!")));
         }
+        final String username = userDetails.getUsername();
+        final CompletableFuture<String> upload;
         try {
-            // Corrected argument order: listingId, file, username
-            String imageKey = carListingService.uploadListingImage(listingId, file, userDetails.getUsername());
+            // The request thread is released while the image is stored; the response is written once it completes
+            upload = carListingService.uploadListingImageAsync(listingId, file, username);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(uploadFailure(listingId, username, e));
+        }
+        return upload.<ResponseEntity<?>>thenApply(imageKey -> {
             log.info("Successfully processed image upload for listing ID: {}. Image Key: {}", listingId, imageKey);
             // Return the key or a message. Generating signed URL here might be premature.
             return ResponseEntity.ok(Map.of("message", "File uploaded successfully", "imageKey", imageKey));
-        } catch (StorageException e) {
+        }).exceptionally(error -> uploadFailure(listingId, username,
+                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+    }
+
+    private ResponseEntity<?> uploadFailure(Long listingId, String username, Throwable e) {
+        if (e instanceof StorageException) {
             log.error("Storage exception during image upload for listing ID: {}", listingId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to upload file: " + e.getMessage()));
-        } catch (ResourceNotFoundException e) {
+        } else if (e instanceof ResourceNotFoundException) {
             log.warn("Resource not found during image upload attempt for listing ID: {}", listingId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
-        } catch (AccessDeniedException | SecurityException e) { // Catch SecurityException from service too
-             log.warn("Access denied during image upload attempt for listing ID: {} by user: {}", listingId, userDetails.getUsername());
-             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
-        } catch (Exception e) { // Catch any other unexpected errors
-            log.error("Error uploading image for listing ID {}: {}", listingId, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Error: Could not upload the file: " + e.getMessage()));
+        } else if (e instanceof AccessDeniedException || e instanceof SecurityException) { // SecurityException from service too
+            log.warn("Access denied during image upload attempt for listing ID: {} by user: {}", listingId, username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        }
+        // Any other unexpected errors
+        log.error("Error uploading image for listing ID {}: {}", listingId, e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Error: Could not upload the file: " + e.getMessage()));
+    }
+
+    @PostMapping(value = "/{listingId}/images/upload-url", consumes = "application/json")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Request a direct upload URL for a listing image",
+        description = "Returns a pre-signed URL to which the client uploads the image directly, sending the returned method and headers. "
+                + "The signature covers the declared content type and exact size. Call the complete endpoint with the returned image key afterwards. Authentication required.",
+        security = @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-token"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Upload URL issued",
+                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImageUploadUrlResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Content type or size not allowed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (e.g., not owner of the listing)"),
+            @ApiResponse(responseCode = "404", description = "Listing not found")
+        }
+    )
+    public ResponseEntity<?> createImageUploadUrl(
+            @Parameter(description = "ID of the listing to upload an image for", required = true)
+            @PathVariable Long listingId,
+            @Valid @RequestBody ImageUploadUrlRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Received request for a direct upload URL for listing ID: {}", listingId);
+        if (userDetails == null) {
+            log.warn("Unauthorized attempt to request an upload URL for listing ID: {} (UserDetails is null)", listingId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User must be logged in to upload images."));
+        }
+        try {
+            ImageUploadUrlResponse response = listingImageUploadService.createUploadUrl(listingId, request, userDetails.getUsername());
+            return ResponseEntity.ok(response);
+        } catch (InvalidFileException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Resource not found during upload URL request for listing ID: {}", listingId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (AccessDeniedException | SecurityException e) {
+            log.warn("Access denied during upload URL request for listing ID: {} by user: {}", listingId, userDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (StorageException | UnsupportedOperationException e) {
+            log.error("Could not issue upload URL for listing ID: {}", listingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to create upload URL: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/{listingId}/images/complete", consumes = "application/json")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Complete a direct listing image upload",
+        description = "Verifies the image uploaded with a URL from the upload-url endpoint and adds it to the listing's media. "
+                + "Completing the same key again is a no-op. Authentication required.",
+        security = @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-token"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Image associated with the listing.",
+                         content = @Content(mediaType = "application/json",
+                                            schema = @Schema(type = "object", example = "{\\\"message\\\": \\\"File uploaded successfully\\\", \\\"imageKey\\\": \\\"listings/123/your-image.jpg\\\"}"))),
+            @ApiResponse(responseCode = "400", description = "Key not valid for the listing, nothing uploaded, or file not an allowed image"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (e.g., not owner of the listing)"),
+            @ApiResponse(responseCode = "404", description = "Listing not found")
+        }
+    )
+    public ResponseEntity<?> completeImageUpload(
+            @Parameter(description = "ID of the listing the image was uploaded for", required = true)
+            @PathVariable Long listingId,
+            @Valid @RequestBody CompleteImageUploadRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Received request to complete a direct image upload for listing ID: {}", listingId);
+        if (userDetails == null) {
+            log.warn("Unauthorized attempt to complete an upload for listing ID: {} (UserDetails is null)", listingId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User must be logged in to upload images."));
+        }
+        try {
+            String imageKey = listingImageUploadService.completeUpload(listingId, request, userDetails.getUsername());
+            return ResponseEntity.ok(Map.of("message", "File uploaded successfully", "imageKey", imageKey));
+        } catch (InvalidFileException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Resource not found while completing upload for listing ID: {}", listingId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (AccessDeniedException | SecurityException e) {
+            log.warn("Access denied while completing upload for listing ID: {} by user: {}", listingId, userDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (StorageException | UnsupportedOperationException e) {
+            log.error("Could not verify upload for listing ID: {}", listingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to complete upload: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{listingId}/images")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Stream an image to a listing",
+        description = "Uploads the raw request body (not multipart) as a listing image. The body is streamed to storage while its type is "
+                + "detected from the file content and its size is checked, so oversized or disallowed files are rejected without being buffered. "
+                + "Prefer the upload-url endpoint where the client can upload to storage directly. Authentication required.",
+        security = @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-token"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Image stored and associated with the listing.",
+                         content = @Content(mediaType = "application/json",
+                                            schema = @Schema(type = "object", example = "{\\\"message\\\": \\\"File uploaded successfully\\\", \\\"imageKey\\\": \\\"listings/123/your-image.jpg\\\", \\\"size\\\": 1024, \\\"sha256\\\": \\\"...\\\"}"))),
+            @ApiResponse(responseCode = "400", description = "Empty file, file too large or not an allowed image"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden (e.g., not owner of the listing)"),
+            @ApiResponse(responseCode = "404", description = "Listing not found")
+        }
+    )
+    public ResponseEntity<?> streamListingImage(
+            @Parameter(description = "ID of the listing to upload an image for", required = true)
+            @PathVariable Long listingId,
+            @Parameter(description = "Original file name of the image")
+            @RequestParam(value = "fileName", required = false) String fileName,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.info("Received streamed image upload for listing ID: {} ({} bytes declared)", listingId, request.getContentLengthLong());
+        if (userDetails == null) {
+            log.warn("Unauthorized attempt to stream an image for listing ID: {} (UserDetails is null)", listingId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User must be logged in to upload images."));
+        }
+        try {
+            IngestedImage image = listingImageUploadService.uploadStream(listingId, request.getInputStream(), fileName,
+                    request.getContentLengthLong(), userDetails.getUsername());
+            return ResponseEntity.ok(Map.of("message", "File uploaded successfully", "imageKey", image.key(),
+                    "size", image.size(), "sha256", image.sha256()));
+        } catch (InvalidFileException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Resource not found during streamed upload for listing ID: {}", listingId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (AccessDeniedException | SecurityException e) {
+            log.warn("Access denied during streamed upload for listing ID: {} by user: {}", listingId, userDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (IOException | StorageException | UnsupportedOperationException e) {
+            log.error("Could not store streamed upload for listing ID: {}", listingId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to upload file: " + e.getMessage()));
         }
     }
 
@@ -243,7 +410,8 @@ public class CarListingController {
     public ResponseEntity<PageResponse<CarListingResponse>> getAllListings(
             @PageableDefault(size = 10, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
         log.info("Received request to get all approved listings. Pageable: {}", pageable);
-        Page<CarListingResponse> listingPage = carListingService.getAllApprovedListings(pageable);
+        Page<CarListingResponse> listingPage = listingPageCache.getApprovedPage(pageable,
+                () -> carListingService.getAllApprovedListings(pageable));
         PageResponse<CarListingResponse> response = new PageResponse<>(
             listingPage.getContent(),
             listingPage.getNumber(),
@@ -268,7 +436,8 @@ public class CarListingController {
             @Valid @RequestBody ListingFilterRequest filterRequest,
             @PageableDefault(size = 10, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
         log.info("Received request to filter listings. Filter: {}, Pageable: {}", filterRequest, pageable);
-        Page<CarListingResponse> listingPage = carListingService.getFilteredListings(filterRequest, pageable);
+        Page<CarListingResponse> listingPage = listingPageCache.getFilteredPage(filterRequest, pageable,
+                () -> carListingService.getFilteredListings(filterRequest, pageable));
         PageResponse<CarListingResponse> response = new PageResponse<>(
             listingPage.getContent(),
             listingPage.getNumber(),
@@ -290,6 +459,7 @@ public class CarListingController {
         }
     )
     public ResponseEntity<PageResponse<CarListingResponse>> getFilteredListingsByParams(
+            @Parameter(description = "Keywords to search titles, descriptions, brands and models for (English or Arabic)") @RequestParam(required = false) String q,
             @Parameter(description = "Brand filter") @RequestParam(required = false) String brand,
             @Parameter(description = "Model filter") @RequestParam(required = false) String model,
             @Parameter(description = "Minimum year") @RequestParam(required = false) Integer minYear,
@@ -305,6 +475,7 @@ public class CarListingController {
             @PageableDefault(size = 10, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
         log.debug("Received GET request to filter listings. Pageable: {}", pageable);
         ListingFilterRequest filterRequest = new ListingFilterRequest();
+        filterRequest.setQ(q);
         filterRequest.setBrand(brand);
         filterRequest.setModel(model);
         filterRequest.setMinYear(minYear);
@@ -317,7 +488,8 @@ public class CarListingController {
         filterRequest.setMaxMileage(maxMileage);
         filterRequest.setIsSold(isSold);
         filterRequest.setIsArchived(isArchived);
-        Page<CarListingResponse> listingPage = carListingService.getFilteredListings(filterRequest, pageable);
+        Page<CarListingResponse> listingPage = listingPageCache.getFilteredPage(filterRequest, pageable,
+                () -> carListingService.getFilteredListings(filterRequest, pageable));
         PageResponse<CarListingResponse> response = new PageResponse<>(
             listingPage.getContent(),
             listingPage.getNumber(),
@@ -330,6 +502,84 @@ public class CarListingController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+        summary = "Get approved listings with cursor pagination",
+        description = "Keyset (cursor) paginated variant of GET /api/listings. Pass the returned 'nextCursor' as 'cursor' to fetch the next page; the cursor keeps the sort order of the first page. Sorting is limited to one of locationId, price or createdAt. 'totalElements' is only computed when includeTotal=true.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Page of car listings with the cursor for the next page", content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field")
+        }
+    )
+    public ResponseEntity<CursorPageResponse<CarListingResponse>> getAllListingsByCursor(
+            @Parameter(description = "Cursor returned with the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Include the total number of matching listings (runs a count query)") @RequestParam(defaultValue = "false") boolean includeTotal,
+            @SortDefault(sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Sort sort) {
+        log.info("Received request to get approved listings by cursor. Size: {}, sort: {}", size, sort);
+        CursorPageResponse<CarListingResponse> response = carListingService.getAllApprovedListingsByCursor(cursor, size, sort, includeTotal);
+        log.info("Returning {} approved listings by cursor", response.getContent().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/filter/cursor")
+    @Operation(
+        summary = "Filter car listings with cursor pagination (POST)",
+        description = "Keyset (cursor) paginated variant of POST /api/listings/filter. Pass the returned 'nextCursor' as 'cursor' to fetch the next page with the same filter body. 'totalElements' is only computed when includeTotal=true.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Filtered page of car listings with the cursor for the next page", content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or sort field")
+        }
+    )
+    public ResponseEntity<CursorPageResponse<CarListingResponse>> getFilteredListingsByCursor(
+            @Valid @RequestBody ListingFilterRequest filterRequest,
+            @Parameter(description = "Cursor returned with the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Include the total number of matching listings (runs a count query)") @RequestParam(defaultValue = "false") boolean includeTotal,
+            @SortDefault(sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Sort sort) {
+        log.info("Received request to filter listings by cursor. Filter: {}, size: {}, sort: {}", filterRequest, size, sort);
+        CursorPageResponse<CarListingResponse> response = carListingService.getFilteredListingsByCursor(filterRequest, cursor, size, sort, includeTotal);
+        log.info("Returning {} filtered listings by cursor", response.getContent().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/filter/cursor")
+    @Operation(
+        summary = "Filter car listings by query parameters with cursor pagination (GET)",
+        description = "Keyset (cursor) paginated variant of GET /api/listings/filter. Accepts the same filter query parameters. Pass the returned 'nextCursor' as 'cursor' to fetch the next page. 'totalElements' is only computed when includeTotal=true.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Filtered page of car listings with the cursor for the next page", content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or sort field")
+        }
+    )
+    public ResponseEntity<CursorPageResponse<CarListingResponse>> getFilteredListingsByParamsAndCursor(
+            @ParameterObject @Valid ListingFilterRequest filterRequest,
+            @Parameter(description = "Cursor returned with the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Include the total number of matching listings (runs a count query)") @RequestParam(defaultValue = "false") boolean includeTotal,
+            @SortDefault(sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Sort sort) {
+        log.debug("Received GET request to filter listings by cursor. Size: {}, sort: {}", size, sort);
+        CursorPageResponse<CarListingResponse> response = carListingService.getFilteredListingsByCursor(filterRequest, cursor, size, sort, includeTotal);
+        log.debug("Returning {} filtered listings by cursor", response.getContent().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/facets")
+    @Operation(
+        summary = "Get listing counts per filter value",
+        description = "Returns the number of listings matching the filter query parameters per brand, model, governorate, model-year bucket, price bucket and mileage bucket, for showing counts next to filter options. Uses the same defaults as GET /api/listings/filter (approved=true, sold=false, archived=false unless overridden). Counts may be up to a few seconds stale.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Listing counts per facet value", content = @Content(schema = @Schema(implementation = ListingFacetsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter")
+        }
+    )
+    public ResponseEntity<ListingFacetsResponse> getListingFacets(@ParameterObject @Valid ListingFilterRequest filterRequest) {
+        log.debug("Received request for listing facets");
+        ListingFacetsResponse response = listingFacetService.getFacets(filterRequest);
+        log.debug("Returning listing facets over {} listings", response.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Get car listing by ID",
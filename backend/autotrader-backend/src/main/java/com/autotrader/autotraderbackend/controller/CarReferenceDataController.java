@@ -1,18 +1,24 @@
 package com.autotrader.autotraderbackend.controller;
 
 import com.autotrader.autotraderbackend.model.*;
-import com.autotrader.autotraderbackend.payload.response.CarReferenceDataResponse; // Added import
+import com.autotrader.autotraderbackend.payload.response.CarReferenceDataResponse;
 import com.autotrader.autotraderbackend.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List; // Removed java.util.Map and java.util.HashMap imports as they are no longer needed.
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/reference-data")
@@ -22,12 +28,7 @@ import java.util.List; // Removed java.util.Map and java.util.HashMap imports as
 @Tag(name = "Car Reference Data", description = "Combined endpoint for all car-related reference data")
 public class CarReferenceDataController {
 
-    private final CarConditionService carConditionService;
-    private final DriveTypeService driveTypeService;
-    private final BodyStyleService bodyStyleService;
-    private final FuelTypeService fuelTypeService;
-    private final TransmissionService transmissionService;
-    private final SellerTypeService sellerTypeService;
+    private final ReferenceDataSnapshotService referenceDataSnapshotService;
     private final CarBrandService carBrandService;
     private final CarModelService carModelService;
 
@@ -36,30 +37,32 @@ public class CarReferenceDataController {
         summary = "Get all car reference data",
         description = "Returns all car-related reference data in a single request. This includes car conditions, drive types, body styles, fuel types, transmissions, and seller types.",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Reference data retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Reference data retrieved successfully",
+                content = @Content(schema = @Schema(implementation = CarReferenceDataResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Reference data matching If-None-Match has not changed")
         }
     )
-    public ResponseEntity<CarReferenceDataResponse> getAllReferenceData() { // Changed return type
+    public ResponseEntity<byte[]> getAllReferenceData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.debug("Request received to get all car reference data");
         
-        List<CarCondition> carConditions = carConditionService.getAllConditions();
-        List<DriveType> driveTypes = driveTypeService.getAllDriveTypes();
-        List<BodyStyle> bodyStyles = bodyStyleService.getAllBodyStyles();
-        List<FuelType> fuelTypes = fuelTypeService.getAllFuelTypes();
-        List<Transmission> transmissions = transmissionService.getAllTransmissions();
-        List<SellerType> sellerTypes = sellerTypeService.getAllSellerTypes();
+        ReferenceDataSnapshotService.Snapshot snapshot = referenceDataSnapshotService.getSnapshot();
+        boolean gzip = snapshot.gzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
         
-        CarReferenceDataResponse referenceData = new CarReferenceDataResponse(
-            carConditions,
-            driveTypes,
-            bodyStyles,
-            fuelTypes,
-            transmissions,
-            sellerTypes
-        );
+        if (matchesEtag(ifNoneMatch, etag)) {
+            log.debug("Car reference data not modified");
+            return snapshotResponse(HttpStatus.NOT_MODIFIED, etag).build();
+        }
         
         log.debug("Returning all car reference data");
-        return ResponseEntity.ok(referenceData);
+        ResponseEntity.BodyBuilder response = snapshotResponse(HttpStatus.OK, etag)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snapshot.gzip() : snapshot.json());
     }
     
     @GetMapping("/brands")
@@ -94,4 +97,64 @@ public class CarReferenceDataController {
         log.debug("Returning {} active car models for brand ID: {}", models.size(), brandId);
         return ResponseEntity.ok(models);
     }
+
+    /**
+     * Start a response for the reference data snapshot. Clients may store the payload but must revalidate it,
+     * which costs a 304 as long as it is unchanged.
+     */
+    private static ResponseEntity.BodyBuilder snapshotResponse(HttpStatus status, String etag) {
+        return ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Whether an If-None-Match header matches the ETag. Uses weak comparison, as required for If-None-Match.
+     */
+    static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, i.e. lists gzip or * without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0{0,3})?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,47 +1,44 @@
 package com.autotrader.autotraderbackend.controller;
 
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Uploads and serves standalone images through the configured {@link StorageService}, under the
+ * {@code images/} key prefix. Reads are redirected to the storage URL of the image, which is served by
+ * the object store or, with local storage, by the application with range and caching support.
+ */
 @RestController
 @RequestMapping("/api/images")
 @CrossOrigin(origins = "*", maxAge = 3600)
 @Tag(name = "Images", description = "Upload and retrieve images")
 public class ImageController {
 
-    private final Path fileStorageLocation;
+    static final String KEY_PREFIX = "images/";
 
-    public ImageController(@Value("${spring.servlet.multipart.location:uploads}") String uploadDir) {
-        this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+    private final StorageService storageService;
+    private final long urlExpirationSeconds;
 
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not create the directory where uploaded images will be stored", ex);
-        }
+    public ImageController(StorageService storageService,
+                           @Value("${storage.s3.signed-url-expiration-seconds:3600}") long urlExpirationSeconds) {
+        this.storageService = storageService;
+        this.urlExpirationSeconds = urlExpirationSeconds;
     }
 
     @PostMapping("/upload")
@@ -72,70 +69,40 @@ public class ImageController {
     @GetMapping("/{fileName:.+}")
     @Operation(
         summary = "Get an image by filename",
-        description = "Downloads an image by its filename.",
+        description = "Redirects to the storage URL of an image.",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Image downloaded successfully"),
-            @ApiResponse(responseCode = "404", description = "Image not found")
+            @ApiResponse(responseCode = "302", description = "Redirect to the image"),
+            @ApiResponse(responseCode = "400", description = "Invalid filename")
         }
     )
-    public ResponseEntity<Resource> getImage(@PathVariable String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists()) {
-                String contentType = null;
-                try {
-                    contentType = Files.probeContentType(filePath);
-                } catch (IOException ex) {
-                    // Default to octet-stream if type cannot be determined
-                    contentType = "application/octet-stream";
-                }
-
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
-                }
-
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                throw new RuntimeException("File not found: " + fileName);
-            }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("File not found: " + fileName, ex);
+    public ResponseEntity<Void> getImage(@PathVariable String fileName) {
+        if (fileName.contains("..") || fileName.contains("/")) {
+            throw new StorageException("Filename contains invalid path sequence " + fileName);
         }
+        String url = storageService.getSignedUrl(KEY_PREFIX + fileName, urlExpirationSeconds);
+        return ResponseEntity.status(302).location(URI.create(url)).build();
     }
 
     private String storeFile(MultipartFile file) {
         // Normalize file name
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
 
-        try {
-            // Check if the file's name contains invalid characters
-            if (originalFileName.contains("..")) {
-                throw new RuntimeException("Filename contains invalid path sequence " + originalFileName);
-            }
-
-            // Generate a unique filename to prevent duplicates
-            String fileExtension = "";
-            if (originalFileName.contains(".")) {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            }
-
-            // Format: timestamp-uuid.extension
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-            String uniqueFileName = timestamp + "-" + UUID.randomUUID().toString() + fileExtension;
+        // Check if the file's name contains invalid characters
+        if (originalFileName.contains("..")) {
+            throw new StorageException("Filename contains invalid path sequence " + originalFileName);
+        }
 
-            // Copy file to the target location
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Generate a unique filename to prevent duplicates
+        String fileExtension = "";
+        if (originalFileName.contains(".")) {
+            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        }
 
-            return uniqueFileName;
+        // Format: timestamp-uuid.extension
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String uniqueFileName = timestamp + "-" + UUID.randomUUID().toString() + fileExtension;
 
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + originalFileName, ex);
-        }
+        storageService.store(file, KEY_PREFIX + uniqueFileName);
+        return uniqueFileName;
     }
 }
@@ -0,0 +1,74 @@
+package com.autotrader.autotraderbackend.controller;
+
+import com.autotrader.autotraderbackend.service.storage.LocalFileResponder;
+import com.autotrader.autotraderbackend.service.storage.LocalFileSystemStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Serves files of the local file system storage backend. The URLs returned by
+ * {@link LocalFileSystemStorageService#getSignedUrl} point here; the route is public, so every request must
+ * carry the expiry and signature of such a URL.
+ */
+@RestController
+@RequestMapping("/api/storage")
+@ConditionalOnProperty(name = "storage.local.enabled", havingValue = "true")
+@Tag(name = "Storage", description = "Serve locally stored files")
+public class LocalStorageController {
+
+    private final LocalFileSystemStorageService storageService;
+    private final LocalFileResponder fileResponder;
+
+    public LocalStorageController(LocalFileSystemStorageService storageService, LocalFileResponder fileResponder) {
+        this.storageService = storageService;
+        this.fileResponder = fileResponder;
+    }
+
+    /**
+     * Serve a file by its key. Supports HEAD, conditional requests and byte ranges.
+     *
+     * @param key       The key of the file, which may contain slashes
+     * @param expires   The expiry of the URL, in epoch seconds
+     * @param signature The signature of the URL
+     */
+    @GetMapping("/{*key}")
+    @Operation(
+        summary = "Get a stored file",
+        description = "Serves a stored file by its key. Supports conditional and range requests.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "File served"),
+            @ApiResponse(responseCode = "206", description = "Requested range served"),
+            @ApiResponse(responseCode = "304", description = "File not modified"),
+            @ApiResponse(responseCode = "403", description = "Missing, invalid or expired signature"),
+            @ApiResponse(responseCode = "404", description = "File not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+        }
+    )
+    public void getFile(@PathVariable String key,
+                        @RequestParam(required = false) Long expires,
+                        @RequestParam(required = false) String signature,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // The capture pattern includes the leading slash
+        String normalizedKey = key.startsWith("/") ? key.substring(1) : key;
+        if (LocalFileSystemStorageService.isTempFileKey(normalizedKey)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!storageService.isValidSignature(normalizedKey, expires, signature)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        fileResponder.respond(storageService.load(normalizedKey), normalizedKey, request, response);
+    }
+}
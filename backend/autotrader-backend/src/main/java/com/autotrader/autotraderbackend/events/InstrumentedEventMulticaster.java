@@ -0,0 +1,182 @@
+package com.autotrader.autotraderbackend.events;
+
+import com.autotrader.autotraderbackend.config.EventDispatchProperties.OverflowPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event multicaster that runs each listener on the dispatch executor, caps the concurrent invocations of
+ * single listeners and records how long they take. A listener over its cap waits for a permit on the
+ * dispatch thread, so a slow capped listener holds back the others only once the pool is saturated.
+ *
+ * <p>Metrics: {@code events.listener.duration} per listener and outcome, {@code events.dispatch.overflow}
+ * for events that found the queue full, by whether they were queued after waiting or run by the publisher,
+ * and the {@code executor.*} meters of the dispatch pool, tagged {@code name=events.dispatch}.</p>
+ */
+@Slf4j
+public class InstrumentedEventMulticaster extends SimpleApplicationEventMulticaster implements MeterBinder, DisposableBean {
+
+    private final Map<String, Semaphore> listenerPermits;
+    private final Map<ApplicationListener<?>, String> listenerNames = new ConcurrentHashMap<>();
+    private final LongAdder queuedAfterWait = new LongAdder();
+    private final LongAdder ranByCaller = new LongAdder();
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param listenerConcurrency Maximum concurrent invocations per listener, keyed by {@code Class.method};
+     *                            listeners without a positive limit are not capped
+     */
+    public InstrumentedEventMulticaster(Map<String, Integer> listenerConcurrency) {
+        Map<String, Semaphore> permits = new HashMap<>();
+        listenerConcurrency.forEach((listener, limit) -> {
+            if (limit != null && limit > 0) {
+                permits.put(listener, new Semaphore(limit));
+            }
+        });
+        this.listenerPermits = Map.copyOf(permits);
+    }
+
+    /**
+     * Handler for events arriving while the dispatch queue is full: with {@link OverflowPolicy#BLOCK}, wait up
+     * to {@code blockTimeout} for space in the queue; otherwise, or if there is still none, run the listener on
+     * the publishing thread.
+     */
+    public RejectedExecutionHandler overflowHandler(OverflowPolicy policy, Duration blockTimeout) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Event dispatch executor has been shut down");
+            }
+            if (policy == OverflowPolicy.BLOCK) {
+                try {
+                    if (pool.getQueue().offer(task, blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        queuedAfterWait.increment();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                log.warn("Event dispatch queue still full after {} ms, running listener on the publishing thread",
+                        blockTimeout.toMillis());
+            }
+            ranByCaller.increment();
+            task.run();
+        };
+    }
+
+    /**
+     * Deliver an event to its listeners one after the other on the calling thread, bypassing the dispatch
+     * executor, for publishers that must know whether delivery succeeded. Listener caps and metrics apply as
+     * usual.
+     *
+     * @throws RuntimeException The failure of the first listener that fails; later listeners are not invoked
+     */
+    public void multicastEventAndWait(ApplicationEvent event) {
+        for (ApplicationListener<?> listener : getApplicationListeners(event, ResolvableType.forInstance(event))) {
+            invokeListener(listener, event);
+        }
+    }
+
+    @Override
+    protected void invokeListener(ApplicationListener<?> listener, ApplicationEvent event) {
+        String name = listenerNames.computeIfAbsent(listener, InstrumentedEventMulticaster::listenerName);
+        Semaphore permits = listenerPermits.get(name);
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            super.invokeListener(listener, event);
+        } catch (RuntimeException | Error e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+            record(name, outcome, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        FunctionCounter.builder("events.dispatch.overflow", queuedAfterWait, LongAdder::sum)
+                .tag("outcome", "queued")
+                .description("Events that found the dispatch queue full")
+                .register(registry);
+        FunctionCounter.builder("events.dispatch.overflow", ranByCaller, LongAdder::sum)
+                .tag("outcome", "caller_runs")
+                .description("Events that found the dispatch queue full")
+                .register(registry);
+        if (getTaskExecutor() instanceof ThreadPoolTaskExecutor pool) {
+            new ExecutorServiceMetrics(pool.getThreadPoolExecutor(), "events.dispatch", Tags.empty()).bindTo(registry);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        Executor executor = getTaskExecutor();
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void record(String listener, String outcome, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            // Events published while the context starts, before the registry exists
+            return;
+        }
+        Timer.builder("events.listener.duration")
+                .tag("listener", listener)
+                .tag("outcome", outcome)
+                .description("Time spent in application event listeners")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The {@code Class.method} of an {@code @EventListener}, or the class name of other listeners.
+     */
+    static String listenerName(ApplicationListener<?> listener) {
+        if (listener instanceof ApplicationListenerMethodAdapter adapter) {
+            // e.g. com.example.FooListener.onFoo(com.example.FooEvent), unless set with @EventListener(id)
+            String id = adapter.getListenerId();
+            int parameters = id.indexOf('(');
+            if (parameters < 0) {
+                return id;
+            }
+            String method = id.substring(0, parameters);
+            int classStart = method.lastIndexOf('.', method.lastIndexOf('.') - 1);
+            return method.substring(classStart + 1);
+        }
+        return ClassUtils.getUserClass(listener).getSimpleName();
+    }
+}
@@ -0,0 +1,33 @@
+package com.autotrader.autotraderbackend.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Objects;
+
+/**
+ * Event that is published when a media item has been stored and recorded for a car listing.
+ * Carries identifiers only, as listeners run after the publishing transaction has moved on.
+ */
+@Getter
+public class ListingMediaCreatedEvent extends ApplicationEvent {
+    private final Long listingId;
+    private final String fileKey;
+    private final String mediaType;
+
+    public ListingMediaCreatedEvent(Object source, Long listingId, String fileKey, String mediaType) {
+        super(source);
+        if (Objects.isNull(fileKey)) {
+            throw new IllegalArgumentException("File key cannot be null");
+        }
+        this.listingId = listingId;
+        this.fileKey = fileKey;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ListingMediaCreatedEvent[listingId=%s, fileKey=%s, mediaType=%s]",
+            Objects.toString(listingId, "null"), fileKey, mediaType);
+    }
+}
@@ -0,0 +1,35 @@
+package com.autotrader.autotraderbackend.events;
+
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.User;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Event that is published when the searchable details of a car listing change
+ * outside of the dedicated status transitions (e.g. an edit by the seller or an unarchive).
+ */
+@Getter
+public class ListingUpdatedEvent extends ApplicationEvent {
+    private final CarListing listing;
+
+    public ListingUpdatedEvent(Object source, CarListing listing) {
+        super(source);
+        if (Objects.isNull(listing)) {
+            throw new IllegalArgumentException("CarListing cannot be null");
+        }
+        this.listing = listing;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ListingUpdatedEvent[listingId=%s, seller=%s]",
+            Objects.toString(listing.getId(), "null"),
+            Optional.ofNullable(listing.getSeller())
+                    .map(User::getUsername)
+                    .orElse("unknown"));
+    }
+}
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
@@ -38,7 +37,6 @@ public class ListingApprovedListener {
      * @param event The listing approved event (must not be null)
      */
     @EventListener
-    @Async
     public void handleListingApproved(@NonNull ListingApprovedEvent event) {
         Objects.requireNonNull(event, "ListingApprovedEvent cannot be null");
         
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
@@ -35,7 +34,6 @@ public class ListingArchivedListener {
      * @param event The listing archived event (must not be null)
      */
     @EventListener
-    @Async
     public void handleListingArchived(@NonNull ListingArchivedEvent event) {
         Objects.requireNonNull(event, "ListingArchivedEvent cannot be null");
         
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
@@ -35,7 +34,6 @@ public class ListingExpiredListener {
      * @param event The listing expired event (must not be null)
      */
     @EventListener
-    @Async
     public void handleListingExpired(@NonNull ListingExpiredEvent event) {
         Objects.requireNonNull(event, "ListingExpiredEvent cannot be null");
         
@@ -0,0 +1,30 @@
+package com.autotrader.autotraderbackend.listeners;
+
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.service.media.ImageVariantPipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queues new listing images for variant generation. Only enqueues on the event dispatch thread;
+ * decoding and resizing run on the pipeline's own bounded workers.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ListingMediaVariantListener {
+
+    private final ImageVariantPipeline imageVariantPipeline;
+
+    @EventListener
+    public void onListingMediaCreated(@NonNull ListingMediaCreatedEvent event) {
+        if (!"image".equals(event.getMediaType())) {
+            log.debug("Skipping variant generation for non-image media: {}", event);
+            return;
+        }
+        imageVariantPipeline.submit(event.getListingId(), event.getFileKey());
+    }
+}
@@ -0,0 +1,72 @@
+package com.autotrader.autotraderbackend.listeners;
+
+import com.autotrader.autotraderbackend.events.ListingApprovedEvent;
+import com.autotrader.autotraderbackend.events.ListingArchivedEvent;
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.events.ListingMarkedAsSoldEvent;
+import com.autotrader.autotraderbackend.events.ListingPausedEvent;
+import com.autotrader.autotraderbackend.events.ListingResumedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
+import com.autotrader.autotraderbackend.service.cache.ListingPageCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached listing pages whenever a listing changes in a way that can alter a public page.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ListingPageCacheListener {
+
+    private final ListingPageCache listingPageCache;
+
+    @EventListener
+    public void onListingApproved(@NonNull ListingApprovedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingMarkedAsSold(@NonNull ListingMarkedAsSoldEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingArchived(@NonNull ListingArchivedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingExpired(@NonNull ListingExpiredEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingPaused(@NonNull ListingPausedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingResumed(@NonNull ListingResumedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingUpdated(@NonNull ListingUpdatedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    @EventListener
+    public void onListingDeleted(@NonNull ListingDeletedEvent event) {
+        invalidate(event.getListing().getId());
+    }
+
+    private void invalidate(Long listingId) {
+        log.debug("Listing ID {} changed; invalidating cached listing pages", listingId);
+        listingPageCache.invalidateAll();
+    }
+}
@@ -7,7 +7,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -35,7 +34,6 @@ public class ListingRenewalInitiatedListener {
      * @param event The listing renewal initiated event (must not be null)
      */
     @EventListener
-    @Async
     public void handleListingRenewalInitiated(@NonNull ListingRenewalInitiatedEvent event) {
         Objects.requireNonNull(event, "ListingRenewalInitiatedEvent cannot be null");
         
@@ -0,0 +1,77 @@
+package com.autotrader.autotraderbackend.listeners;
+
+import com.autotrader.autotraderbackend.events.ListingApprovedEvent;
+import com.autotrader.autotraderbackend.events.ListingArchivedEvent;
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.events.ListingMarkedAsSoldEvent;
+import com.autotrader.autotraderbackend.events.ListingPausedEvent;
+import com.autotrader.autotraderbackend.events.ListingResumedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument;
+import com.autotrader.autotraderbackend.service.search.ListingSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory {@link ListingSearchIndex} in sync with listing state changes.
+ * Index updates are cheap, so they run directly on the event dispatch thread rather than via @Async.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ListingSearchIndexListener {
+
+    private final ListingSearchIndex listingSearchIndex;
+
+    @EventListener
+    public void onListingApproved(@NonNull ListingApprovedEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingMarkedAsSold(@NonNull ListingMarkedAsSoldEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingArchived(@NonNull ListingArchivedEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingExpired(@NonNull ListingExpiredEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingPaused(@NonNull ListingPausedEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingResumed(@NonNull ListingResumedEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingUpdated(@NonNull ListingUpdatedEvent event) {
+        reindex(event.getListing());
+    }
+
+    @EventListener
+    public void onListingDeleted(@NonNull ListingDeletedEvent event) {
+        log.debug("Removing listing ID {} from search index", event.getListing().getId());
+        listingSearchIndex.remove(event.getListing().getId());
+    }
+
+    private void reindex(CarListing listing) {
+        // Only plain columns are read here; the seller proxy may belong to another thread's session
+        log.debug("Re-indexing listing ID {}", listing.getId());
+        listingSearchIndex.upsert(ListingSearchDocument.fromEntity(listing));
+    }
+}
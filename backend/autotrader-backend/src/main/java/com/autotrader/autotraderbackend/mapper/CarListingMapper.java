@@ -5,16 +5,25 @@ import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
 import com.autotrader.autotraderbackend.payload.response.GovernorateResponse;
 import com.autotrader.autotraderbackend.payload.response.ListingMediaResponse;
 import com.autotrader.autotraderbackend.payload.response.LocationResponse;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
 import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.util.MediaVariantKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,7 +37,7 @@ public class CarListingMapper {
     /**
      * Converts a CarListing entity to a CarListingResponse DTO.
      * Maps all media items from the listing to the response and handles fetching
-     * signed URLs for each media item.
+     * signed URLs for its media items. Prefer {@link #toCarListingResponses} for pages of listings.
      *
      * @param carListing The CarListing entity.
      * @return The corresponding CarListingResponse DTO.
@@ -38,7 +47,115 @@ public class CarListingMapper {
             log.warn("Attempted to map a null CarListing entity.");
             return null;
         }
+        return toCarListingResponse(carListing, resolveSignedUrls(List.of(carListing)));
+    }
+
+    /**
+     * Converts a list of CarListing entities to CarListingResponse DTOs, preserving order.
+     * Signed URLs for the media of all listings are requested from storage in a single batch.
+     *
+     * @param carListings The CarListing entities.
+     * @return The corresponding CarListingResponse DTOs.
+     */
+    public List<CarListingResponse> toCarListingResponses(List<CarListing> carListings) {
+        if (Objects.isNull(carListings) || carListings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, String> signedUrls = resolveSignedUrls(carListings);
+        List<CarListingResponse> responses = new ArrayList<>(carListings.size());
+        for (CarListing carListing : carListings) {
+            if (Objects.isNull(carListing)) {
+                log.warn("Attempted to map a null CarListing entity.");
+                responses.add(null);
+            } else {
+                responses.add(toCarListingResponse(carListing, signedUrls));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Converts a page of CarListing entities to a page of CarListingResponse DTOs,
+     * requesting the signed URLs for the whole page in a single batch.
+     *
+     * @param listingPage The page of CarListing entities.
+     * @return The corresponding page of CarListingResponse DTOs.
+     */
+    public Page<CarListingResponse> toCarListingResponsePage(Page<CarListing> listingPage) {
+        return new PageImpl<>(toCarListingResponses(listingPage.getContent()), listingPage.getPageable(), listingPage.getTotalElements());
+    }
+
+    /**
+     * Converts read-only listing summaries to CarListingResponse DTOs, preserving order.
+     * Produces the same response as {@link #toCarListingResponses} does for the corresponding entities,
+     * with the signed URLs for all media requested from storage in a single batch.
+     *
+     * @param summaries The listing summaries.
+     * @return The corresponding CarListingResponse DTOs.
+     */
+    public List<CarListingResponse> toCarListingResponsesFromSummaries(List<ListingSummaryView> summaries) {
+        if (Objects.isNull(summaries) || summaries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> imageKeys = new LinkedHashSet<>();
+        for (ListingSummaryView summary : summaries) {
+            for (ListingSummaryView.MediaSummary media : summary.media()) {
+                addMediaKeys(imageKeys, media.fileKey(), media.variantKeys());
+            }
+        }
+        Map<String, String> signedUrls = resolveSignedUrls(imageKeys);
+        return summaries.stream()
+                .map(summary -> toCarListingResponse(summary, signedUrls))
+                .collect(Collectors.toList());
+    }
+
+    private CarListingResponse toCarListingResponse(ListingSummaryView summary, Map<String, String> signedUrls) {
+        CarListingResponse response = new CarListingResponse();
+        response.setId(summary.id());
+        response.setTitle(summary.title());
+        response.setModelYear(summary.modelYear());
+        response.setPrice(summary.price());
+        response.setMileage(summary.mileage());
+        response.setDescription(summary.description());
+        response.setBrandNameEn(summary.brandNameEn());
+        response.setBrandNameAr(summary.brandNameAr());
+        response.setModelNameEn(summary.modelNameEn());
+        response.setModelNameAr(summary.modelNameAr());
+        response.setGovernorateNameEn(summary.governorateNameEn());
+        response.setGovernorateNameAr(summary.governorateNameAr());
+
+        response.setLocationDetails(LocationResponse.from(summary.location()));
+        response.setGovernorateDetails(GovernorateResponse.from(summary.governorate()));
+
+        response.setCreatedAt(summary.createdAt());
+        response.setApproved(Objects.nonNull(summary.approved()) ? summary.approved() : false);
+        response.setIsSold(summary.sold());
+        response.setIsArchived(summary.archived());
+        response.setIsExpired(summary.expired());
+        response.setSellerId(summary.sellerId());
+        response.setSellerUsername(summary.sellerUsername());
+
+        response.setMedia(summary.media().stream()
+                .map(media -> {
+                    ListingMediaResponse mediaResponse = new ListingMediaResponse();
+                    mediaResponse.setId(media.id());
+                    mediaResponse.setFileKey(media.fileKey());
+                    mediaResponse.setFileName(media.fileName());
+                    mediaResponse.setContentType(media.contentType());
+                    mediaResponse.setSize(media.size());
+                    mediaResponse.setSortOrder(media.sortOrder());
+                    mediaResponse.setIsPrimary(media.isPrimary());
+                    mediaResponse.setMediaType(media.mediaType());
+                    mediaResponse.setUrl(StringUtils.isBlank(media.fileKey()) ? null : signedUrls.get(media.fileKey()));
+                    mediaResponse.setVariantUrls(variantUrls(media.variantKeys(), signedUrls));
+                    return mediaResponse;
+                })
+                .sorted(Comparator.comparing(ListingMediaResponse::getSortOrder))
+                .collect(Collectors.toList()));
+        return response;
+    }
 
+    private CarListingResponse toCarListingResponse(CarListing carListing, Map<String, String> signedUrls) {
         try {
             CarListingResponse response = new CarListingResponse();
             response.setId(carListing.getId());
@@ -85,7 +202,7 @@ public class CarListingMapper {
 
             // Map all media items with error handling
             try {
-                List<ListingMediaResponse> mediaResponses = mapListingMedia(carListing);
+                List<ListingMediaResponse> mediaResponses = mapListingMedia(carListing, signedUrls);
                 response.setMedia(mediaResponses);
             } catch (Exception e) {
                 log.error("Error mapping media for listing ID {}: {}", carListing.getId(), e.getMessage(), e);
@@ -252,18 +369,19 @@ public class CarListingMapper {
     
     /**
      * Maps all media items from a car listing to ListingMediaResponse DTOs.
-     * Handles generating signed URLs for each media item.
+     * Media URLs are taken from the signed URLs resolved for the listing (or its page).
      *
      * @param carListing The car listing containing media items.
+     * @param signedUrls Signed URLs by file key.
      * @return List of ListingMediaResponse DTOs, sorted by sortOrder.
      */
-    private List<ListingMediaResponse> mapListingMedia(CarListing carListing) {
+    private List<ListingMediaResponse> mapListingMedia(CarListing carListing, Map<String, String> signedUrls) {
         if (Objects.isNull(carListing) || Objects.isNull(carListing.getMedia()) || carListing.getMedia().isEmpty()) {
             return new ArrayList<>();
         }
         
         return carListing.getMedia().stream()
-            .map(media -> mapSingleMedia(carListing.getId(), media))
+            .map(media -> mapSingleMedia(media, signedUrls))
             .sorted(Comparator.comparing(ListingMediaResponse::getSortOrder))
             .collect(Collectors.toList());
     }
@@ -271,11 +389,11 @@ public class CarListingMapper {
     /**
      * Maps a single media item to a ListingMediaResponse DTO.
      *
-     * @param listingId The ID of the associated car listing.
      * @param media The media entity to map.
+     * @param signedUrls Signed URLs by file key.
      * @return The corresponding ListingMediaResponse DTO.
      */
-    private ListingMediaResponse mapSingleMedia(Long listingId, com.autotrader.autotraderbackend.model.ListingMedia media) {
+    private ListingMediaResponse mapSingleMedia(com.autotrader.autotraderbackend.model.ListingMedia media, Map<String, String> signedUrls) {
         ListingMediaResponse mediaResponse = new ListingMediaResponse();
         mediaResponse.setId(media.getId());
         mediaResponse.setFileKey(media.getFileKey());
@@ -286,37 +404,73 @@ public class CarListingMapper {
         mediaResponse.setIsPrimary(media.getIsPrimary());
         mediaResponse.setMediaType(media.getMediaType());
         
-        // Generate signed URL for this media item
-        String signedUrl = generateSignedUrl(listingId, media.getFileKey());
-        mediaResponse.setUrl(signedUrl);
+        // Blank keys and keys whose URL could not be generated map to a null URL
+        mediaResponse.setUrl(StringUtils.isBlank(media.getFileKey()) ? null : signedUrls.get(media.getFileKey()));
+        mediaResponse.setVariantUrls(variantUrls(media.getVariantKeys(), signedUrls));
         
         return mediaResponse;
     }
 
     /**
-     * Generates a signed URL for a given image key.
+     * Generates signed URLs for the media of the given listings with one batched storage call.
      * Handles potential errors during URL generation gracefully.
      *
-     * @param listingId The ID of the listing (for logging).
-     * @param imageKey The key of the image in storage.
-     * @return The signed URL, or null if generation fails or no key is provided.
+     * @param carListings The listings whose media need URLs.
+     * @return Signed URLs by file key; empty if generation fails or no keys are present.
      */
-    private String generateSignedUrl(Long listingId, String imageKey) {
-        if (StringUtils.isBlank(imageKey)) {
-             log.debug("No image key provided for listing ID {}. Skipping signed URL generation.", listingId);
-            return null;
+    private Map<String, String> resolveSignedUrls(List<CarListing> carListings) {
+        Set<String> imageKeys = new LinkedHashSet<>();
+        for (CarListing carListing : carListings) {
+            if (Objects.isNull(carListing) || Objects.isNull(carListing.getMedia())) {
+                continue;
+            }
+            for (com.autotrader.autotraderbackend.model.ListingMedia media : carListing.getMedia()) {
+                addMediaKeys(imageKeys, media.getFileKey(), media.getVariantKeys());
+            }
+        }
+        return resolveSignedUrls(imageKeys);
+    }
+
+    /**
+     * Adds the storage keys of a media item and its generated variants to the keys to sign.
+     */
+    private static void addMediaKeys(Set<String> imageKeys, String fileKey, String variantKeys) {
+        if (StringUtils.isNotBlank(fileKey)) {
+            imageKeys.add(fileKey);
+        }
+        imageKeys.addAll(MediaVariantKeys.parse(variantKeys).values());
+    }
+
+    /**
+     * Maps encoded variant keys to their signed URLs by variant name, leaving out variants without a URL.
+     */
+    private static Map<String, String> variantUrls(String variantKeys, Map<String, String> signedUrls) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        MediaVariantKeys.parse(variantKeys).forEach((variant, key) -> {
+            String url = signedUrls.get(key);
+            if (url != null) {
+                urls.put(variant, url);
+            }
+        });
+        return urls;
+    }
+
+    private Map<String, String> resolveSignedUrls(Set<String> imageKeys) {
+        if (imageKeys.isEmpty()) {
+            log.debug("No image keys found. Skipping signed URL generation.");
+            return Collections.emptyMap();
         }
 
         try {
-            String signedUrl = storageService.getSignedUrl(imageKey, SIGNED_URL_EXPIRATION_SECONDS);
-            log.debug("Generated signed URL for listing ID {}: {}", listingId, Objects.nonNull(signedUrl) ? "[URL Present]" : "[URL Null]"); // Avoid logging the full URL potentially
-            return signedUrl;
+            Map<String, String> signedUrls = storageService.getSignedUrls(imageKeys, SIGNED_URL_EXPIRATION_SECONDS);
+            log.debug("Generated {} signed URLs for {} image keys", signedUrls.size(), imageKeys.size());
+            return signedUrls;
         } catch (UnsupportedOperationException e) {
-            log.warn("Storage service does not support signed URLs. Cannot generate for listing ID {}.", listingId);
-            return null; // Return null if not supported
+            log.warn("Storage service does not support signed URLs. Cannot generate for {} image keys.", imageKeys.size());
+            return Collections.emptyMap(); // URLs stay null if not supported
         } catch (Exception e) {
-            log.error("Error generating signed URL for listing ID {} with key \'{}\': {}", listingId, imageKey, e.getMessage(), e);
-            return null; // Return null on other errors
+            log.error("Error generating signed URLs for {} image keys: {}", imageKeys.size(), e.getMessage(), e);
+            return Collections.emptyMap(); // URLs stay null on other errors
         }
     }
     
@@ -334,7 +488,7 @@ public class CarListingMapper {
         }
         
         try {
-            return mapListingMedia(carListing);
+            return mapListingMedia(carListing, resolveSignedUrls(List.of(carListing)));
         } catch (Exception e) {
             log.error("Error mapping media for listing ID {}: {}", carListing.getId(), e.getMessage(), e);
             return new ArrayList<>(); // Return empty list on error
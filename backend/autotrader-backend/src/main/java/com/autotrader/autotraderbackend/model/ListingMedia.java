@@ -59,6 +59,13 @@ public class ListingMedia {
     @Column(name = "media_type", nullable = false, length = 20)
     private String mediaType;  // 'image' or 'video'
 
+    /**
+     * Storage keys of the generated image variants, encoded with {@link com.autotrader.autotraderbackend.util.MediaVariantKeys}.
+     * Null until the variants have been generated.
+     */
+    @Column(name = "variant_keys", columnDefinition = "TEXT")
+    private String variantKeys;
+
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
 
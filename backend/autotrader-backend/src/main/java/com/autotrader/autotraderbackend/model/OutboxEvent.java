@@ -0,0 +1,64 @@
+package com.autotrader.autotraderbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * A listing event waiting to be delivered to its listeners. Rows are written in the transaction that changes
+ * the listing and deleted once the event has been delivered.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The listing the event is about. Events of one listing are delivered in the order they were written.
+     */
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    /**
+     * JSON object with the event's fields besides the listing, e.g. whether an admin made the change.
+     */
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent(Long listingId, String eventType, String payload) {
+        this.listingId = listingId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
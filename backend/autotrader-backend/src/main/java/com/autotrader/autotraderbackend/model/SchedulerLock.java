@@ -0,0 +1,38 @@
+package com.autotrader.autotraderbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * A lease on a scheduled job, held by one instance until {@code lockedUntil} or until it is released.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    public SchedulerLock(String name, LocalDateTime lockedUntil, LocalDateTime lockedAt, String lockedBy) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+        this.lockedAt = lockedAt;
+        this.lockedBy = lockedBy;
+    }
+}
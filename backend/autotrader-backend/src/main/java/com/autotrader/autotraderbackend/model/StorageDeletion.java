@@ -0,0 +1,58 @@
+package com.autotrader.autotraderbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * A storage object waiting to be deleted. Rows are written in the transaction that removes the object's
+ * last reference and deleted once the object is gone from storage.
+ */
+@Entity
+@Table(name = "storage_deletions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "object_key", nullable = false, length = 1024)
+    private String objectKey;
+
+    /**
+     * Key of the shared (content-addressed) media the object belongs to, or null for objects owned by a
+     * single listing. The object is kept if that media is referenced again before the deletion runs.
+     */
+    @Column(name = "media_key", length = 1024)
+    private String mediaKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public StorageDeletion(String objectKey, String mediaKey) {
+        this.objectKey = objectKey;
+        this.mediaKey = mediaKey;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
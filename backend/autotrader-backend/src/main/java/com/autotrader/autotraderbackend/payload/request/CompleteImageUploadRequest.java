@@ -0,0 +1,19 @@
+package com.autotrader.autotraderbackend.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Request DTO for registering a listing image that the client uploaded directly to storage
+ */
+@Data
+public class CompleteImageUploadRequest {
+
+    @NotBlank(message = "Image key is required")
+    @Size(max = 255, message = "Image key must be less than 255 characters")
+    private String imageKey;
+
+    @Size(max = 255, message = "File name must be less than 255 characters")
+    private String fileName;
+}
@@ -0,0 +1,26 @@
+package com.autotrader.autotraderbackend.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Request DTO for a pre-signed URL to upload a listing image directly to storage
+ */
+@Data
+public class ImageUploadUrlRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must be less than 255 characters")
+    private String fileName;
+
+    @NotBlank(message = "Content type is required")
+    @Size(max = 100, message = "Content type must be less than 100 characters")
+    private String contentType;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long size;
+}
@@ -4,6 +4,7 @@ import com.autotrader.autotraderbackend.validation.CurrentYearOrEarlier;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -24,6 +25,12 @@ import java.math.BigDecimal;
 @Setter
 public class ListingFilterRequest {
 
+    /**
+     * Keywords to search titles, descriptions and brand and model names for, in English or Arabic. Optional.
+     * With full-text search enabled, results are ranked by relevance before the requested sort.
+     */
+    @Size(max = 200, message = "Search keywords must be at most 200 characters")
+    private String q;
 
     /**
      * Filter by car brand (manufacturer). Optional.
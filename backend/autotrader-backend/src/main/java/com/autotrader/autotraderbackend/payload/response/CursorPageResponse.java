@@ -0,0 +1,27 @@
+package com.autotrader.autotraderbackend.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * A page of results from keyset (cursor) pagination.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following page.
+ * {@code totalElements} is only present when the client asked for it, since it costs a COUNT query.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -1,6 +1,7 @@
 package com.autotrader.autotraderbackend.payload.response;
 
 import com.autotrader.autotraderbackend.model.Governorate;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView.GovernorateSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -53,4 +54,30 @@ public class GovernorateResponse {
         
         return response;
     }
+
+    /**
+     * Factory method to create a GovernorateResponse from the governorate columns of a listing summary
+     *
+     * @param governorate the projected governorate
+     * @return a new GovernorateResponse, or null if the input is null
+     */
+    public static GovernorateResponse from(GovernorateSummary governorate) {
+        if (governorate == null) {
+            return null;
+        }
+
+        GovernorateResponse response = new GovernorateResponse();
+        response.setId(governorate.id());
+        response.setDisplayNameEn(governorate.displayNameEn());
+        response.setDisplayNameAr(governorate.displayNameAr());
+        response.setSlug(governorate.slug());
+        response.setRegion(governorate.region());
+        response.setLatitude(governorate.latitude());
+        response.setLongitude(governorate.longitude());
+        response.setCountryId(governorate.countryId());
+        response.setCountryCode(governorate.countryCode());
+        response.setCountryNameEn(governorate.countryNameEn());
+        response.setCountryNameAr(governorate.countryNameAr());
+        return response;
+    }
 }
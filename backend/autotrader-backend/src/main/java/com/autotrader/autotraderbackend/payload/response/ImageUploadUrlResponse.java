@@ -0,0 +1,25 @@
+package com.autotrader.autotraderbackend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Pre-signed request for uploading a listing image directly to storage. The client sends the file
+ * with {@code method} to {@code uploadUrl}, including every header in {@code headers}, and then
+ * completes the upload with {@code imageKey}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadUrlResponse {
+
+    private String imageKey;
+    private String uploadUrl;
+    private String method;
+    private Map<String, String> headers;
+    private Instant expiresAt;
+}
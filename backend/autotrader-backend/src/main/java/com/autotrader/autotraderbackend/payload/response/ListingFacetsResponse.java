@@ -0,0 +1,49 @@
+package com.autotrader.autotraderbackend.payload.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Listing counts per filter value for a filter sidebar, e.g. "Toyota (1,204)".
+ * Named facets are ordered by count, highest first. Range facets list every configured bucket,
+ * including empty ones, in ascending order; {@code min} is inclusive, {@code max} exclusive,
+ * and a null bound means the bucket is open on that side.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFacetsResponse {
+
+    private long totalElements;
+    private List<FacetValue> brands;
+    private List<FacetValue> models;
+    private List<FacetValue> governorates;
+    private List<FacetRange<Integer>> modelYears;
+    private List<FacetRange<BigDecimal>> prices;
+    private List<FacetRange<Integer>> mileages;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+        private String nameEn;
+        private String nameAr;
+        private long count;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetRange<T> {
+        private T min;
+        private T max;
+        private long count;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Map;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,6 +22,10 @@ public class ListingMediaResponse {
     private Integer sortOrder;
     private Boolean isPrimary;
     private String mediaType;
+    /**
+     * Signed URLs of the resized variants by name (e.g. card, gallery, full); empty until they have been generated.
+     */
+    private Map<String, String> variantUrls = Map.of();
     
     // Explicit getters and setters for clarity and consistent style
     public Long getId() { return id; }
@@ -31,6 +37,7 @@ public class ListingMediaResponse {
     public Integer getSortOrder() { return sortOrder; }
     public Boolean getIsPrimary() { return isPrimary; }
     public String getMediaType() { return mediaType; }
+    public Map<String, String> getVariantUrls() { return variantUrls; }
     
     public void setId(Long id) { this.id = id; }
     public void setUrl(String url) { this.url = url; }
@@ -41,4 +48,5 @@ public class ListingMediaResponse {
     public void setSortOrder(Integer sortOrder) { this.sortOrder = sortOrder; }
     public void setIsPrimary(Boolean isPrimary) { this.isPrimary = isPrimary; }
     public void setMediaType(String mediaType) { this.mediaType = mediaType; }
+    public void setVariantUrls(Map<String, String> variantUrls) { this.variantUrls = variantUrls; }
 }
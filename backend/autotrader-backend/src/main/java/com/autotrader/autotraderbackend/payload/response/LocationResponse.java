@@ -1,6 +1,7 @@
 package com.autotrader.autotraderbackend.payload.response;
 
 import com.autotrader.autotraderbackend.model.Location;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView.LocationSummary;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -58,4 +59,30 @@ public class LocationResponse {
         
         return response;
     }
+
+    /**
+     * Create a LocationResponse from the location columns of a listing summary
+     * @param location The projected location
+     * @return A new LocationResponse, or null if the input is null
+     */
+    public static LocationResponse from(LocationSummary location) {
+        if (location == null) {
+            return null;
+        }
+
+        LocationResponse response = new LocationResponse();
+        response.setId(location.id());
+        response.setDisplayNameEn(location.displayNameEn());
+        response.setDisplayNameAr(location.displayNameAr());
+        response.setSlug(location.slug());
+        response.setRegion(location.region());
+        response.setLatitude(location.latitude());
+        response.setLongitude(location.longitude());
+        response.setActive(location.isActive() != null ? location.isActive() : true);
+        response.setGovernorateId(location.governorateId());
+        response.setGovernorateNameEn(location.governorateNameEn());
+        response.setGovernorateNameAr(location.governorateNameAr());
+        response.setCountryCode(location.countryCode());
+        return response;
+    }
 }
@@ -2,18 +2,25 @@ package com.autotrader.autotraderbackend.repository;
 
 import com.autotrader.autotraderbackend.model.CarListing;
 import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CarListingRepository extends JpaRepository<CarListing, Long>, JpaSpecificationExecutor<CarListing> {
+public interface CarListingRepository extends JpaRepository<CarListing, Long>, JpaSpecificationExecutor<CarListing>,
+        CarListingRepositoryCustom {
     
     // Find all approved listings with pagination
     Page<CarListing> findByApprovedTrue(Pageable pageable);
@@ -32,7 +39,38 @@ public interface CarListingRepository extends JpaRepository<CarListing, Long>, J
     
     // Find listings by seller
     List<CarListing> findBySeller(User seller);
+
+    // IDs of a seller's listings, to be loaded with findAllForDisplay
+    @Query("SELECT l.id FROM CarListing l WHERE l.seller = :seller")
+    List<Long> findIdsBySeller(@Param("seller") User seller);
+
+    // Which of the given listing IDs still exist, to find storage objects left behind by removed listings
+    @Query("SELECT l.id FROM CarListing l WHERE l.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
     
     // Find listings pending approval
     Page<CarListing> findByApprovedFalse(Pageable pageable);
+
+    // Keyset-paged bulk load of the columns used by the in-memory search index
+    @Query("SELECT new com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument(" +
+           "l.id, l.brandNameEn, l.brandNameAr, l.modelNameEn, l.modelNameAr, l.modelYear, l.price, l.mileage, " +
+           "loc.id, l.createdAt, l.approved, l.sold, l.archived, l.isUserActive, l.expired, l.expirationDate) " +
+           "FROM CarListing l LEFT JOIN l.location loc WHERE l.id > :afterId ORDER BY l.id")
+    List<ListingSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Listings past their expiration date that are still live, oldest due first; a range scan of idx_car_listings_expiration
+    @Query("SELECT l.id FROM CarListing l WHERE l.expired = false AND l.expirationDate <= :now " +
+           "AND l.archived = false AND l.sold = false ORDER BY l.expirationDate, l.id")
+    List<Long> findIdsDueForExpiration(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Expire the given listings in one statement. Listings that have been expired, archived or sold in the
+     * meantime are left as they are.
+     *
+     * @return The number of expired listings
+     */
+    @Modifying
+    @Query("UPDATE CarListing l SET l.expired = true, l.isUserActive = false " +
+           "WHERE l.id IN :ids AND l.expired = false AND l.archived = false AND l.sold = false")
+    int markExpired(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,62 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.repository.projection.ListingFacetRow;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Read path for pages of listings rendered with their seller, location, governorate and media.
+ *
+ * <p>Pages are resolved in two steps: a narrow query selects only the IDs of the page, then
+ * {@link #findAllForDisplay(List)} loads those listings with their associations in a fixed number
+ * of statements, however many listings the page holds.
+ */
+public interface CarListingRepositoryCustom {
+
+    /**
+     * Find the IDs of the listings matching the specification, paged and sorted like
+     * {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor#findAll(Specification, Pageable)}.
+     * An order the specification applies itself, such as relevance, takes precedence over the page's sort.
+     */
+    Page<Long> findIdPage(Specification<CarListing> spec, Pageable pageable);
+
+    /**
+     * Find at most {@code limit} listing IDs matching the specification, in the order the specification
+     * itself applies (e.g. {@link com.autotrader.autotraderbackend.repository.specification.CarListingSpecification#keysetAfter}).
+     */
+    List<Long> findIds(Specification<CarListing> spec, int limit);
+
+    /**
+     * Load the listings with the given IDs, in the same order, with seller, governorate, location
+     * (and their country) fetched in one query and all media fetched in a second one.
+     * IDs that no longer exist are skipped.
+     */
+    List<CarListing> findAllForDisplay(List<Long> ids);
+
+    /**
+     * Load read-only summaries of the listings with the given IDs, in the same order, selecting only the
+     * columns a public listing response shows. Media rows are loaded in one batched query and attached in memory.
+     * IDs that no longer exist are skipped.
+     */
+    List<ListingSummaryView> findSummariesForDisplay(List<Long> ids);
+
+    /**
+     * Count the listings matching the specification, grouped by brand, model, governorate and model year,
+     * in a single aggregate query. Each group also carries its counts per price and mileage bucket.
+     *
+     * <p>Bucket {@code 0} holds values below the first edge, bucket {@code i} values in
+     * {@code [edges[i-1], edges[i])}, and the last bucket values at or above the last edge,
+     * so {@code n} edges yield {@code n + 1} buckets.</p>
+     *
+     * @param priceBucketEdges   Ascending price boundaries.
+     * @param mileageBucketEdges Ascending mileage boundaries.
+     */
+    List<ListingFacetRow> findFacetRows(Specification<CarListing> spec, List<BigDecimal> priceBucketEdges,
+                                        List<Integer> mileageBucketEdges);
+}
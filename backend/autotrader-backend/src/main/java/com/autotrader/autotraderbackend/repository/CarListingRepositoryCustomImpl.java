@@ -0,0 +1,297 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.Location;
+import com.autotrader.autotraderbackend.repository.projection.ListingFacetRow;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView.GovernorateSummary;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView.LocationSummary;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView.MediaSummary;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class CarListingRepositoryCustomImpl implements CarListingRepositoryCustom {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private static final String SUMMARY_QUERY = "SELECT l.id, l.title, l.modelYear, l.mileage, l.price, l.description, " +
+            "l.brandNameEn, l.brandNameAr, l.modelNameEn, l.modelNameAr, l.governorateNameEn, l.governorateNameAr, " +
+            "l.createdAt, l.approved, l.sold, l.archived, l.expired, s.id, s.username, " +
+            "loc.id, loc.displayNameEn, loc.displayNameAr, loc.slug, loc.region, loc.latitude, loc.longitude, loc.isActive, " +
+            "lg.id, lg.displayNameEn, lg.displayNameAr, lc.countryCode, " +
+            "g.id, g.displayNameEn, g.displayNameAr, g.slug, g.region, g.latitude, g.longitude, " +
+            "gc.id, gc.countryCode, gc.displayNameEn, gc.displayNameAr " +
+            "FROM CarListing l LEFT JOIN l.seller s " +
+            "LEFT JOIN l.location loc LEFT JOIN loc.governorate lg LEFT JOIN lg.country lc " +
+            "LEFT JOIN l.governorate g LEFT JOIN g.country gc " +
+            "WHERE l.id IN :ids";
+
+    private static final String MEDIA_SUMMARY_QUERY = "SELECT m.carListing.id, m.id, m.fileKey, m.fileName, m.contentType, " +
+            "m.size, m.sortOrder, m.isPrimary, m.mediaType, m.variantKeys " +
+            "FROM ListingMedia m WHERE m.carListing.id IN :ids ORDER BY m.sortOrder, m.id";
+
+    private final EntityManager entityManager;
+
+    CarListingRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Long> findIdPage(Specification<CarListing> spec, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<CarListing> root = query.from(CarListing.class);
+        applySpecification(spec, root, query, builder);
+        query.select(root.get("id"));
+        if (pageable.getSort().isSorted()) {
+            // Orders of the specification, e.g. by relevance, come before those of the page
+            List<Order> orders = new ArrayList<>(query.getOrderList());
+            orders.addAll(QueryUtils.toOrders(pageable.getSort(), root, builder));
+            query.orderBy(orders);
+        }
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<CarListing> spec, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<CarListing> root = query.from(CarListing.class);
+        applySpecification(spec, root, query, builder);
+        query.select(root.get("id"));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<CarListing> findAllForDisplay(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        EntityGraph<CarListing> graph = entityManager.createEntityGraph(CarListing.class);
+        graph.addAttributeNodes("seller");
+        graph.addSubgraph("governorate").addAttributeNodes("country");
+        Subgraph<Location> location = graph.addSubgraph("location");
+        location.addSubgraph("governorate").addAttributeNodes("country");
+
+        Map<Long, CarListing> listingsById = entityManager
+                .createQuery("SELECT l FROM CarListing l WHERE l.id IN :ids", CarListing.class)
+                .setParameter("ids", ids)
+                .setHint(FETCH_GRAPH_HINT, graph)
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(CarListing::getId, Function.identity()));
+
+        // Media is fetched separately so the rows above are not multiplied by the number of photos.
+        // The listings are already managed, so this query only initializes their media collections.
+        entityManager.createQuery("SELECT DISTINCT l FROM CarListing l LEFT JOIN FETCH l.media WHERE l.id IN :ids", CarListing.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        return ids.stream()
+                .map(listingsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ListingSummaryView> findSummariesForDisplay(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<MediaSummary>> mediaByListingId = new HashMap<>();
+        for (Object[] columns : entityManager.createQuery(MEDIA_SUMMARY_QUERY, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            MediaSummary media = toMediaSummary(new Row(columns));
+            mediaByListingId.computeIfAbsent(media.listingId(), listingId -> new ArrayList<>()).add(media);
+        }
+
+        Map<Long, ListingSummaryView> summariesById = new HashMap<>();
+        for (Object[] columns : entityManager.createQuery(SUMMARY_QUERY, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            ListingSummaryView summary = toListingSummary(new Row(columns), mediaByListingId);
+            summariesById.put(summary.id(), summary);
+        }
+
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ListingFacetRow> findFacetRows(Specification<CarListing> spec, List<BigDecimal> priceBucketEdges,
+                                               List<Integer> mileageBucketEdges) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<CarListing> root = query.from(CarListing.class);
+        applySpecification(spec, root, query, builder);
+        query.orderBy(Collections.emptyList());
+
+        // Only plain columns are grouped on; the buckets are conditional sums, so no bound
+        // parameter has to appear in both the SELECT and the GROUP BY clause.
+        List<Expression<?>> groups = List.of(
+                root.get("brandNameEn"), root.get("brandNameAr"),
+                root.get("modelNameEn"), root.get("modelNameAr"),
+                root.get("governorateNameEn"), root.get("governorateNameAr"),
+                root.get("modelYear"));
+        List<Selection<?>> selections = new ArrayList<>(groups);
+        selections.add(builder.count(root));
+        addBucketCounts(builder, root.<BigDecimal>get("price"), priceBucketEdges, selections);
+        addBucketCounts(builder, root.<Integer>get("mileage"), mileageBucketEdges, selections);
+        query.multiselect(selections).groupBy(groups);
+
+        int priceBuckets = priceBucketEdges.size() + 1;
+        int mileageBuckets = mileageBucketEdges.size() + 1;
+        List<ListingFacetRow> rows = new ArrayList<>();
+        for (Object[] columns : entityManager.createQuery(query).getResultList()) {
+            Row row = new Row(columns);
+            rows.add(new ListingFacetRow(row.next(), row.next(), row.next(), row.next(), row.next(), row.next(),
+                    row.next(), row.nextLong(), row.nextLongs(priceBuckets), row.nextLongs(mileageBuckets)));
+        }
+        return rows;
+    }
+
+    private static <Y extends Comparable<? super Y>> void addBucketCounts(CriteriaBuilder builder, Path<Y> value,
+                                                                          List<Y> edges, List<Selection<?>> selections) {
+        for (int bucket = 0; bucket <= edges.size(); bucket++) {
+            List<Predicate> bounds = new ArrayList<>(2);
+            if (bucket > 0) {
+                bounds.add(builder.greaterThanOrEqualTo(value, edges.get(bucket - 1)));
+            }
+            if (bucket < edges.size()) {
+                bounds.add(builder.lessThan(value, edges.get(bucket)));
+            }
+            Expression<Integer> inBucket = builder.<Integer>selectCase()
+                    .when(builder.and(bounds.toArray(new Predicate[0])), 1)
+                    .otherwise(0);
+            selections.add(builder.sum(inBucket));
+        }
+    }
+
+    private static ListingSummaryView toListingSummary(Row row, Map<Long, List<MediaSummary>> mediaByListingId) {
+        Long id = row.next();
+        String title = row.next();
+        Integer modelYear = row.next();
+        Integer mileage = row.next();
+        BigDecimal price = row.next();
+        String description = row.next();
+        String brandNameEn = row.next();
+        String brandNameAr = row.next();
+        String modelNameEn = row.next();
+        String modelNameAr = row.next();
+        String governorateNameEn = row.next();
+        String governorateNameAr = row.next();
+        LocalDateTime createdAt = row.next();
+        Boolean approved = row.next();
+        Boolean sold = row.next();
+        Boolean archived = row.next();
+        Boolean expired = row.next();
+        Long sellerId = row.next();
+        String sellerUsername = row.next();
+
+        LocationSummary location = new LocationSummary(row.next(), row.next(), row.next(), row.next(), row.next(),
+                row.next(), row.next(), row.next(), row.next(), row.next(), row.next(), row.next());
+        GovernorateSummary governorate = new GovernorateSummary(row.next(), row.next(), row.next(), row.next(),
+                row.next(), row.next(), row.next(), row.next(), row.next(), row.next(), row.next());
+
+        return new ListingSummaryView(id, title, modelYear, mileage, price, description,
+                brandNameEn, brandNameAr, modelNameEn, modelNameAr, governorateNameEn, governorateNameAr,
+                createdAt, approved, sold, archived, expired, sellerId, sellerUsername,
+                location.id() != null ? location : null,
+                governorate.id() != null ? governorate : null,
+                mediaByListingId.get(id));
+    }
+
+    private static MediaSummary toMediaSummary(Row row) {
+        return new MediaSummary(row.next(), row.next(), row.next(), row.next(), row.next(),
+                row.next(), row.next(), row.next(), row.next(), row.next());
+    }
+
+    /**
+     * Reads the columns of a projection row in select order.
+     */
+    private static final class Row {
+        private final Object[] columns;
+        private int index;
+
+        Row(Object[] columns) {
+            this.columns = columns;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T next() {
+            return (T) columns[index++];
+        }
+
+        long nextLong() {
+            Number value = next();
+            return value != null ? value.longValue() : 0L;
+        }
+
+        long[] nextLongs(int count) {
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = nextLong();
+            }
+            return values;
+        }
+    }
+
+    private long count(Specification<CarListing> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<CarListing> root = query.from(CarListing.class);
+        applySpecification(spec, root, query, builder);
+        query.select(query.isDistinct() ? builder.countDistinct(root) : builder.count(root));
+        // Specifications such as keysetAfter add an ORDER BY, which a count must not carry
+        query.orderBy(Collections.emptyList());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<CarListing> spec, Root<CarListing> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder builder) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
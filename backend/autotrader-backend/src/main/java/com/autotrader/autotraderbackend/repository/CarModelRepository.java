@@ -2,6 +2,7 @@ package com.autotrader.autotraderbackend.repository;
 
 import com.autotrader.autotraderbackend.model.CarBrand;
 import com.autotrader.autotraderbackend.model.CarModel;
+import com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -18,8 +19,16 @@ public interface CarModelRepository extends JpaRepository<CarModel, Long> {
     
     List<CarModel> findByBrandAndIsActiveTrue(CarBrand brand);
     
-    @Query("SELECT m FROM CarModel m WHERE " +
+    @Query("SELECT m FROM CarModel m JOIN FETCH m.brand WHERE " +
            "LOWER(m.displayNameEn) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(m.displayNameAr) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<CarModel> searchByName(String query);
+
+    /**
+     * All active models of active brands, flat, with the ID of their brand.
+     */
+    @Query("SELECT new com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow(" +
+           "m.id, m.brand.id, m.name, m.slug, m.displayNameEn, m.displayNameAr) " +
+           "FROM CarModel m WHERE m.isActive = true AND m.brand.isActive = true ORDER BY m.id")
+    List<CarHierarchyRow> findActiveHierarchyRows();
 }
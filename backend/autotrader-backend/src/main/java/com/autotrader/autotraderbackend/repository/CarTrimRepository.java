@@ -2,6 +2,7 @@ package com.autotrader.autotraderbackend.repository;
 
 import com.autotrader.autotraderbackend.model.CarModel;
 import com.autotrader.autotraderbackend.model.CarTrim;
+import com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -15,8 +16,17 @@ public interface CarTrimRepository extends JpaRepository<CarTrim, Long> {
     
     List<CarTrim> findByModelAndIsActiveTrue(CarModel model);
     
-    @Query("SELECT t FROM CarTrim t WHERE " +
+    @Query("SELECT t FROM CarTrim t JOIN FETCH t.model m JOIN FETCH m.brand WHERE " +
            "LOWER(t.displayNameEn) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(t.displayNameAr) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<CarTrim> searchByName(String query);
+
+    /**
+     * All active trims of active models of active brands, flat, with the ID of their model.
+     */
+    @Query("SELECT new com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow(" +
+           "t.id, t.model.id, t.name, t.displayNameEn, t.displayNameAr) " +
+           "FROM CarTrim t WHERE t.isActive = true AND t.model.isActive = true AND t.model.brand.isActive = true " +
+           "ORDER BY t.id")
+    List<CarHierarchyRow> findActiveHierarchyRows();
 }
@@ -4,6 +4,8 @@ import com.autotrader.autotraderbackend.model.Favorite;
 import com.autotrader.autotraderbackend.model.User;
 import com.autotrader.autotraderbackend.model.CarListing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -16,4 +18,8 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     boolean existsByUserAndCarListing(User user, CarListing carListing);
     boolean existsByUserUsernameAndCarListingId(String username, Long carListingId);
     void deleteByUserAndCarListing(User user, CarListing carListing);
+
+    // Favorited listing IDs, newest first, to be loaded with CarListingRepository#findAllForDisplay
+    @Query("SELECT f.carListing.id FROM Favorite f WHERE f.user = :user ORDER BY f.createdAt DESC")
+    List<Long> findCarListingIdsByUserOrderByCreatedAtDesc(@Param("user") User user);
 } 
\ No newline at end of file
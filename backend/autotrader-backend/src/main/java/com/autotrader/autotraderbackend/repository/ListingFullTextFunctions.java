@@ -0,0 +1,80 @@
+package com.autotrader.autotraderbackend.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Query functions for the PostgreSQL full-text search over listings, registered with Hibernate through
+ * {@code META-INF/services}. The {@code search_vector} column is generated by the database and not mapped, so
+ * both functions take the listing's ID path only to find the table alias to qualify the column with:
+ * <ul>
+ *   <li>{@value #MATCHES}{@code (l.id, keywords)} renders {@code l.search_vector @@ listing_search_query(keywords)}</li>
+ *   <li>{@value #RANK}{@code (l.id, keywords)} renders {@code ts_rank(l.search_vector, listing_search_query(keywords), 1)}</li>
+ * </ul>
+ * Both need the objects created by {@code V17__Add_listing_full_text_search}, so only PostgreSQL can run them.
+ */
+public class ListingFullTextFunctions implements FunctionContributor {
+
+    public static final String MATCHES = "listing_search_matches";
+    public static final String RANK = "listing_search_rank";
+
+    private static final String SEARCH_VECTOR = "search_vector";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.DOUBLE);
+        functionContributions.getFunctionRegistry().register(MATCHES,
+                new SearchVectorFunction(MATCHES, booleanType, "", " @@ listing_search_query(", ")"));
+        functionContributions.getFunctionRegistry().register(RANK,
+                new SearchVectorFunction(RANK, doubleType, "ts_rank(", ", listing_search_query(", "), 1)"));
+    }
+
+    /**
+     * Renders {@code prefix <alias>.search_vector infix <keywords> suffix}.
+     */
+    private static class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        SearchVectorFunction(String name, BasicType<?> type, String prefix, String infix, String suffix) {
+            super(name, StandardArgumentsValidators.exactly(2), StandardFunctionReturnTypeResolvers.invariant(type),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments, SqlAstTranslator<?> walker) {
+            if (!(arguments.get(0) instanceof ColumnReference listingId)) {
+                throw new IllegalArgumentException(getName() + " expects the listing ID path as first argument");
+            }
+            sqlAppender.appendSql(prefix);
+            if (listingId.getQualifier() != null) {
+                sqlAppender.appendSql(listingId.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(SEARCH_VECTOR);
+            sqlAppender.appendSql(infix);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.autotrader.autotraderbackend.repository;
 
 import com.autotrader.autotraderbackend.model.ListingMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ListingMediaRepository extends JpaRepository<ListingMedia, Long> {
@@ -24,4 +28,31 @@ public interface ListingMediaRepository extends JpaRepository<ListingMedia, Long
      * @return A list of primary media items (typically should be only one)
      */
     List<ListingMedia> findByListingIdAndIsPrimaryTrue(Long listingId);
+
+    /**
+     * Find any media stored under a key, to reuse the object and its variants for identical content
+     *
+     * @param fileKey The storage key
+     * @return A media item referencing the key, if any
+     */
+    Optional<ListingMedia> findFirstByFileKey(String fileKey);
+
+    /**
+     * Count the media items referencing a storage key; content-addressed objects are shared between them
+     *
+     * @param fileKey The storage key
+     * @return The number of media items stored under the key
+     */
+    long countByFileKey(String fileKey);
+
+    /**
+     * Record the generated variants of the media stored under a key
+     *
+     * @param fileKey The storage key of the original media
+     * @param variantKeys The encoded variant keys
+     * @return The number of updated media rows, 0 if no media with the key exists (yet)
+     */
+    @Modifying
+    @Query("UPDATE ListingMedia m SET m.variantKeys = :variantKeys WHERE m.fileKey = :fileKey")
+    int updateVariantKeys(@Param("fileKey") String fileKey, @Param("variantKeys") String variantKeys);
 }
@@ -0,0 +1,34 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Claim the events that are due and are the oldest pending event of their listing, oldest first. A listing
+     * whose oldest event waits for a retry has no event claimed, so its events are delivered in order. Rows are
+     * locked until the calling transaction ends and rows locked by another instance are skipped.
+     *
+     * @param now The current time
+     * @param pageable The maximum number of events to claim
+     * @return The claimed events
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt <= :now AND NOT EXISTS "
+            + "(SELECT p.id FROM OutboxEvent p WHERE p.listingId = e.listingId AND p.id < e.id) ORDER BY e.id")
+    List<OutboxEvent> findDeliverableForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
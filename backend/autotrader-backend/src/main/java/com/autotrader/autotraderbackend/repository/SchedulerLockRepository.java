@@ -0,0 +1,34 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take over a lock whose lease has run out.
+     *
+     * @return 1 if the lock was taken, 0 if it is held or does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock s SET s.lockedUntil = :until, s.lockedAt = :now, s.lockedBy = :owner "
+            + "WHERE s.name = :name AND s.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name, @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until, @Param("owner") String owner);
+
+    /**
+     * End the lease of a lock held by the given owner.
+     *
+     * @return 1 if the lock was released, 0 if the owner no longer held it
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock s SET s.lockedUntil = :now WHERE s.name = :name AND s.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("now") LocalDateTime now, @Param("owner") String owner);
+}
@@ -0,0 +1,32 @@
+package com.autotrader.autotraderbackend.repository;
+
+import com.autotrader.autotraderbackend.model.StorageDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+
+    /**
+     * Claim the deletions that are due, oldest first. Rows are locked until the calling transaction ends and
+     * rows locked by another instance are skipped, so concurrent workers never process the same deletion.
+     *
+     * @param now The current time
+     * @param pageable The maximum number of deletions to claim
+     * @return The claimed deletions
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("SELECT d FROM StorageDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt, d.id")
+    List<StorageDeletion> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
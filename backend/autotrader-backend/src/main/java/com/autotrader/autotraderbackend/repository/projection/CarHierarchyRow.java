@@ -0,0 +1,28 @@
+package com.autotrader.autotraderbackend.repository.projection;
+
+/**
+ * One model or trim of the active brand/model/trim hierarchy, with the ID of its parent brand or model.
+ * Loaded flat and assembled into a tree by {@code CarReferenceFilterService}.
+ *
+ * @param id            ID of the model or trim.
+ * @param parentId      ID of the brand of a model, or of the model of a trim.
+ * @param name          Name of the model or trim.
+ * @param slug          Slug of a model; null for trims, which have none.
+ * @param displayNameEn English display name.
+ * @param displayNameAr Arabic display name.
+ */
+public record CarHierarchyRow(
+        Long id,
+        Long parentId,
+        String name,
+        String slug,
+        String displayNameEn,
+        String displayNameAr) {
+
+    /**
+     * Row for a trim, which has no slug.
+     */
+    public CarHierarchyRow(Long id, Long parentId, String name, String displayNameEn, String displayNameAr) {
+        this(id, parentId, name, null, displayNameEn, displayNameAr);
+    }
+}
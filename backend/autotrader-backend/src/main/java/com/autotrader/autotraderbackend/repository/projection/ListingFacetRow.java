@@ -0,0 +1,22 @@
+package com.autotrader.autotraderbackend.repository.projection;
+
+/**
+ * One group of a facet aggregate: the number of matching listings sharing the same brand, model,
+ * governorate and model year, with that count split over the requested price and mileage buckets.
+ *
+ * <p>{@code priceBucketCounts[i]} counts the listings in price bucket {@code i} (see
+ * {@link com.autotrader.autotraderbackend.repository.CarListingRepositoryCustom#findFacetRows}),
+ * and likewise for {@code mileageBucketCounts}.</p>
+ */
+public record ListingFacetRow(
+        String brandNameEn,
+        String brandNameAr,
+        String modelNameEn,
+        String modelNameAr,
+        String governorateNameEn,
+        String governorateNameAr,
+        Integer modelYear,
+        long count,
+        long[] priceBucketCounts,
+        long[] mileageBucketCounts) {
+}
@@ -0,0 +1,52 @@
+package com.autotrader.autotraderbackend.repository.projection;
+
+import com.autotrader.autotraderbackend.model.CarListing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Flat, detached view of the car listing columns that the in-memory search index needs.
+ * Loaded in bulk with a JPQL constructor expression, or derived from a managed entity
+ * when a listing event is received.
+ */
+public record ListingSearchDocument(
+        Long id,
+        String brandNameEn,
+        String brandNameAr,
+        String modelNameEn,
+        String modelNameAr,
+        Integer modelYear,
+        BigDecimal price,
+        Integer mileage,
+        Long locationId,
+        LocalDateTime createdAt,
+        Boolean approved,
+        Boolean sold,
+        Boolean archived,
+        Boolean isUserActive,
+        Boolean expired,
+        LocalDateTime expirationDate) {
+
+    public static ListingSearchDocument fromEntity(CarListing listing) {
+        Objects.requireNonNull(listing, "CarListing cannot be null");
+        return new ListingSearchDocument(
+                listing.getId(),
+                listing.getBrandNameEn(),
+                listing.getBrandNameAr(),
+                listing.getModelNameEn(),
+                listing.getModelNameAr(),
+                listing.getModelYear(),
+                listing.getPrice(),
+                listing.getMileage(),
+                listing.getLocation() != null ? listing.getLocation().getId() : null,
+                listing.getCreatedAt(),
+                listing.getApproved(),
+                listing.getSold(),
+                listing.getArchived(),
+                listing.getIsUserActive(),
+                listing.getExpired(),
+                listing.getExpirationDate());
+    }
+}
@@ -0,0 +1,91 @@
+package com.autotrader.autotraderbackend.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable, detached read model of a listing with exactly the columns a public
+ * {@link com.autotrader.autotraderbackend.payload.response.CarListingResponse} shows.
+ * Loaded with column projections rather than managed entities, so large pages add nothing
+ * to the persistence context and need no dirty-checking snapshots.
+ */
+public record ListingSummaryView(
+        Long id,
+        String title,
+        Integer modelYear,
+        Integer mileage,
+        BigDecimal price,
+        String description,
+        String brandNameEn,
+        String brandNameAr,
+        String modelNameEn,
+        String modelNameAr,
+        String governorateNameEn,
+        String governorateNameAr,
+        LocalDateTime createdAt,
+        Boolean approved,
+        Boolean sold,
+        Boolean archived,
+        Boolean expired,
+        Long sellerId,
+        String sellerUsername,
+        LocationSummary location,
+        GovernorateSummary governorate,
+        List<MediaSummary> media) {
+
+    public ListingSummaryView {
+        media = media != null ? List.copyOf(media) : List.of();
+    }
+
+    /**
+     * Location of a listing, with the governorate and country it belongs to.
+     */
+    public record LocationSummary(
+            Long id,
+            String displayNameEn,
+            String displayNameAr,
+            String slug,
+            String region,
+            Double latitude,
+            Double longitude,
+            Boolean isActive,
+            Long governorateId,
+            String governorateNameEn,
+            String governorateNameAr,
+            String countryCode) {
+    }
+
+    /**
+     * Governorate of a listing, with its country.
+     */
+    public record GovernorateSummary(
+            Long id,
+            String displayNameEn,
+            String displayNameAr,
+            String slug,
+            String region,
+            Double latitude,
+            Double longitude,
+            Long countryId,
+            String countryCode,
+            String countryNameEn,
+            String countryNameAr) {
+    }
+
+    /**
+     * A media row of a listing.
+     */
+    public record MediaSummary(
+            Long listingId,
+            Long id,
+            String fileKey,
+            String fileName,
+            String contentType,
+            Long size,
+            Integer sortOrder,
+            Boolean isPrimary,
+            String mediaType,
+            String variantKeys) {
+    }
+}
@@ -3,15 +3,28 @@ package com.autotrader.autotraderbackend.repository.specification;
 import com.autotrader.autotraderbackend.model.CarListing;
 import com.autotrader.autotraderbackend.model.Location;
 import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.repository.ListingFullTextFunctions;
+import com.autotrader.autotraderbackend.service.SortableCarListingField;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class CarListingSpecification {
 
+    private static final char LIKE_ESCAPE = '\\';
+    private static final List<String> KEYWORD_FIELDS = List.of(
+            "title", "description", "brandNameEn", "brandNameAr", "modelNameEn", "modelNameAr");
+
     public static Specification<CarListing> fromFilter(ListingFilterRequest filter, Location locationEntity) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -21,22 +34,22 @@ public class CarListingSpecification {
             if (StringUtils.hasText(filter.getBrand())) {
                 Predicate brandEnPredicate = criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("brandNameEn")),
-                    "%" + filter.getBrand().toLowerCase() + "%"
+                    "%" + filter.getBrand().trim().toLowerCase(Locale.ROOT) + "%"
                 );
                 Predicate brandArPredicate = criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("brandNameAr")),
-                    "%" + filter.getBrand().toLowerCase() + "%"
+                    "%" + filter.getBrand().trim().toLowerCase(Locale.ROOT) + "%"
                 );
                 predicates.add(criteriaBuilder.or(brandEnPredicate, brandArPredicate));
             }
             if (StringUtils.hasText(filter.getModel())) {
                 Predicate modelEnPredicate = criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("modelNameEn")),
-                    "%" + filter.getModel().toLowerCase() + "%"
+                    "%" + filter.getModel().trim().toLowerCase(Locale.ROOT) + "%"
                 );
                 Predicate modelArPredicate = criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("modelNameAr")),
-                    "%" + filter.getModel().toLowerCase() + "%"
+                    "%" + filter.getModel().trim().toLowerCase(Locale.ROOT) + "%"
                 );
                 predicates.add(criteriaBuilder.or(modelEnPredicate, modelArPredicate));
             }
@@ -93,4 +106,109 @@ public class CarListingSpecification {
     public static Specification<CarListing> isUserActive() {
         return (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(root.get("isUserActive"));
     }
+
+    /**
+     * Listings not flagged as expired whose expiration date, if any, is still ahead. The flag is set by the
+     * scheduled expiration job, so the date check also hides listings that are due but not yet processed.
+     */
+    public static Specification<CarListing> isNotExpired(LocalDateTime now) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.isFalse(root.get("expired")),
+                criteriaBuilder.or(
+                        criteriaBuilder.isNull(root.get("expirationDate")),
+                        criteriaBuilder.greaterThan(root.<LocalDateTime>get("expirationDate"), now)));
+    }
+
+    /**
+     * Listings matching the keywords in the PostgreSQL full-text index, most relevant first. The relevance
+     * order comes before any sort of the page; a keyset order replaces it. Requires PostgreSQL.
+     *
+     * @param keywords Web search syntax: words, "quoted phrases", {@code or} and {@code -excluded} words.
+     */
+    public static Specification<CarListing> matchesFullText(String keywords) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Long> id = root.get("id");
+            Expression<String> terms = criteriaBuilder.literal(keywords);
+            query.orderBy(criteriaBuilder.desc(
+                    criteriaBuilder.function(ListingFullTextFunctions.RANK, Double.class, id, terms)));
+            return criteriaBuilder.isTrue(
+                    criteriaBuilder.function(ListingFullTextFunctions.MATCHES, Boolean.class, id, terms));
+        };
+    }
+
+    /**
+     * Listings whose title, description, brand or model name contains every one of the whitespace-separated
+     * keywords, ignoring case. The portable counterpart of {@link #matchesFullText}, without ranking.
+     * Keywords match literally: {@code %} and {@code _} are not wildcards.
+     */
+    public static Specification<CarListing> containsKeywords(String keywords) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (String keyword : keywords.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+                String pattern = "%" + escapeLike(keyword) + "%";
+                predicates.add(criteriaBuilder.or(KEYWORD_FIELDS.stream()
+                        .map(field -> criteriaBuilder.like(criteriaBuilder.lower(root.get(field)), pattern, LIKE_ESCAPE))
+                        .toArray(Predicate[]::new)));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Orders listings by the given sort field with the listing ID as a tie-breaker and, when a previous
+     * position is given, keeps only the listings that come after it (keyset / seek pagination).
+     * Listings without a location sort as location ID 0.
+     *
+     * @param lastValue The sort value of the last listing already returned, or null for the first page.
+     * @param lastId    The ID of the last listing already returned, or null for the first page.
+     */
+    public static Specification<CarListing> keysetAfter(SortableCarListingField field, Sort.Direction direction,
+                                                        Comparable<?> lastValue, Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Long> id = root.get("id");
+            boolean descending = direction.isDescending();
+            return switch (field) {
+                case CREATED_AT -> seek(criteriaBuilder, query, root.<LocalDateTime>get("createdAt"),
+                        (LocalDateTime) lastValue, id, lastId, descending);
+                case PRICE -> seek(criteriaBuilder, query, root.<BigDecimal>get("price"),
+                        (BigDecimal) lastValue, id, lastId, descending);
+                case LOCATION_ID -> seek(criteriaBuilder, query,
+                        criteriaBuilder.coalesce(root.get("location").<Long>get("id"), 0L),
+                        (Long) lastValue, id, lastId, descending);
+            };
+        };
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate seek(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> query,
+                                                                    Expression<Y> key, Y lastValue,
+                                                                    Expression<Long> id, Long lastId, boolean descending) {
+        if (descending) {
+            query.orderBy(criteriaBuilder.desc(key), criteriaBuilder.desc(id));
+        } else {
+            query.orderBy(criteriaBuilder.asc(key), criteriaBuilder.asc(id));
+        }
+        if (lastValue == null || lastId == null) {
+            return criteriaBuilder.conjunction();
+        }
+        // (key, id) strictly after (lastValue, lastId) in the requested direction
+        Predicate keyAfter = descending
+                ? criteriaBuilder.lessThan(key, lastValue)
+                : criteriaBuilder.greaterThan(key, lastValue);
+        Predicate idAfter = descending
+                ? criteriaBuilder.lessThan(id, lastId)
+                : criteriaBuilder.greaterThan(id, lastId);
+        return criteriaBuilder.or(keyAfter, criteriaBuilder.and(criteriaBuilder.equal(key, lastValue), idAfter));
+    }
 }
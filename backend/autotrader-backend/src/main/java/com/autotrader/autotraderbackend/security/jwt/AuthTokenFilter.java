@@ -1,7 +1,11 @@
 package com.autotrader.autotraderbackend.security.jwt;
 
+import com.autotrader.autotraderbackend.config.JwtAuthenticationProperties;
 import com.autotrader.autotraderbackend.exception.jwt.CustomJwtException;
+import com.autotrader.autotraderbackend.security.services.UserDetailsImpl;
 import com.autotrader.autotraderbackend.security.services.UserDetailsServiceImpl;
+import com.autotrader.autotraderbackend.security.services.UserStateCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,12 +31,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     
     private JwtUtils jwtUtils;
     private UserDetailsServiceImpl userDetailsService;
+    private UserStateCache userStateCache;
+    private JwtAuthenticationProperties properties;
     
-    // Constructor injection to allow proper mocking in tests
+    // Constructor injection to allow proper mocking in tests; without the user state cache
+    // (e.g. in web slice tests) every request loads the user
     @Autowired
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService,
+                           @Nullable UserStateCache userStateCache, @Nullable JwtAuthenticationProperties properties) {
         this.jwtUtils = Objects.requireNonNull(jwtUtils, "jwtUtils cannot be null");
         this.userDetailsService = Objects.requireNonNull(userDetailsService, "userDetailsService cannot be null");
+        this.userStateCache = userStateCache;
+        this.properties = properties;
+    }
+    
+    // Filter that always loads the user, without claims authentication
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+        this(jwtUtils, userDetailsService, null, null);
     }
     
     // Default constructor for Spring
@@ -47,14 +63,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             if (Objects.nonNull(jwt)) {
                 try {
-                    // jwtUtils.validateJwtToken now throws CustomJwtException or its subclasses on failure
-                    jwtUtils.validateJwtToken(jwt); 
+                    // jwtUtils.parseClaims throws CustomJwtException or its subclasses on failure
+                    Claims claims = jwtUtils.parseClaims(jwt);
                     
-                    // If validateJwtToken does not throw, the token is valid. Proceed to authenticate.
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                    // If parseClaims does not throw, the token is valid. Proceed to authenticate.
+                    String username = claims.getSubject();
                     
                     try {
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        UserDetails userDetails = loadUserDetails(claims, username);
+                        if (userDetails == null) {
+                            log.warn("AuthTokenFilter: User '{}' of a valid JWT no longer exists", username);
+                            filterChain.doFilter(request, response);
+                            return;
+                        }
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
@@ -87,6 +108,22 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Build the principal from the token's claims when claims authentication is enabled and the token
+     * carries them, checking only that the user still exists; otherwise load the user.
+     *
+     * @return The principal, or null if the user of a claims-authenticated token no longer exists.
+     */
+    private UserDetails loadUserDetails(Claims claims, String username) {
+        if (userStateCache != null && properties != null && properties.isClaimsAuthentication()) {
+            UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+            if (userDetails != null) {
+                return userStateCache.isActive(userDetails.getId()) ? userDetails : null;
+            }
+        }
+        return userDetailsService.loadUserByUsername(username);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         Objects.requireNonNull(request, "HttpServletRequest cannot be null");
         String headerAuth = request.getHeader("Authorization");
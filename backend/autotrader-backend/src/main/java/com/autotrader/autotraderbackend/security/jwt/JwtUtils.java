@@ -5,6 +5,8 @@ import com.autotrader.autotraderbackend.exception.jwt.ExpiredJwtTokenException;
 import com.autotrader.autotraderbackend.exception.jwt.InvalidJwtSignatureException;
 import com.autotrader.autotraderbackend.exception.jwt.MalformedJwtTokenException;
 import com.autotrader.autotraderbackend.exception.jwt.UnsupportedJwtTokenException;
+import com.autotrader.autotraderbackend.model.Role;
+import com.autotrader.autotraderbackend.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -13,23 +15,44 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 @Slf4j
 @Component
 public class JwtUtils {
 
+    /**
+     * Claim holding the user's ID, present in tokens that can be authenticated without loading the user.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim holding the user's role names.
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * Signing key and parser derived from the configured secret, built once instead of on every call.
+     */
+    private record SigningKey(String secret, Key key, JwtParser parser) {}
+
     @Value("${autotrader.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${autotrader.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    private volatile SigningKey signingKey;
+
     public String generateJwtToken(Authentication authentication) {
         Objects.requireNonNull(authentication, "Authentication cannot be null");
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
@@ -39,12 +62,17 @@ public class JwtUtils {
             throw new IllegalArgumentException("Username cannot be blank");
         }
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+        if (userPrincipal instanceof UserDetailsImpl userDetails && userDetails.getId() != null) {
+            builder.claim(USER_ID_CLAIM, userDetails.getId())
+                    .claim(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList());
+        }
+        return builder.signWith(key(), SignatureAlgorithm.HS256).compact();
     }
     
     public String generateJwtTokenForUser(com.autotrader.autotraderbackend.model.User user) {
@@ -53,30 +81,54 @@ public class JwtUtils {
         if (StringUtils.isBlank(user.getUsername())) {
             throw new IllegalArgumentException("Username cannot be blank");
         }
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(user.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+        if (user.getId() != null && user.getRoles() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(ROLES_CLAIM, user.getRoles().stream().map(Role::getName).toList());
+        }
+        return builder.signWith(key(), SignatureAlgorithm.HS256).compact();
     }
 
     private Key key() {
-        if (StringUtils.isBlank(jwtSecret)) {
-            throw new CustomJwtException("JWT secret is not configured");
+        return signingKey().key();
+    }
+
+    private SigningKey signingKey() {
+        SigningKey current = signingKey;
+        if (current == null || !current.secret().equals(jwtSecret)) {
+            if (StringUtils.isBlank(jwtSecret)) {
+                throw new CustomJwtException("JWT secret is not configured");
+            }
+            Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            current = new SigningKey(jwtSecret, key, Jwts.parserBuilder().setSigningKey(key).build());
+            signingKey = current;
         }
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        return current;
     }
 
     public String getUserNameFromJwtToken(String token) {
         if (StringUtils.isBlank(token)) {
             throw new MalformedJwtTokenException("JWT token is null or empty");
         }
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return signingKey().parser().parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        parseClaims(authToken);
+        return true;
+    }
+
+    /**
+     * Verify a token and return its claims, parsing it only once.
+     *
+     * @param authToken The compact JWT.
+     * @return The verified claims.
+     * @throws CustomJwtException or one of its subclasses if the token is invalid, expired or malformed.
+     */
+    public Claims parseClaims(String authToken) {
         // Check for null, empty, or whitespace tokens
         if (StringUtils.isBlank(authToken)) {
             log.error("JWT token is null or empty");
@@ -90,8 +142,7 @@ public class JwtUtils {
         }
 
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return signingKey().parser().parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
             throw new InvalidJwtSignatureException("Invalid JWT signature: " + e.getMessage(), e);
@@ -112,4 +163,23 @@ public class JwtUtils {
             throw new CustomJwtException("Unexpected JWT validation error: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Build the principal of a token directly from its claims, without loading the user.
+     *
+     * @param claims Verified claims, see {@link #parseClaims(String)}.
+     * @return The principal, or null if the token predates the ID and role claims.
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(userId instanceof Number id) || !(roles instanceof Collection<?> roleNames)
+                || StringUtils.isBlank(claims.getSubject())) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new UserDetailsImpl(id.longValue(), claims.getSubject(), null, null, authorities);
+    }
 }
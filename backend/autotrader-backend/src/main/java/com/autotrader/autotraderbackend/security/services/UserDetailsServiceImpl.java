@@ -18,7 +18,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     private UserRepository userRepository;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Attempting to load user by username: {}", username);
         User user = userRepository.findByUsername(username)
@@ -27,7 +27,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     return new UsernameNotFoundException("User Not Found with username: " + username);
                 });
 
-        log.info("User found: {} with roles: {}", username, user.getRoles());
+        log.debug("User found: {} with roles: {}", username, user.getRoles());
         return UserDetailsImpl.build(user);
     }
 }
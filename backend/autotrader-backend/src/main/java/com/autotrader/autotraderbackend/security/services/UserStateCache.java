@@ -0,0 +1,37 @@
+package com.autotrader.autotraderbackend.security.services;
+
+import com.autotrader.autotraderbackend.config.JwtAuthenticationProperties;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of whether a user still exists, checked for requests authenticated from JWT claims
+ * so that a deleted account stops being accepted within {@code app.security.jwt.user-state-ttl-seconds}
+ * without a database round trip on every request. Revocation is not immediate: tokens of a deleted account
+ * keep working until its cached state expires.
+ */
+@Component
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> activeUsers;
+
+    public UserStateCache(UserRepository userRepository, JwtAuthenticationProperties properties) {
+        this.userRepository = userRepository;
+        this.activeUsers = Caffeine.newBuilder()
+                .maximumSize(properties.getUserStateMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(properties.getUserStateTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * Whether the user exists, from the cache or the database.
+     */
+    public boolean isActive(Long userId) {
+        return userId != null && activeUsers.get(userId, userRepository::existsById);
+    }
+}
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.BodyStyle;
 import com.autotrader.autotraderbackend.repository.BodyStyleRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class BodyStyleService {
 
     private final BodyStyleRepository bodyStyleRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all body styles
@@ -70,6 +72,7 @@ public class BodyStyleService {
     @Transactional
     public BodyStyle createBodyStyle(BodyStyle bodyStyle) {
         log.info("Creating new body style: {}", bodyStyle.getName());
+        referenceDataVersion.markChanged();
         return bodyStyleRepository.save(bodyStyle);
     }
     
@@ -89,6 +92,7 @@ public class BodyStyleService {
         bodyStyle.setDisplayNameAr(bodyStyleDetails.getDisplayNameAr());
         
         log.info("Updated body style with id: {}", id);
+        referenceDataVersion.markChanged();
         return bodyStyleRepository.save(bodyStyle);
     }
     
@@ -101,5 +105,6 @@ public class BodyStyleService {
         BodyStyle bodyStyle = getBodyStyleById(id);
         log.info("Deleting body style with id: {}", id);
         bodyStyleRepository.delete(bodyStyle);
+        referenceDataVersion.markChanged();
     }
 }
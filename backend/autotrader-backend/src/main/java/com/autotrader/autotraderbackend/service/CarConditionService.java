@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.CarCondition;
 import com.autotrader.autotraderbackend.repository.CarConditionRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class CarConditionService {
 
     private final CarConditionRepository carConditionRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all car conditions
@@ -70,6 +72,7 @@ public class CarConditionService {
     @Transactional
     public CarCondition createCondition(CarCondition condition) {
         log.info("Creating new car condition: {}", condition.getName());
+        referenceDataVersion.markChanged();
         return carConditionRepository.save(condition);
     }
     
@@ -89,6 +92,7 @@ public class CarConditionService {
         condition.setDisplayNameAr(conditionDetails.getDisplayNameAr());
         
         log.info("Updated car condition with id: {}", id);
+        referenceDataVersion.markChanged();
         return carConditionRepository.save(condition);
     }
     
@@ -101,5 +105,6 @@ public class CarConditionService {
         CarCondition condition = getConditionById(id);
         log.info("Deleting car condition with id: {}", id);
         carConditionRepository.delete(condition);
+        referenceDataVersion.markChanged();
     }
 }
@@ -1,5 +1,9 @@
 package com.autotrader.autotraderbackend.service;
 
+import com.autotrader.autotraderbackend.config.FullTextSearchProperties;
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.exception.StorageException;
 import com.autotrader.autotraderbackend.mapper.CarListingMapper;
@@ -13,27 +17,34 @@ import com.autotrader.autotraderbackend.payload.request.CreateListingRequest;
 import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
 import com.autotrader.autotraderbackend.payload.request.UpdateListingRequest;
 import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.autotrader.autotraderbackend.payload.response.CursorPageResponse;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.LocationRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
 import com.autotrader.autotraderbackend.repository.specification.CarListingSpecification;
-import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
-import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage.StoredMedia;
+import com.autotrader.autotraderbackend.service.search.ListingSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import java.util.Collections;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,13 +52,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CarListingService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CarListingRepository carListingRepository;
     private final UserRepository userRepository;
     private final LocationRepository locationRepository;
-    private final StorageService storageService;
-    private final StorageKeyGenerator storageKeyGenerator;
+    private final ListingMediaStorage listingMediaStorage;
     private final CarListingMapper carListingMapper;
     private final CarModelService carModelService;
+    private final ListingSearchIndex listingSearchIndex;
+    private final FullTextSearchProperties fullTextSearchProperties;
+    private final ListingEventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Create a new car listing.
@@ -73,13 +89,14 @@ public class CarListingService {
                 if (StringUtils.isBlank(originalFilename)) {
                     log.warn("Image for listing ID {} has a blank original filename. Skipping image processing.", savedListing.getId());
                 } else {
-                    String imageKey = generateImageKey(savedListing.getId(), originalFilename);
-                    storageService.store(image, imageKey);
+                    StoredMedia stored = listingMediaStorage.store(savedListing.getId(), image);
+                    String imageKey = stored.key();
                     
                     // Create and add ListingMedia for this image
                     ListingMedia media = new ListingMedia();
                     media.setCarListing(savedListing);
                     media.setFileKey(imageKey);
+                    media.setVariantKeys(stored.variantKeys());
                     media.setFileName(originalFilename);
                     media.setContentType(image.getContentType());
                     media.setSize(image.getSize());
@@ -89,6 +106,7 @@ public class CarListingService {
                     savedListing.addMedia(media);
                     
                     savedListing = carListingRepository.save(savedListing); // Save again to update with media
+                    publishMediaCreated(savedListing.getId(), stored);
                     log.info("Successfully uploaded image for new listing ID: {}", savedListing.getId());
                 }
             } catch (StorageException e) {
@@ -123,28 +141,9 @@ public class CarListingService {
 
         authorizeListingModification(listing, user, "upload image for");
 
-        String imageKey = generateImageKey(listingId, file.getOriginalFilename());
-
         try {
-            storageService.store(file, imageKey);
-            
-            // Create a new ListingMedia entity and link it to the car listing
-            ListingMedia media = new ListingMedia();
-            media.setCarListing(listing);
-            media.setFileKey(imageKey);
-            media.setFileName(file.getOriginalFilename());
-            media.setContentType(file.getContentType());
-            media.setSize(file.getSize());
-            media.setSortOrder(0); // TODO: Determine sort order logic if multiple images
-            media.setIsPrimary(listing.getMedia().isEmpty()); // First image is primary
-            media.setMediaType("image"); // Assuming all uploads here are images
-            
-            // Add the media to the listing using helper method
-            listing.addMedia(media);
-            
-            carListingRepository.save(listing); // Save the updated listing
-            log.info("Successfully uploaded image with key '{}' and updated listing ID: {}", imageKey, listingId);
-            return imageKey;
+            StoredMedia stored = listingMediaStorage.store(listingId, file);
+            return attachUploadedImage(listingId, listing, file, stored);
         } catch (StorageException e) {
             log.error("Storage service failed to store image for listing ID {}: {}. Error: {}", listingId, e.getMessage(), e.getCause() != null ? e.getCause().getMessage() : "N/A", e);
             // Re-throw the original StorageException to be handled by the controller or a global exception handler.
@@ -161,6 +160,39 @@ public class CarListingService {
         }
     }
 
+    /**
+     * Upload an image for a car listing without holding the calling thread during the upload. The user and
+     * listing are checked before this returns; the media row is added in its own transaction once the image is
+     * stored, on the thread that completes the upload.
+     *
+     * @return A future completed with the key of the stored image, or exceptionally with a
+     *         {@link StorageException} if it could not be stored
+     * @throws ResourceNotFoundException If the user or listing does not exist
+     * @throws SecurityException         If the user does not own the listing
+     */
+    public CompletableFuture<String> uploadListingImageAsync(Long listingId, MultipartFile file, String username) {
+        Objects.requireNonNull(listingId, "Listing ID cannot be null");
+        Objects.requireNonNull(file, "File cannot be null");
+        if (StringUtils.isBlank(username)) {
+            throw new IllegalArgumentException("Username cannot be blank");
+        }
+        log.info("Attempting to upload image asynchronously for listing ID: {} by user: {}", listingId, username);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = findUserByUsername(username);
+            validateFile(file, listingId);
+            authorizeListingModification(findListingById(listingId), user, "upload image for");
+        });
+
+        return listingMediaStorage.storeAsync(listingId, file)
+                .thenApply(stored -> transactionTemplate.execute(status ->
+                        attachUploadedImage(listingId, findListingById(listingId), file, stored)))
+                .whenComplete((imageKey, error) -> {
+                    if (error != null) {
+                        log.error("Failed to upload image for listing ID {}: {}", listingId, error.getMessage(), error);
+                    }
+                });
+    }
+
     /**
      * Get car listing details by ID. Only returns approved listings.
      */
@@ -187,11 +219,12 @@ public class CarListingService {
         Specification<CarListing> spec = Specification.where(CarListingSpecification.isApproved())
                                                      .and(CarListingSpecification.isNotSold())
                                                      .and(CarListingSpecification.isNotArchived())
-                                                     .and(CarListingSpecification.isUserActive()); // Added isUserActive
+                                                     .and(CarListingSpecification.isUserActive()) // Added isUserActive
+                                                     .and(CarListingSpecification.isNotExpired(LocalDateTime.now()));
                                                      
-        Page<CarListing> listingPage = carListingRepository.findAll(spec, pageable);
-        log.info("Found {} approved, not sold, not archived listings on page {}", listingPage.getNumberOfElements(), pageable.getPageNumber());
-        return listingPage.map(carListingMapper::toCarListingResponse);
+        Page<Long> idPage = carListingRepository.findIdPage(spec, pageable);
+        log.info("Found {} approved, not sold, not archived listings on page {}", idPage.getNumberOfElements(), pageable.getPageNumber());
+        return hydrateListingPage(idPage);
     }
 
     /**
@@ -260,7 +293,8 @@ public class CarListingService {
             // Either no location filter was specified, or a valid location was found.
             // Pass locationToFilterBy (which is null if no filter applied, or a valid Location object if found)
             // CarListingSpecification.fromFilter handles a null locationToFilterBy gracefully (no location predicate added).
-            spec = CarListingSpecification.fromFilter(filterRequest, locationToFilterBy);
+            spec = CarListingSpecification.fromFilter(filterRequest, locationToFilterBy)
+                    .and(matchingKeywords(filterRequest.getQ()));
             if (locationToFilterBy != null) {
                 log.info("Applying location filter for {}.", locationFilterType);
             } else if (!locationFilterAttempted) {
@@ -268,30 +302,101 @@ public class CarListingService {
             }
         }
 
-        // Always combine with the 'approved' status filter
-        spec = spec.and(CarListingSpecification.isApproved());
-        // Also filter by user active status
-        spec = spec.and(CarListingSpecification.isUserActive());
-
-        // Apply isSold and isArchived filters
-        // If not specified in the request, default to showing NOT sold and NOT archived listings.
-        if (filterRequest.getIsSold() == null) {
-            spec = spec.and(CarListingSpecification.isNotSold());
-            log.debug("Defaulting filter to isSold=false as it was not specified.");
+        // Serve the query from the in-memory search index when it is enabled and loaded.
+        // The index applies the same approved/user-active/sold/archived/expired rules as withPublicVisibility
+        // below, but holds no titles or descriptions to match keywords against.
+        if (listingSearchIndex.isReady() && StringUtils.isBlank(filterRequest.getQ())) {
+            Long locationId = locationToFilterBy != null ? locationToFilterBy.getId() : null;
+            Page<Long> idPage = listingSearchIndex.search(filterRequest, locationId, pageable);
+            log.info("Search index matched {} listings; hydrating page {} (Location filter used: {})",
+                     idPage.getTotalElements(), pageable.getPageNumber(), locationFilterType);
+            return hydrateListingPage(idPage);
         }
-        // If isSold IS specified, the CarListingSpecification.fromFilter will have already added it.
 
-        if (filterRequest.getIsArchived() == null) {
-            spec = spec.and(CarListingSpecification.isNotArchived());
-            log.debug("Defaulting filter to isArchived=false as it was not specified.");
+        spec = withPublicVisibility(spec, filterRequest);
+
+        Page<Long> idPage = carListingRepository.findIdPage(spec, pageable);
+        log.info("Found {} filtered listings matching criteria on page {} (Location filter used: {})",
+                 idPage.getNumberOfElements(), pageable.getPageNumber(), locationFilterType);
+        return hydrateListingPage(idPage);
+    }
+
+    /**
+     * Get a page of approved listings using keyset (cursor) pagination instead of an offset.
+     * By default, this excludes listings that are sold or archived.
+     *
+     * @param cursor       The cursor returned with the previous page, or null for the first page.
+     *                     When present, its sort order takes precedence over {@code sort}.
+     * @param size         The page size.
+     * @param sort         The sort order for the first page (a single field from {@link SortableCarListingField}).
+     * @param includeTotal Whether to run the COUNT query for {@code totalElements}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CarListingResponse> getAllApprovedListingsByCursor(String cursor, int size, Sort sort, boolean includeTotal) {
+        log.debug("Fetching approved listings by cursor. Cursor: {}, size: {}, sort: {}", cursor, size, sort);
+        Specification<CarListing> spec = Specification.where(CarListingSpecification.isApproved())
+                                                     .and(CarListingSpecification.isNotSold())
+                                                     .and(CarListingSpecification.isNotArchived())
+                                                     .and(CarListingSpecification.isUserActive())
+                                                     .and(CarListingSpecification.isNotExpired(LocalDateTime.now()));
+        return findListingsByCursor(spec, cursor, size, sort, includeTotal);
+    }
+
+    /**
+     * Get filtered and approved listings using keyset (cursor) pagination.
+     * Applies the same filter rules and sold/archived defaults as {@link #getFilteredListings}.
+     * Keyword matches come in the cursor's sort order rather than by relevance.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CarListingResponse> getFilteredListingsByCursor(ListingFilterRequest filterRequest, String cursor,
+                                                                              int size, Sort sort, boolean includeTotal) {
+        log.debug("Fetching filtered listings by cursor. Filter: {}, cursor: {}, size: {}, sort: {}", filterRequest, cursor, size, sort);
+
+        Optional<Specification<CarListing>> spec = publicFilterSpecification(filterRequest);
+        if (spec.isEmpty()) {
+            log.info("Location filter (ID: {}, slug: '{}') resulted in no valid location. Returning empty cursor page.",
+                     filterRequest.getLocationId(), filterRequest.getLocation());
+            return new CursorPageResponse<>(Collections.emptyList(), 0, null, false, includeTotal ? 0L : null);
         }
-        // If isArchived IS specified, the CarListingSpecification.fromFilter will have already added it.
+        return findListingsByCursor(spec.get(), cursor, size, sort, includeTotal);
+    }
 
+    /**
+     * Build the Specification for a public filter query: the filter criteria (with the location resolved by ID
+     * or slug) plus the approved/user-active rules and sold/archived defaults of {@link #getFilteredListings}.
+     *
+     * @return The Specification, or empty if the filter names a location that does not exist, in which case
+     *         no listing can match.
+     */
+    Optional<Specification<CarListing>> publicFilterSpecification(ListingFilterRequest filterRequest) {
+        Location locationToFilterBy = null;
+        if (filterRequest.getLocationId() != null || StringUtils.isNotBlank(filterRequest.getLocation())) {
+            Optional<Location> locationOpt = filterRequest.getLocationId() != null
+                    ? locationRepository.findById(filterRequest.getLocationId())
+                    : locationRepository.findBySlug(filterRequest.getLocation());
+            if (locationOpt.isEmpty()) {
+                return Optional.empty();
+            }
+            locationToFilterBy = locationOpt.get();
+        }
+        return Optional.of(withPublicVisibility(
+                CarListingSpecification.fromFilter(filterRequest, locationToFilterBy)
+                        .and(matchingKeywords(filterRequest.getQ())), filterRequest));
+    }
 
-        Page<CarListing> listingPage = carListingRepository.findAll(spec, pageable);
-        log.info("Found {} filtered listings matching criteria on page {} (Location filter used: {})",
-                 listingPage.getNumberOfElements(), pageable.getPageNumber(), locationFilterType);
-        return listingPage.map(carListingMapper::toCarListingResponse);
+    /**
+     * Match the keywords of a filter with the full-text index, ranked by relevance, or with {@code LIKE} when
+     * full-text search is disabled.
+     *
+     * @return The Specification, or null if no keywords were given
+     */
+    private Specification<CarListing> matchingKeywords(String keywords) {
+        if (StringUtils.isBlank(keywords)) {
+            return null;
+        }
+        return fullTextSearchProperties.isEnabled()
+                ? CarListingSpecification.matchesFullText(keywords.trim())
+                : CarListingSpecification.containsKeywords(keywords);
     }
 
     /**
@@ -303,11 +408,9 @@ public class CarListingService {
     public List<CarListingResponse> getMyListings(String username) {
         log.debug("Fetching all listings for user: {}", username);
         User user = findUserByUsername(username);
-        List<CarListing> listings = carListingRepository.findBySeller(user);
+        List<ListingSummaryView> listings = carListingRepository.findSummariesForDisplay(carListingRepository.findIdsBySeller(user));
         log.info("Found {} listings for user: {}", listings.size(), username);
-        return listings.stream()
-                .map(carListingMapper::toCarListingResponse)
-                .collect(Collectors.toList());
+        return carListingMapper.toCarListingResponsesFromSummaries(listings);
     }
 
     /**
@@ -397,6 +500,7 @@ public class CarListingService {
         
         CarListing updatedListing = carListingRepository.save(existingListing);
         log.info("Successfully updated listing ID: {} by user: {}", id, username);
+        eventOutbox.enqueue(new ListingUpdatedEvent(this, updatedListing));
         
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -423,21 +527,13 @@ public class CarListingService {
             throw new SecurityException("You are not authorized to delete this listing");
         }
         
-        // If listing has media, delete all media files from storage
-        if (existingListing.getMedia() != null && !existingListing.getMedia().isEmpty()) {
-            for (ListingMedia media : existingListing.getMedia()) {
-                try {
-                    storageService.delete(media.getFileKey());
-                    log.info("Deleted media with key: {} for listing ID: {}", media.getFileKey(), id);
-                } catch (StorageException e) {
-                    // Log but continue with listing deletion
-                    log.error("Failed to delete media with key: {} for listing ID: {}", media.getFileKey(), id, e);
-                }
-            }
-        }
-        
-        // Delete the listing
+        List<ListingMedia> media = existingListing.getMedia() == null ? List.of() : List.copyOf(existingListing.getMedia());
+
+        // Delete the listing, then queue the media files no other listing shares for deletion from storage
         carListingRepository.delete(existingListing);
+        carListingRepository.flush();
+        listingMediaStorage.release(id, media);
+        eventOutbox.enqueue(new ListingDeletedEvent(this, existingListing, false));
         log.info("Successfully deleted listing with ID: {}", id);
     }
     
@@ -454,21 +550,13 @@ public class CarListingService {
         CarListing existingListing = carListingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("CarListing", "id", id));
         
-        // If listing has media, delete all media files from storage
-        if (existingListing.getMedia() != null && !existingListing.getMedia().isEmpty()) {
-            for (ListingMedia media : existingListing.getMedia()) {
-                try {
-                    storageService.delete(media.getFileKey());
-                    log.info("Admin deleted media with key: {} for listing ID: {}", media.getFileKey(), id);
-                } catch (StorageException e) {
-                    // Log but continue with listing deletion
-                    log.error("Admin failed to delete media with key: {} for listing ID: {}", media.getFileKey(), id, e);
-                }
-            }
-        }
-        
-        // Delete the listing
+        List<ListingMedia> media = existingListing.getMedia() == null ? List.of() : List.copyOf(existingListing.getMedia());
+
+        // Delete the listing, then queue the media files no other listing shares for deletion from storage
         carListingRepository.delete(existingListing);
+        carListingRepository.flush();
+        listingMediaStorage.release(id, media);
+        eventOutbox.enqueue(new ListingDeletedEvent(this, existingListing, true));
         log.info("Admin successfully deleted listing with ID: {}", id);
     }
     
@@ -508,8 +596,123 @@ public class CarListingService {
         }
     }
 
-    private String generateImageKey(Long listingId, String originalFilename) {
-        return storageKeyGenerator.generateListingMediaKey(listingId, originalFilename);
+    /**
+     * Restricts a filter specification to publicly visible listings.
+     * If isSold or isArchived is not specified in the request, defaults to NOT sold and NOT archived;
+     * if specified, CarListingSpecification.fromFilter has already added the predicate.
+     */
+    private Specification<CarListing> withPublicVisibility(Specification<CarListing> spec, ListingFilterRequest filterRequest) {
+        // Always combine with the 'approved' status filter
+        spec = spec.and(CarListingSpecification.isApproved());
+        // Also filter by user active status
+        spec = spec.and(CarListingSpecification.isUserActive());
+        // Listings past their expiration date are hidden even before the expiration job flags them
+        spec = spec.and(CarListingSpecification.isNotExpired(LocalDateTime.now()));
+
+        if (filterRequest.getIsSold() == null) {
+            spec = spec.and(CarListingSpecification.isNotSold());
+            log.debug("Defaulting filter to isSold=false as it was not specified.");
+        }
+        if (filterRequest.getIsArchived() == null) {
+            spec = spec.and(CarListingSpecification.isNotArchived());
+            log.debug("Defaulting filter to isArchived=false as it was not specified.");
+        }
+        return spec;
+    }
+
+    /**
+     * Runs a seek query for the page after the cursor. One extra row is fetched to tell whether
+     * another page exists, so no COUNT query is needed unless includeTotal is set.
+     */
+    private CursorPageResponse<CarListingResponse> findListingsByCursor(Specification<CarListing> spec, String cursor,
+                                                                        int size, Sort sort, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        ListingCursor after = StringUtils.isNotBlank(cursor) ? ListingCursor.decode(cursor) : null;
+
+        SortableCarListingField field;
+        Sort.Direction direction;
+        if (after != null) {
+            field = after.field();
+            direction = after.direction();
+        } else {
+            Sort.Order order = resolveCursorSortOrder(sort);
+            field = SortableCarListingField.fromFieldName(order.getProperty());
+            direction = order.getDirection();
+        }
+
+        Specification<CarListing> seekSpec = spec.and(CarListingSpecification.keysetAfter(
+                field, direction, after != null ? after.value() : null, after != null ? after.id() : null));
+        List<Long> ids = carListingRepository.findIds(seekSpec, pageSize + 1);
+
+        boolean hasNext = ids.size() > pageSize;
+        List<CarListing> pageRows = carListingRepository.findAllForDisplay(hasNext ? ids.subList(0, pageSize) : ids);
+        String nextCursor = hasNext
+                ? ListingCursor.after(pageRows.get(pageRows.size() - 1), field, direction).encode()
+                : null;
+        Long totalElements = includeTotal ? carListingRepository.count(spec) : null;
+
+        log.info("Found {} listings by cursor (sort: {} {}, hasNext: {})", pageRows.size(), field.getFieldName(), direction, hasNext);
+        List<CarListingResponse> content = carListingMapper.toCarListingResponses(pageRows);
+        return new CursorPageResponse<>(content, pageSize, nextCursor, hasNext, totalElements);
+    }
+
+    private Sort.Order resolveCursorSortOrder(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.Order.desc(SortableCarListingField.CREATED_AT.getFieldName());
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("Cursor pagination supports sorting by a single field.");
+        }
+        Sort.Order order = orders.get(0);
+        if (!SortableCarListingField.isAllowed(order.getProperty())) {
+            log.warn("Attempt to sort by non-whitelisted field: '{}'.", order.getProperty());
+            throw new IllegalArgumentException("Sorting by field '" + order.getProperty() + "' is not allowed.");
+        }
+        return order;
+    }
+
+    /**
+     * Loads read-only summaries for a page of IDs, with their media, and maps them
+     * in the order the IDs were returned.
+     */
+    private Page<CarListingResponse> hydrateListingPage(Page<Long> idPage) {
+        if (idPage.getContent().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), idPage.getPageable(), idPage.getTotalElements());
+        }
+        List<ListingSummaryView> listings = carListingRepository.findSummariesForDisplay(idPage.getContent());
+        return new PageImpl<>(carListingMapper.toCarListingResponsesFromSummaries(listings), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private String attachUploadedImage(Long listingId, CarListing listing, MultipartFile file, StoredMedia stored) {
+        String imageKey = stored.key();
+
+        // Create a new ListingMedia entity and link it to the car listing
+        ListingMedia media = new ListingMedia();
+        media.setCarListing(listing);
+        media.setFileKey(imageKey);
+        media.setVariantKeys(stored.variantKeys());
+        media.setFileName(file.getOriginalFilename());
+        media.setContentType(file.getContentType());
+        media.setSize(file.getSize());
+        media.setSortOrder(0); // TODO: Determine sort order logic if multiple images
+        media.setIsPrimary(listing.getMedia().isEmpty()); // First image is primary
+        media.setMediaType("image"); // Assuming all uploads here are images
+
+        // Add the media to the listing using helper method
+        listing.addMedia(media);
+
+        carListingRepository.save(listing); // Save the updated listing
+        publishMediaCreated(listingId, stored);
+        log.info("Successfully uploaded image with key '{}' and updated listing ID: {}", imageKey, listingId);
+        return imageKey;
+    }
+
+    private void publishMediaCreated(Long listingId, StoredMedia stored) {
+        // An object reused with its variants already generated needs no new ones
+        if (stored.stored() || stored.variantKeys() == null) {
+            eventOutbox.enqueue(new ListingMediaCreatedEvent(this, listingId, stored.key(), "image"));
+        }
     }
 
     private CarListing buildCarListingFromRequest(CreateListingRequest request, User user) {
@@ -4,6 +4,9 @@ import com.autotrader.autotraderbackend.events.ListingApprovedEvent;
 import com.autotrader.autotraderbackend.events.ListingArchivedEvent;
 import com.autotrader.autotraderbackend.events.ListingMarkedAsSoldEvent;
 import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.events.ListingPausedEvent;
+import com.autotrader.autotraderbackend.events.ListingResumedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.mapper.CarListingMapper;
 import com.autotrader.autotraderbackend.model.CarListing;
@@ -13,7 +16,6 @@ import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +26,7 @@ public class CarListingStatusService {
     private final CarListingRepository carListingRepository;
     private final UserRepository userRepository;
     private final CarListingMapper carListingMapper;
-    private final ApplicationEventPublisher eventPublisher;
+    private final ListingEventOutbox eventOutbox;
 
     /**
      * Marks a car listing as sold.
@@ -46,7 +48,7 @@ public class CarListingStatusService {
         listing.setSold(true);
         CarListing updatedListing = carListingRepository.save(listing);
         
-        eventPublisher.publishEvent(new ListingMarkedAsSoldEvent(this, updatedListing, false));
+        eventOutbox.enqueue(new ListingMarkedAsSoldEvent(this, updatedListing, false));
         log.info("Successfully marked listing ID {} as sold by user {}", listingId, username);
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -72,7 +74,7 @@ public class CarListingStatusService {
         listing.setSold(true);
         CarListing updatedListing = carListingRepository.save(listing);
         log.info("Admin successfully marked listing ID {} as sold", listingId);
-        eventPublisher.publishEvent(new ListingMarkedAsSoldEvent(this, updatedListing, true));
+        eventOutbox.enqueue(new ListingMarkedAsSoldEvent(this, updatedListing, true));
         
         return carListingMapper.toCarListingResponseForAdmin(updatedListing);
     }
@@ -93,7 +95,7 @@ public class CarListingStatusService {
         listing.setArchived(true);
         CarListing updatedListing = carListingRepository.save(listing);
         
-        eventPublisher.publishEvent(new ListingArchivedEvent(this, updatedListing, false));
+        eventOutbox.enqueue(new ListingArchivedEvent(this, updatedListing, false));
         log.info("Published ListingArchivedEvent for listing ID: {}", updatedListing.getId());
         
         log.info("Successfully archived listing ID {} by user {}", listingId, username);
@@ -120,7 +122,7 @@ public class CarListingStatusService {
         listing.setArchived(true);
         CarListing updatedListing = carListingRepository.save(listing);
         log.info("Admin successfully archived listing ID {}", listingId);
-        eventPublisher.publishEvent(new ListingArchivedEvent(this, updatedListing, true)); 
+        eventOutbox.enqueue(new ListingArchivedEvent(this, updatedListing, true)); 
         log.info("Published ListingArchivedEvent for listing ID: {} (admin)", updatedListing.getId());
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -140,6 +142,7 @@ public class CarListingStatusService {
 
         listing.setArchived(false);
         CarListing updatedListing = carListingRepository.save(listing);
+        eventOutbox.enqueue(new ListingUpdatedEvent(this, updatedListing));
         log.info("Successfully unarchived listing ID {} by user {}", listingId, username);
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -163,6 +166,7 @@ public class CarListingStatusService {
 
         listing.setArchived(false);
         CarListing updatedListing = carListingRepository.save(listing);
+        eventOutbox.enqueue(new ListingUpdatedEvent(this, updatedListing));
         log.info("Admin successfully unarchived listing ID {}", listingId);
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -194,6 +198,7 @@ public class CarListingStatusService {
 
         listing.setIsUserActive(false);
         CarListing updatedListing = carListingRepository.save(listing);
+        eventOutbox.enqueue(new ListingPausedEvent(this, updatedListing));
         log.info("Successfully paused listing ID {} by user {}", listingId, username);
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -221,6 +226,7 @@ public class CarListingStatusService {
 
         listing.setIsUserActive(true);
         CarListing updatedListing = carListingRepository.save(listing);
+        eventOutbox.enqueue(new ListingResumedEvent(this, updatedListing));
         log.info("Successfully resumed listing ID {} by user {}", listingId, username);
         return carListingMapper.toCarListingResponse(updatedListing);
     }
@@ -242,7 +248,7 @@ public class CarListingStatusService {
         CarListing approvedListing = carListingRepository.save(carListing);
         log.info("Successfully approved listing ID: {}", approvedListing.getId());
 
-        eventPublisher.publishEvent(new ListingApprovedEvent(this, approvedListing)); 
+        eventOutbox.enqueue(new ListingApprovedEvent(this, approvedListing)); 
         log.info("Published ListingApprovedEvent for listing ID: {}", approvedListing.getId());
 
         return carListingMapper.toCarListingResponse(approvedListing);
@@ -279,7 +285,7 @@ public class CarListingStatusService {
 
         CarListing updatedListing = carListingRepository.save(listing);
         
-        eventPublisher.publishEvent(new ListingExpiredEvent(this, updatedListing, true));
+        eventOutbox.enqueue(new ListingExpiredEvent(this, updatedListing, true));
         log.info("Successfully expired listing ID {}", listingId);
         
         return carListingMapper.toCarListingResponse(updatedListing);
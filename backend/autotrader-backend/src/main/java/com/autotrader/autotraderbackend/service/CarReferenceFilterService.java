@@ -3,16 +3,26 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.model.CarBrand;
 import com.autotrader.autotraderbackend.model.CarModel;
 import com.autotrader.autotraderbackend.model.CarTrim;
+import com.autotrader.autotraderbackend.repository.CarModelRepository;
+import com.autotrader.autotraderbackend.repository.CarTrimRepository;
+import com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
- * Service for handling complex filtering operations across car reference entities
+ * Service for handling complex filtering operations across car reference entities.
+ *
+ * <p>Hierarchies are assembled from flat lists into detached copies keyed by ID, so building one costs
+ * a fixed number of queries and linear time regardless of catalogue size, and never touches the
+ * collections of managed entities.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -22,28 +32,42 @@ public class CarReferenceFilterService {
     private final CarBrandService carBrandService;
     private final CarModelService carModelService;
     private final CarTrimService carTrimService;
+    private final CarModelRepository carModelRepository;
+    private final CarTrimRepository carTrimRepository;
 
     /**
-     * Get hierarchical data for car selection filters
+     * Get hierarchical data for car selection filters, loaded with one query each for brands, models and trims
      * @return List of brands with their models and trims (only active ones)
      */
+    @Transactional(readOnly = true)
     public List<CarBrand> getActiveCarHierarchy() {
-        List<CarBrand> activeBrands = carBrandService.getActiveBrands();
+        Map<Long, CarBrand> brandsById = new LinkedHashMap<>();
+        for (CarBrand brand : carBrandService.getActiveBrands()) {
+            brandsById.put(brand.getId(), copyBrandWithoutRelations(brand));
+        }
+        
+        Map<Long, CarModel> modelsById = new HashMap<>();
+        for (CarHierarchyRow row : carModelRepository.findActiveHierarchyRows()) {
+            CarBrand brand = brandsById.get(row.parentId());
+            if (brand != null) {
+                CarModel model = toModel(row);
+                brand.getModels().add(model);
+                modelsById.put(model.getId(), model);
+            }
+        }
         
-        // For each brand, populate its active models
-        for (CarBrand brand : activeBrands) {
-            List<CarModel> activeModels = carModelService.getActiveModelsByBrandId(brand.getId());
-            
-            // For each model, populate its active trims
-            for (CarModel model : activeModels) {
-                List<CarTrim> activeTrims = carTrimService.getActiveTrimsByModelId(model.getId());
-                model.setTrims(activeTrims);
+        int trimCount = 0;
+        for (CarHierarchyRow row : carTrimRepository.findActiveHierarchyRows()) {
+            CarModel model = modelsById.get(row.parentId());
+            if (model != null) {
+                model.getTrims().add(toTrim(row));
+                trimCount++;
             }
-            
-            brand.setModels(activeModels);
         }
         
-        return activeBrands;
+        log.debug("Loaded active car hierarchy: {} brands, {} models, {} trims",
+                  brandsById.size(), modelsById.size(), trimCount);
+        return new ArrayList<>(brandsById.values());
     }
     
     /**
@@ -51,6 +75,7 @@ public class CarReferenceFilterService {
      * @param query Search query
      * @return List of matching brands with their matching models and trims
      */
+    @Transactional(readOnly = true)
     public List<CarBrand> searchCarHierarchy(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getActiveCarHierarchy();
@@ -70,7 +95,8 @@ public class CarReferenceFilterService {
     }
     
     /**
-     * Build a hierarchical structure from matching entities
+     * Build a hierarchical structure from matching entities, adding the parents of matching models and trims.
+     * Brands, models and trims keep the order in which they were first matched.
      * @param matchingBrands Matching brands
      * @param matchingModels Matching models
      * @param matchingTrims Matching trims
@@ -81,74 +107,41 @@ public class CarReferenceFilterService {
             List<CarModel> matchingModels,
             List<CarTrim> matchingTrims) {
         
-        // Make copies to avoid modifying the original entities
-        List<CarBrand> result = matchingBrands.stream()
-                .map(this::copyBrandWithoutRelations)
-                .collect(Collectors.toList());
+        // Copies keyed by ID, so each parent is found in constant time and the original entities stay untouched
+        Map<Long, CarBrand> brandsById = new LinkedHashMap<>();
+        Map<Long, CarModel> modelsById = new HashMap<>();
+        
+        for (CarBrand brand : matchingBrands) {
+            brandsById.computeIfAbsent(brand.getId(), id -> copyBrandWithoutRelations(brand));
+        }
         
         // Add brands that have matching models but weren't matched themselves
         for (CarModel model : matchingModels) {
-            CarBrand parentBrand = model.getBrand();
-            
-            // Check if this brand is already in our result
-            boolean brandExists = result.stream()
-                    .anyMatch(b -> b.getId().equals(parentBrand.getId()));
-            
-            if (!brandExists) {
-                result.add(copyBrandWithoutRelations(parentBrand));
-            }
+            copyModelInto(brandsById, modelsById, model);
         }
         
-        // Add brands that have matching trims but weren't matched themselves
+        // Add brands and models that have matching trims but weren't matched themselves
         for (CarTrim trim : matchingTrims) {
-            CarModel parentModel = trim.getModel();
-            CarBrand parentBrand = parentModel.getBrand();
-            
-            // Check if this brand is already in our result
-            boolean brandExists = result.stream()
-                    .anyMatch(b -> b.getId().equals(parentBrand.getId()));
-            
-            if (!brandExists) {
-                result.add(copyBrandWithoutRelations(parentBrand));
-            }
+            CarModel model = copyModelInto(brandsById, modelsById, trim.getModel());
+            model.getTrims().add(copyTrimWithoutRelations(trim));
         }
         
-        // For each brand in our result, add matching models
-        for (CarBrand brand : result) {
-            // Add models that match this brand
-            List<CarModel> brandModels = matchingModels.stream()
-                    .filter(m -> m.getBrand().getId().equals(brand.getId()))
-                    .map(this::copyModelWithoutRelations)
-                    .collect(Collectors.toList());
-            
-            // Add models that have matching trims but weren't matched themselves
-            for (CarTrim trim : matchingTrims) {
-                CarModel parentModel = trim.getModel();
-                
-                if (parentModel.getBrand().getId().equals(brand.getId())) {
-                    boolean modelExists = brandModels.stream()
-                            .anyMatch(m -> m.getId().equals(parentModel.getId()));
-                    
-                    if (!modelExists) {
-                        brandModels.add(copyModelWithoutRelations(parentModel));
-                    }
-                }
-            }
-            
-            brand.setModels(brandModels);
-            
-            // For each model, add matching trims
-            for (CarModel model : brandModels) {
-                List<CarTrim> modelTrims = matchingTrims.stream()
-                        .filter(t -> t.getModel().getId().equals(model.getId()))
-                        .map(this::copyTrimWithoutRelations)
-                        .collect(Collectors.toList());
-                
-                model.setTrims(modelTrims);
-            }
+        return new ArrayList<>(brandsById.values());
+    }
+    
+    /**
+     * Get the copy of a model, creating it under the copy of its brand if needed.
+     */
+    private CarModel copyModelInto(Map<Long, CarBrand> brandsById, Map<Long, CarModel> modelsById, CarModel model) {
+        CarModel copy = modelsById.get(model.getId());
+        if (copy == null) {
+            CarBrand parentBrand = model.getBrand();
+            CarBrand brand = brandsById.computeIfAbsent(parentBrand.getId(), id -> copyBrandWithoutRelations(parentBrand));
+            copy = copyModelWithoutRelations(model);
+            brand.getModels().add(copy);
+            modelsById.put(copy.getId(), copy);
         }
-        
-        return result;
+        return copy;
     }
     
     // Helper methods to create copies without circular references
@@ -161,7 +154,7 @@ public class CarReferenceFilterService {
         copy.setDisplayNameEn(brand.getDisplayNameEn());
         copy.setDisplayNameAr(brand.getDisplayNameAr());
         copy.setIsActive(brand.getIsActive());
-        copy.setModels(Collections.emptyList());  // Will be populated later if needed
+        copy.setModels(new ArrayList<>());  // Will be populated later if needed
         return copy;
     }
     
@@ -173,11 +166,33 @@ public class CarReferenceFilterService {
         copy.setDisplayNameEn(model.getDisplayNameEn());
         copy.setDisplayNameAr(model.getDisplayNameAr());
         copy.setIsActive(model.getIsActive());
-        copy.setTrims(Collections.emptyList());  // Will be populated later if needed
+        copy.setTrims(new ArrayList<>());  // Will be populated later if needed
         // Don't set brand to avoid circular reference
         return copy;
     }
     
+    private CarModel toModel(CarHierarchyRow row) {
+        CarModel model = new CarModel();
+        model.setId(row.id());
+        model.setName(row.name());
+        model.setSlug(row.slug());
+        model.setDisplayNameEn(row.displayNameEn());
+        model.setDisplayNameAr(row.displayNameAr());
+        model.setIsActive(true);
+        model.setTrims(new ArrayList<>());
+        return model;
+    }
+    
+    private CarTrim toTrim(CarHierarchyRow row) {
+        CarTrim trim = new CarTrim();
+        trim.setId(row.id());
+        trim.setName(row.name());
+        trim.setDisplayNameEn(row.displayNameEn());
+        trim.setDisplayNameAr(row.displayNameAr());
+        trim.setIsActive(true);
+        return trim;
+    }
+    
     private CarTrim copyTrimWithoutRelations(CarTrim trim) {
         CarTrim copy = new CarTrim();
         copy.setId(trim.getId());
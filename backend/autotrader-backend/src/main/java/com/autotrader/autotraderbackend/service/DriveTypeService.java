@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.DriveType;
 import com.autotrader.autotraderbackend.repository.DriveTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class DriveTypeService {
 
     private final DriveTypeRepository driveTypeRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all drive types
@@ -70,6 +72,7 @@ public class DriveTypeService {
     @Transactional
     public DriveType createDriveType(DriveType driveType) {
         log.info("Creating new drive type: {}", driveType.getName());
+        referenceDataVersion.markChanged();
         return driveTypeRepository.save(driveType);
     }
     
@@ -89,6 +92,7 @@ public class DriveTypeService {
         driveType.setDisplayNameAr(driveTypeDetails.getDisplayNameAr());
         
         log.info("Updated drive type with id: {}", id);
+        referenceDataVersion.markChanged();
         return driveTypeRepository.save(driveType);
     }
     
@@ -101,5 +105,6 @@ public class DriveTypeService {
         DriveType driveType = getDriveTypeById(id);
         log.info("Deleting drive type with id: {}", id);
         driveTypeRepository.delete(driveType);
+        referenceDataVersion.markChanged();
     }
 }
@@ -145,11 +145,9 @@ public class FavoriteService {
             User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-            // Get the actual CarListing objects
-            List<CarListing> favoriteListings = favoriteRepository.findByUserOrderByCreatedAtDesc(user)
-                .stream()
-                .map(Favorite::getCarListing)
-                .collect(Collectors.toList());
+            // Get the actual CarListing objects, loaded with their associations in a fixed number of queries
+            List<CarListing> favoriteListings = carListingRepository.findAllForDisplay(
+                favoriteRepository.findCarListingIdsByUserOrderByCreatedAtDesc(user));
             
             log.info("Found {} favorite listings for user {}", favoriteListings.size(), username);
             return favoriteListings;
@@ -174,11 +172,10 @@ public class FavoriteService {
             User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-            // Get the listings and map them to DTOs using the mapper
-            List<CarListingResponse> favoriteListingResponses = favoriteRepository.findByUserOrderByCreatedAtDesc(user)
-                .stream()
-                .map(favorite -> carListingMapper.toCarListingResponse(favorite.getCarListing()))
-                .collect(Collectors.toList());
+            // Load the listings by ID and map them to DTOs using the mapper
+            List<CarListing> favoriteListings = carListingRepository.findAllForDisplay(
+                favoriteRepository.findCarListingIdsByUserOrderByCreatedAtDesc(user));
+            List<CarListingResponse> favoriteListingResponses = carListingMapper.toCarListingResponses(favoriteListings);
             
             log.info("Found {} favorite listing responses for user {}", favoriteListingResponses.size(), username);
             return favoriteListingResponses;
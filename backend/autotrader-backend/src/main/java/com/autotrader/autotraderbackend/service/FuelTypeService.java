@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.FuelType;
 import com.autotrader.autotraderbackend.repository.FuelTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class FuelTypeService {
 
     private final FuelTypeRepository fuelTypeRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all fuel types
@@ -70,6 +72,7 @@ public class FuelTypeService {
     @Transactional
     public FuelType createFuelType(FuelType fuelType) {
         log.info("Creating new fuel type: {}", fuelType.getName());
+        referenceDataVersion.markChanged();
         return fuelTypeRepository.save(fuelType);
     }
     
@@ -89,6 +92,7 @@ public class FuelTypeService {
         fuelType.setDisplayNameAr(fuelTypeDetails.getDisplayNameAr());
         
         log.info("Updated fuel type with id: {}", id);
+        referenceDataVersion.markChanged();
         return fuelTypeRepository.save(fuelType);
     }
     
@@ -101,5 +105,6 @@ public class FuelTypeService {
         FuelType fuelType = getFuelTypeById(id);
         log.info("Deleting fuel type with id: {}", id);
         fuelTypeRepository.delete(fuelType);
+        referenceDataVersion.markChanged();
     }
 }
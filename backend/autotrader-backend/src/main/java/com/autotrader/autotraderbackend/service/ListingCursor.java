@@ -0,0 +1,76 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.model.CarListing;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last listing returned by a keyset (seek) paginated query.
+ * Encodes the sort field, its direction, the last sort value and the last ID,
+ * so the next page can continue with a {@code WHERE (key, id) > (value, lastId)} predicate
+ * instead of an OFFSET. Clients must treat the encoded form as opaque.
+ *
+ * <p>Listings without a location sort as location ID 0, matching the order used by
+ * {@link com.autotrader.autotraderbackend.repository.specification.CarListingSpecification#keysetAfter}.
+ */
+public record ListingCursor(SortableCarListingField field, Sort.Direction direction, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Build the cursor pointing just past the given listing.
+     */
+    public static ListingCursor after(CarListing listing, SortableCarListingField field, Sort.Direction direction) {
+        return new ListingCursor(field, direction, sortValueOf(listing, field), listing.getId());
+    }
+
+    /**
+     * Extract the value a listing is ordered by for the given sort field.
+     */
+    public static Comparable<?> sortValueOf(CarListing listing, SortableCarListingField field) {
+        return switch (field) {
+            case CREATED_AT -> listing.getCreatedAt();
+            case PRICE -> listing.getPrice();
+            case LOCATION_ID -> listing.getLocation() != null ? listing.getLocation().getId() : 0L;
+        };
+    }
+
+    public String encode() {
+        String raw = field.getFieldName() + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or refers to a non-sortable field.
+     */
+    public static ListingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            SortableCarListingField field = SortableCarListingField.fromFieldName(parts[0]);
+            if (field == null) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Comparable<?> value = switch (field) {
+                case CREATED_AT -> LocalDateTime.parse(parts[2]);
+                case PRICE -> new BigDecimal(parts[2]);
+                case LOCATION_ID -> Long.valueOf(parts[2]);
+            };
+            return new ListingCursor(field, direction, value, Long.valueOf(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+}
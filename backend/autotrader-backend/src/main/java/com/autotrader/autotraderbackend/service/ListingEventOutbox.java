@@ -0,0 +1,369 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.ListingEventOutboxProperties;
+import com.autotrader.autotraderbackend.events.InstrumentedEventMulticaster;
+import com.autotrader.autotraderbackend.events.ListingApprovedEvent;
+import com.autotrader.autotraderbackend.events.ListingArchivedEvent;
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.events.ListingMarkedAsSoldEvent;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.events.ListingPausedEvent;
+import com.autotrader.autotraderbackend.events.ListingRenewalInitiatedEvent;
+import com.autotrader.autotraderbackend.events.ListingResumedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.OutboxEvent;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers listing events to their {@code @EventListener}s after the change that raised them has committed.
+ *
+ * <p>Services {@link #enqueue} events in their own transaction, so a rolled-back change raises no event and a
+ * committed one is guaranteed to be followed by its events, also across a restart. A scheduled worker claims
+ * due rows with {@code SKIP LOCKED}, reloads their listings, runs the listeners of each event on the worker
+ * thread, bypassing the asynchronous dispatch executor, and removes the rows once they have returned. Only
+ * the oldest pending event of a listing is claimed, so the events of one listing are delivered in order; an
+ * event whose listeners fail is retried with exponential backoff and holds back the later events of its
+ * listing. Delivery is at least once: listeners may see an event again after a crash or a retry.</p>
+ *
+ * <p>Listeners run outside the transaction holding the row locks, so one that fails in a transaction of its
+ * own cannot roll back the bookkeeping of the batch.</p>
+ *
+ * <p>Listings are reloaded when the event is delivered, so listeners see their state at that time. Events of
+ * listings that have been deleted since are skipped, except the {@link ListingDeletedEvent}, whose listing
+ * only carries its ID.</p>
+ *
+ * <p>Metrics: {@code listing.events.outbox} per result ({@code delivered}, {@code retried}, {@code abandoned},
+ * {@code skipped}), {@code listing.events.outbox.lag} from enqueue to delivery, and
+ * {@code listing.events.outbox.pending} as of the last poll.</p>
+ */
+@Service
+@Slf4j
+public class ListingEventOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String ADMIN_ACTION = "adminAction";
+    private static final String DURATION_DAYS = "durationDays";
+    private static final String FILE_KEY = "fileKey";
+    private static final String MEDIA_TYPE = "mediaType";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final CarListingRepository carListingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InstrumentedEventMulticaster eventMulticaster;
+    private final ObjectMapper objectMapper;
+    private final ListingEventOutboxProperties properties;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate withoutTransaction;
+    private final Clock clock;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final Counter skipped;
+    private final Timer lag;
+    private final AtomicLong pending = new AtomicLong();
+
+    @Autowired
+    public ListingEventOutbox(OutboxEventRepository outboxEventRepository,
+                              CarListingRepository carListingRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              InstrumentedEventMulticaster eventMulticaster,
+                              ObjectMapper objectMapper,
+                              ListingEventOutboxProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this(outboxEventRepository, carListingRepository, eventPublisher, eventMulticaster, objectMapper, properties,
+                transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ListingEventOutbox(OutboxEventRepository outboxEventRepository,
+                       CarListingRepository carListingRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       InstrumentedEventMulticaster eventMulticaster,
+                       ObjectMapper objectMapper,
+                       ListingEventOutboxProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.carListingRepository = carListingRepository;
+        this.eventPublisher = eventPublisher;
+        this.eventMulticaster = eventMulticaster;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.withoutTransaction = new TransactionTemplate(transactionManager);
+        this.withoutTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.clock = clock;
+        this.delivered = eventCounter(meterRegistry, "delivered");
+        this.retried = eventCounter(meterRegistry, "retried");
+        this.abandoned = eventCounter(meterRegistry, "abandoned");
+        this.skipped = eventCounter(meterRegistry, "skipped");
+        this.lag = Timer.builder("listing.events.outbox.lag")
+                .description("Time from enqueueing a listing event to its delivery")
+                .register(meterRegistry);
+        Gauge.builder("listing.events.outbox.pending", pending, AtomicLong::get)
+                .description("Listing events waiting for delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a listing event for delivery once the current transaction commits. With the outbox disabled, the
+     * event is published immediately instead.
+     *
+     * @param event A listing event, e.g. {@link ListingApprovedEvent}
+     * @throws IllegalArgumentException If the event is not a listing event
+     */
+    @Transactional
+    public void enqueue(ApplicationEvent event) {
+        if (!properties.isEnabled()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        OutboxEvent row = toRow(event);
+        outboxEventRepository.save(row);
+        log.debug("Queued {} for delivery", event);
+    }
+
+    /**
+     * Queue several listing events at once, e.g. those of a bulk update, in the order given.
+     *
+     * @param events Listing events
+     * @throws IllegalArgumentException If any of the events is not a listing event
+     * @see #enqueue(ApplicationEvent)
+     */
+    @Transactional
+    public void enqueueAll(Collection<? extends ApplicationEvent> events) {
+        if (!properties.isEnabled()) {
+            events.forEach(eventPublisher::publishEvent);
+            return;
+        }
+        List<OutboxEvent> rows = events.stream().map(this::toRow).toList();
+        outboxEventRepository.saveAll(rows);
+        log.debug("Queued {} listing events for delivery", rows.size());
+    }
+
+    /**
+     * Deliver the events that are due, one batch per transaction, until none are left.
+     */
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-interval-millis:1000}",
+            initialDelayString = "${app.events.outbox.poll-interval-millis:1000}")
+    public void drain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        pending.set(outboxEventRepository.count());
+        int batchSize = Math.max(1, properties.getBatchSize());
+        Integer claimed;
+        do {
+            // Each batch holds at most one event per listing, so keep going while there are any
+            claimed = transaction.execute(status -> processBatch(batchSize));
+        } while (claimed != null && claimed > 0);
+    }
+
+    /**
+     * Claim up to {@code batchSize} deliverable events and deliver them, waiting for their listeners. Must run
+     * in a transaction, which holds the row locks until the outcome has been recorded.
+     *
+     * @return The number of claimed events
+     */
+    int processBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> due = outboxEventRepository.findDeliverableForUpdate(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> finished = new ArrayList<>();
+        for (OutboxEvent row : due) {
+            try {
+                Optional<ApplicationEvent> event = toEvent(row);
+                if (event.isPresent()) {
+                    deliver(event.get());
+                    delivered.increment();
+                    lag.record(Duration.between(row.getCreatedAt(), LocalDateTime.now(clock)));
+                } else {
+                    log.debug("Skipping {} of deleted listing ID {}", row.getEventType(), row.getListingId());
+                    skipped.increment();
+                }
+                finished.add(row);
+            } catch (RuntimeException e) {
+                if (recordFailure(row, now, e)) {
+                    finished.add(row);
+                }
+            }
+        }
+        if (!finished.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(finished);
+        }
+        log.debug("Processed {} listing events", due.size());
+        return due.size();
+    }
+
+    /**
+     * Run the listeners of an event on this thread with the batch transaction suspended.
+     *
+     * @throws RuntimeException If a listener fails
+     */
+    private void deliver(ApplicationEvent event) {
+        withoutTransaction.executeWithoutResult(status -> eventMulticaster.multicastEventAndWait(event));
+    }
+
+    /**
+     * Schedule the next attempt of a failed event.
+     *
+     * @return Whether the event has run out of attempts and is to be removed
+     */
+    private boolean recordFailure(OutboxEvent row, LocalDateTime now, RuntimeException e) {
+        String error = StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getName());
+        row.setAttempts(row.getAttempts() + 1);
+        row.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+        if (row.getAttempts() >= Math.max(1, properties.getMaxAttempts())) {
+            log.error("Giving up delivering {} of listing ID {} after {} attempts: {}",
+                    row.getEventType(), row.getListingId(), row.getAttempts(), error, e);
+            abandoned.increment();
+            return true;
+        }
+        log.warn("Failed to deliver {} of listing ID {} (attempt {}): {}",
+                row.getEventType(), row.getListingId(), row.getAttempts(), error);
+        row.setNextAttemptAt(now.plus(retryBackoff(row.getAttempts())));
+        retried.increment();
+        return false;
+    }
+
+    private OutboxEvent toRow(ApplicationEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        Long listingId = switch (event) {
+            case ListingApprovedEvent e -> e.getListing().getId();
+            case ListingPausedEvent e -> e.getListing().getId();
+            case ListingResumedEvent e -> e.getListing().getId();
+            case ListingUpdatedEvent e -> e.getListing().getId();
+            case ListingMarkedAsSoldEvent e -> {
+                payload.put(ADMIN_ACTION, e.isAdminAction());
+                yield e.getListing().getId();
+            }
+            case ListingArchivedEvent e -> {
+                payload.put(ADMIN_ACTION, e.isAdminAction());
+                yield e.getListing().getId();
+            }
+            case ListingExpiredEvent e -> {
+                payload.put(ADMIN_ACTION, e.isAdminAction());
+                yield e.getListing().getId();
+            }
+            case ListingDeletedEvent e -> {
+                payload.put(ADMIN_ACTION, e.isAdminAction());
+                yield e.getListing().getId();
+            }
+            case ListingRenewalInitiatedEvent e -> {
+                payload.put(DURATION_DAYS, e.getDurationDays());
+                yield e.getListing().getId();
+            }
+            case ListingMediaCreatedEvent e -> {
+                payload.put(FILE_KEY, e.getFileKey());
+                payload.put(MEDIA_TYPE, e.getMediaType());
+                yield e.getListingId();
+            }
+            default -> throw new IllegalArgumentException("Not a listing event: " + event.getClass().getName());
+        };
+        if (listingId == null) {
+            throw new IllegalArgumentException("Listing event without a listing ID: " + event);
+        }
+        try {
+            return new OutboxEvent(listingId, event.getClass().getSimpleName(), objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + event, e);
+        }
+    }
+
+    /**
+     * Rebuild the event of a row.
+     *
+     * @return The event, or empty if its listing has been deleted since
+     */
+    private Optional<ApplicationEvent> toEvent(OutboxEvent row) {
+        Map<String, Object> payload = readPayload(row);
+        boolean adminAction = Boolean.TRUE.equals(payload.get(ADMIN_ACTION));
+        String type = row.getEventType();
+        if ("ListingMediaCreatedEvent".equals(type)) {
+            return Optional.of(new ListingMediaCreatedEvent(this, row.getListingId(),
+                    (String) payload.get(FILE_KEY), (String) payload.get(MEDIA_TYPE)));
+        }
+        if ("ListingDeletedEvent".equals(type)) {
+            CarListing deleted = new CarListing();
+            deleted.setId(row.getListingId());
+            return Optional.of(new ListingDeletedEvent(this, deleted, adminAction));
+        }
+
+        Optional<CarListing> found = carListingRepository.findById(row.getListingId());
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        CarListing listing = found.get();
+        return Optional.of(switch (type) {
+            case "ListingApprovedEvent" -> new ListingApprovedEvent(this, listing);
+            case "ListingPausedEvent" -> new ListingPausedEvent(this, listing);
+            case "ListingResumedEvent" -> new ListingResumedEvent(this, listing);
+            case "ListingUpdatedEvent" -> new ListingUpdatedEvent(this, listing);
+            case "ListingMarkedAsSoldEvent" -> new ListingMarkedAsSoldEvent(this, listing, adminAction);
+            case "ListingArchivedEvent" -> new ListingArchivedEvent(this, listing, adminAction);
+            case "ListingExpiredEvent" -> new ListingExpiredEvent(this, listing, adminAction);
+            case "ListingRenewalInitiatedEvent" ->
+                    new ListingRenewalInitiatedEvent(this, listing, ((Number) payload.get(DURATION_DAYS)).intValue());
+            default -> throw new IllegalStateException("Unknown listing event type: " + type);
+        });
+    }
+
+    private Map<String, Object> readPayload(OutboxEvent row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed payload of outbox event " + row.getId(), e);
+        }
+    }
+
+    private Duration retryBackoff(int attempts) {
+        long initial = Math.max(1, properties.getRetryBackoffMillis());
+        long max = Math.max(initial, properties.getMaxRetryBackoffMillis());
+        int doublings = Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(max, initial << doublings));
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("listing.events.outbox")
+                .tag("result", result)
+                .description("Queued listing events by delivery outcome")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,145 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.ListingExpirationProperties;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires listings once their expiration date has passed, as an admin would with
+ * {@link CarListingStatusService#expireListing}, and queues a {@link ListingExpiredEvent} for each.
+ *
+ * <p>Due listings are found with a range scan over the unexpired listings ordered by expiration date and
+ * expired with one {@code UPDATE} per batch, each batch in its own transaction so row locks are held only as
+ * long as it takes to update one batch. The job runs on one instance at a time, guarded by the
+ * {@value #LOCK_NAME} lock of {@link SchedulerLockService}.</p>
+ *
+ * <p>Metrics: {@code listing.expiration.expired} counts expired listings and
+ * {@code listing.expiration.batch} times each batch transaction.</p>
+ */
+@Service
+@Slf4j
+public class ListingExpirationService {
+
+    static final String LOCK_NAME = "listing-expiration";
+
+    private final CarListingRepository carListingRepository;
+    private final ListingEventOutbox eventOutbox;
+    private final SchedulerLockService lockService;
+    private final ListingExpirationProperties properties;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+    private final Counter expired;
+    private final Timer batchDuration;
+
+    @Autowired
+    public ListingExpirationService(CarListingRepository carListingRepository,
+                                    ListingEventOutbox eventOutbox,
+                                    SchedulerLockService lockService,
+                                    ListingExpirationProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this(carListingRepository, eventOutbox, lockService, properties, transactionManager, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    ListingExpirationService(CarListingRepository carListingRepository,
+                             ListingEventOutbox eventOutbox,
+                             SchedulerLockService lockService,
+                             ListingExpirationProperties properties,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             Clock clock) {
+        this.carListingRepository = carListingRepository;
+        this.eventOutbox = eventOutbox;
+        this.lockService = lockService;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.expired = Counter.builder("listing.expiration.expired")
+                .description("Listings expired by the scheduled expiration job")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("listing.expiration.batch")
+                .description("Duration of the transactions that expire one batch of listings")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.listing.expiration.cron:0 */5 * * * *}")
+    public void scheduledExpire() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            expireDueListings();
+        } catch (RuntimeException e) {
+            log.error("Scheduled listing expiration failed", e);
+        }
+    }
+
+    /**
+     * Expire all listings that are due, unless another instance is already doing so.
+     *
+     * @return The number of expired listings
+     */
+    public int expireDueListings() {
+        Duration lockTimeout = Duration.ofMillis(properties.getLockTimeoutMillis());
+        if (!lockService.tryLock(LOCK_NAME, lockTimeout)) {
+            log.debug("Listing expiration is running on another instance");
+            return 0;
+        }
+        try {
+            // Stop before the lease runs out and another instance may start expiring the same listings
+            Instant deadline = clock.instant().plus(lockTimeout);
+            int batchSize = Math.max(1, properties.getBatchSize());
+            int total = 0;
+            Integer processed;
+            do {
+                processed = batchDuration.record(() -> transaction.execute(status -> expireBatch(batchSize)));
+                total += processed != null ? processed : 0;
+            } while (processed != null && processed >= batchSize && clock.instant().isBefore(deadline));
+            if (total > 0) {
+                log.info("Expired {} listings past their expiration date", total);
+            }
+            return total;
+        } finally {
+            lockService.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Expire up to {@code batchSize} due listings and queue their events. Must run in a transaction.
+     *
+     * @return The number of due listings found
+     */
+    int expireBatch(int batchSize) {
+        List<Long> due = carListingRepository.findIdsDueForExpiration(LocalDateTime.now(clock),
+                PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        int updated = carListingRepository.markExpired(due);
+        List<ListingExpiredEvent> events = carListingRepository.findAllById(due).stream()
+                .filter(listing -> Boolean.TRUE.equals(listing.getExpired()))
+                .map(listing -> new ListingExpiredEvent(this, listing, false))
+                .toList();
+        eventOutbox.enqueueAll(events);
+        expired.increment(updated);
+        log.debug("Expired {} of {} due listings", updated, due.size());
+        return due.size();
+    }
+}
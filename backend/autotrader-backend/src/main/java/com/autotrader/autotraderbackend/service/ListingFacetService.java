@@ -0,0 +1,169 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.ListingFacetProperties;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse.FacetRange;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse.FacetValue;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingFacetRow;
+import com.autotrader.autotraderbackend.service.cache.ListingCacheKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes listing counts per brand, model, governorate, model-year, price and mileage bucket for a filter.
+ *
+ * <p>All facets come from a single grouped aggregate query over the listings matching the filter,
+ * with the same visibility rules as {@link CarListingService#getFilteredListings}. Results are cached
+ * for {@code app.listing.facets.cache-ttl-seconds}, keyed on the normalized filter, since a filter
+ * sidebar requests the same few combinations over and over and slightly stale counts are acceptable.
+ * Concurrent misses for the same filter share one query, and the cache exports its statistics as
+ * {@code cache.*} metrics tagged {@code cache=listingFacets}.</p>
+ */
+@Service
+@Slf4j
+public class ListingFacetService {
+
+    private record NameKey(String nameEn, String nameAr) {}
+
+    private final CarListingService carListingService;
+    private final CarListingRepository carListingRepository;
+    private final ListingFacetProperties properties;
+    private final Cache<String, ListingFacetsResponse> cache;
+
+    @Autowired
+    public ListingFacetService(CarListingService carListingService, CarListingRepository carListingRepository,
+                               ListingFacetProperties properties, MeterRegistry meterRegistry) {
+        this(carListingService, carListingRepository, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    ListingFacetService(CarListingService carListingService, CarListingRepository carListingRepository,
+                        ListingFacetProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.carListingService = carListingService;
+        this.carListingRepository = carListingRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, properties.getCacheMaxEntries()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(0, properties.getCacheTtlSeconds())))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "listingFacets");
+        }
+    }
+
+    /**
+     * Get the facet counts for the listings matching the filter.
+     * By default, this excludes listings that are sold or archived, like {@link CarListingService#getFilteredListings}.
+     *
+     * @param filterRequest The filter criteria.
+     * @return The counts per facet value; all zero if the filter names a location that does not exist.
+     */
+    @Transactional(readOnly = true)
+    public ListingFacetsResponse getFacets(ListingFilterRequest filterRequest) {
+        if (properties.getCacheTtlSeconds() <= 0) {
+            return computeFacets(filterRequest);
+        }
+        return cache.get(ListingCacheKeys.filter(filterRequest), key -> computeFacets(filterRequest));
+    }
+
+    private ListingFacetsResponse computeFacets(ListingFilterRequest filterRequest) {
+        Optional<Specification<CarListing>> spec = carListingService.publicFilterSpecification(filterRequest);
+        List<ListingFacetRow> rows;
+        if (spec.isPresent()) {
+            rows = carListingRepository.findFacetRows(spec.get(), properties.getPriceBucketEdges(),
+                    properties.getMileageBucketEdges());
+        } else {
+            log.info("Location filter (ID: {}, slug: '{}') resulted in no valid location. Returning empty facets.",
+                     filterRequest.getLocationId(), filterRequest.getLocation());
+            rows = List.of();
+        }
+
+        long total = 0;
+        Map<NameKey, Long> brands = new HashMap<>();
+        Map<NameKey, Long> models = new HashMap<>();
+        Map<NameKey, Long> governorates = new HashMap<>();
+        List<Integer> yearEdges = properties.getModelYearBucketEdges();
+        long[] yearCounts = new long[yearEdges.size() + 1];
+        long[] priceCounts = new long[properties.getPriceBucketEdges().size() + 1];
+        long[] mileageCounts = new long[properties.getMileageBucketEdges().size() + 1];
+
+        for (ListingFacetRow row : rows) {
+            total += row.count();
+            addCount(brands, row.brandNameEn(), row.brandNameAr(), row.count());
+            addCount(models, row.modelNameEn(), row.modelNameAr(), row.count());
+            addCount(governorates, row.governorateNameEn(), row.governorateNameAr(), row.count());
+            if (row.modelYear() != null) {
+                yearCounts[bucketOf(row.modelYear(), yearEdges)] += row.count();
+            }
+            addAll(priceCounts, row.priceBucketCounts());
+            addAll(mileageCounts, row.mileageBucketCounts());
+        }
+
+        log.debug("Computed listing facets over {} groups ({} listings)", rows.size(), total);
+        return new ListingFacetsResponse(total,
+                toFacetValues(brands), toFacetValues(models), toFacetValues(governorates),
+                toFacetRanges(yearEdges, yearCounts),
+                toFacetRanges(properties.getPriceBucketEdges(), priceCounts),
+                toFacetRanges(properties.getMileageBucketEdges(), mileageCounts));
+    }
+
+    private static void addCount(Map<NameKey, Long> counts, String nameEn, String nameAr, long count) {
+        if (nameEn == null && nameAr == null) {
+            return;
+        }
+        counts.merge(new NameKey(nameEn, nameAr), count, Long::sum);
+    }
+
+    private static void addAll(long[] totals, long[] counts) {
+        for (int i = 0; i < totals.length && i < counts.length; i++) {
+            totals[i] += counts[i];
+        }
+    }
+
+    private static <T extends Comparable<? super T>> int bucketOf(T value, List<T> edges) {
+        int bucket = 0;
+        while (bucket < edges.size() && value.compareTo(edges.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<FacetValue> toFacetValues(Map<NameKey, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<NameKey, Long>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().nameEn(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(entry -> new FacetValue(entry.getKey().nameEn(), entry.getKey().nameAr(), entry.getValue()))
+                .toList();
+    }
+
+    private static <T> List<FacetRange<T>> toFacetRanges(List<T> edges, long[] counts) {
+        List<FacetRange<T>> ranges = new ArrayList<>(counts.length);
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            T min = bucket > 0 ? edges.get(bucket - 1) : null;
+            T max = bucket < edges.size() ? edges.get(bucket) : null;
+            ranges.add(new FacetRange<>(min, max, counts[bucket]));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,239 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
+import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.payload.request.CompleteImageUploadRequest;
+import com.autotrader.autotraderbackend.payload.request.ImageUploadUrlRequest;
+import com.autotrader.autotraderbackend.payload.response.ImageUploadUrlResponse;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.autotrader.autotraderbackend.service.storage.PresignedUpload;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.storage.StoredObjectMetadata;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor.IngestedImage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Two-phase upload of listing images directly to object storage.
+ *
+ * <p>{@link #createUploadUrl} authorizes the seller and returns a pre-signed PUT request whose signature
+ * covers the content type and exact size; the client then uploads the file straight to storage.
+ * {@link #completeUpload} checks the stored object with a metadata lookup, detects its type from its first
+ * bytes like the other upload paths do, and only then records the {@link ListingMedia}. Neither phase streams
+ * the whole file through the application, and the storage round-trips run outside any database transaction,
+ * so no connection is held while storage responds. Both phases check that the user owns the listing before
+ * touching storage.</p>
+ *
+ * <p>Clients that cannot upload to storage themselves use {@link #uploadStream}, which pipes the request
+ * body through {@link StreamingImageIngestor} instead of buffering the whole file.</p>
+ */
+@Service
+@Slf4j
+public class ListingImageUploadService {
+
+    private final CarListingRepository carListingRepository;
+    private final UserRepository userRepository;
+    private final StorageService storageService;
+    private final StorageKeyGenerator storageKeyGenerator;
+    private final StreamingImageIngestor imageIngestor;
+    private final FileUploadProperties uploadProperties;
+    private final ListingEventOutbox eventOutbox;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+
+    public ListingImageUploadService(CarListingRepository carListingRepository,
+                                     UserRepository userRepository,
+                                     StorageService storageService,
+                                     StorageKeyGenerator storageKeyGenerator,
+                                     StreamingImageIngestor imageIngestor,
+                                     FileUploadProperties uploadProperties,
+                                     ListingEventOutbox eventOutbox,
+                                     PlatformTransactionManager transactionManager) {
+        this.carListingRepository = carListingRepository;
+        this.userRepository = userRepository;
+        this.storageService = storageService;
+        this.storageKeyGenerator = storageKeyGenerator;
+        this.imageIngestor = imageIngestor;
+        this.uploadProperties = uploadProperties;
+        this.eventOutbox = eventOutbox;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Issue a pre-signed URL for uploading an image to a listing owned by the user.
+     *
+     * @throws InvalidFileException if the declared type or size is not allowed.
+     * @throws ResourceNotFoundException if the listing or user does not exist.
+     * @throws SecurityException if the user does not own the listing.
+     */
+    public ImageUploadUrlResponse createUploadUrl(Long listingId, ImageUploadUrlRequest request, String username) {
+        Objects.requireNonNull(listingId, "Listing ID cannot be null");
+        Objects.requireNonNull(request, "ImageUploadUrlRequest cannot be null");
+        if (StringUtils.isBlank(username)) {
+            throw new IllegalArgumentException("Username cannot be blank");
+        }
+        validateImage(request.getContentType(), request.getSize() != null ? request.getSize() : 0L);
+
+        readOnlyTransaction.executeWithoutResult(status -> findOwnedListing(listingId, username, "upload image for"));
+
+        String imageKey = storageKeyGenerator.generateListingMediaKey(listingId, request.getFileName());
+        PresignedUpload upload = storageService.createPresignedUpload(imageKey, request.getContentType(),
+                request.getSize(), uploadProperties.getDirectUploadExpirationSeconds());
+        log.info("Issued direct upload URL for listing ID: {} with key '{}' to user: {}", listingId, imageKey, username);
+        return new ImageUploadUrlResponse(imageKey, upload.url(), upload.method(), upload.headers(), upload.expiresAt());
+    }
+
+    /**
+     * Record an image the user uploaded with a URL from {@link #createUploadUrl}. Completing the same key
+     * twice returns the existing media instead of adding a duplicate.
+     *
+     * @return The key of the recorded image.
+     * @throws InvalidFileException if the key does not belong to the listing, nothing was uploaded under it,
+     *         or the stored object's declared or detected type is not an allowed image; a rejected object is
+     *         deleted.
+     * @throws ResourceNotFoundException if the listing or user does not exist.
+     * @throws SecurityException if the user does not own the listing.
+     */
+    public String completeUpload(Long listingId, CompleteImageUploadRequest request, String username) {
+        Objects.requireNonNull(listingId, "Listing ID cannot be null");
+        Objects.requireNonNull(request, "CompleteImageUploadRequest cannot be null");
+        if (StringUtils.isBlank(username)) {
+            throw new IllegalArgumentException("Username cannot be blank");
+        }
+        String imageKey = request.getImageKey();
+        if (!storageKeyGenerator.isListingMediaKey(listingId, imageKey)) {
+            log.warn("User '{}' tried to complete an upload for listing ID {} with foreign key '{}'", username, listingId, imageKey);
+            throw new InvalidFileException("Image key does not belong to listing " + listingId);
+        }
+
+        readOnlyTransaction.executeWithoutResult(status -> findOwnedListing(listingId, username, "upload image for"));
+
+        StoredObjectMetadata stored = storageService.getMetadata(imageKey)
+                .orElseThrow(() -> new InvalidFileException("No uploaded file found for key: " + imageKey));
+        final String contentType;
+        try {
+            validateImage(stored.contentType(), stored.contentLength());
+            // The stored type is the one the client declared, so check the content as well
+            contentType = imageIngestor.verifyStored(imageKey);
+        } catch (InvalidFileException e) {
+            log.warn("Rejecting direct upload '{}' for listing ID {}: {}", imageKey, listingId, e.getMessage());
+            storageService.delete(imageKey);
+            throw e;
+        }
+
+        String fileName = StringUtils.isNotBlank(request.getFileName())
+                ? request.getFileName()
+                : storageKeyGenerator.getFilename(imageKey);
+        recordMedia(listingId, username, imageKey, fileName, contentType, stored.contentLength());
+        log.info("Completed direct upload '{}' ({} bytes) for listing ID: {}", imageKey, stored.contentLength(), listingId);
+        return imageKey;
+    }
+
+    /**
+     * Upload an image to a listing owned by the user by streaming the request body to storage.
+     *
+     * @param content       The image content; it is not closed.
+     * @param fileName      The original file name, or null.
+     * @param contentLength The length of the content, or -1 if unknown.
+     * @return The stored image.
+     * @throws InvalidFileException if the content is empty, too large or not an allowed image type.
+     * @throws ResourceNotFoundException if the listing or user does not exist.
+     * @throws SecurityException if the user does not own the listing.
+     */
+    public IngestedImage uploadStream(Long listingId, InputStream content, String fileName, long contentLength,
+                                      String username) {
+        Objects.requireNonNull(listingId, "Listing ID cannot be null");
+        Objects.requireNonNull(content, "Content cannot be null");
+        if (StringUtils.isBlank(username)) {
+            throw new IllegalArgumentException("Username cannot be blank");
+        }
+
+        readOnlyTransaction.executeWithoutResult(status -> findOwnedListing(listingId, username, "upload image for"));
+
+        String name = StringUtils.isNotBlank(fileName) ? fileName : "image";
+        String imageKey = storageKeyGenerator.generateListingMediaKey(listingId, name);
+        IngestedImage image = imageIngestor.ingest(content, contentLength, imageKey);
+        try {
+            recordMedia(listingId, username, imageKey, name, image.contentType(), image.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not record streamed upload '{}' for listing ID {}, deleting it", imageKey, listingId);
+            storageService.delete(imageKey);
+            throw e;
+        }
+        log.info("Streamed upload '{}' ({} bytes, sha256 {}) for listing ID: {}",
+                 imageKey, image.size(), image.sha256(), listingId);
+        return image;
+    }
+
+    /**
+     * Record the stored image on the listing and, once committed, announce it for variant generation.
+     */
+    private void recordMedia(Long listingId, String username, String imageKey, String fileName,
+                             String contentType, long size) {
+        transaction.executeWithoutResult(status -> {
+            CarListing listing = findOwnedListing(listingId, username, "upload image for");
+            boolean alreadyRecorded = listing.getMedia().stream()
+                    .anyMatch(media -> imageKey.equals(media.getFileKey()));
+            if (alreadyRecorded) {
+                log.info("Upload '{}' is already recorded for listing ID: {}", imageKey, listingId);
+                return;
+            }
+
+            ListingMedia media = new ListingMedia();
+            media.setCarListing(listing);
+            media.setFileKey(imageKey);
+            media.setFileName(fileName);
+            media.setContentType(contentType);
+            media.setSize(size);
+            media.setSortOrder(listing.getMedia().size());
+            media.setIsPrimary(listing.getMedia().isEmpty()); // First image is primary
+            media.setMediaType("image");
+            listing.addMedia(media);
+            carListingRepository.save(listing);
+            eventOutbox.enqueue(new ListingMediaCreatedEvent(this, listingId, imageKey, "image"));
+        });
+    }
+
+    private void validateImage(String contentType, long size) {
+        if (StringUtils.isBlank(contentType) || !uploadProperties.getAllowedTypes().contains(contentType)) {
+            throw new InvalidFileException(String.format("File type %s is not allowed. Allowed types: %s",
+                    contentType, uploadProperties.getAllowedTypes()));
+        }
+        if (size <= 0) {
+            throw new InvalidFileException("File is empty");
+        }
+        if (size > uploadProperties.getMaxFileSize()) {
+            throw new InvalidFileException(String.format("File size exceeds maximum limit of %d bytes",
+                    uploadProperties.getMaxFileSize()));
+        }
+    }
+
+    private CarListing findOwnedListing(Long listingId, String username, String action) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        CarListing listing = carListingRepository.findById(listingId)
+                .orElseThrow(() -> new ResourceNotFoundException("CarListing", "id", listingId));
+        if (listing.getSeller() == null || !listing.getSeller().getId().equals(user.getId())) {
+            log.warn("Authorization failed: User '{}' (ID: {}) attempted to {} listing ID {}",
+                     username, user.getId(), action, listingId);
+            throw new SecurityException("User does not have permission to modify this listing.");
+        }
+        return listing;
+    }
+}
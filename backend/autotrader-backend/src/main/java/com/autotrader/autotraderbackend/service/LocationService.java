@@ -114,7 +114,7 @@ public class LocationService {
      * @return The created location
      */
     @Transactional
-    @CacheEvict(value = {"locations", "locationsByCountry"}, allEntries = true)
+    @CacheEvict(value = {"locations", "locationsByCountry", "locationsByGovernorate"}, allEntries = true)
     public LocationResponse createLocation(LocationRequest request) {
         log.debug("Creating new location: {}", request);
         
@@ -142,7 +142,7 @@ public class LocationService {
      * @throws ResourceNotFoundException if location not found
      */
     @Transactional
-    @CacheEvict(value = {"locations", "locationsByCountry"}, allEntries = true)
+    @CacheEvict(value = {"locations", "locationsByCountry", "locationsByGovernorate"}, allEntries = true)
     public LocationResponse updateLocation(Long id, LocationRequest request) {
         log.debug("Updating location with ID: {}", id);
         
@@ -172,7 +172,7 @@ public class LocationService {
      * @throws ResourceNotFoundException if location not found
      */
     @Transactional
-    @CacheEvict(value = {"locations", "locationsByCountry"}, allEntries = true)
+    @CacheEvict(value = {"locations", "locationsByCountry", "locationsByGovernorate"}, allEntries = true)
     public void deleteLocation(Long id) {
         log.debug("Deleting location with ID: {}", id);
         
@@ -192,7 +192,7 @@ public class LocationService {
      * @throws ResourceNotFoundException if location not found
      */
     @Transactional
-    @CacheEvict(value = {"locations", "locationsByCountry"}, allEntries = true)
+    @CacheEvict(value = {"locations", "locationsByCountry", "locationsByGovernorate"}, allEntries = true)
     public LocationResponse setLocationActive(Long id, boolean active) {
         log.debug("Setting location {} active status to: {}", id, active);
         
@@ -0,0 +1,167 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.payload.response.CarReferenceDataResponse;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the combined {@code /api/reference-data} payload from a pre-serialized snapshot.
+ *
+ * <p>Every client requests this payload on start-up, yet it only changes when an administrator edits one
+ * of the lookup tables. The snapshot holds the JSON body, a gzip-compressed copy and a strong ETag derived
+ * from the body's content, so requests cost neither queries nor serialization and unchanged clients can be
+ * answered with {@code 304 Not Modified}. The snapshot is rebuilt on the first request after
+ * {@link ReferenceDataVersion} reports a change. That version is local to the instance that made the change,
+ * so a snapshot is also rebuilt once it is older than {@code app.reference-data.snapshot-max-age-seconds};
+ * other instances serve an edit within that time. A rebuild with unchanged content keeps its ETag.</p>
+ */
+@Service
+@Slf4j
+public class ReferenceDataSnapshotService {
+
+    /**
+     * Immutable serialized reference data. The byte arrays are shared between requests and must not be modified.
+     *
+     * @param json     The JSON body.
+     * @param gzip     The gzip-compressed body, or null if the body is too small to be worth compressing.
+     * @param etag     Strong ETag of the JSON body, including quotes.
+     * @param gzipEtag Strong ETag of the gzip-compressed body, including quotes.
+     * @param version  The {@link ReferenceDataVersion} the snapshot was built from.
+     */
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag, long version) {}
+
+    /**
+     * Smallest body that is compressed, the same threshold as Spring Boot's {@code server.compression.min-response-size}.
+     */
+    static final int GZIP_MIN_SIZE = 2048;
+
+    private final CarConditionService carConditionService;
+    private final DriveTypeService driveTypeService;
+    private final BodyStyleService bodyStyleService;
+    private final FuelTypeService fuelTypeService;
+    private final TransmissionService transmissionService;
+    private final SellerTypeService sellerTypeService;
+    private final ReferenceDataVersion referenceDataVersion;
+    private final ObjectMapper objectMapper;
+
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    private record CachedSnapshot(Snapshot snapshot, long expiresAtMillis) {}
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CachedSnapshot cached;
+
+    @Autowired
+    public ReferenceDataSnapshotService(CarConditionService carConditionService, DriveTypeService driveTypeService,
+                                        BodyStyleService bodyStyleService, FuelTypeService fuelTypeService,
+                                        TransmissionService transmissionService, SellerTypeService sellerTypeService,
+                                        ReferenceDataVersion referenceDataVersion, ObjectMapper objectMapper,
+                                        @Value("${app.reference-data.snapshot-max-age-seconds:60}") long maxAgeSeconds) {
+        this(carConditionService, driveTypeService, bodyStyleService, fuelTypeService, transmissionService,
+                sellerTypeService, referenceDataVersion, objectMapper, maxAgeSeconds, Clock.systemUTC());
+    }
+
+    ReferenceDataSnapshotService(CarConditionService carConditionService, DriveTypeService driveTypeService,
+                                 BodyStyleService bodyStyleService, FuelTypeService fuelTypeService,
+                                 TransmissionService transmissionService, SellerTypeService sellerTypeService,
+                                 ReferenceDataVersion referenceDataVersion, ObjectMapper objectMapper,
+                                 long maxAgeSeconds, Clock clock) {
+        this.carConditionService = carConditionService;
+        this.driveTypeService = driveTypeService;
+        this.bodyStyleService = bodyStyleService;
+        this.fuelTypeService = fuelTypeService;
+        this.transmissionService = transmissionService;
+        this.sellerTypeService = sellerTypeService;
+        this.referenceDataVersion = referenceDataVersion;
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeSeconds * 1000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the current snapshot, rebuilding it if reference data changed since it was built or it is too old.
+     */
+    public Snapshot getSnapshot() {
+        CachedSnapshot current = cached;
+        if (isFresh(current, referenceDataVersion.current())) {
+            return current.snapshot();
+        }
+        // A lock rather than synchronized: the rebuild queries the database, which would pin a virtual thread
+        rebuildLock.lock();
+        try {
+            current = cached;
+            long version = referenceDataVersion.current();
+            if (!isFresh(current, version)) {
+                // Built from the version read before loading; a change committed meanwhile triggers another rebuild
+                long expiresAtMillis = clock.millis() + maxAgeMillis;
+                current = new CachedSnapshot(build(version), expiresAtMillis);
+                cached = current;
+            }
+            return current.snapshot();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isFresh(CachedSnapshot current, long version) {
+        return current != null && current.snapshot().version() == version
+                && clock.millis() < current.expiresAtMillis();
+    }
+
+    private Snapshot build(long version) {
+        CarReferenceDataResponse referenceData = new CarReferenceDataResponse(
+            carConditionService.getAllConditions(),
+            driveTypeService.getAllDriveTypes(),
+            bodyStyleService.getAllBodyStyles(),
+            fuelTypeService.getAllFuelTypes(),
+            transmissionService.getAllTransmissions(),
+            sellerTypeService.getAllSellerTypes()
+        );
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(referenceData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reference data", e);
+        }
+        byte[] gzip = json.length >= GZIP_MIN_SIZE ? gzip(json) : null;
+        String hash = sha256(json);
+        log.info("Built reference data snapshot (version {}, {} bytes, {} compressed)",
+                 version, json.length, gzip != null ? gzip.length : "not");
+        return new Snapshot(json, gzip, "\"" + hash + "\"", "\"" + hash + "-gzip\"", version);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
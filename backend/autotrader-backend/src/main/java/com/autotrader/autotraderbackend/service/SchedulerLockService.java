@@ -0,0 +1,84 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.model.SchedulerLock;
+import com.autotrader.autotraderbackend.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Leases on the {@code scheduler_locks} table, so that a scheduled job runs on one instance at a time. A lease
+ * runs out after the given time even if its holder never releases it, e.g. because it crashed, so it must
+ * outlast the longest expected run of the job.
+ */
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+    private final String owner;
+
+    @Autowired
+    public SchedulerLockService(SchedulerLockRepository lockRepository, PlatformTransactionManager transactionManager) {
+        this(lockRepository, transactionManager, Clock.systemDefaultZone(),
+                ManagementFactory.getRuntimeMXBean().getName());
+    }
+
+    SchedulerLockService(SchedulerLockRepository lockRepository, PlatformTransactionManager transactionManager,
+                         Clock clock, String owner) {
+        this.lockRepository = lockRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        this.owner = owner;
+    }
+
+    /**
+     * Take the lock unless another instance holds an unexpired lease on it.
+     *
+     * @param name The job's lock name
+     * @param leaseTime How long the lock is held unless released earlier
+     * @return Whether the lock was taken
+     */
+    public boolean tryLock(String name, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = now.plus(leaseTime);
+        try {
+            Boolean acquired = transaction.execute(status -> {
+                if (lockRepository.tryAcquire(name, now, until, owner) > 0) {
+                    return true;
+                }
+                if (lockRepository.existsById(name)) {
+                    return false;
+                }
+                lockRepository.saveAndFlush(new SchedulerLock(name, until, now, owner));
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock '{}' was created by another instance", name);
+            return false;
+        }
+    }
+
+    /**
+     * Release a lock taken by {@link #tryLock}. Does nothing if the lease has since been taken over.
+     */
+    public void unlock(String name) {
+        Integer released = transaction.execute(status -> lockRepository.release(name, LocalDateTime.now(clock), owner));
+        if (released == null || released == 0) {
+            log.warn("Lock '{}' was no longer held by {} when released", name, owner);
+        }
+    }
+}
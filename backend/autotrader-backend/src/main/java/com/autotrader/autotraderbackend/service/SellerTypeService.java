@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.SellerType;
 import com.autotrader.autotraderbackend.repository.SellerTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class SellerTypeService {
 
     private final SellerTypeRepository sellerTypeRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all seller types
@@ -70,6 +72,7 @@ public class SellerTypeService {
     @Transactional
     public SellerType createSellerType(SellerType sellerType) {
         log.info("Creating new seller type: {}", sellerType.getName());
+        referenceDataVersion.markChanged();
         return sellerTypeRepository.save(sellerType);
     }
     
@@ -89,6 +92,7 @@ public class SellerTypeService {
         sellerType.setDisplayNameAr(sellerTypeDetails.getDisplayNameAr());
         
         log.info("Updated seller type with id: {}", id);
+        referenceDataVersion.markChanged();
         return sellerTypeRepository.save(sellerType);
     }
     
@@ -101,5 +105,6 @@ public class SellerTypeService {
         SellerType sellerType = getSellerTypeById(id);
         log.info("Deleting seller type with id: {}", id);
         sellerTypeRepository.delete(sellerType);
+        referenceDataVersion.markChanged();
     }
 }
@@ -19,11 +19,18 @@ public enum SortableCarListingField {
     }
 
     public static boolean isAllowed(String field) {
+        return fromFieldName(field) != null;
+    }
+
+    /**
+     * @return the matching sortable field, or null if the field is not sortable.
+     */
+    public static SortableCarListingField fromFieldName(String field) {
         for (SortableCarListingField allowed : values()) {
             if (allowed.getFieldName().equals(field)) {
-                return true;
+                return allowed;
             }
         }
-        return false;
+        return null;
     }
 }
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.Transmission;
 import com.autotrader.autotraderbackend.repository.TransmissionRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import java.util.List;
 public class TransmissionService {
 
     private final TransmissionRepository transmissionRepository;
+    private final ReferenceDataVersion referenceDataVersion;
 
     /**
      * Get all transmissions
@@ -70,6 +72,7 @@ public class TransmissionService {
     @Transactional
     public Transmission createTransmission(Transmission transmission) {
         log.info("Creating new transmission: {}", transmission.getName());
+        referenceDataVersion.markChanged();
         return transmissionRepository.save(transmission);
     }
     
@@ -89,6 +92,7 @@ public class TransmissionService {
         transmission.setDisplayNameAr(transmissionDetails.getDisplayNameAr());
         
         log.info("Updated transmission with id: {}", id);
+        referenceDataVersion.markChanged();
         return transmissionRepository.save(transmission);
     }
     
@@ -101,5 +105,6 @@ public class TransmissionService {
         Transmission transmission = getTransmissionById(id);
         log.info("Deleting transmission with id: {}", id);
         transmissionRepository.delete(transmission);
+        referenceDataVersion.markChanged();
     }
 }
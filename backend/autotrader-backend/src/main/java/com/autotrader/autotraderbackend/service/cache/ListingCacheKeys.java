@@ -0,0 +1,56 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Builds cache keys for listing queries. Filters that select the same listings map to the same key:
+ * keywords, brand and model match case-insensitively, prices compare by value, and a location ID takes
+ * precedence over a slug, as in {@code CarListingService.publicFilterSpecification}. Every field is prefixed
+ * with its length, so user input containing the separator cannot make two different filters share a key.
+ */
+public final class ListingCacheKeys {
+
+    private ListingCacheKeys() {
+    }
+
+    public static String filter(ListingFilterRequest filter) {
+        String location = filter.getLocationId() != null
+                ? "id:" + filter.getLocationId()
+                : StringUtils.isNotBlank(filter.getLocation()) ? "slug:" + filter.getLocation() : "";
+        StringBuilder key = new StringBuilder();
+        for (String field : new String[] {
+                normalize(filter.getQ()),
+                normalize(filter.getBrand()),
+                normalize(filter.getModel()),
+                Objects.toString(filter.getMinYear(), ""),
+                Objects.toString(filter.getMaxYear(), ""),
+                location,
+                plain(filter.getMinPrice()),
+                plain(filter.getMaxPrice()),
+                Objects.toString(filter.getMinMileage(), ""),
+                Objects.toString(filter.getMaxMileage(), ""),
+                Objects.toString(filter.getIsSold(), ""),
+                Objects.toString(filter.getIsArchived(), "")}) {
+            key.append(field.length()).append(':').append(field).append('|');
+        }
+        return key.toString();
+    }
+
+    public static String page(Pageable pageable) {
+        return pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+    }
+
+    private static String normalize(String text) {
+        return StringUtils.isNotBlank(text) ? text.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "";
+    }
+}
@@ -0,0 +1,246 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import com.autotrader.autotraderbackend.config.ListingPageCacheProperties;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the first pages of the public listing endpoints, which are identical for every anonymous visitor.
+ *
+ * <p>Pages are stored serialized, so a cached entry is immutable, costs a compact byte array rather than
+ * an object graph, and every hit hands out its own copy. They are held in a Caffeine cache bounded to
+ * {@code app.listing.page-cache.max-entries}, expire after {@code app.listing.page-cache.ttl-seconds} and
+ * are all dropped by {@link #invalidateAll()} whenever a
+ * listing changes state (see {@code ListingPageCacheListener}); any change can move a listing in or out
+ * of any filter, so finer-grained invalidation would not pay off.</p>
+ *
+ * <p>Concurrent misses for the same page are coalesced: one request loads the page while the others wait
+ * for its result instead of all hitting the database. A load that overlaps an invalidation is returned to
+ * its callers but not cached. Listing events reach the cache through {@code ListingEventOutbox} only after
+ * the change has committed, so a page cached before that delivery is always dropped by it; pages may lag a
+ * change by at most the outbox delivery delay, and a repeated delivery only causes an extra invalidation.</p>
+ *
+ * <p>Hits, misses, coalesced loads, size and hit ratio are published as {@code listing.page.cache.*} metrics.</p>
+ */
+@Component
+@Slf4j
+public class ListingPageCache {
+
+    private static final String APPROVED_PREFIX = "approved|";
+    private static final String FILTER_PREFIX = "filter|";
+
+    /**
+     * Serialized form of a cached page.
+     */
+    record PageBody(List<CarListingResponse> content, long totalElements) {}
+
+    private final ListingPageCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> entries;
+    private final Map<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Autowired
+    public ListingPageCache(ListingPageCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, Clock.systemUTC());
+    }
+
+    ListingPageCache(ListingPageCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        // Derived, getter-only response properties must not stop cached pages from being read back
+        this.objectMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, properties.getMaxEntries()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(0, properties.getTtlSeconds())))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("listing.page.cache.requests", hits, LongAdder::sum)
+                    .tag("result", "hit")
+                    .description("Listing page requests served from the cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("listing.page.cache.requests", misses, LongAdder::sum)
+                    .tag("result", "miss")
+                    .description("Listing page requests that were not cached")
+                    .register(meterRegistry);
+            FunctionCounter.builder("listing.page.cache.coalesced", coalesced, LongAdder::sum)
+                    .description("Cache misses served by waiting for a concurrent load of the same page")
+                    .register(meterRegistry);
+            Gauge.builder("listing.page.cache.size", entries, Cache::estimatedSize)
+                    .description("Number of cached listing pages")
+                    .register(meterRegistry);
+            Gauge.builder("listing.page.cache.hit.ratio", this, ListingPageCache::getHitRatio)
+                    .description("Share of cacheable listing page requests served from the cache")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return a page of all publicly visible listings, from the cache or by calling the loader.
+     */
+    public Page<CarListingResponse> getApprovedPage(Pageable pageable, Supplier<Page<CarListingResponse>> loader) {
+        return get(APPROVED_PREFIX + ListingCacheKeys.page(pageable), pageable, loader);
+    }
+
+    /**
+     * Return a page of listings matching the filter, from the cache or by calling the loader.
+     */
+    public Page<CarListingResponse> getFilteredPage(ListingFilterRequest filter, Pageable pageable,
+                                                    Supplier<Page<CarListingResponse>> loader) {
+        return get(FILTER_PREFIX + ListingCacheKeys.filter(filter) + "|" + ListingCacheKeys.page(pageable), pageable, loader);
+    }
+
+    /**
+     * Drop every cached page. Loads already running when this is called are not cached.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total > 0 ? (double) hitCount / total : 0.0;
+    }
+
+    /**
+     * The number of cached pages, after any pending evictions.
+     */
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    private Page<CarListingResponse> get(String key, Pageable pageable, Supplier<Page<CarListingResponse>> loader) {
+        if (!isCacheable(pageable)) {
+            return loader.get();
+        }
+
+        byte[] cached = entries.getIfPresent(key);
+        if (cached != null) {
+            Page<CarListingResponse> page = toPage(cached, pageable);
+            if (page != null) {
+                hits.increment();
+                return page;
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            Page<CarListingResponse> page = awaitLoad(running, pageable);
+            if (page != null) {
+                coalesced.increment();
+                return page;
+            }
+            return loader.get();
+        }
+
+        try {
+            long startGeneration = generation.get();
+            Page<CarListingResponse> page = loader.get();
+            byte[] loaded = serialize(page);
+            if (loaded != null && generation.get() == startGeneration) {
+                entries.put(key, loaded);
+                if (generation.get() != startGeneration) {
+                    // Invalidated between the check and the put
+                    entries.asMap().remove(key, loaded);
+                }
+            }
+            load.complete(loaded);
+            return page;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    private boolean isCacheable(Pageable pageable) {
+        return properties.isEnabled()
+                && properties.getTtlSeconds() > 0
+                && properties.getMaxEntries() > 0
+                && pageable.isPaged()
+                && pageable.getPageNumber() < properties.getMaxPages()
+                && pageable.getPageSize() <= properties.getMaxPageSize();
+    }
+
+    /**
+     * Wait for a concurrent load of the same page.
+     *
+     * @return The loaded page, or null if the load failed, timed out or could not be cached;
+     *         the caller then loads the page itself.
+     */
+    private Page<CarListingResponse> awaitLoad(CompletableFuture<byte[]> running, Pageable pageable) {
+        try {
+            byte[] loaded = running.get(properties.getLoadWaitMillis(), TimeUnit.MILLISECONDS);
+            return loaded != null ? toPage(loaded, pageable) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Concurrent load of a listing page did not complete ({}); loading it directly", e.toString());
+            return null;
+        }
+    }
+
+    private byte[] serialize(Page<CarListingResponse> page) {
+        try {
+            return objectMapper.writeValueAsBytes(new PageBody(page.getContent(), page.getTotalElements()));
+        } catch (IOException e) {
+            log.warn("Could not serialize listing page for caching: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Page<CarListingResponse> toPage(byte[] cached, Pageable pageable) {
+        try {
+            PageBody body = objectMapper.readValue(cached, PageBody.class);
+            return new PageImpl<>(body.content(), pageable, body.totalElements());
+        } catch (IOException e) {
+            log.warn("Could not deserialize cached listing page: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter for the lookup tables served by {@code /api/reference-data}.
+ *
+ * <p>Services that mutate reference data call {@link #markChanged()}; readers compare {@link #current()}
+ * with the version their cached copy was built from. Inside a transaction the version only moves once the
+ * transaction commits, so a copy rebuilt concurrently from uncommitted or pre-commit data is always
+ * recognised as stale afterwards. This class has no dependencies so that the lookup services can use it
+ * without a dependency cycle with the snapshot built from them.</p>
+ */
+@Component
+public class ReferenceDataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Record that reference data changed: immediately, or after commit when called inside a transaction.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
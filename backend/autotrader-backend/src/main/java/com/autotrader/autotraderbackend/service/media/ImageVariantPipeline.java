@@ -0,0 +1,337 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.ImageVariantProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.util.MediaVariantKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates resized JPEG variants (e.g. card, gallery, full) of listing images in the background, so
+ * listing cards and galleries do not download full-resolution originals.
+ *
+ * <p>Each image is downloaded and decoded once; the variants are produced from largest to smallest, each
+ * scaled from the previous one, stored under the thumbnails key pattern and then recorded on the
+ * {@code ListingMedia} row. Decoding is memory-hungry, so images whose header declares more than
+ * {@code maxPixels} are skipped without decoding, and images are processed by a fixed number of workers
+ * behind a bounded queue: a submission that finds the queue full waits briefly and is then skipped, leaving
+ * the listing on its original image. Storage and database steps are retried with backoff; the database
+ * update also covers the listing's transaction not having committed yet when the worker finishes.</p>
+ *
+ * <p>Metrics: {@code media.variants.queue.depth}, {@code media.variants.stage.duration} per stage and
+ * {@code media.variants.images} per result.</p>
+ */
+@Service
+@Slf4j
+public class ImageVariantPipeline {
+
+    static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+    static final String VARIANT_EXTENSION = ".jpg";
+
+    private static final List<String> STAGES = List.of("decode", "resize", "encode", "store", "record");
+
+    private final StorageService storageService;
+    private final StorageKeyGenerator storageKeyGenerator;
+    private final ListingMediaRepository listingMediaRepository;
+    private final ImageVariantProperties properties;
+    private final TransactionTemplate transaction;
+    private final RetryTemplate retryTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final Map<String, Timer> stageTimers = new HashMap<>();
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Counter dropped;
+
+    public ImageVariantPipeline(StorageService storageService,
+                                StorageKeyGenerator storageKeyGenerator,
+                                ListingMediaRepository listingMediaRepository,
+                                ImageVariantProperties properties,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.storageKeyGenerator = storageKeyGenerator;
+        this.listingMediaRepository = listingMediaRepository;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        Map<Class<? extends Throwable>, Boolean> retryable = Map.of(
+                IOException.class, true,
+                StorageException.class, true,
+                StorageFileNotFoundException.class, false,
+                MediaNotRecordedException.class, true);
+        this.retryTemplate = RetryTemplate.builder()
+                .customPolicy(new SimpleRetryPolicy(Math.max(1, properties.getMaxAttempts()), retryable, true))
+                .exponentialBackoff(Math.max(1, properties.getRetryBackoffMillis()), 2.0, 30_000)
+                .build();
+
+        int workers = Math.max(1, properties.getWorkers());
+        // The semaphore bounds queued plus running images; the queue itself never rejects
+        this.capacity = new Semaphore(workers + Math.max(0, properties.getQueueCapacity()));
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("media-variants-"));
+
+        Gauge.builder("media.variants.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Images waiting for variant generation")
+                .register(meterRegistry);
+        for (String stage : STAGES) {
+            stageTimers.put(stage, Timer.builder("media.variants.stage.duration")
+                    .tag("stage", stage)
+                    .description("Time spent per image variant pipeline stage")
+                    .register(meterRegistry));
+        }
+        this.completed = imageCounter(meterRegistry, "completed");
+        this.failed = imageCounter(meterRegistry, "failed");
+        this.skipped = imageCounter(meterRegistry, "skipped");
+        this.dropped = imageCounter(meterRegistry, "dropped");
+    }
+
+    /**
+     * Queue an image for variant generation.
+     *
+     * @return true if the image was queued, false if the pipeline is disabled or stayed full.
+     */
+    public boolean submit(Long listingId, String fileKey) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        boolean acquired;
+        try {
+            acquired = capacity.tryAcquire(properties.getSubmitTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            dropped.increment();
+            log.warn("Image variant queue is full; skipping variants of '{}' for listing ID {}", fileKey, listingId);
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(listingId, fileKey);
+                } finally {
+                    capacity.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            log.debug("Image variant pipeline is shut down; skipping '{}'", fileKey);
+            return false;
+        }
+        log.debug("Queued variant generation for '{}' of listing ID {}", fileKey, listingId);
+        return true;
+    }
+
+    /**
+     * Generate, store and record the variants of one image. Never throws.
+     */
+    void process(Long listingId, String fileKey) {
+        Map<String, String> variantKeys = new LinkedHashMap<>();
+        try {
+            BufferedImage image = stage("decode", () -> retryTemplate.execute(context -> decode(fileKey)));
+            if (image == null) {
+                skipped.increment();
+                log.info("Media '{}' of listing ID {} is not a decodable image or too large; no variants generated",
+                        fileKey, listingId);
+                return;
+            }
+
+            List<Map.Entry<String, Integer>> variants = properties.getWidths().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .toList();
+            for (Map.Entry<String, Integer> variant : variants) {
+                BufferedImage source = image;
+                image = stage("resize", () -> resize(source, variant.getValue()));
+                BufferedImage resized = image;
+                byte[] jpeg = stage("encode", () -> encodeJpeg(resized));
+                String key = storageKeyGenerator.generateThumbnailKey(fileKey, variant.getKey() + VARIANT_EXTENSION);
+                stage("store", () -> retryTemplate.execute(context -> {
+                    storageService.storeStream(new ByteArrayInputStream(jpeg), key, VARIANT_CONTENT_TYPE, jpeg.length);
+                    return key;
+                }));
+                variantKeys.put(variant.getKey(), key);
+            }
+
+            if (stage("record", () -> record(fileKey, variantKeys))) {
+                completed.increment();
+                log.info("Generated {} variants of '{}' for listing ID {}", variantKeys.size(), fileKey, listingId);
+            } else {
+                skipped.increment();
+                log.warn("Media '{}' of listing ID {} no longer exists; deleting its variants", fileKey, listingId);
+                deleteVariants(variantKeys);
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Failed to generate variants of '{}' for listing ID {}: {}", fileKey, listingId, e.getMessage(), e);
+            deleteVariants(variantKeys);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Abandoning {} queued image variant jobs on shutdown", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decode an image, after checking from its header that it stays within {@code maxPixels}: a small file
+     * can declare dimensions that take gigabytes once decoded.
+     *
+     * @return The image, or null if it is not a decodable image or too large.
+     */
+    private BufferedImage decode(String fileKey) throws IOException {
+        try (InputStream in = storageService.loadAsResource(fileKey).getInputStream();
+             ImageInputStream input = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.getMaxPixels()) {
+                    log.warn("Media '{}' is {}x{} px, more than the {} pixels allowed; not decoding it",
+                            fileKey, reader.getWidth(0), reader.getHeight(0), properties.getMaxPixels());
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale an image down to at most {@code maxWidth}, keeping its aspect ratio. Transparent areas are
+     * flattened onto white, as JPEG has no alpha channel.
+     */
+    static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 4);
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return false if no media with the key became visible within the retry budget.
+     */
+    private boolean record(String fileKey, Map<String, String> variantKeys) {
+        String encoded = MediaVariantKeys.format(variantKeys);
+        try {
+            return retryTemplate.execute(context -> {
+                Integer updated = transaction.execute(status -> listingMediaRepository.updateVariantKeys(fileKey, encoded));
+                if (updated == null || updated == 0) {
+                    throw new MediaNotRecordedException(fileKey);
+                }
+                return true;
+            });
+        } catch (MediaNotRecordedException e) {
+            return false;
+        }
+    }
+
+    private void deleteVariants(Map<String, String> variantKeys) {
+        for (String key : variantKeys.values()) {
+            try {
+                storageService.delete(key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete image variant '{}': {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private <T> T stage(String stage, Callable<T> action) throws Exception {
+        return stageTimers.get(stage).recordCallable(action);
+    }
+
+    private static Counter imageCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("media.variants.images")
+                .tag("result", result)
+                .description("Images processed by the variant pipeline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * No media row with the key is visible (yet).
+     */
+    private static final class MediaNotRecordedException extends RuntimeException {
+        MediaNotRecordedException(String fileKey) {
+            super("No media recorded for key: " + fileKey);
+        }
+    }
+}
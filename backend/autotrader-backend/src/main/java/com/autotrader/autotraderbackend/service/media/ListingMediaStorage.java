@@ -0,0 +1,195 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.service.storage.AsyncStorageService;
+import com.autotrader.autotraderbackend.service.storage.StorageDeletionOutbox;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.util.MediaVariantKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores and releases the objects behind uploaded listing images.
+ *
+ * <p>With {@code app.upload.content-addressed-storage} enabled, images are keyed by the SHA-256 of their
+ * content, so a photo reused across listings is stored once. An upload whose key is already referenced
+ * by a {@code ListingMedia} row skips the PUT and reuses that row's variants; the object is reference-counted
+ * by the rows sharing its key and only queued for deletion when the last of them goes. Otherwise every
+ * upload gets its own per-listing key, as generated by
+ * {@link StorageKeyGenerator#generateListingMediaKey}.</p>
+ *
+ * <p>Metrics: {@code media.uploads} per result ({@code stored}, {@code deduplicated}).</p>
+ */
+@Service
+@Slf4j
+public class ListingMediaStorage {
+
+    private final StorageService storageService;
+    private final AsyncStorageService asyncStorageService;
+    private final StorageKeyGenerator storageKeyGenerator;
+    private final ListingMediaRepository listingMediaRepository;
+    private final FileUploadProperties uploadProperties;
+    private final StorageDeletionOutbox deletionOutbox;
+    private final Counter storedUploads;
+    private final Counter deduplicatedUploads;
+
+    public ListingMediaStorage(StorageService storageService,
+                               AsyncStorageService asyncStorageService,
+                               StorageKeyGenerator storageKeyGenerator,
+                               ListingMediaRepository listingMediaRepository,
+                               FileUploadProperties uploadProperties,
+                               StorageDeletionOutbox deletionOutbox,
+                               MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.asyncStorageService = asyncStorageService;
+        this.storageKeyGenerator = storageKeyGenerator;
+        this.listingMediaRepository = listingMediaRepository;
+        this.uploadProperties = uploadProperties;
+        this.deletionOutbox = deletionOutbox;
+        this.storedUploads = Counter.builder("media.uploads")
+                .description("Listing image uploads by whether the object was stored or already present")
+                .tag("result", "stored")
+                .register(meterRegistry);
+        this.deduplicatedUploads = Counter.builder("media.uploads")
+                .description("Listing image uploads by whether the object was stored or already present")
+                .tag("result", "deduplicated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The object an uploaded image was stored as.
+     *
+     * @param key         The storage key to record on the media row
+     * @param variantKeys The encoded variant keys already generated for the object, or null
+     * @param stored      Whether the content was written to storage, false if an existing object is reused
+     */
+    public record StoredMedia(String key, String variantKeys, boolean stored) {
+    }
+
+    /**
+     * Store an uploaded image for a listing, or reuse the identical object if one is already referenced.
+     *
+     * @param listingId The listing the image is uploaded for
+     * @param file      The uploaded image
+     * @return The stored object
+     * @throws StorageException If the file cannot be read or stored
+     */
+    public StoredMedia store(Long listingId, MultipartFile file) {
+        String key = generateKey(listingId, file);
+        Optional<StoredMedia> existing = findStored(listingId, key);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        storageService.store(file, key);
+        storedUploads.increment();
+        return new StoredMedia(key, null, true);
+    }
+
+    /**
+     * Store an uploaded image for a listing like {@link #store}, without waiting for the upload. The key is
+     * generated, and an identical object looked up, on the calling thread; only the PUT runs asynchronously.
+     *
+     * @param listingId The listing the image is uploaded for
+     * @param file      The uploaded image, which must stay readable until the returned future completes
+     * @return A future completed with the stored object, or exceptionally with a {@link StorageException}
+     * @throws StorageException If the file cannot be read to generate its key
+     */
+    public CompletableFuture<StoredMedia> storeAsync(Long listingId, MultipartFile file) {
+        String key = generateKey(listingId, file);
+        Optional<StoredMedia> existing = findStored(listingId, key);
+        if (existing.isPresent()) {
+            return CompletableFuture.completedFuture(existing.get());
+        }
+        return asyncStorageService.storeAsync(file, key).thenApply(storedKey -> {
+            storedUploads.increment();
+            return new StoredMedia(storedKey, null, true);
+        });
+    }
+
+    /**
+     * Queue the objects of removed media for deletion, with their variants, unless other media still
+     * reference them. Must be called in the removing transaction after the removal has been flushed, so the
+     * removed rows no longer count as references; the objects are deleted once it commits.
+     *
+     * @param listingId    The listing the media belonged to, for logging
+     * @param removedMedia The removed media items
+     */
+    public void release(Long listingId, Collection<ListingMedia> removedMedia) {
+        Map<String, String> variantKeysByKey = new LinkedHashMap<>();
+        for (ListingMedia media : removedMedia) {
+            if (media.getFileKey() != null && variantKeysByKey.get(media.getFileKey()) == null) {
+                // Rows sharing a key share its variants; keep whichever row has them recorded
+                variantKeysByKey.put(media.getFileKey(), media.getVariantKeys());
+            }
+        }
+
+        variantKeysByKey.forEach((key, variantKeys) -> {
+            boolean shared = storageKeyGenerator.isContentAddressedKey(key);
+            if (shared && listingMediaRepository.countByFileKey(key) > 0) {
+                log.info("Keeping media with key: {} of listing ID: {}; still referenced by other listings", key, listingId);
+                return;
+            }
+            List<String> objectKeys = new ArrayList<>();
+            objectKeys.add(key);
+            objectKeys.addAll(MediaVariantKeys.parse(variantKeys).values());
+            deletionOutbox.enqueue(objectKeys, shared ? key : null);
+            log.info("Queued media with key: {} and {} variants of listing ID: {} for deletion",
+                    key, objectKeys.size() - 1, listingId);
+        });
+    }
+
+    private String generateKey(Long listingId, MultipartFile file) {
+        if (!uploadProperties.isContentAddressedStorage()) {
+            return storageKeyGenerator.generateListingMediaKey(listingId, file.getOriginalFilename());
+        }
+        return storageKeyGenerator.generateContentAddressedKey(sha256(file), file.getOriginalFilename());
+    }
+
+    /**
+     * The already stored object with a content-addressed key, if media still reference it.
+     */
+    private Optional<StoredMedia> findStored(Long listingId, String key) {
+        if (!uploadProperties.isContentAddressedStorage()) {
+            return Optional.empty();
+        }
+        Optional<ListingMedia> existing = listingMediaRepository.findFirstByFileKey(key);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        deduplicatedUploads.increment();
+        log.info("Image for listing ID {} matches stored object {}; skipping upload", listingId, key);
+        return Optional.of(new StoredMedia(key, existing.get().getVariantKeys(), false));
+    }
+
+    private static String sha256(MultipartFile file) {
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException e) {
+            throw new StorageException("Failed to read file " + file.getOriginalFilename(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.StorageDeletionProperties;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.service.SchedulerLockService;
+import com.autotrader.autotraderbackend.service.storage.StorageDeletionOutbox;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.storage.StoredObjectSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds files under the listing media prefix ({@code listings/{id}/}) whose listing no longer exists, e.g.
+ * because a direct upload completed after the listing was deleted or a deletion was given up on, and queues
+ * them on the {@link StorageDeletionOutbox}.
+ *
+ * <p>Only files older than {@code app.storage.deletion.orphan-min-age-minutes} are considered, so media of a
+ * listing whose creating transaction has not committed yet is never mistaken for an orphan. Content-addressed
+ * media is not under a listing's prefix and is only deleted through its references.</p>
+ *
+ * <p>The prefix is listed and checked one storage page at a time, so memory use does not grow with the
+ * bucket. The job runs on one instance at a time, guarded by the {@value #LOCK_NAME} lock of
+ * {@link SchedulerLockService}, which it holds for at most {@code app.storage.deletion.reconcile-lock-timeout-millis}.</p>
+ */
+@Service
+@Slf4j
+public class OrphanedMediaReconciler {
+
+    static final String LOCK_NAME = "orphaned-media-reconciliation";
+    private static final int ID_LOOKUP_BATCH_SIZE = 1000;
+
+    private final StorageService storageService;
+    private final StorageKeyGenerator storageKeyGenerator;
+    private final CarListingRepository carListingRepository;
+    private final StorageDeletionOutbox deletionOutbox;
+    private final SchedulerLockService lockService;
+    private final StorageDeletionProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public OrphanedMediaReconciler(StorageService storageService,
+                                   StorageKeyGenerator storageKeyGenerator,
+                                   CarListingRepository carListingRepository,
+                                   StorageDeletionOutbox deletionOutbox,
+                                   SchedulerLockService lockService,
+                                   StorageDeletionProperties properties) {
+        this(storageService, storageKeyGenerator, carListingRepository, deletionOutbox, lockService, properties,
+                Clock.systemUTC());
+    }
+
+    OrphanedMediaReconciler(StorageService storageService,
+                            StorageKeyGenerator storageKeyGenerator,
+                            CarListingRepository carListingRepository,
+                            StorageDeletionOutbox deletionOutbox,
+                            SchedulerLockService lockService,
+                            StorageDeletionProperties properties,
+                            Clock clock) {
+        this.storageService = storageService;
+        this.storageKeyGenerator = storageKeyGenerator;
+        this.carListingRepository = carListingRepository;
+        this.deletionOutbox = deletionOutbox;
+        this.lockService = lockService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${app.storage.deletion.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        if (!properties.isEnabled() || !properties.isReconcileEnabled()) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Reconciliation of orphaned listing media failed", e);
+        }
+    }
+
+    /**
+     * Queue the files of listings that no longer exist for deletion, unless another instance is already doing so.
+     *
+     * @return The number of queued files
+     */
+    public int reconcile() {
+        String prefix = storageKeyGenerator.getListingMediaRootPrefix();
+        if (prefix == null) {
+            log.warn("Listing media key pattern has no fixed prefix before the listing ID; skipping orphan reconciliation");
+            return 0;
+        }
+        if (!lockService.tryLock(LOCK_NAME, Duration.ofMillis(properties.getReconcileLockTimeoutMillis()))) {
+            log.debug("Orphan reconciliation is running on another instance");
+            return 0;
+        }
+        try {
+            Instant cutoff = clock.instant().minus(Duration.ofMinutes(Math.max(0, properties.getOrphanMinAgeMinutes())));
+            Totals totals = new Totals();
+            storageService.listObjectPages(prefix, page -> reconcilePage(page, cutoff, totals));
+            log.info("Orphan reconciliation checked {} listings under '{}'; queued {} files of {} removed listings",
+                    totals.listings, prefix, totals.queuedFiles, totals.removedListings);
+            return totals.queuedFiles;
+        } finally {
+            lockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private void reconcilePage(List<StoredObjectSummary> page, Instant cutoff, Totals totals) {
+        Map<Long, List<String>> keysByListing = new LinkedHashMap<>();
+        for (StoredObjectSummary object : page) {
+            Long listingId = storageKeyGenerator.extractListingId(object.key());
+            if (listingId != null && object.lastModified() != null && object.lastModified().isBefore(cutoff)) {
+                keysByListing.computeIfAbsent(listingId, id -> new ArrayList<>()).add(object.key());
+            }
+        }
+
+        List<Long> listingIds = new ArrayList<>(keysByListing.keySet());
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < listingIds.size(); from += ID_LOOKUP_BATCH_SIZE) {
+            existing.addAll(carListingRepository.findExistingIds(
+                    listingIds.subList(from, Math.min(from + ID_LOOKUP_BATCH_SIZE, listingIds.size()))));
+        }
+
+        List<String> orphaned = new ArrayList<>();
+        keysByListing.forEach((listingId, keys) -> {
+            if (!existing.contains(listingId)) {
+                orphaned.addAll(keys);
+            }
+        });
+        if (!orphaned.isEmpty()) {
+            deletionOutbox.enqueue(orphaned, null);
+        }
+        totals.listings += keysByListing.size();
+        totals.removedListings += keysByListing.size() - existing.size();
+        totals.queuedFiles += orphaned.size();
+    }
+
+    /**
+     * Counts across the pages of one run. A listing whose files span two pages is counted on both.
+     */
+    private static final class Totals {
+        int listings;
+        int removedListings;
+        int queuedFiles;
+    }
+}
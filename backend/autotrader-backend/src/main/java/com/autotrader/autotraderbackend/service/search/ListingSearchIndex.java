@@ -0,0 +1,563 @@
+package com.autotrader.autotraderbackend.service.search;
+
+import com.autotrader.autotraderbackend.config.ListingSearchProperties;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process search index over car listings, used by {@code CarListingService.getFilteredListings}
+ * to resolve the matching listing IDs and total count without a full table scan.
+ *
+ * <p>Each listing is assigned a dense ordinal. Status flags (approved, sold, archived, isUserActive, expired)
+ * are kept as bitsets, range fields (year, price, mileage, location, createdAt, expirationDate) as primitive
+ * columns, and the bilingual brand/model names as inverted postings keyed by their normalized value.
+ * Brand and model lookups scan the (small) term dictionary for substring matches, which keeps the semantics of
+ * the {@code LIKE '%x%'} predicates in {@code CarListingSpecification}.</p>
+ *
+ * <p>The index is disabled by default ({@code app.search.index.enabled}). It is loaded once the
+ * application is ready and kept current by listing events; until it is ready, callers must fall back
+ * to the Specification path. Each listing event is delivered to only one instance (whichever claims its
+ * outbox row), so every {@code app.search.index.resync-interval-millis} the index is also reconciled with
+ * the database while it keeps serving: changed listings are replaced and deleted ones removed. On other
+ * instances, search results may lag a change by up to that interval.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListingSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final long NULL_LOCATION = Long.MAX_VALUE; // sorts last, like NULLS LAST
+
+    private final CarListingRepository carListingRepository;
+    private final ListingSearchProperties properties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, BitSet> brandPostings = new HashMap<>();
+    private final Map<String, BitSet> modelPostings = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet approved = new BitSet();
+    private final BitSet sold = new BitSet();
+    private final BitSet archived = new BitSet();
+    private final BitSet userActive = new BitSet();
+    private final BitSet expired = new BitSet();
+
+    private ListingSearchDocument[] documents = new ListingSearchDocument[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] modelYears = new int[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private int[] mileages = new int[INITIAL_CAPACITY];
+    private long[] locationIds = new long[INITIAL_CAPACITY];
+    private long[] createdAtMillis = new long[INITIAL_CAPACITY];
+    private long[] expirationMillis = new long[INITIAL_CAPACITY];
+    private int nextOrdinal = 0;
+
+    // Listings changed by events during a rebuild or resync, which the bulk data must not overwrite
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = false;
+    private volatile boolean ready = false;
+
+    /**
+     * @return true if the index is enabled and fully loaded, so search results are authoritative.
+     */
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    /**
+     * @return the number of listings currently held by the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            rebuild();
+        } else {
+            log.debug("Listing search index is disabled. Filtering will use the Specification path.");
+        }
+    }
+
+    /**
+     * Reload the whole index from the database in keyset-paged batches.
+     * Listings updated by events while the load is running are not overwritten by the bulk data.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        loading = true;
+        touchedDuringLoad.clear();
+        try {
+            lock.writeLock().lock();
+            try {
+                clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            int batchSize = Math.max(1, properties.getLoadBatchSize());
+            long afterId = 0L;
+            List<ListingSearchDocument> batch;
+            do {
+                batch = carListingRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (ListingSearchDocument document : batch) {
+                        if (!touchedDuringLoad.contains(document.id())) {
+                            upsertLocked(document);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == batchSize);
+
+            ready = true;
+            log.info("Listing search index loaded {} listings in {} ms", size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load listing search index. Filtering will use the Specification path: {}", e.getMessage(), e);
+        } finally {
+            loading = false;
+            touchedDuringLoad.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.resync-interval-millis:300000}",
+               initialDelayString = "${app.search.index.resync-interval-millis:300000}")
+    public void scheduledResync() {
+        if (isReady()) {
+            resync();
+        }
+    }
+
+    /**
+     * Reconcile the loaded index with the database in keyset-paged batches, without taking it out of
+     * service: listings that differ from their indexed document are replaced, and indexed listings that no
+     * longer exist are removed. Listings updated by events while the resync is running are left alone.
+     */
+    public synchronized void resync() {
+        long start = System.currentTimeMillis();
+        loading = true;
+        touchedDuringLoad.clear();
+        try {
+            Set<Long> seen = new HashSet<>();
+            int changed = 0;
+            int batchSize = Math.max(1, properties.getLoadBatchSize());
+            long afterId = 0L;
+            List<ListingSearchDocument> batch;
+            do {
+                batch = carListingRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (ListingSearchDocument document : batch) {
+                        seen.add(document.id());
+                        Integer ordinal = ordinalsById.get(document.id());
+                        if (!touchedDuringLoad.contains(document.id())
+                                && (ordinal == null || !document.equals(documents[ordinal]))) {
+                            upsertLocked(document);
+                            changed++;
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == batchSize);
+
+            lock.writeLock().lock();
+            try {
+                List<Long> removed = ordinalsById.keySet().stream()
+                        .filter(id -> !seen.contains(id) && !touchedDuringLoad.contains(id))
+                        .toList();
+                removed.forEach(this::removeLocked);
+                changed += removed.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Listing search index resynced {} changed listings in {} ms", changed,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to resync listing search index: {}", e.getMessage(), e);
+        } finally {
+            loading = false;
+            touchedDuringLoad.clear();
+        }
+    }
+
+    /**
+     * Insert or replace a listing in the index.
+     */
+    public void upsert(ListingSearchDocument document) {
+        if (!properties.isEnabled() || document == null || document.id() == null) {
+            return;
+        }
+        if (loading) {
+            touchedDuringLoad.add(document.id());
+        }
+        lock.writeLock().lock();
+        try {
+            upsertLocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a listing from the index.
+     */
+    public void remove(Long listingId) {
+        if (!properties.isEnabled() || listingId == null) {
+            return;
+        }
+        if (loading) {
+            touchedDuringLoad.add(listingId);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve one page of matching listing IDs, in the requested sort order, plus the total match count.
+     * Applies the same visibility rules as the Specification path: approved, user-active listings that are
+     * neither flagged as expired nor past their expiration date, and not sold / not archived unless the
+     * filter explicitly asks for those states.
+     *
+     * @param filter     The filter criteria.
+     * @param locationId The resolved location ID to filter by, or null for no location filter.
+     * @param pageable   Paging and sorting (sortable fields: createdAt, price, locationId).
+     * @return A page of listing IDs with the total number of matches.
+     */
+    public Page<Long> search(ListingFilterRequest filter, Long locationId, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+            candidates.and(approved);
+            candidates.and(userActive);
+            candidates.andNot(expired);
+            applyFlag(candidates, sold, filter.getIsSold());
+            applyFlag(candidates, archived, filter.getIsArchived());
+            if (StringUtils.isNotBlank(filter.getBrand())) {
+                candidates.and(matchPostings(brandPostings, filter.getBrand()));
+            }
+            if (StringUtils.isNotBlank(filter.getModel())) {
+                candidates.and(matchPostings(modelPostings, filter.getModel()));
+            }
+
+            RangeFilter range = RangeFilter.of(filter, locationId);
+            long now = toEpochMillis(LocalDateTime.now());
+            int[] matches = new int[candidates.cardinality()];
+            int count = 0;
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                long expiresAt = expirationMillis[ordinal];
+                boolean notExpired = expiresAt == NULL_LONG || expiresAt > now;
+                if (notExpired && range.matches(ordinal, modelYears, priceCents, mileages, locationIds)) {
+                    matches[count++] = ordinal;
+                }
+            }
+
+            List<Long> pageIds = selectPage(matches, count, pageable);
+            return new PageImpl<>(pageIds, pageable, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internal helpers (callers must hold the appropriate lock) ---
+
+    private void clear() {
+        ordinalsById.clear();
+        freeOrdinals.clear();
+        brandPostings.clear();
+        modelPostings.clear();
+        live.clear();
+        approved.clear();
+        sold.clear();
+        archived.clear();
+        userActive.clear();
+        expired.clear();
+        Arrays.fill(documents, null);
+        nextOrdinal = 0;
+    }
+
+    private void upsertLocked(ListingSearchDocument document) {
+        Integer ordinal = ordinalsById.get(document.id());
+        if (ordinal != null) {
+            unindexTerms(ordinal);
+        } else {
+            ordinal = allocateOrdinal();
+            ordinalsById.put(document.id(), ordinal);
+        }
+
+        documents[ordinal] = document;
+        ids[ordinal] = document.id();
+        modelYears[ordinal] = document.modelYear() != null ? document.modelYear() : NULL_INT;
+        priceCents[ordinal] = document.price() != null ? toCents(document.price(), RoundingMode.HALF_UP) : NULL_LONG;
+        mileages[ordinal] = document.mileage() != null ? document.mileage() : NULL_INT;
+        locationIds[ordinal] = document.locationId() != null ? document.locationId() : NULL_LOCATION;
+        createdAtMillis[ordinal] = toEpochMillis(document.createdAt());
+        expirationMillis[ordinal] = toEpochMillis(document.expirationDate());
+
+        live.set(ordinal);
+        approved.set(ordinal, Boolean.TRUE.equals(document.approved()));
+        sold.set(ordinal, Boolean.TRUE.equals(document.sold()));
+        archived.set(ordinal, Boolean.TRUE.equals(document.archived()));
+        userActive.set(ordinal, Boolean.TRUE.equals(document.isUserActive()));
+        expired.set(ordinal, Boolean.TRUE.equals(document.expired()));
+
+        addPosting(brandPostings, document.brandNameEn(), ordinal);
+        addPosting(brandPostings, document.brandNameAr(), ordinal);
+        addPosting(modelPostings, document.modelNameEn(), ordinal);
+        addPosting(modelPostings, document.modelNameAr(), ordinal);
+    }
+
+    private void removeLocked(Long listingId) {
+        Integer ordinal = ordinalsById.remove(listingId);
+        if (ordinal != null) {
+            unindexTerms(ordinal);
+            documents[ordinal] = null;
+            live.clear(ordinal);
+            approved.clear(ordinal);
+            sold.clear(ordinal);
+            archived.clear(ordinal);
+            userActive.clear(ordinal);
+            expired.clear(ordinal);
+            freeOrdinals.push(ordinal);
+        }
+    }
+
+    private int allocateOrdinal() {
+        Integer free = freeOrdinals.poll();
+        if (free != null) {
+            return free;
+        }
+        if (nextOrdinal == documents.length) {
+            int newCapacity = documents.length * 2;
+            documents = Arrays.copyOf(documents, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            modelYears = Arrays.copyOf(modelYears, newCapacity);
+            priceCents = Arrays.copyOf(priceCents, newCapacity);
+            mileages = Arrays.copyOf(mileages, newCapacity);
+            locationIds = Arrays.copyOf(locationIds, newCapacity);
+            createdAtMillis = Arrays.copyOf(createdAtMillis, newCapacity);
+            expirationMillis = Arrays.copyOf(expirationMillis, newCapacity);
+        }
+        return nextOrdinal++;
+    }
+
+    private void unindexTerms(int ordinal) {
+        ListingSearchDocument previous = documents[ordinal];
+        if (previous == null) {
+            return;
+        }
+        removePosting(brandPostings, previous.brandNameEn(), ordinal);
+        removePosting(brandPostings, previous.brandNameAr(), ordinal);
+        removePosting(modelPostings, previous.modelNameEn(), ordinal);
+        removePosting(modelPostings, previous.modelNameAr(), ordinal);
+    }
+
+    private static void addPosting(Map<String, BitSet> postings, String value, int ordinal) {
+        String term = normalize(value);
+        if (term != null) {
+            postings.computeIfAbsent(term, k -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static void removePosting(Map<String, BitSet> postings, String value, int ordinal) {
+        String term = normalize(value);
+        if (term == null) {
+            return;
+        }
+        BitSet bits = postings.get(term);
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static BitSet matchPostings(Map<String, BitSet> postings, String query) {
+        String needle = normalize(query.trim());
+        BitSet result = new BitSet();
+        for (Map.Entry<String, BitSet> entry : postings.entrySet()) {
+            if (entry.getKey().contains(needle)) {
+                result.or(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static void applyFlag(BitSet candidates, BitSet flag, Boolean requested) {
+        if (Boolean.TRUE.equals(requested)) {
+            candidates.and(flag);
+        } else {
+            candidates.andNot(flag);
+        }
+    }
+
+    private List<Long> selectPage(int[] matches, int count, Pageable pageable) {
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0L;
+        if (offset >= count) {
+            return Collections.emptyList();
+        }
+        int limit = pageable.isPaged() ? (int) Math.min((long) count, offset + pageable.getPageSize()) : count;
+
+        // Keep the best 'limit' ordinals in a bounded max-heap instead of sorting every match
+        Comparator<Integer> comparator = comparatorFor(pageable.getSort());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit, comparator.reversed());
+        for (int i = 0; i < count; i++) {
+            int ordinal = matches[i];
+            if (heap.size() < limit) {
+                heap.add(ordinal);
+            } else if (comparator.compare(ordinal, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ordinal);
+            }
+        }
+
+        Integer[] best = heap.toArray(new Integer[0]);
+        Arrays.sort(best, comparator);
+        List<Long> pageIds = new ArrayList<>(best.length - (int) offset);
+        for (int i = (int) offset; i < best.length; i++) {
+            pageIds.add(ids[best[i]]);
+        }
+        return pageIds;
+    }
+
+    private Comparator<Integer> comparatorFor(Sort sort) {
+        final long[] createdAt = createdAtMillis;
+        final long[] prices = priceCents;
+        final long[] locations = locationIds;
+        final long[] listingIds = ids;
+
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> byField = switch (order.getProperty()) {
+                case "createdAt" -> Comparator.comparingLong(o -> createdAt[o]);
+                case "price" -> Comparator.comparingLong(o -> prices[o]);
+                case "locationId" -> Comparator.comparingLong(o -> locations[o]);
+                default -> throw new IllegalArgumentException("Sorting by field '" + order.getProperty() + "' is not allowed.");
+            };
+            if (order.isDescending()) {
+                byField = byField.reversed();
+            }
+            comparator = comparator == null ? byField : comparator.thenComparing(byField);
+        }
+        Comparator<Integer> byId = Comparator.comparingLong(o -> listingIds[o]);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static String normalize(String value) {
+        return StringUtils.isBlank(value) ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(BigDecimal value, RoundingMode roundingMode) {
+        return value.setScale(2, roundingMode).unscaledValue().longValue();
+    }
+
+    private static long toEpochMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_LONG;
+    }
+
+    /**
+     * Pre-computed numeric bounds for a filter request. Null-valued columns never match an active bound,
+     * mirroring SQL comparison semantics.
+     */
+    private record RangeFilter(int minYear, int maxYear, long minPrice, long maxPrice,
+                               int minMileage, int maxMileage, Long locationId,
+                               boolean year, boolean price, boolean mileage) {
+
+        static RangeFilter of(ListingFilterRequest filter, Long locationId) {
+            return new RangeFilter(
+                    filter.getMinYear() != null ? filter.getMinYear() : Integer.MIN_VALUE,
+                    filter.getMaxYear() != null ? filter.getMaxYear() : Integer.MAX_VALUE,
+                    filter.getMinPrice() != null ? toCents(filter.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE,
+                    filter.getMaxPrice() != null ? toCents(filter.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE,
+                    filter.getMinMileage() != null ? filter.getMinMileage() : Integer.MIN_VALUE,
+                    filter.getMaxMileage() != null ? filter.getMaxMileage() : Integer.MAX_VALUE,
+                    locationId,
+                    filter.getMinYear() != null || filter.getMaxYear() != null,
+                    filter.getMinPrice() != null || filter.getMaxPrice() != null,
+                    filter.getMinMileage() != null || filter.getMaxMileage() != null);
+        }
+
+        boolean matches(int ordinal, int[] modelYears, long[] priceCents, int[] mileages, long[] locationIds) {
+            if (year) {
+                int value = modelYears[ordinal];
+                if (value == NULL_INT || value < minYear || value > maxYear) {
+                    return false;
+                }
+            }
+            if (price) {
+                long value = priceCents[ordinal];
+                if (value == NULL_LONG || value < minPrice || value > maxPrice) {
+                    return false;
+                }
+            }
+            if (mileage) {
+                int value = mileages[ordinal];
+                if (value == NULL_INT || value < minMileage || value > maxMileage) {
+                    return false;
+                }
+            }
+            return locationId == null || locationIds[ordinal] == locationId;
+        }
+    }
+}
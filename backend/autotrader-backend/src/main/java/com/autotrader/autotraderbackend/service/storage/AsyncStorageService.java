@@ -0,0 +1,54 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variants of the {@link StorageService} operations on the request path, so a request thread is not
+ * held while waiting on the storage backend.
+ *
+ * <p>Failures complete the returned future exceptionally with the exception the blocking operation would throw,
+ * e.g. {@link com.autotrader.autotraderbackend.exception.StorageException}. Futures are completed on a thread that
+ * may block, e.g. on the database, so dependent stages can use the non-async {@code then*} methods.</p>
+ */
+public interface AsyncStorageService {
+
+    /**
+     * Store a file with a given key, as {@link StorageService#store}. The file must stay readable until the
+     * returned future completes.
+     *
+     * @param file The file to store.
+     * @param key  The unique key (path and filename) to store the file under.
+     * @return A future completed with the key once the file is stored.
+     */
+    CompletableFuture<String> storeAsync(MultipartFile file, String key);
+
+    /**
+     * Load a file, as {@link StorageService#loadAsResource}.
+     *
+     * @param key The key of the file to load.
+     * @return A future completed with the file content.
+     */
+    CompletableFuture<Resource> loadAsResourceAsync(String key);
+
+    /**
+     * Delete a file, as {@link StorageService#delete}.
+     *
+     * @param key The key of the file to delete.
+     * @return A future completed with true if the file was deleted or did not exist, false otherwise.
+     */
+    CompletableFuture<Boolean> deleteAsync(String key);
+
+    /**
+     * Generate pre-signed URLs for several files, as {@link StorageService#getSignedUrls}.
+     *
+     * @param keys              The keys of the files.
+     * @param expirationSeconds The duration in seconds for which the URLs should be valid.
+     * @return A future completed with a map from key to pre-signed URL, in the iteration order of {@code keys}.
+     */
+    CompletableFuture<Map<String, String>> getSignedUrlsAsync(Collection<String> keys, long expirationSeconds);
+}
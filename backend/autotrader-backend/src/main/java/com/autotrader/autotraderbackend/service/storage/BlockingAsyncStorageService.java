@@ -0,0 +1,48 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncStorageService} for backends without a non-blocking client, e.g. the local file system or with
+ * {@code storage.s3.async.enabled=false}: runs each operation on the calling thread and returns a completed future.
+ */
+@RequiredArgsConstructor
+public class BlockingAsyncStorageService implements AsyncStorageService {
+
+    private final StorageService storageService;
+
+    @Override
+    public CompletableFuture<String> storeAsync(MultipartFile file, String key) {
+        return complete(() -> storageService.store(file, key));
+    }
+
+    @Override
+    public CompletableFuture<Resource> loadAsResourceAsync(String key) {
+        return complete(() -> storageService.loadAsResource(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(String key) {
+        return complete(() -> storageService.delete(key));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getSignedUrlsAsync(Collection<String> keys, long expirationSeconds) {
+        return complete(() -> storageService.getSignedUrls(keys, expirationSeconds));
+    }
+
+    private static <T> CompletableFuture<T> complete(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Writes files of the {@link LocalFileSystemStorageService} to HTTP responses without copying them
+ * through the heap.
+ *
+ * <p>Conditional requests ({@code If-None-Match}, {@code If-Modified-Since}) are answered with
+ * {@code 304 Not Modified}, and a single byte range ({@code Range}, honouring {@code If-Range}) with
+ * {@code 206 Partial Content}; requests for several ranges get the whole file. Files under one of
+ * {@code storage.local.immutable-key-prefixes} are never rewritten under the same key and are cached for
+ * {@code storage.local.immutable-max-age-seconds}; other files are revalidated on every use.</p>
+ *
+ * <p>On Tomcat the transfer is handed to the connector's sendfile support. Elsewhere, the file is sent with
+ * {@link FileChannel#transferTo}, which avoids a user-space buffer when the response stream is backed by a
+ * channel.</p>
+ */
+@Slf4j
+public class LocalFileResponder {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final List<String> immutableKeyPrefixes;
+    private final CacheControl immutableCacheControl;
+
+    public LocalFileResponder(StorageProperties.Local properties) {
+        this.immutableKeyPrefixes = List.copyOf(properties.getImmutableKeyPrefixes());
+        this.immutableCacheControl = CacheControl.maxAge(Duration.ofSeconds(properties.getImmutableMaxAgeSeconds()))
+                .cachePublic()
+                .immutable();
+    }
+
+    /**
+     * Answer a GET or HEAD request for a stored file.
+     *
+     * @param file     The file, as returned by {@link LocalFileSystemStorageService#load}
+     * @param key      The key of the file
+     * @param request  The request
+     * @param response The response, which is complete or handed to the container when this returns
+     */
+    public void respond(Path file, String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        final long length = attributes.size();
+        // HTTP dates have second precision; compare against what the client can have seen
+        final long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        final String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, getCacheControl(key).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            // 304 or 412, with ETag and Last-Modified already set
+            return;
+        }
+        final String contentType = LocalFileSystemStorageService.getContentType(key);
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = length - 1;
+        final HttpRange range = getRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        final long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file, start, count, response.getOutputStream());
+    }
+
+    /**
+     * Copy part of a file to a stream with {@link FileChannel#transferTo}.
+     */
+    public static void transfer(Path file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final WritableByteChannel target = Channels.newChannel(out);
+            long sent = 0;
+            while (sent < count) {
+                long transferred = channel.transferTo(position + sent, count - sent, target);
+                if (transferred <= 0) {
+                    // The file was truncated while it was being sent
+                    throw new IOException("Unexpected end of file after " + sent + " of " + count + " bytes: " + file);
+                }
+                sent += transferred;
+            }
+        }
+    }
+
+    CacheControl getCacheControl(String key) {
+        for (String prefix : immutableKeyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return immutableCacheControl;
+            }
+        }
+        return CacheControl.noCache();
+    }
+
+    /**
+     * The single range to send, or null to send the whole file: without a {@code Range} header, with
+     * several or malformed ranges, or when {@code If-Range} names another version of the file.
+     */
+    private static HttpRange getRange(HttpServletRequest request, String etag, long lastModified) {
+        final String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag) && !isSameDate(request, lastModified)) {
+            return null;
+        }
+        try {
+            final List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    private static boolean isSameDate(HttpServletRequest request, long lastModified) {
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            // An entity tag of another version
+            return false;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend that keeps files on the local file system, for single-node and on-prem deployments
+ * without an S3-compatible object store. Keys map to paths below {@code storage.local.root-directory}.
+ *
+ * <p>Files are written to a temporary file next to their target and moved into place, so a reader never
+ * sees a partially written file; temporary files are never listed or served. Files are served by
+ * {@link LocalFileResponder} through {@code LocalStorageController}. The URLs returned by {@link #getSignedUrl}
+ * point there and carry an expiry and an HMAC-SHA256 signature over the key and expiry, keyed with
+ * {@code storage.local.url-signing-key}; the controller refuses requests without a valid, unexpired
+ * signature.</p>
+ *
+ * <p>Remaining exposure: a URL grants access to its file to anyone who holds it until it expires, and files
+ * under an immutable key prefix are served as publicly cacheable, so browsers and shared caches may keep
+ * serving a copy after the URL has expired. Without a configured signing key a random one is generated at
+ * startup, so URLs stop working after a restart and are only valid on the node that issued them.</p>
+ */
+@Slf4j
+public class LocalFileSystemStorageService implements StorageService {
+
+    private static final String TEMP_FILE_PREFIX = ".upload-";
+    private static final String SIGNING_ALGORITHM = "HmacSHA256";
+    private static final long SIGNED_URL_BUCKET_SECONDS = 3600;
+
+    private final Path root;
+    private final String publicUrl;
+    private final SecretKeySpec signingKey;
+    private final Clock clock;
+
+    public LocalFileSystemStorageService(StorageProperties.Local properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    LocalFileSystemStorageService(StorageProperties.Local properties, Clock clock) {
+        this.root = Paths.get(properties.getRootDirectory()).toAbsolutePath().normalize();
+        this.publicUrl = StringUtils.trimTrailingCharacter(properties.getPublicUrl(), '/');
+        this.signingKey = new SecretKeySpec(getSigningKey(properties), SIGNING_ALGORITHM);
+        this.clock = clock;
+    }
+
+    @Override
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(root);
+            log.info("Initialized LocalFileSystemStorageService. Root directory: {}, public URL: {}", root, publicUrl);
+        } catch (IOException e) {
+            throw new StorageException("Could not create storage root directory: " + root, e);
+        }
+    }
+
+    @Override
+    public String store(MultipartFile file, String key) {
+        Objects.requireNonNull(file, "File cannot be null");
+        if (file.isEmpty()) {
+            throw new StorageException("Cannot store empty file");
+        }
+        final Path target = resolve(key);
+        Path temp = null;
+        try {
+            temp = createTempFile(target);
+            // Lets the container move its own temporary file into place instead of copying it
+            file.transferTo(temp.toFile());
+            moveIntoPlace(temp, target);
+            log.info("Successfully stored file with key: {}", key);
+            return key;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new StorageException("Failed to store file: " + key, e);
+        }
+    }
+
+    @Override
+    public void storeStream(InputStream content, String key, String contentType, long contentLength) {
+        Objects.requireNonNull(content, "Content cannot be null");
+        final Path target = resolve(key);
+        Path temp = null;
+        try {
+            temp = createTempFile(target);
+            long written = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (contentLength >= 0 && written != contentLength) {
+                throw new StorageException("Expected " + contentLength + " bytes for key " + key + " but read " + written);
+            }
+            moveIntoPlace(temp, target);
+            log.info("Successfully streamed file with key: {}", key);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new StorageException("Failed to store file: " + key, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Path> loadAll() {
+        try {
+            return Files.walk(root)
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !isTempFile(path))
+                    .map(root::relativize);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read stored files", e);
+        }
+    }
+
+    /**
+     * Resolve a key to its path below the storage root. The file does not need to exist.
+     *
+     * @throws StorageException if the key is blank or points outside the storage root
+     */
+    @Override
+    public Path load(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public Resource loadAsResource(String key) {
+        final Path file = resolve(key);
+        if (isTempFile(file) || !Files.isRegularFile(file)) {
+            throw new StorageFileNotFoundException("Could not read file: " + key);
+        }
+        return new FileSystemResource(file);
+    }
+
+    @Override
+    public void deleteAll() {
+        log.warn("Deleting all files below: {}", root);
+        try {
+            FileSystemUtils.deleteRecursively(root);
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete all files", e);
+        }
+        init();
+    }
+
+    @Override
+    public boolean delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+            log.debug("Deleted file with key: {}", key);
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to delete file with key: {}", key, e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<StoredObjectSummary> listObjects(String prefix) {
+        final String effectivePrefix = prefix == null ? "" : prefix;
+        // Walk only the deepest directory the prefix names, not the whole tree
+        final int lastSlash = effectivePrefix.lastIndexOf('/');
+        final Path start = lastSlash < 0 ? root : resolve(effectivePrefix.substring(0, lastSlash));
+        if (!Files.isDirectory(start)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            return files.filter(path -> !isTempFile(path))
+                    .map(path -> summarize(path, effectivePrefix))
+                    .flatMap(Optional::stream)
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            throw new StorageException("Failed to list files under prefix: " + effectivePrefix, e);
+        }
+    }
+
+    /**
+     * A URL of {@code LocalStorageController} that is accepted for at least {@code expirationSeconds}. The
+     * expiry counts from the end of the current hour, so the URL of a file stays the same for the whole hour
+     * and browsers and CDNs can reuse their cached copy.
+     */
+    @Override
+    public String getSignedUrl(String key, long expirationSeconds) {
+        resolve(key);
+        final long now = clock.instant().getEpochSecond();
+        final long bucketEnd = Math.ceilDiv(now, SIGNED_URL_BUCKET_SECONDS) * SIGNED_URL_BUCKET_SECONDS;
+        final long expires = bucketEnd + expirationSeconds;
+        return publicUrl + "/" + UriUtils.encodePath(key, StandardCharsets.UTF_8)
+                + "?expires=" + expires + "&signature=" + sign(key, expires);
+    }
+
+    /**
+     * Check the expiry and signature of a URL returned by {@link #getSignedUrl}.
+     *
+     * @return true if the signature matches the key and expiry, and the expiry has not passed
+     */
+    public boolean isValidSignature(String key, Long expires, String signature) {
+        if (key == null || expires == null || signature == null || clock.instant().getEpochSecond() >= expires) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(key, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Whether a key names a file that is still being written. Such files are never listed or served.
+     */
+    public static boolean isTempFileKey(String key) {
+        return key != null && key.substring(key.lastIndexOf('/') + 1).startsWith(TEMP_FILE_PREFIX);
+    }
+
+    @Override
+    public Optional<StoredObjectMetadata> getMetadata(String key) {
+        final Path file = resolve(key);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObjectMetadata(key, getContentType(key), attributes.size()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The content type of a stored file, derived from the extension of its key.
+     *
+     * @return The content type, or null if the extension is unknown
+     */
+    static String getContentType(String key) {
+        return MediaTypeFactory.getMediaType(key).map(MediaType::toString).orElse(null);
+    }
+
+    private String sign(String key, long expires) {
+        try {
+            final Mac mac = Mac.getInstance(SIGNING_ALGORITHM);
+            mac.init(signingKey);
+            final byte[] signature = mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot sign storage URLs with " + SIGNING_ALGORITHM, e);
+        }
+    }
+
+    private static byte[] getSigningKey(StorageProperties.Local properties) {
+        if (StringUtils.hasText(properties.getUrlSigningKey())) {
+            return properties.getUrlSigningKey().getBytes(StandardCharsets.UTF_8);
+        }
+        log.warn("No storage.local.url-signing-key configured; using a random key, so storage URLs will not "
+                + "survive a restart or work on other nodes");
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private Path resolve(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new StorageException("Storage key cannot be null or empty");
+        }
+        final Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new StorageException("Cannot access file outside the storage root: " + key);
+        }
+        return path;
+    }
+
+    private Optional<StoredObjectSummary> summarize(Path path, String prefix) {
+        final String key = root.relativize(path).toString().replace(File.separatorChar, '/');
+        if (!key.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObjectSummary(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            // Deleted while listing
+            return Optional.empty();
+        }
+    }
+
+    private static Path createTempFile(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), TEMP_FILE_PREFIX, ".tmp");
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static boolean isTempFile(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().startsWith(TEMP_FILE_PREFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file: {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A pre-signed request that lets a client upload one object directly to storage.
+ *
+ * @param url       The URL to send the object to.
+ * @param method    The HTTP method to use.
+ * @param headers   Headers covered by the signature; the client must send them with exactly these values.
+ * @param expiresAt When the signature stops being accepted.
+ */
+public record PresignedUpload(String url, String method, Map<String, String> headers, Instant expiresAt) {}
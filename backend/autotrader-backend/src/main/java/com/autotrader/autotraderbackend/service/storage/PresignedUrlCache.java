@@ -0,0 +1,134 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches pre-signed URLs per (bucket, key, expiration).
+ *
+ * <p>Presigning is a full SigV4 computation, and listing pages request the same media URLs over and
+ * over. A cached URL is served until {@code storage.s3.presign-cache.safety-margin-seconds} before its
+ * signature expires, so callers always receive a URL that stays valid for at least that long.
+ * Expirations at or below the safety margin are never cached.
+ *
+ * <p>URLs are grouped per object in a Caffeine cache bounded to {@code max-entries} URLs, so evicting an
+ * object, e.g. once per key of a batch delete, is a single lookup.
+ *
+ * <p>Hits, misses and size are published as {@code storage.presign.cache.*} metrics.
+ */
+@Component
+public class PresignedUrlCache {
+
+    private record ObjectKey(String bucket, String key) {}
+
+    private record CachedUrl(String url, long refreshAtMillis) {}
+
+    private final StorageProperties.PresignCache properties;
+    private final Clock clock;
+    // URLs of an object by expiration in seconds; each map is replaced rather than modified, so its weight stays current
+    private final Cache<ObjectKey, Map<Long, CachedUrl>> urls;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public PresignedUrlCache(StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this(storageProperties.getS3().getPresignCache(), meterRegistry, Clock.systemUTC());
+    }
+
+    PresignedUrlCache(StorageProperties.PresignCache properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.urls = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, properties.getMaxEntries()))
+                .weigher((ObjectKey objectKey, Map<Long, CachedUrl> objectUrls) -> objectUrls.size())
+                .build();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("storage.presign.cache.requests", hits, LongAdder::sum)
+                    .tag("result", "hit")
+                    .description("Pre-signed URL requests served from the cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("storage.presign.cache.requests", misses, LongAdder::sum)
+                    .tag("result", "miss")
+                    .description("Pre-signed URL requests that required a new signature")
+                    .register(meterRegistry);
+            Gauge.builder("storage.presign.cache.size", this, PresignedUrlCache::size)
+                    .description("Number of cached pre-signed URLs")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return the cached URL for the object, or presign a new one with the given generator and cache it.
+     *
+     * @param bucket            The bucket the object lives in.
+     * @param key               The object key.
+     * @param expirationSeconds The signature lifetime the generator uses.
+     * @param generator         Produces a freshly signed URL on a cache miss.
+     * @return The pre-signed URL.
+     */
+    public String get(String bucket, String key, long expirationSeconds, Supplier<String> generator) {
+        long cacheableMillis = (expirationSeconds - properties.getSafetyMarginSeconds()) * 1000L;
+        if (!properties.isEnabled() || cacheableMillis <= 0) {
+            misses.increment();
+            return generator.get();
+        }
+
+        ObjectKey objectKey = new ObjectKey(bucket, key);
+        long now = clock.millis();
+        Map<Long, CachedUrl> objectUrls = urls.getIfPresent(objectKey);
+        CachedUrl cached = objectUrls != null ? objectUrls.get(expirationSeconds) : null;
+        if (cached != null && now < cached.refreshAtMillis()) {
+            hits.increment();
+            return cached.url();
+        }
+
+        misses.increment();
+        String url = generator.get();
+        if (url != null) {
+            urls.asMap().merge(objectKey, Map.of(expirationSeconds, new CachedUrl(url, now + cacheableMillis)),
+                    (current, added) -> {
+                        Map<Long, CachedUrl> merged = new HashMap<>(current);
+                        merged.values().removeIf(stale -> now >= stale.refreshAtMillis());
+                        merged.putAll(added);
+                        return Map.copyOf(merged);
+                    });
+        }
+        return url;
+    }
+
+    /**
+     * Drop any cached URL for the object, e.g. after it has been deleted or replaced.
+     */
+    public void evict(String bucket, String key) {
+        urls.invalidate(new ObjectKey(bucket, key));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The number of cached URLs, after any pending evictions.
+     */
+    public int size() {
+        urls.cleanUp();
+        long weightedSize = urls.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+        return (int) weightedSize;
+    }
+}
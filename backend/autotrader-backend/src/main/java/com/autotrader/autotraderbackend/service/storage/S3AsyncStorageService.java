@@ -0,0 +1,189 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AsyncStorageService} backed by an {@link S3AsyncClient}, enabled with {@code storage.s3.async.enabled=true}.
+ * Requests are multiplexed over the client's bounded connection pool instead of each holding a thread until the
+ * bucket answers.
+ *
+ * <p>The service owns the client and the executor, which reads uploaded files into the request body and completes
+ * the returned futures. Buckets and keys are resolved, and caches evicted, as in {@link S3StorageService}.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class S3AsyncStorageService implements AsyncStorageService {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final StorageService storageService;
+    private final StorageConfigurationManager configManager;
+    private final PresignedUrlCache presignedUrlCache;
+    private final StorageObjectCache objectCache;
+    private final ExecutorService executor;
+
+    @Override
+    public CompletableFuture<String> storeAsync(MultipartFile file, String key) {
+        Objects.requireNonNull(file, "File cannot be null");
+        if (!StringUtils.hasText(key)) {
+            return CompletableFuture.failedFuture(new StorageException("Storage key cannot be null or empty"));
+        }
+        if (file.isEmpty()) {
+            return CompletableFuture.failedFuture(new StorageException("Cannot store empty file"));
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        final InputStream content;
+        try {
+            content = file.getInputStream();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new StorageException("Failed to store file: " + key, e));
+        }
+        log.debug("Storing file with key '{}' to bucket '{}'", key, bucketName);
+
+        final PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(Optional.ofNullable(file.getContentType())
+                        .filter(StringUtils::hasText)
+                        .orElse("application/octet-stream"))
+                .build();
+
+        return s3AsyncClient.putObject(request, AsyncRequestBody.fromInputStream(content, file.getSize(), executor))
+                .handle((response, error) -> {
+                    closeQuietly(content);
+                    if (error != null) {
+                        throw new CompletionException(new StorageException("Failed to store file: " + key, unwrap(error)));
+                    }
+                    objectCache.evict(bucketName, key);
+                    log.info("Successfully stored file with key: {} in bucket: {}", key, bucketName);
+                    return key;
+                });
+    }
+
+    /**
+     * Download a file into memory. Reads bypass the {@link StorageObjectCache}, so this is meant for files that
+     * are processed as a whole rather than served to clients.
+     */
+    @Override
+    public CompletableFuture<Resource> loadAsResourceAsync(String key) {
+        if (!StringUtils.hasText(key)) {
+            return CompletableFuture.failedFuture(new StorageException("Storage key cannot be null or empty"));
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        log.debug("Loading file with key '{}' from bucket '{}'", key, bucketName);
+
+        final GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBytes())
+                .handle((object, error) -> {
+                    if (error != null) {
+                        final Throwable cause = unwrap(error);
+                        if (cause instanceof NoSuchKeyException) {
+                            throw new CompletionException(new StorageFileNotFoundException("File not found: " + key, cause));
+                        }
+                        throw new CompletionException(new StorageException("Could not read file: " + key, cause));
+                    }
+                    return new ByteArrayResource(object.asByteArrayUnsafe()) {
+                        @Override
+                        public String getFilename() {
+                            return key;
+                        }
+                    };
+                });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(String key) {
+        if (!StringUtils.hasText(key)) {
+            log.warn("Cannot delete file with null or empty key");
+            return CompletableFuture.completedFuture(false);
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        log.debug("Deleting file with key '{}' from bucket '{}'", key, bucketName);
+
+        final DeleteObjectRequest request = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return s3AsyncClient.deleteObject(request)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.error("Failed to delete file: {}", key, unwrap(error));
+                        return false;
+                    }
+                    presignedUrlCache.evict(bucketName, key);
+                    objectCache.evict(bucketName, key);
+                    log.info("Successfully deleted file with key: {} from bucket: {}", key, bucketName);
+                    return true;
+                });
+    }
+
+    /**
+     * URLs are signed locally without a request to the bucket, so they are generated on the calling thread.
+     */
+    @Override
+    public CompletableFuture<Map<String, String>> getSignedUrlsAsync(Collection<String> keys, long expirationSeconds) {
+        try {
+            return CompletableFuture.completedFuture(storageService.getSignedUrls(keys, expirationSeconds));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        s3AsyncClient.close();
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Abandoning pending storage callbacks on shutdown");
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null
+                ? error.getCause()
+                : error;
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            log.debug("Failed to close upload stream", e);
+        }
+    }
+}
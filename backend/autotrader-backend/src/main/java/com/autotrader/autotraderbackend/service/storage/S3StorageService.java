@@ -14,12 +14,22 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,9 +37,16 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class S3StorageService implements StorageService {
 
+    /**
+     * Maximum number of keys S3 accepts in one DeleteObjects request.
+     */
+    static final int MAX_DELETE_BATCH_SIZE = 1000;
+
     private final S3Client s3Client;
     private final StorageConfigurationManager configManager;
     private final StorageUrlGenerator urlGenerator;
+    private final PresignedUrlCache presignedUrlCache;
+    private final StorageObjectCache objectCache;
 
     @Override
     @PostConstruct
@@ -37,6 +54,8 @@ public class S3StorageService implements StorageService {
         Objects.requireNonNull(s3Client, "S3Client cannot be null");
         Objects.requireNonNull(configManager, "StorageConfigurationManager cannot be null");
         Objects.requireNonNull(urlGenerator, "StorageUrlGenerator cannot be null");
+        Objects.requireNonNull(presignedUrlCache, "PresignedUrlCache cannot be null");
+        Objects.requireNonNull(objectCache, "StorageObjectCache cannot be null");
         
         final String bucketName = configManager.getDefaultBucketName();
         if (!StringUtils.hasText(bucketName)) {
@@ -85,6 +104,7 @@ public class S3StorageService implements StorageService {
                     .build();
 
             s3Client.putObject(request, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            objectCache.evict(bucketName, key);
             log.info("Successfully stored file with key: {} in bucket: {}", key, bucketName);
             return key;
 
@@ -93,6 +113,102 @@ public class S3StorageService implements StorageService {
         }
     }
 
+    /**
+     * Stream content to S3. With a known length the stream is piped into a single PUT; otherwise it is
+     * sent as a multipart upload, buffering one part at a time. A failed multipart upload is aborted,
+     * so no partial object or orphaned parts are left behind.
+     */
+    @Override
+    public void storeStream(InputStream content, String key, String contentType, long contentLength) {
+        Objects.requireNonNull(content, "Content cannot be null");
+        if (!StringUtils.hasText(key)) {
+            throw new StorageException("Storage key cannot be null or empty");
+        }
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        final String effectiveContentType = StringUtils.hasText(contentType) ? contentType : "application/octet-stream";
+
+        try {
+            if (contentLength >= 0) {
+                log.debug("Streaming {} bytes with key '{}' to bucket '{}'", contentLength, key, bucketName);
+                s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .contentType(effectiveContentType)
+                                .build(),
+                        RequestBody.fromInputStream(content, contentLength));
+            } else {
+                storeMultipart(content, bucketName, key, effectiveContentType);
+            }
+            objectCache.evict(bucketName, key);
+            log.info("Successfully streamed file with key: {} to bucket: {}", key, bucketName);
+        } catch (IOException | SdkException e) {
+            throw new StorageException("Failed to store file: " + key, e);
+        }
+    }
+
+    private void storeMultipart(InputStream content, String bucketName, String key, String contentType) throws IOException {
+        final byte[] part = new byte[configManager.getMultipartPartSizeBytes()];
+        int length = content.readNBytes(part, 0, part.length);
+        if (length < part.length) {
+            // Fits into a single part: a plain PUT is cheaper than a multipart upload
+            log.debug("Streaming {} bytes with key '{}' to bucket '{}'", length, key, bucketName);
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .contentType(contentType)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, length), length));
+            return;
+        }
+
+        final String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+        log.debug("Started multipart upload '{}' for key '{}' in bucket '{}'", uploadId, key, bucketName);
+        try {
+            final List<CompletedPart> completedParts = new ArrayList<>();
+            int partNumber = 1;
+            while (length > 0) {
+                final UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, length), length));
+                completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                partNumber++;
+                length = content.readNBytes(part, 0, part.length);
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            abortMultipartUpload(bucketName, key, uploadId);
+            throw e;
+        }
+    }
+
+    private void abortMultipartUpload(String bucketName, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            log.debug("Aborted multipart upload '{}' for key '{}'", uploadId, key);
+        } catch (SdkException e) {
+            log.warn("Failed to abort multipart upload '{}' for key '{}'; the bucket's lifecycle rules must clean it up",
+                    uploadId, key, e);
+        }
+    }
+
     @Override
     public Resource loadAsResource(String key) {
         if (!StringUtils.hasText(key)) {
@@ -108,18 +224,20 @@ public class S3StorageService implements StorageService {
                     .key(key)
                     .build();
 
-            final ResponseInputStream<GetObjectResponse> object = s3Client.getObject(request);
-            return new InputStreamResource(object) {
-                @Override
-                public String getFilename() {
-                    return key;
-                }
+            return objectCache.get(bucketName, key, () -> {
+                final ResponseInputStream<GetObjectResponse> object = s3Client.getObject(request);
+                return new InputStreamResource(object) {
+                    @Override
+                    public String getFilename() {
+                        return key;
+                    }
 
-                @Override
-                public long contentLength() throws IOException {
-                    return Objects.requireNonNullElse(object.response().contentLength(), -1L);
-                }
-            };
+                    @Override
+                    public long contentLength() throws IOException {
+                        return Objects.requireNonNullElse(object.response().contentLength(), -1L);
+                    }
+                };
+            });
 
         } catch (NoSuchKeyException e) {
             throw new StorageFileNotFoundException("File not found: " + key, e);
@@ -145,6 +263,8 @@ public class S3StorageService implements StorageService {
                     .build();
 
             s3Client.deleteObject(request);
+            presignedUrlCache.evict(bucketName, key);
+            objectCache.evict(bucketName, key);
             log.info("Successfully deleted file with key: {} from bucket: {}", key, bucketName);
             return true;
 
@@ -154,6 +274,94 @@ public class S3StorageService implements StorageService {
         }
     }
 
+    @Override
+    public Set<String> deleteBatch(Collection<String> keys) {
+        final Set<String> failed = new LinkedHashSet<>();
+        final Map<String, List<String>> keysByBucket = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            if (!StringUtils.hasText(key)) {
+                log.warn("Cannot delete file with null or empty key");
+                continue;
+            }
+            keysByBucket.computeIfAbsent(configManager.getBucketName(configManager.getFileTypeFromKey(key)),
+                    bucket -> new ArrayList<>()).add(key);
+        }
+
+        keysByBucket.forEach((bucketName, bucketKeys) -> {
+            for (int from = 0; from < bucketKeys.size(); from += MAX_DELETE_BATCH_SIZE) {
+                final List<String> batch = bucketKeys.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, bucketKeys.size()));
+                final List<ObjectIdentifier> objects = batch.stream()
+                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                        .collect(Collectors.toList());
+                try {
+                    final DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                            .bucket(bucketName)
+                            .delete(Delete.builder().objects(objects).quiet(true).build())
+                            .build());
+
+                    // Quiet mode only reports the keys that could not be deleted
+                    final Set<String> batchFailed = new LinkedHashSet<>();
+                    for (S3Error error : response.errors()) {
+                        log.warn("Failed to delete file: {} from bucket: {} ({}: {})",
+                                error.key(), bucketName, error.code(), error.message());
+                        batchFailed.add(error.key());
+                    }
+                    batch.stream()
+                            .filter(key -> !batchFailed.contains(key))
+                            .forEach(key -> {
+                                presignedUrlCache.evict(bucketName, key);
+                                objectCache.evict(bucketName, key);
+                            });
+                    failed.addAll(batchFailed);
+                    log.info("Deleted {} of {} files from bucket: {}", batch.size() - batchFailed.size(), batch.size(), bucketName);
+                } catch (SdkException e) {
+                    log.error("Failed to delete {} files from bucket: {}", batch.size(), bucketName, e);
+                    failed.addAll(batch);
+                }
+            }
+        });
+        return failed;
+    }
+
+    @Override
+    public List<StoredObjectSummary> listObjects(String prefix) {
+        final List<StoredObjectSummary> objects = new ArrayList<>();
+        listObjectPages(prefix, objects::addAll);
+        log.debug("Listed {} files under prefix '{}'", objects.size(), prefix);
+        return objects;
+    }
+
+    /**
+     * Each page is one {@code ListObjectsV2} response of up to 1000 keys.
+     */
+    @Override
+    public void listObjectPages(String prefix, Consumer<List<StoredObjectSummary>> page) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new StorageException("Key prefix cannot be null or empty");
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(prefix));
+        try {
+            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .build();
+            ListObjectsV2Response listResponse;
+            do {
+                listResponse = s3Client.listObjectsV2(listRequest);
+                page.accept(listResponse.contents().stream()
+                        .filter(Objects::nonNull)
+                        .map(obj -> new StoredObjectSummary(obj.key(), Objects.requireNonNullElse(obj.size(), 0L), obj.lastModified()))
+                        .toList());
+                listRequest = listRequest.toBuilder()
+                        .continuationToken(listResponse.nextContinuationToken())
+                        .build();
+            } while (Boolean.TRUE.equals(listResponse.isTruncated()));
+        } catch (S3Exception e) {
+            throw new StorageException("Could not list files under prefix: " + prefix, e);
+        }
+    }
+
     @Override
     public void deleteAll() {
         try {
@@ -192,6 +400,7 @@ public class S3StorageService implements StorageService {
 
             } while (Boolean.TRUE.equals(listResponse.isTruncated()));
 
+            objectCache.clear();
             log.info("Successfully deleted all objects from bucket: {}", bucketName);
 
         } catch (S3Exception e) {
@@ -199,6 +408,84 @@ public class S3StorageService implements StorageService {
         }
     }
 
+    @Override
+    public PresignedUpload createPresignedUpload(String key, String contentType, long contentLength, long expirationSeconds) {
+        if (!StringUtils.hasText(key)) {
+            throw new StorageException("Storage key cannot be null or empty");
+        }
+        if (!StringUtils.hasText(contentType)) {
+            throw new StorageException("Content type cannot be null or empty");
+        }
+        if (contentLength <= 0) {
+            throw new StorageException("Content length must be positive");
+        }
+        if (expirationSeconds < 0) {
+            throw new StorageException("Expiration seconds cannot be negative");
+        }
+
+        try {
+            final PresignedUpload upload = urlGenerator.generatePresignedUpload(key, contentType, contentLength, expirationSeconds);
+            log.debug("Generated pre-signed upload for key: {}, expires at {}", key, upload.expiresAt());
+            return upload;
+        } catch (SdkException e) {
+            throw new StorageException("Failed to generate upload URL for key: " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObjectMetadata> getMetadata(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new StorageException("Storage key cannot be null or empty");
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        try {
+            final HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return Optional.of(new StoredObjectMetadata(key, head.contentType(),
+                    Objects.requireNonNullElse(head.contentLength(), 0L)));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            // HEAD responses have no body, so a missing object usually surfaces as a bare 404
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new StorageException("Could not read metadata of file: " + key, e);
+        }
+    }
+
+    /**
+     * Fetches only the requested bytes with a ranged GET, bypassing the object cache.
+     */
+    @Override
+    public byte[] readHead(String key, int maxBytes) {
+        if (!StringUtils.hasText(key)) {
+            throw new StorageException("Storage key cannot be null or empty");
+        }
+        if (maxBytes <= 0) {
+            return new byte[0];
+        }
+
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        final GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=0-" + (maxBytes - 1))
+                .build();
+        try (ResponseInputStream<GetObjectResponse> object = s3Client.getObject(request)) {
+            return object.readNBytes(maxBytes);
+        } catch (NoSuchKeyException e) {
+            throw new StorageFileNotFoundException("File not found: " + key, e);
+        } catch (S3Exception e) {
+            throw new StorageException("Could not read file: " + key, e);
+        } catch (IOException e) {
+            throw new StorageException("Could not read file: " + key, e);
+        }
+    }
+
     @Override
     public Stream<Path> loadAll() {
         log.warn("loadAll is not implemented for S3. Returning empty stream.");
@@ -227,8 +514,8 @@ public class S3StorageService implements StorageService {
                     ? StorageUrlGenerator.UrlType.PUBLIC 
                     : StorageUrlGenerator.UrlType.SIGNED;
             
-            final String url = urlGenerator.generateUrl(key, urlType, expirationSeconds);
-            log.info("Generated {} URL: {}", urlType.name().toLowerCase(), url);
+            final String url = generateUrl(key, urlType, expirationSeconds);
+            log.debug("Generated {} URL for key: {}", urlType.name().toLowerCase(), key);
             return url;
             
         } catch (Exception e) {
@@ -236,6 +523,45 @@ public class S3StorageService implements StorageService {
         }
     }
 
+    /**
+     * Generate URLs for several keys, resolving the URL type once and serving repeated
+     * signatures from the pre-signed URL cache. Keys that fail are logged and left out.
+     */
+    @Override
+    public Map<String, String> getSignedUrls(Collection<String> keys, long expirationSeconds) {
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        if (expirationSeconds < 0) {
+            throw new StorageException("Expiration seconds cannot be negative");
+        }
+
+        final StorageUrlGenerator.UrlType urlType = configManager.isPublicAccessEnabled()
+                ? StorageUrlGenerator.UrlType.PUBLIC
+                : StorageUrlGenerator.UrlType.SIGNED;
+        final Map<String, String> urls = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (!StringUtils.hasText(key) || urls.containsKey(key)) {
+                continue;
+            }
+            try {
+                urls.put(key, generateUrl(key, urlType, expirationSeconds));
+            } catch (Exception e) {
+                log.error("Failed to generate {} URL for key: {}", urlType.name().toLowerCase(), key, e);
+            }
+        }
+        log.debug("Generated {} {} URLs for {} keys", urls.size(), urlType.name().toLowerCase(), keys.size());
+        return urls;
+    }
+
+    private String generateUrl(String key, StorageUrlGenerator.UrlType urlType, long expirationSeconds) {
+        if (urlType != StorageUrlGenerator.UrlType.SIGNED) {
+            return urlGenerator.generateUrl(key, urlType, expirationSeconds);
+        }
+        final String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        final long effectiveExpiration = expirationSeconds > 0 ? expirationSeconds : configManager.getSignedUrlExpirationSeconds();
+        return presignedUrlCache.get(bucketName, key, effectiveExpiration,
+                () -> urlGenerator.generateUrl(key, urlType, expirationSeconds));
+    }
+
     /**
      * Generate a CDN URL for the file if CDN is configured.
      * 
@@ -21,6 +21,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class StorageConfigurationManager {
 
+    private static final int MIN_MULTIPART_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
     private final StorageProperties storageProperties;
     private final StorageKeyGenerator keyGenerator;
     
@@ -118,6 +120,15 @@ public class StorageConfigurationManager {
         return storageProperties.getS3().getSignedUrlExpirationSeconds();
     }
 
+    /**
+     * Get the part size for multipart uploads of streamed content with unknown length.
+     * 
+     * @return Part size in bytes, at least the S3 minimum of 5 MiB
+     */
+    public int getMultipartPartSizeBytes() {
+        return Math.max(storageProperties.getS3().getMultipartPartSizeBytes(), MIN_MULTIPART_PART_SIZE_BYTES);
+    }
+
     /**
      * Generate a storage key for a given file type with parameters.
      * 
@@ -181,7 +192,7 @@ public class StorageConfigurationManager {
      * @return The detected file type
      */
     public String getFileTypeFromKey(String storageKey) {
-        if (keyGenerator.isListingMediaKey(storageKey)) {
+        if (keyGenerator.isListingMediaKey(storageKey) || keyGenerator.isContentAddressedKey(storageKey)) {
             return "listing-media";
         } else if (keyGenerator.isUserAvatarKey(storageKey)) {
             return "user-avatar";
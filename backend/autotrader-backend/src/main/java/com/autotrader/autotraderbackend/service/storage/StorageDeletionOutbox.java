@@ -0,0 +1,206 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageDeletionProperties;
+import com.autotrader.autotraderbackend.model.StorageDeletion;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.repository.StorageDeletionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deletes storage objects in the background, in batches, after the database change that orphaned them
+ * has committed.
+ *
+ * <p>Callers {@link #enqueue} keys in their own transaction, so a rolled-back deletion leaves the objects in
+ * place and a committed one is guaranteed to be followed up. A scheduled worker claims due rows with
+ * {@code SKIP LOCKED}, deletes their objects with {@link StorageService#deleteBatch} and removes the rows;
+ * keys that fail are retried with exponential backoff. Objects of shared media whose key is referenced
+ * again by the time the worker runs are kept.</p>
+ *
+ * <p>Metrics: {@code storage.deletions} per result ({@code deleted}, {@code retried}, {@code abandoned},
+ * {@code kept}).</p>
+ */
+@Service
+@Slf4j
+public class StorageDeletionOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final StorageDeletionRepository deletionRepository;
+    private final ListingMediaRepository listingMediaRepository;
+    private final StorageService storageService;
+    private final StorageDeletionProperties properties;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+    private final Counter deleted;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final Counter kept;
+
+    @Autowired
+    public StorageDeletionOutbox(StorageDeletionRepository deletionRepository,
+                                 ListingMediaRepository listingMediaRepository,
+                                 StorageService storageService,
+                                 StorageDeletionProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this(deletionRepository, listingMediaRepository, storageService, properties, transactionManager,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    StorageDeletionOutbox(StorageDeletionRepository deletionRepository,
+                          ListingMediaRepository listingMediaRepository,
+                          StorageService storageService,
+                          StorageDeletionProperties properties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.deletionRepository = deletionRepository;
+        this.listingMediaRepository = listingMediaRepository;
+        this.storageService = storageService;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.deleted = deletionCounter(meterRegistry, "deleted");
+        this.retried = deletionCounter(meterRegistry, "retried");
+        this.abandoned = deletionCounter(meterRegistry, "abandoned");
+        this.kept = deletionCounter(meterRegistry, "kept");
+    }
+
+    /**
+     * Queue objects for deletion once the current transaction commits.
+     *
+     * @param objectKeys The keys of the objects to delete; blank keys are ignored
+     * @param mediaKey   The key of the shared media the objects belong to, whose objects are kept if it is
+     *                   referenced again before they are deleted, or null for objects of a single listing
+     */
+    @Transactional
+    public void enqueue(Collection<String> objectKeys, String mediaKey) {
+        List<StorageDeletion> deletions = objectKeys.stream()
+                .filter(StringUtils::isNotBlank)
+                .distinct()
+                .map(key -> new StorageDeletion(key, mediaKey))
+                .toList();
+        if (!deletions.isEmpty()) {
+            deletionRepository.saveAll(deletions);
+            log.debug("Queued {} storage objects for deletion", deletions.size());
+        }
+    }
+
+    /**
+     * Delete the objects that are due, one batch per transaction, until none are left.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.deletion.poll-interval-millis:5000}",
+            initialDelayString = "${app.storage.deletion.poll-interval-millis:5000}")
+    public void drain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int batchSize = batchSize();
+        Integer claimed;
+        do {
+            claimed = transaction.execute(status -> processBatch(batchSize));
+        } while (claimed != null && claimed >= batchSize);
+    }
+
+    /**
+     * Claim up to {@code batchSize} due deletions and process them. Must run in a transaction, which holds
+     * the row locks until the outcome has been recorded.
+     *
+     * @return The number of claimed deletions
+     */
+    int processBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<StorageDeletion> due = deletionRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<StorageDeletion> finished = new ArrayList<>();
+        List<StorageDeletion> toDelete = new ArrayList<>();
+        Map<String, Boolean> referenced = new HashMap<>();
+        for (StorageDeletion deletion : due) {
+            String mediaKey = deletion.getMediaKey();
+            if (mediaKey != null && referenced.computeIfAbsent(mediaKey, key -> listingMediaRepository.countByFileKey(key) > 0)) {
+                log.info("Keeping storage object {}; media {} is referenced again", deletion.getObjectKey(), mediaKey);
+                kept.increment();
+                finished.add(deletion);
+            } else {
+                toDelete.add(deletion);
+            }
+        }
+
+        Set<String> failedKeys;
+        String error = "Storage reported the deletion as failed";
+        Set<String> keys = new LinkedHashSet<>();
+        toDelete.forEach(deletion -> keys.add(deletion.getObjectKey()));
+        try {
+            failedKeys = keys.isEmpty() ? Set.of() : storageService.deleteBatch(keys);
+        } catch (RuntimeException e) {
+            log.error("Failed to delete {} storage objects", keys.size(), e);
+            failedKeys = keys;
+            error = StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getName());
+        }
+
+        for (StorageDeletion deletion : toDelete) {
+            if (!failedKeys.contains(deletion.getObjectKey())) {
+                deleted.increment();
+                finished.add(deletion);
+                continue;
+            }
+            deletion.setAttempts(deletion.getAttempts() + 1);
+            deletion.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+            if (deletion.getAttempts() >= Math.max(1, properties.getMaxAttempts())) {
+                log.error("Giving up deleting storage object {} after {} attempts: {}",
+                        deletion.getObjectKey(), deletion.getAttempts(), error);
+                abandoned.increment();
+                finished.add(deletion);
+            } else {
+                deletion.setNextAttemptAt(now.plus(retryBackoff(deletion.getAttempts())));
+                retried.increment();
+            }
+        }
+
+        deletionRepository.deleteAllInBatch(finished);
+        log.debug("Processed {} storage deletions, {} to be retried", due.size(), due.size() - finished.size());
+        return due.size();
+    }
+
+    private Duration retryBackoff(int attempts) {
+        long initial = Math.max(1, properties.getRetryBackoffMillis());
+        long max = Math.max(initial, properties.getMaxRetryBackoffMillis());
+        int doublings = Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(max, initial << doublings));
+    }
+
+    private int batchSize() {
+        return Math.max(1, properties.getBatchSize());
+    }
+
+    private static Counter deletionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("storage.deletions")
+                .tag("result", result)
+                .description("Queued storage object deletions by outcome")
+                .register(meterRegistry);
+    }
+}
@@ -50,6 +50,30 @@ public class StorageKeyGenerator {
         return key;
     }
 
+    /**
+     * Generate a content-addressed storage key for media files. The key depends only on the content, so
+     * identical files uploaded for different listings map to the same object.
+     *
+     * @param sha256           The hex SHA-256 of the file content
+     * @param originalFilename The original filename, used for its extension only
+     * @return Generated storage key
+     */
+    public String generateContentAddressedKey(String sha256, String originalFilename) {
+        if (sha256 == null || !sha256.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("A hex SHA-256 digest is required for a content-addressed key");
+        }
+        String hash = sha256.toLowerCase();
+        String pattern = storageProperties.getKeyPatterns().getContentAddressedMedia();
+
+        String key = pattern
+                .replace("{hashPrefix}", hash.substring(0, 2))
+                .replace("{hash}", hash)
+                .replace("{extension}", getExtension(originalFilename));
+
+        log.debug("Generated content-addressed key: {} for filename: {}", key, originalFilename);
+        return key;
+    }
+
     /**
      * Generate a storage key for user avatar files.
      *
@@ -245,6 +269,65 @@ public class StorageKeyGenerator {
         return storageKey.substring(storageKey.lastIndexOf("/") + 1);
     }
 
+    /**
+     * Check whether a key lies in the media folder of a listing, i.e. could have been generated by
+     * {@link #generateListingMediaKey} for it. Used to accept keys sent back by clients after a direct upload.
+     *
+     * @param listingId  The listing ID
+     * @param storageKey The storage key to check
+     * @return true if the key starts with the listing's fixed key prefix and contains no path traversal
+     */
+    public boolean isListingMediaKey(Long listingId, String storageKey) {
+        String pattern = storageProperties.getKeyPatterns().getListingMedia();
+        int listingIdIndex = pattern.indexOf("{listingId}");
+        if (listingId == null || storageKey == null || storageKey.contains("..") || listingIdIndex < 0
+                || pattern.lastIndexOf('{', listingIdIndex - 1) >= 0) {
+            // Only patterns whose prefix up to the listing ID is fixed can be checked
+            return false;
+        }
+        int nextPlaceholder = pattern.indexOf('{', listingIdIndex + "{listingId}".length());
+        String prefix = pattern.substring(0, nextPlaceholder < 0 ? pattern.length() : nextPlaceholder)
+                .replace("{listingId}", String.valueOf(listingId));
+        return storageKey.startsWith(prefix) && storageKey.length() > prefix.length();
+    }
+
+    /**
+     * Get the fixed key prefix under which the media of all listings is stored, e.g. {@code listings/}.
+     *
+     * @return The prefix, or null if the listing media pattern does not start with a fixed prefix
+     *         followed by the listing ID
+     */
+    public String getListingMediaRootPrefix() {
+        String pattern = storageProperties.getKeyPatterns().getListingMedia();
+        int listingIdIndex = pattern.indexOf("{listingId}");
+        if (listingIdIndex <= 0 || pattern.lastIndexOf('{', listingIdIndex - 1) >= 0) {
+            return null;
+        }
+        return pattern.substring(0, listingIdIndex);
+    }
+
+    /**
+     * Extract the listing ID from a key generated by {@link #generateListingMediaKey}.
+     *
+     * @param storageKey The storage key
+     * @return The listing ID, or null if the key is not in a listing's media folder
+     */
+    public Long extractListingId(String storageKey) {
+        String prefix = getListingMediaRootPrefix();
+        if (prefix == null || storageKey == null || !storageKey.startsWith(prefix)) {
+            return null;
+        }
+        int end = prefix.length();
+        while (end < storageKey.length() && Character.isDigit(storageKey.charAt(end))) {
+            end++;
+        }
+        if (end == prefix.length() || end - prefix.length() > 18) {
+            return null;
+        }
+        Long listingId = Long.valueOf(storageKey.substring(prefix.length(), end));
+        return isListingMediaKey(listingId, storageKey) ? listingId : null;
+    }
+
     /**
      * Check if a storage key matches a specific pattern.
      *
@@ -273,6 +356,22 @@ public class StorageKeyGenerator {
                       .replaceAll("^_+|_+$", ""); // Remove leading/trailing underscores
     }
 
+    /**
+     * Get the lower-cased extension of a filename, including the dot, or an empty string if it has none.
+     *
+     * @param filename The original filename
+     * @return Extension such as ".jpg"
+     */
+    private String getExtension(String filename) {
+        String safeFilename = sanitizeFilename(filename);
+        int dot = safeFilename.lastIndexOf('.');
+        if (dot <= 0 || dot == safeFilename.length() - 1) {
+            return "";
+        }
+        String extension = safeFilename.substring(dot).toLowerCase();
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : "";
+    }
+
     /**
      * Get current timestamp in a consistent format.
      *
@@ -344,4 +443,16 @@ public class StorageKeyGenerator {
         String prefix = pattern.substring(0, pattern.indexOf("/{"));
         return isKeyOfType(storageKey, prefix);
     }
+
+    /**
+     * Check if a storage key is content-addressed, i.e. possibly shared by several media records.
+     *
+     * @param storageKey The storage key to check
+     * @return true if the key was generated by {@link #generateContentAddressedKey}
+     */
+    public boolean isContentAddressedKey(String storageKey) {
+        String pattern = storageProperties.getKeyPatterns().getContentAddressedMedia();
+        String prefix = pattern.substring(0, pattern.indexOf("/{"));
+        return isKeyOfType(storageKey, prefix + "/");
+    }
 }
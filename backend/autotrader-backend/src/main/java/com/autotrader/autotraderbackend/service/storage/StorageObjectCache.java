@@ -0,0 +1,400 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the content of stored objects, in front of the bucket.
+ *
+ * <p>Objects up to {@code storage.s3.object-cache.heap-max-object-bytes} are kept on the heap; larger ones
+ * up to {@code disk-max-object-bytes} are written to a file in {@code disk-directory} and served from a
+ * read-only memory mapping of it, so they are read from the page cache without occupying the heap. Each
+ * tier is bounded by its total size in bytes and evicts the least valuable entries first. Objects of
+ * unknown or larger size are streamed from the bucket without being cached.
+ *
+ * <p>The disk tier does not survive a restart; its directory is emptied on startup. Entries must be
+ * {@link #evict evicted} when their object is replaced or deleted; a miss that was already loading when its
+ * object was evicted is returned to its caller but not cached. Eviction only reaches the cache of this
+ * instance, so other instances may serve the previous content of a replaced or deleted object for up to
+ * {@code storage.s3.object-cache.ttl-seconds}, after which every entry expires.
+ *
+ * <p>Metrics: {@code storage.object.cache.requests} and {@code storage.object.cache.bytes} per tier that
+ * served the read ({@code heap}, {@code disk}, {@code origin}), {@code storage.object.cache.hit.ratio},
+ * {@code storage.object.cache.size} per tier in bytes, and {@code storage.object.cache.origin.fetch} for
+ * the time to download an object from the bucket.
+ */
+@Component
+@Slf4j
+public class StorageObjectCache {
+
+    private static final String FILE_PREFIX = "object-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int VERSION_STRIPES = 1024;
+
+    private record DiskEntry(Path file, MappedByteBuffer content) {}
+
+    private final StorageProperties.ObjectCache properties;
+    private final Path directory;
+    private final Cache<String, byte[]> heap;
+    private final Cache<String, DiskEntry> disk;
+    // Bumped on every eviction, per stripe of keys, so a load that overlapped one does not cache stale content
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final LongAdder heapHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder heapBytes = new LongAdder();
+    private final LongAdder diskBytes = new LongAdder();
+    private final LongAdder originBytes = new LongAdder();
+    private final Timer originFetch;
+
+    @Autowired
+    public StorageObjectCache(StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this(storageProperties.getS3().getObjectCache(), meterRegistry, ForkJoinPool.commonPool());
+    }
+
+    StorageObjectCache(StorageProperties.ObjectCache properties, MeterRegistry meterRegistry, Executor executor) {
+        this(properties, meterRegistry, executor, Ticker.systemTicker());
+    }
+
+    StorageObjectCache(StorageProperties.ObjectCache properties, MeterRegistry meterRegistry, Executor executor,
+                       Ticker ticker) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDiskDirectory()).toAbsolutePath().normalize();
+        final Duration ttl = Duration.ofSeconds(Math.max(0, properties.getTtlSeconds()));
+        this.heap = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, properties.getHeapMaxBytes()))
+                .weigher((String key, byte[] content) -> content.length)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .build();
+        this.disk = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, properties.getDiskMaxBytes()))
+                .weigher((String key, DiskEntry entry) -> entry.content().capacity())
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .removalListener((String key, DiskEntry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        deleteQuietly(entry.file());
+                    }
+                })
+                .executor(executor)
+                .build();
+        this.originFetch = Timer.builder("storage.object.cache.origin.fetch")
+                .description("Time to download an object from the bucket on a cache miss")
+                .register(meterRegistry);
+        registerMetrics(meterRegistry);
+        if (properties.isEnabled()) {
+            prepareDirectory();
+        }
+    }
+
+    /**
+     * Return the content of an object from the cache, or fetch it from the bucket and cache it.
+     *
+     * @param bucket The bucket the object lives in.
+     * @param key    The object key; also the filename of the returned resource.
+     * @param origin Fetches the object from the bucket on a miss; its content length must be known for
+     *               the object to be cached.
+     * @return The content of the object.
+     */
+    public Resource get(String bucket, String key, Supplier<Resource> origin) {
+        if (!properties.isEnabled()) {
+            return origin.get();
+        }
+
+        final String cacheKey = bucket + "/" + key;
+        final byte[] cached = heap.getIfPresent(cacheKey);
+        if (cached != null) {
+            heapHits.increment();
+            heapBytes.add(cached.length);
+            return new CachedObjectResource(key, cached);
+        }
+        final DiskEntry entry = disk.getIfPresent(cacheKey);
+        if (entry != null) {
+            diskHits.increment();
+            diskBytes.add(entry.content().capacity());
+            return new MappedObjectResource(key, entry.content());
+        }
+
+        misses.increment();
+        return load(cacheKey, key, origin);
+    }
+
+    /**
+     * Drop the cached content of an object, e.g. after it has been deleted or replaced.
+     */
+    public void evict(String bucket, String key) {
+        final String cacheKey = bucket + "/" + key;
+        versions.incrementAndGet(stripe(cacheKey));
+        heap.invalidate(cacheKey);
+        disk.invalidate(cacheKey);
+    }
+
+    /**
+     * Drop all cached content.
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        heap.invalidateAll();
+        disk.invalidateAll();
+    }
+
+    private Resource load(String cacheKey, String key, Supplier<Resource> origin) {
+        final int stripe = stripe(cacheKey);
+        final long version = versions.get(stripe);
+        final long start = System.nanoTime();
+        final Resource resource = origin.get();
+        try {
+            final long length = resource.contentLength();
+            if (length >= 0 && length <= properties.getHeapMaxObjectBytes()) {
+                final byte[] content;
+                try (InputStream in = resource.getInputStream()) {
+                    content = in.readAllBytes();
+                }
+                originFetch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                originBytes.add(content.length);
+                if (versions.get(stripe) == version) {
+                    heap.put(cacheKey, content);
+                    if (versions.get(stripe) != version) {
+                        // Evicted between the check and the put
+                        heap.asMap().remove(cacheKey, content);
+                    }
+                }
+                return new CachedObjectResource(key, content);
+            }
+            if (length >= 0 && length <= Math.min(properties.getDiskMaxObjectBytes(), Integer.MAX_VALUE)) {
+                final DiskEntry entry = download(resource);
+                originFetch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                originBytes.add(entry.content().capacity());
+                if (versions.get(stripe) == version) {
+                    disk.put(cacheKey, entry);
+                    if (versions.get(stripe) != version) {
+                        // Evicted between the check and the put; removal deletes the file
+                        disk.asMap().remove(cacheKey, entry);
+                    }
+                } else {
+                    // The mapping stays readable after the file is deleted
+                    deleteQuietly(entry.file());
+                }
+                return new MappedObjectResource(key, entry.content());
+            }
+
+            // Too large or of unknown size: stream it through without caching
+            originFetch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            originBytes.add(Math.max(0, length));
+            log.debug("Not caching object '{}' of unknown or excessive size", key);
+            return resource;
+        } catch (IOException e) {
+            throw new StorageException("Could not read file: " + key, e);
+        }
+    }
+
+    private DiskEntry download(Resource resource) throws IOException {
+        Files.createDirectories(directory);
+        final Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        try {
+            try (InputStream in = resource.getInputStream();
+                 OutputStream out = Files.newOutputStream(file, StandardOpenOption.TRUNCATE_EXISTING)) {
+                in.transferTo(out);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed and, on POSIX systems, after the file is deleted
+                return new DiskEntry(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+                files.forEach(StorageObjectCache::deleteQuietly);
+            }
+            log.info("Object cache enabled. Heap tier: {} bytes, disk tier: {} bytes in {}",
+                    properties.getHeapMaxBytes(), properties.getDiskMaxBytes(), directory);
+        } catch (IOException e) {
+            throw new StorageException("Could not prepare object cache directory: " + directory, e);
+        }
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        requestCounter(meterRegistry, "heap", heapHits);
+        requestCounter(meterRegistry, "disk", diskHits);
+        requestCounter(meterRegistry, "origin", misses);
+        bytesCounter(meterRegistry, "heap", heapBytes);
+        bytesCounter(meterRegistry, "disk", diskBytes);
+        bytesCounter(meterRegistry, "origin", originBytes);
+        Gauge.builder("storage.object.cache.hit.ratio", this, StorageObjectCache::getHitRatio)
+                .description("Share of object reads served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("storage.object.cache.size", heap, StorageObjectCache::weightedSize)
+                .tag("tier", "heap")
+                .baseUnit("bytes")
+                .description("Bytes of object content in the cache")
+                .register(meterRegistry);
+        Gauge.builder("storage.object.cache.size", disk, StorageObjectCache::weightedSize)
+                .tag("tier", "disk")
+                .baseUnit("bytes")
+                .description("Bytes of object content in the cache")
+                .register(meterRegistry);
+    }
+
+    public double getHitRatio() {
+        final double hits = heapHits.sum() + diskHits.sum();
+        final double total = hits + misses.sum();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static void requestCounter(MeterRegistry meterRegistry, String tier, LongAdder count) {
+        FunctionCounter.builder("storage.object.cache.requests", count, LongAdder::sum)
+                .tag("tier", tier)
+                .description("Object reads by the tier that served them")
+                .register(meterRegistry);
+    }
+
+    private static void bytesCounter(MeterRegistry meterRegistry, String tier, LongAdder count) {
+        FunctionCounter.builder("storage.object.cache.bytes", count, LongAdder::sum)
+                .tag("tier", tier)
+                .baseUnit("bytes")
+                .description("Bytes of object content by the tier that served them")
+                .register(meterRegistry);
+    }
+
+    private static double weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction().flatMap(Policy.Eviction::weightedSize).orElse(0L);
+    }
+
+    private static int stripe(String cacheKey) {
+        final int hash = cacheKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached object file: {}", file, e);
+        }
+    }
+
+    /**
+     * Content held on the heap.
+     */
+    private static final class CachedObjectResource extends ByteArrayResource {
+
+        private final String key;
+
+        CachedObjectResource(String key, byte[] content) {
+            super(content, "Cached object [" + key + "]");
+            this.key = key;
+        }
+
+        @Override
+        public String getFilename() {
+            return key;
+        }
+    }
+
+    /**
+     * Content in a memory-mapped file; every stream reads an independent view of the mapping.
+     */
+    private static final class MappedObjectResource extends AbstractResource {
+
+        private final String key;
+        private final ByteBuffer content;
+
+        MappedObjectResource(String key, ByteBuffer content) {
+            this.key = key;
+            this.content = content;
+        }
+
+        @Override
+        public String getFilename() {
+            return key;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return content.capacity();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            final ByteBuffer view = content.duplicate().clear();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (length == 0) {
+                        return 0;
+                    }
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    final int count = Math.min(length, view.remaining());
+                    view.get(buffer, offset, count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cached object [" + key + "]";
+        }
+    }
+}
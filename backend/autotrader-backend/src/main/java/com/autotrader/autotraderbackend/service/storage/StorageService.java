@@ -1,10 +1,21 @@
 package com.autotrader.autotraderbackend.service.storage;
 
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -27,6 +38,20 @@ public interface StorageService {
      */
     String store(MultipartFile file, String key);
 
+    /**
+     * Store content read from a stream, without buffering the whole file in memory or on disk.
+     * The stream is read to its end but not closed.
+     *
+     * @param content       The content to store.
+     * @param key           The unique key (path and filename) to store the content under.
+     * @param contentType   The content type to store the content with.
+     * @param contentLength The exact number of bytes in the stream, or -1 if unknown.
+     * @throws UnsupportedOperationException if the storage backend does not support streamed uploads.
+     */
+    default void storeStream(InputStream content, String key, String contentType, long contentLength) {
+        throw new UnsupportedOperationException("Streamed uploads are not supported by this storage backend");
+    }
+
     /**
      * Load all files as a stream of paths (primarily for local storage).
      *
@@ -63,6 +88,46 @@ public interface StorageService {
      */
     boolean delete(String key);
 
+    /**
+     * Delete several files at once, e.g. all media of removed listings. Backends that support it delete
+     * them in batched requests rather than one request per file.
+     *
+     * @param keys The keys of the files to delete.
+     * @return The keys that could not be deleted; keys of files that do not exist count as deleted.
+     */
+    default Set<String> deleteBatch(Collection<String> keys) {
+        Set<String> failed = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (!delete(key)) {
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * List the files stored under a key prefix, e.g. to find files left behind by removed listings.
+     *
+     * @param prefix The key prefix.
+     * @return The stored files whose keys start with the prefix.
+     * @throws UnsupportedOperationException if the storage backend does not support listing.
+     */
+    default List<StoredObjectSummary> listObjects(String prefix) {
+        throw new UnsupportedOperationException("Listing files is not supported by this storage backend");
+    }
+
+    /**
+     * List the files stored under a key prefix one page at a time, so that a large prefix can be processed
+     * without holding all of its keys in memory. By default the whole listing is a single page.
+     *
+     * @param prefix The key prefix.
+     * @param page   Called with each page of stored files whose keys start with the prefix, in key order.
+     * @throws UnsupportedOperationException if the storage backend does not support listing.
+     */
+    default void listObjectPages(String prefix, Consumer<List<StoredObjectSummary>> page) {
+        page.accept(listObjects(prefix));
+    }
+
     /**
      * Generate a pre-signed URL for temporary access to a file, typically used for private files.
      *
@@ -72,4 +137,70 @@ public interface StorageService {
      * @throws UnsupportedOperationException if the storage backend does not support signed URLs.
      */
     String getSignedUrl(String key, long expirationSeconds);
+
+    /**
+     * Generate pre-signed URLs for several files at once, e.g. all media on a page of listings.
+     * Blank keys are left out of the result.
+     *
+     * @param keys              The keys of the files.
+     * @param expirationSeconds The duration in seconds for which the URLs should be valid.
+     * @return A map from key to pre-signed URL, in the iteration order of {@code keys}.
+     * @throws UnsupportedOperationException if the storage backend does not support signed URLs.
+     */
+    default Map<String, String> getSignedUrls(Collection<String> keys, long expirationSeconds) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (key == null || key.isBlank() || urls.containsKey(key)) {
+                continue;
+            }
+            String url = getSignedUrl(key, expirationSeconds);
+            if (url != null) {
+                urls.put(key, url);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Generate a pre-signed request with which a client uploads a file directly to storage, so the
+     * content never passes through the application.
+     *
+     * @param key               The key to store the file under.
+     * @param contentType       The content type the client must upload with.
+     * @param contentLength     The exact size in bytes the client must upload.
+     * @param expirationSeconds The duration in seconds for which the request should be valid.
+     * @return The pre-signed upload request.
+     * @throws UnsupportedOperationException if the storage backend does not support direct uploads.
+     */
+    default PresignedUpload createPresignedUpload(String key, String contentType, long contentLength, long expirationSeconds) {
+        throw new UnsupportedOperationException("Direct uploads are not supported by this storage backend");
+    }
+
+    /**
+     * Look up the metadata of a stored file without downloading it.
+     *
+     * @param key The key of the file.
+     * @return The metadata, or empty if no file is stored under the key.
+     * @throws UnsupportedOperationException if the storage backend does not support metadata lookups.
+     */
+    default Optional<StoredObjectMetadata> getMetadata(String key) {
+        throw new UnsupportedOperationException("Metadata lookups are not supported by this storage backend");
+    }
+
+    /**
+     * Read the first bytes of a stored file, e.g. to detect its type from its content, without downloading
+     * the rest of it.
+     *
+     * @param key      The key of the file.
+     * @param maxBytes The number of bytes to read at most.
+     * @return The first {@code maxBytes} bytes, or all of them if the file is shorter.
+     * @throws StorageFileNotFoundException if no file is stored under the key.
+     */
+    default byte[] readHead(String key, int maxBytes) {
+        try (InputStream content = loadAsResource(key).getInputStream()) {
+            return content.readNBytes(maxBytes);
+        } catch (IOException e) {
+            throw new StorageException("Could not read file: " + key, e);
+        }
+    }
 }
@@ -4,13 +4,18 @@ import com.autotrader.autotraderbackend.config.StorageProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -113,6 +118,51 @@ public class StorageUrlGenerator {
         }
     }
 
+    /**
+     * Generate a pre-signed PUT request for uploading an object directly to storage.
+     * Content type and length are part of the signature, so the upload is rejected unless the client
+     * sends exactly the declared type and size. Unlike signed download URLs there is no fallback to a
+     * public URL: a failure to sign is propagated.
+     *
+     * @param key               The key to upload to
+     * @param contentType       The content type the client must send
+     * @param contentLength     The exact number of bytes the client must send
+     * @param expirationSeconds Lifetime of the signature, or 0 for the configured default
+     * @return The pre-signed upload request
+     */
+    public PresignedUpload generatePresignedUpload(String key, String contentType, long contentLength, long expirationSeconds) {
+        String bucketName = configManager.getBucketName(configManager.getFileTypeFromKey(key));
+        StorageProvider provider = detectStorageProvider();
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        long expiration = expirationSeconds > 0 ? expirationSeconds : configManager.getSignedUrlExpirationSeconds();
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .putObjectRequest(putObjectRequest)
+                .signatureDuration(Duration.ofSeconds(expiration))
+                .build();
+
+        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : presignedRequest.signedHeaders().entrySet()) {
+            // The client sets Host from the URL itself
+            if (!"host".equalsIgnoreCase(header.getKey())) {
+                headers.put(header.getKey(), String.join(",", header.getValue()));
+            }
+        }
+        log.debug("Generated pre-signed upload for key: {} ({} bytes of {}) with provider: {}", key, contentLength, contentType, provider);
+        return new PresignedUpload(
+                applyProviderUrlFixes(presignedRequest.url().toString(), bucketName, key, provider),
+                presignedRequest.httpRequest().method().name(),
+                headers,
+                presignedRequest.expiration());
+    }
+
     /**
      * Generate a CDN URL if CDN is configured.
      */
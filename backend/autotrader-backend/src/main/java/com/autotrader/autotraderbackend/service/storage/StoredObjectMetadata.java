@@ -0,0 +1,10 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+/**
+ * Metadata of a stored object, as reported by the storage backend without reading its content.
+ *
+ * @param key           The object key.
+ * @param contentType   The content type the object was stored with, or null if unknown.
+ * @param contentLength The object size in bytes.
+ */
+public record StoredObjectMetadata(String key, String contentType, long contentLength) {}
@@ -0,0 +1,12 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import java.time.Instant;
+
+/**
+ * A stored object as reported by a listing of the storage backend.
+ *
+ * @param key           The object key.
+ * @param contentLength The object size in bytes.
+ * @param lastModified  When the object was last written.
+ */
+public record StoredObjectSummary(String key, long contentLength, Instant lastModified) {}
@@ -0,0 +1,193 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Validates and stores an uploaded image in a single pass over the request body.
+ *
+ * <p>Only the first {@link #SNIFF_BYTES} bytes are held in memory to detect the content type from the
+ * file's magic bytes; the rest is piped straight into {@link StorageService#storeStream}, counting bytes
+ * and computing a SHA-256 checksum on the way. A disallowed type is rejected before storage is contacted,
+ * and a body that grows beyond {@code app.upload.max-file-size} aborts the upload as soon as the limit is
+ * crossed, so the full file is never materialised in memory or on disk.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingImageIngestor {
+
+    /**
+     * Bytes inspected to detect the content type; covers the signatures of all allowed image types.
+     */
+    static final int SNIFF_BYTES = 8 * 1024;
+
+    private static final Tika TIKA = new Tika();
+
+    /**
+     * An image stored by {@link #ingest}.
+     *
+     * @param key         The storage key.
+     * @param contentType The content type detected from the file's content.
+     * @param size        The number of bytes stored.
+     * @param sha256      Hex-encoded SHA-256 of the stored bytes.
+     */
+    public record IngestedImage(String key, String contentType, long size, String sha256) {}
+
+    private final StorageService storageService;
+    private final FileUploadProperties uploadProperties;
+
+    /**
+     * Validate and store an image read from a stream. The stream is not closed.
+     *
+     * @param body           The image content.
+     * @param declaredLength The length announced by the client, or -1 if unknown.
+     * @param key            The key to store the image under.
+     * @return The stored image.
+     * @throws InvalidFileException if the image is empty, too large or not of an allowed type.
+     */
+    public IngestedImage ingest(InputStream body, long declaredLength, String key) {
+        final long maxFileSize = uploadProperties.getMaxFileSize();
+        if (declaredLength == 0) {
+            throw new InvalidFileException("File is empty");
+        }
+        if (declaredLength > maxFileSize) {
+            throw sizeExceeded(maxFileSize);
+        }
+
+        final byte[] head;
+        try {
+            head = body.readNBytes(SNIFF_BYTES);
+        } catch (IOException e) {
+            throw new InvalidFileException("Could not read uploaded file", e);
+        }
+        if (head.length == 0) {
+            throw new InvalidFileException("File is empty");
+        }
+        final String contentType = detectAllowedType(head);
+
+        final MessageDigest digest = sha256();
+        digest.update(head);
+        final LimitedInputStream rest = new LimitedInputStream(new DigestInputStream(body, digest), maxFileSize - head.length);
+        try {
+            storageService.storeStream(new SequenceInputStream(new ByteArrayInputStream(head), rest),
+                    key, contentType, declaredLength);
+        } catch (RuntimeException e) {
+            if (rest.isLimitExceeded()) {
+                log.warn("Aborted upload of '{}' after exceeding {} bytes", key, maxFileSize);
+                throw sizeExceeded(maxFileSize);
+            }
+            throw e;
+        }
+
+        final long size = head.length + rest.getCount();
+        log.debug("Ingested {} bytes of {} as '{}'", size, contentType, key);
+        return new IngestedImage(key, contentType, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Check an image that is already in storage, e.g. one the client uploaded directly with a pre-signed URL,
+     * by its content rather than the content type it was stored with. Only the first {@link #SNIFF_BYTES}
+     * bytes are fetched.
+     *
+     * @param key The key of the stored image.
+     * @return The content type detected from the image's content.
+     * @throws InvalidFileException if the image is empty or not of an allowed type.
+     */
+    public String verifyStored(String key) {
+        final byte[] head = storageService.readHead(key, SNIFF_BYTES);
+        if (head.length == 0) {
+            throw new InvalidFileException("File is empty");
+        }
+        return detectAllowedType(head);
+    }
+
+    private String detectAllowedType(byte[] head) {
+        final String contentType = TIKA.detect(head);
+        if (!uploadProperties.getAllowedTypes().contains(contentType)) {
+            throw new InvalidFileException(String.format("File type %s is not allowed. Allowed types: %s",
+                    contentType, uploadProperties.getAllowedTypes()));
+        }
+        return contentType;
+    }
+
+    private static InvalidFileException sizeExceeded(long maxFileSize) {
+        return new InvalidFileException(String.format("File size exceeds maximum limit of %d bytes", maxFileSize));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Counts the bytes read and fails once more than {@code limit} bytes have been read.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+        private boolean limitExceeded;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counted(n);
+            }
+            return n;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        boolean isLimitExceeded() {
+            return limitExceeded;
+        }
+
+        private void counted(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                limitExceeded = true;
+                throw new IOException("Upload exceeds the maximum file size");
+            }
+        }
+    }
+}
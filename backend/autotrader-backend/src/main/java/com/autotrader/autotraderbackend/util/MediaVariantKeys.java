@@ -0,0 +1,52 @@
+package com.autotrader.autotraderbackend.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes the storage keys of a media item's variants as a single column value,
+ * {@code name=key} pairs separated by commas. Variant names and generated storage keys
+ * never contain either separator.
+ */
+public final class MediaVariantKeys {
+
+    private MediaVariantKeys() {
+    }
+
+    /**
+     * Encodes variant keys by name, preserving their order.
+     *
+     * @param variantKeys The storage key of each variant by name
+     * @return The encoded value, or null if there are no variants
+     */
+    public static String format(Map<String, String> variantKeys) {
+        if (variantKeys == null || variantKeys.isEmpty()) {
+            return null;
+        }
+        return variantKeys.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Decodes a value written by {@link #format}. Malformed pairs are skipped.
+     *
+     * @param value The encoded value, may be null
+     * @return The storage key of each variant by name, in encoded order
+     */
+    public static Map<String, String> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> variantKeys = new LinkedHashMap<>();
+        for (String pair : value.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && separator < pair.length() - 1) {
+                variantKeys.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+        return variantKeys;
+    }
+}
@@ -0,0 +1,46 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Indexes for the public listing queries of {@code CarListingService}, which keep only listings that are
+ * approved, unsold, unarchived, active and unexpired, and page through them by {@code (created_at, id)} or
+ * {@code (price, id)}, and for the {@code LIKE '%x%'} search on the brand and model names.
+ *
+ * <p>On PostgreSQL the sort indexes are partial, covering only publicly visible listings, and the name search
+ * gets trigram GIN indexes over the lower-cased names the queries compare. H2 supports neither, so it gets
+ * plain sort indexes and keeps scanning for the name search. Written in Java rather than SQL to choose
+ * between the two; {@code ListingIndexPlanIntegrationTest} checks that PostgreSQL uses them.</p>
+ */
+public class V16__Add_public_listing_indexes extends BaseJavaMigration {
+
+    private static final String PUBLIC_LISTING = "approved AND NOT sold AND NOT archived AND is_user_active AND NOT expired";
+
+    private static final List<String> POSTGRESQL = List.of(
+            "CREATE INDEX idx_car_listings_public_created ON car_listings(created_at DESC, id DESC) WHERE " + PUBLIC_LISTING,
+            "CREATE INDEX idx_car_listings_public_price ON car_listings(price, id) WHERE " + PUBLIC_LISTING,
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX idx_car_listings_brand_name_en_trgm ON car_listings USING GIN (lower(brand_name_en) gin_trgm_ops)",
+            "CREATE INDEX idx_car_listings_brand_name_ar_trgm ON car_listings USING GIN (lower(brand_name_ar) gin_trgm_ops)",
+            "CREATE INDEX idx_car_listings_model_name_en_trgm ON car_listings USING GIN (lower(model_name_en) gin_trgm_ops)",
+            "CREATE INDEX idx_car_listings_model_name_ar_trgm ON car_listings USING GIN (lower(model_name_ar) gin_trgm_ops)");
+
+    private static final List<String> FALLBACK = List.of(
+            "CREATE INDEX idx_car_listings_public_created ON car_listings(created_at DESC, id DESC)",
+            "CREATE INDEX idx_car_listings_public_price ON car_listings(price, id)");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        String database = context.getConnection().getMetaData().getDatabaseProductName();
+        List<String> statements = "PostgreSQL".equals(database) ? POSTGRESQL : FALLBACK;
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
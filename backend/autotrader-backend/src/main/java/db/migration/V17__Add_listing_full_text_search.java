@@ -0,0 +1,57 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Full-text search over listings on PostgreSQL: a generated {@code search_vector} column with the brand and
+ * model names (weight A), the title (B) and the description (C), indexed with GIN and queried through
+ * {@code listing_search_query}. Both go through the {@code arabic} configuration, which stems Arabic words
+ * with the Arabic Snowball stemmer and ASCII words with the English one, after {@code normalize_arabic} has
+ * unified the alef forms, taa marbuta and alef maksura and removed diacritics and tatweel, so that spelling
+ * variants of the same word match.
+ *
+ * <p>H2 has no text search, so nothing is created there and keyword search falls back to {@code LIKE}.</p>
+ */
+public class V17__Add_listing_full_text_search extends BaseJavaMigration {
+
+    // أ إ آ ٱ to ا, ى to ي, ة to ه; the harakat, shadda, sukun and tatweel have no counterpart and are removed
+    private static final String NORMALIZE_ARABIC =
+            "CREATE FUNCTION normalize_arabic(input text) RETURNS text LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS "
+                    + "$$ SELECT translate(input, "
+                    + "'أإآٱىةًٌٍَُِّْـ', "
+                    + "'اااايه') $$";
+
+    private static final String SEARCH_QUERY =
+            "CREATE FUNCTION listing_search_query(keywords text) RETURNS tsquery LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS "
+                    + "$$ SELECT websearch_to_tsquery('arabic', normalize_arabic(keywords)) $$";
+
+    private static final String SEARCH_VECTOR = "ALTER TABLE car_listings ADD COLUMN search_vector tsvector "
+            + "GENERATED ALWAYS AS ("
+            + "setweight(to_tsvector('arabic', normalize_arabic(coalesce(brand_name_en, '') || ' ' || coalesce(model_name_en, '') "
+            + "|| ' ' || coalesce(brand_name_ar, '') || ' ' || coalesce(model_name_ar, ''))), 'A') || "
+            + "setweight(to_tsvector('arabic', normalize_arabic(coalesce(title, ''))), 'B') || "
+            + "setweight(to_tsvector('arabic', normalize_arabic(coalesce(description, ''))), 'C')"
+            + ") STORED";
+
+    private static final List<String> POSTGRESQL = List.of(
+            NORMALIZE_ARABIC,
+            SEARCH_QUERY,
+            SEARCH_VECTOR,
+            "CREATE INDEX idx_car_listings_search_vector ON car_listings USING GIN (search_vector)");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        if (!"PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String sql : POSTGRESQL) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Storage keys of the resized variants of a listing image, written once they have been generated
+-- Format: name=key pairs separated by commas, e.g. card=thumbnails/listings_1_a.jpg/card.jpg
+
+ALTER TABLE listing_media ADD COLUMN variant_keys TEXT;
@@ -0,0 +1,4 @@
+-- Content-addressed media objects are shared by every listing_media row with the same file_key;
+-- uploads look up an existing row and deletes count the remaining references by key
+
+CREATE INDEX IF NOT EXISTS idx_listing_media_file_key ON listing_media(file_key);
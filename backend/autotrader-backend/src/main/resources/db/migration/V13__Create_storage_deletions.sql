@@ -0,0 +1,14 @@
+-- Outbox of storage objects to delete, written in the transaction that removes their last reference
+-- (e.g. a listing deletion) and drained in batches by StorageDeletionOutbox
+
+CREATE TABLE storage_deletions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    object_key VARCHAR(1024) NOT NULL,
+    media_key VARCHAR(1024),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_storage_deletions_next_attempt ON storage_deletions(next_attempt_at);
@@ -0,0 +1,17 @@
+-- Outbox of listing events, written in the transaction that changes the listing and delivered to the
+-- event listeners in order per listing by ListingEventOutbox
+
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    listing_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Finds the oldest pending event of a listing when claiming
+CREATE INDEX idx_outbox_events_listing ON outbox_events(listing_id, id);
+CREATE INDEX idx_outbox_events_next_attempt ON outbox_events(next_attempt_at);
@@ -0,0 +1,10 @@
+-- Due listings are found by ListingExpirationService with a range scan over the unexpired ones
+CREATE INDEX idx_car_listings_expiration ON car_listings(expired, expiration_date);
+
+-- Leases that let only one instance run a scheduled job at a time, taken by SchedulerLockService
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
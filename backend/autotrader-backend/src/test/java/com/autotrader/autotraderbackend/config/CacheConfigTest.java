@@ -0,0 +1,104 @@
+package com.autotrader.autotraderbackend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private CacheTuningProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheTuningProperties();
+        properties.getSpecs().put("favorites", new CacheTuningProperties.Spec(2L, null, null, Duration.ofMinutes(30)));
+        properties.getSpecs().put("locationsByCountry", new CacheTuningProperties.Spec(null, 5L, Duration.ofHours(1), null));
+    }
+
+    @Test
+    void cacheManager_ShouldCreateServiceCachesUpFront() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+
+        assertTrue(cacheManager.getCacheNames().containsAll(CacheConfig.CACHE_NAMES));
+    }
+
+    @Test
+    void cacheManager_ShouldApplyPerCacheSpecs() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+
+        Cache<Object, Object> favorites = nativeCache(cacheManager, "favorites");
+        assertEquals(2L, favorites.policy().eviction().map(Policy.Eviction::getMaximum).orElseThrow());
+        assertTrue(favorites.policy().expireAfterAccess().isPresent());
+        assertFalse(favorites.policy().expireAfterWrite().isPresent());
+
+        Cache<Object, Object> locationsByCountry = nativeCache(cacheManager, "locationsByCountry");
+        assertTrue(locationsByCountry.policy().eviction().orElseThrow().isWeighted());
+        assertEquals(Duration.ofHours(1),
+                locationsByCountry.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    void cacheManager_ShouldUseDefaultsForCachesWithoutSpec() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+
+        Cache<Object, Object> locations = nativeCache(cacheManager, "locations");
+        assertEquals(1000L, locations.policy().eviction().map(Policy.Eviction::getMaximum).orElseThrow());
+        assertEquals(Duration.ofMinutes(10), locations.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+
+        Cache<Object, Object> unknown = nativeCache(cacheManager, "someOtherCache");
+        assertEquals(1000L, unknown.policy().eviction().map(Policy.Eviction::getMaximum).orElseThrow());
+    }
+
+    @Test
+    void cacheManager_ShouldBoundEntriesAndRecordStats() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+        org.springframework.cache.Cache favorites = cacheManager.getCache("favorites");
+        assertNotNull(favorites);
+
+        assertNull(favorites.get("user-1"));
+        for (int i = 0; i < 10; i++) {
+            favorites.put("user-" + i, Boolean.TRUE);
+        }
+        Cache<Object, Object> nativeFavorites = nativeCache(cacheManager, "favorites");
+        nativeFavorites.cleanUp();
+
+        assertTrue(nativeFavorites.estimatedSize() <= 2);
+        assertEquals(1, nativeFavorites.stats().missCount());
+        assertTrue(nativeFavorites.stats().evictionCount() > 0);
+    }
+
+    @Test
+    void cacheManager_ShouldWeighCollectionsByElementCount() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties);
+        org.springframework.cache.Cache locationsByCountry = cacheManager.getCache("locationsByCountry");
+        assertNotNull(locationsByCountry);
+
+        locationsByCountry.put("SY", List.of("a", "b", "c"));
+        locationsByCountry.put("LB", List.of("d", "e", "f"));
+        Cache<Object, Object> nativeCache = nativeCache(cacheManager, "locationsByCountry");
+        nativeCache.cleanUp();
+
+        assertEquals(1, nativeCache.estimatedSize());
+    }
+
+    @Test
+    void weigh_ShouldCountElementsWithMinimumOfOne() {
+        assertEquals(3, CacheConfig.weigh("key", List.of(1, 2, 3)));
+        assertEquals(1, CacheConfig.weigh("key", List.of()));
+        assertEquals(1, CacheConfig.weigh("key", Boolean.TRUE));
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+        assertNotNull(cache);
+        return cache.getNativeCache();
+    }
+}
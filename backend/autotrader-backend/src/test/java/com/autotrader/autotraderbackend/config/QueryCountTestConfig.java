@@ -0,0 +1,25 @@
+package com.autotrader.autotraderbackend.config;
+
+import com.autotrader.autotraderbackend.test.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Test configuration that plugs a {@link StatementCounter} into Hibernate
+ * so integration tests can assert a statement budget per request.
+ */
+@TestConfiguration
+public class QueryCountTestConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+}
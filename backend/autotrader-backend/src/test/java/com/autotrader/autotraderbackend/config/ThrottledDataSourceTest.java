@@ -0,0 +1,127 @@
+package com.autotrader.autotraderbackend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThrottledDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThrottledDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ThrottledDataSource(targetDataSource, 2, Duration.ofMillis(100));
+        dataSource.bindTo(meterRegistry);
+    }
+
+    @Test
+    void getConnection_WhenAllPermitsHeld_ShouldTimeOut() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(targetDataSource, times(2)).getConnection();
+        assertEquals(1.0, meterRegistry.get("jdbc.connections.throttle.timeouts").counter().count());
+    }
+
+    @Test
+    void close_ShouldReturnPermitOnlyOnce() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+
+        // Act
+        first.close();
+        first.close();
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Assert: a second release would have freed a third permit
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReturnPermit() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection())
+                .thenThrow(new SQLException("Pool exhausted"))
+                .thenThrow(new SQLException("Pool exhausted"))
+                .thenReturn(connection);
+
+        // Act
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        // Assert
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_WithManyThreads_ShouldAdmitAtMostMaxConcurrent() throws Exception {
+        // Arrange
+        dataSource = new ThrottledDataSource(targetDataSource, 2, Duration.ofSeconds(10));
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return connection;
+        });
+        doAnswer(invocation -> open.decrementAndGet()).when(connection).close();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        List<Future<?>> borrowers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                borrowers.add(executor.submit(() -> {
+                    start.await();
+                    try (Connection borrowed = dataSource.getConnection()) {
+                        Thread.sleep(10);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> borrower : borrowers) {
+                borrower.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        // Assert
+        assertTrue(maxOpen.get() <= 2);
+        verify(targetDataSource, times(8)).getConnection();
+    }
+}
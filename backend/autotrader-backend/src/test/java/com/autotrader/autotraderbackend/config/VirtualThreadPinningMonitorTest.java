@@ -0,0 +1,58 @@
+package com.autotrader.autotraderbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void record_WhenVirtualThreadBlocksInSynchronized_ShouldCountPinnedSite() throws InterruptedException {
+        // Act
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        // Assert: JFR streams events about once a second
+        Counter pinned = null;
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinned == null && System.nanoTime() < deadline) {
+            pinned = meterRegistry.find("jvm.threads.virtual.pinned")
+                    .tag("site", "VirtualThreadPinningMonitorTest.sleepWhileHoldingMonitor")
+                    .counter();
+            Thread.sleep(100);
+        }
+        assertNotNull(pinned, "Pinned virtual thread was not reported");
+        assertEquals(1.0, pinned.count());
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
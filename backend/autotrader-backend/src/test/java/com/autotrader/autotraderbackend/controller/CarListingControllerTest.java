@@ -1,32 +1,48 @@
 package com.autotrader.autotraderbackend.controller;
 
+import com.autotrader.autotraderbackend.config.ListingPageCacheProperties;
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.CarBrand;
 import com.autotrader.autotraderbackend.model.CarModel;
+import com.autotrader.autotraderbackend.payload.request.CompleteImageUploadRequest;
 import com.autotrader.autotraderbackend.payload.request.CreateListingRequest;
+import com.autotrader.autotraderbackend.payload.request.ImageUploadUrlRequest;
 import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
 import com.autotrader.autotraderbackend.payload.request.UpdateListingRequest;
 import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.autotrader.autotraderbackend.payload.response.ImageUploadUrlResponse;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse;
 import com.autotrader.autotraderbackend.payload.response.LocationResponse;
 import com.autotrader.autotraderbackend.payload.response.PageResponse;
 import com.autotrader.autotraderbackend.service.CarListingService;
 import com.autotrader.autotraderbackend.service.CarListingStatusService;
+import com.autotrader.autotraderbackend.service.ListingFacetService;
+import com.autotrader.autotraderbackend.service.ListingImageUploadService;
+import com.autotrader.autotraderbackend.service.cache.ListingPageCache;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor.IngestedImage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +51,7 @@ import java.util.Objects;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -55,6 +72,16 @@ public class CarListingControllerTest {
     @Mock
     private CarListingStatusService carListingStatusService;
 
+    @Mock
+    private ListingFacetService listingFacetService;
+
+    @Mock
+    private ListingImageUploadService listingImageUploadService;
+
+    // Caching disabled, so every request reaches the mocked service
+    @Spy
+    private ListingPageCache listingPageCache = new ListingPageCache(disabledPageCache(), new ObjectMapper(), new SimpleMeterRegistry());
+
     @InjectMocks
     private CarListingController carListingController;
 
@@ -963,4 +990,124 @@ public class CarListingControllerTest {
         assertTrue(errorBody.containsKey("message"));
         assertEquals(errorMessage, errorBody.get("message"));
     }
+
+    @Test
+    void getListingFacets_ShouldReturnFacetsFromService() {
+        // Arrange
+        ListingFilterRequest filterRequest = new ListingFilterRequest();
+        filterRequest.setBrand("Toyota");
+        ListingFacetsResponse facets = new ListingFacetsResponse();
+        facets.setTotalElements(3L);
+        when(listingFacetService.getFacets(filterRequest)).thenReturn(facets);
+
+        // Act
+        ResponseEntity<ListingFacetsResponse> response = carListingController.getListingFacets(filterRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(facets, response.getBody());
+        verify(listingFacetService).getFacets(filterRequest);
+    }
+
+    private static ListingPageCacheProperties disabledPageCache() {
+        ListingPageCacheProperties properties = new ListingPageCacheProperties();
+        properties.setEnabled(false);
+        return properties;
+    }
+
+    @Test
+    void createImageUploadUrl_ShouldReturnPresignedRequest() {
+        // Arrange
+        ImageUploadUrlRequest request = new ImageUploadUrlRequest();
+        request.setFileName("photo.jpg");
+        request.setContentType("image/jpeg");
+        request.setSize(1024L);
+        ImageUploadUrlResponse uploadUrl = new ImageUploadUrlResponse("listings/1/photo.jpg", "https://storage/presigned",
+                "PUT", Map.of("content-type", "image/jpeg"), Instant.now().plusSeconds(900));
+        when(listingImageUploadService.createUploadUrl(1L, request, "testuser")).thenReturn(uploadUrl);
+
+        // Act
+        ResponseEntity<?> response = carListingController.createImageUploadUrl(1L, request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(uploadUrl, response.getBody());
+    }
+
+    @Test
+    void createImageUploadUrl_WithInvalidFile_ShouldReturnBadRequest() {
+        // Arrange
+        ImageUploadUrlRequest request = new ImageUploadUrlRequest();
+        when(listingImageUploadService.createUploadUrl(1L, request, "testuser"))
+                .thenThrow(new InvalidFileException("File type application/pdf is not allowed"));
+
+        // Act
+        ResponseEntity<?> response = carListingController.createImageUploadUrl(1L, request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void completeImageUpload_ShouldReturnImageKey() {
+        // Arrange
+        CompleteImageUploadRequest request = new CompleteImageUploadRequest();
+        request.setImageKey("listings/1/photo.jpg");
+        when(listingImageUploadService.completeUpload(1L, request, "testuser")).thenReturn("listings/1/photo.jpg");
+
+        // Act
+        ResponseEntity<?> response = carListingController.completeImageUpload(1L, request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("listings/1/photo.jpg", ((Map<?, ?>) Objects.requireNonNull(response.getBody())).get("imageKey"));
+    }
+
+    @Test
+    void completeImageUpload_ForListingOfAnotherUser_ShouldReturnForbidden() {
+        // Arrange
+        CompleteImageUploadRequest request = new CompleteImageUploadRequest();
+        request.setImageKey("listings/1/photo.jpg");
+        when(listingImageUploadService.completeUpload(1L, request, "testuser"))
+                .thenThrow(new SecurityException("User does not have permission to modify this listing."));
+
+        // Act
+        ResponseEntity<?> response = carListingController.completeImageUpload(1L, request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void streamListingImage_ShouldReturnStoredImage() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/listings/1/images");
+        request.setContent(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+        when(listingImageUploadService.uploadStream(eq(1L), any(InputStream.class), eq("photo.jpg"), eq(3L), eq("testuser")))
+                .thenReturn(new IngestedImage("listings/1/photo.jpg", "image/jpeg", 3L, "abc123"));
+
+        // Act
+        ResponseEntity<?> response = carListingController.streamListingImage(1L, "photo.jpg", request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<?, ?> body = (Map<?, ?>) Objects.requireNonNull(response.getBody());
+        assertEquals("listings/1/photo.jpg", body.get("imageKey"));
+        assertEquals("abc123", body.get("sha256"));
+    }
+
+    @Test
+    void streamListingImage_WithInvalidFile_ShouldReturnBadRequest() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/listings/1/images");
+        request.setContent("<html></html>".getBytes());
+        when(listingImageUploadService.uploadStream(eq(1L), any(InputStream.class), isNull(), anyLong(), eq("testuser")))
+                .thenThrow(new InvalidFileException("File type text/html is not allowed"));
+
+        // Act
+        ResponseEntity<?> response = carListingController.streamListingImage(1L, null, request, userDetails);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
 }
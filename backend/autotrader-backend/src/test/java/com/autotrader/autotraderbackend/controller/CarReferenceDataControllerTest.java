@@ -7,9 +7,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -21,22 +23,7 @@ import static org.mockito.Mockito.*;
 class CarReferenceDataControllerTest {
 
     @Mock
-    private CarConditionService carConditionService;
-    
-    @Mock
-    private DriveTypeService driveTypeService;
-    
-    @Mock
-    private BodyStyleService bodyStyleService;
-    
-    @Mock
-    private FuelTypeService fuelTypeService;
-    
-    @Mock
-    private TransmissionService transmissionService;
-    
-    @Mock
-    private SellerTypeService sellerTypeService;
+    private ReferenceDataSnapshotService referenceDataSnapshotService;
     
     @Mock
     private CarBrandService carBrandService;
@@ -47,6 +34,78 @@ class CarReferenceDataControllerTest {
     @InjectMocks
     private CarReferenceDataController carReferenceDataController;
 
+    private final ReferenceDataSnapshotService.Snapshot snapshot = new ReferenceDataSnapshotService.Snapshot(
+            "{\"carConditions\":[]}".getBytes(StandardCharsets.UTF_8), new byte[]{31, -117, 8},
+            "\"abc\"", "\"abc-gzip\"", 0);
+
+    @Test
+    void getAllReferenceData_ShouldReturnSnapshotWithEtag() {
+        // Arrange
+        when(referenceDataSnapshotService.getSnapshot()).thenReturn(snapshot);
+        
+        // Act
+        ResponseEntity<byte[]> response = carReferenceDataController.getAllReferenceData(null, null);
+        
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(snapshot.json(), response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("no-cache, public", response.getHeaders().getCacheControl());
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+    }
+    
+    @Test
+    void getAllReferenceData_WhenGzipAccepted_ShouldReturnCompressedSnapshot() {
+        // Arrange
+        when(referenceDataSnapshotService.getSnapshot()).thenReturn(snapshot);
+        
+        // Act
+        ResponseEntity<byte[]> response = carReferenceDataController.getAllReferenceData(null, "br, gzip;q=0.8");
+        
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(snapshot.gzip(), response.getBody());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"abc-gzip\"", response.getHeaders().getETag());
+    }
+    
+    @Test
+    void getAllReferenceData_WhenEtagMatches_ShouldReturnNotModified() {
+        // Arrange
+        when(referenceDataSnapshotService.getSnapshot()).thenReturn(snapshot);
+        
+        // Act
+        ResponseEntity<byte[]> response = carReferenceDataController.getAllReferenceData("\"old\", W/\"abc\"", "identity");
+        
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+    }
+    
+    @Test
+    void getAllReferenceData_WhenEtagIsStale_ShouldReturnSnapshot() {
+        // Arrange
+        when(referenceDataSnapshotService.getSnapshot()).thenReturn(snapshot);
+        
+        // Act
+        ResponseEntity<byte[]> response = carReferenceDataController.getAllReferenceData("\"old\"", "gzip");
+        
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(snapshot.gzip(), response.getBody());
+    }
+    
+    @Test
+    void acceptsGzip_ShouldHonourZeroQuality() {
+        assertTrue(CarReferenceDataController.acceptsGzip("gzip, deflate"));
+        assertTrue(CarReferenceDataController.acceptsGzip("*"));
+        assertFalse(CarReferenceDataController.acceptsGzip("gzip;q=0"));
+        assertFalse(CarReferenceDataController.acceptsGzip("gzip; q=0.000, br"));
+        assertFalse(CarReferenceDataController.acceptsGzip(null));
+    }
+
     @Test
     void getAllActiveBrands_ShouldReturnListOfBrands() {
         // Arrange
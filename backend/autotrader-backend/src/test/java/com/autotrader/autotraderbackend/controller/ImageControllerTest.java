@@ -1,5 +1,7 @@
 package com.autotrader.autotraderbackend.controller;
 
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.service.storage.LocalFileSystemStorageService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 
@@ -25,8 +28,12 @@ class ImageControllerTest {
     
     @BeforeEach
     void setUp() {
-        // Create the controller with a temp directory
-        imageController = new ImageController(tempDir.toString());
+        // Create the controller with local storage in a temp directory
+        StorageProperties.Local properties = new StorageProperties.Local();
+        properties.setRootDirectory(tempDir.toString());
+        LocalFileSystemStorageService storageService = new LocalFileSystemStorageService(properties);
+        storageService.init();
+        imageController = new ImageController(storageService, 3600);
         
         // Mock the HTTP request context needed by ServletUriComponentsBuilder
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -70,6 +77,23 @@ class ImageControllerTest {
 
         // Check that fileDownloadUri exists (this was previously failing)
         assertNotNull(body.get("fileDownloadUri"), "fileDownloadUri should not be null");
+
+        // The image is stored under the images/ prefix of the storage backend
+        assertTrue(Files.exists(tempDir.resolve("images").resolve(body.get("fileName"))), "Image should be stored");
+    }
+
+    @Test
+    void shouldRedirectToStorageUrl() {
+        ResponseEntity<Void> response = imageController.getImage("20240101120000-abc.jpg");
+
+        assertEquals(302, response.getStatusCode().value());
+        assertTrue(response.getHeaders().getLocation().toString()
+                .startsWith("/api/storage/images/20240101120000-abc.jpg?expires="));
+    }
+
+    @Test
+    void shouldRejectPathTraversalOnRead() {
+        assertThrows(RuntimeException.class, () -> imageController.getImage(".."));
     }
     
     @Test
@@ -0,0 +1,243 @@
+package com.autotrader.autotraderbackend.controller;
+
+import com.autotrader.autotraderbackend.config.QueryCountTestConfig;
+import com.autotrader.autotraderbackend.model.CarBrand;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.CarModel;
+import com.autotrader.autotraderbackend.model.Country;
+import com.autotrader.autotraderbackend.model.Favorite;
+import com.autotrader.autotraderbackend.model.Governorate;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.model.Location;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.repository.CarBrandRepository;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.CarModelRepository;
+import com.autotrader.autotraderbackend.repository.CountryRepository;
+import com.autotrader.autotraderbackend.repository.FavoriteRepository;
+import com.autotrader.autotraderbackend.repository.GovernorateRepository;
+import com.autotrader.autotraderbackend.repository.LocationRepository;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.autotrader.autotraderbackend.test.IntegrationTestWithS3;
+import com.autotrader.autotraderbackend.test.StatementCounter;
+import com.autotrader.autotraderbackend.util.TestDataGenerator;
+import com.autotrader.autotraderbackend.util.TestGeographyUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the listing read path against N+1 queries: every paged listing endpoint in
+ * {@link CarListingController} and {@link FavoriteController} must render a page of listings,
+ * each with several photos, within a fixed number of SQL statements. Facet counts must come
+ * from a single aggregate statement.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountTestConfig.class)
+@WithMockUser(username = ListingQueryCountIntegrationTest.SELLER_USERNAME)
+public class ListingQueryCountIntegrationTest extends IntegrationTestWithS3 {
+
+    static final String SELLER_USERNAME = "query_count_seller";
+
+    // Statements allowed to render one page, whatever its size. Seeding more listings than this
+    // means any per-listing query pushes the endpoint over the budget.
+    private static final int STATEMENT_BUDGET_PER_PAGE = 8;
+    private static final int LISTING_COUNT = 12;
+    private static final int MEDIA_PER_LISTING = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CarListingRepository carListingRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarBrandRepository carBrandRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private GovernorateRepository governorateRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    private User seller;
+    private CarBrand brand;
+    private CarModel carModel;
+    private Governorate governorate;
+    private Location location;
+    private final List<CarListing> listings = new ArrayList<>();
+    private final List<Favorite> favorites = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Country country = TestDataGenerator.createOrFindTestCountry("SY", countryRepository);
+        governorate = governorateRepository.save(
+                TestGeographyUtils.createTestGovernorate("Query Count Governorate", "محافظة عدد الاستعلامات", country));
+        location = locationRepository.save(
+                TestGeographyUtils.createTestLocation("Query Count Location", "موقع عدد الاستعلامات", governorate));
+
+        seller = new User();
+        seller.setUsername(SELLER_USERNAME);
+        seller.setEmail(SELLER_USERNAME + "@example.com");
+        seller.setPassword("password");
+        seller = userRepository.save(seller);
+
+        brand = TestDataGenerator.createOrFindTestCarBrand("Query Count Brand", "query-count-brand", carBrandRepository);
+        carModel = new CarModel();
+        carModel.setName("query-count-model");
+        carModel.setSlug("query-count-model");
+        carModel.setDisplayNameEn("Query Count Model");
+        carModel.setDisplayNameAr("نموذج عدد الاستعلامات");
+        carModel.setBrand(brand);
+        carModel.setIsActive(true);
+        carModel = carModelRepository.save(carModel);
+
+        for (int i = 0; i < LISTING_COUNT; i++) {
+            CarListing listing = TestDataGenerator.createTestListing(seller, carModel, governorate);
+            listing.setTitle("Query Count Listing " + i);
+            listing.setLocation(location);
+            listing.setApproved(true);
+            for (int m = 0; m < MEDIA_PER_LISTING; m++) {
+                ListingMedia media = new ListingMedia();
+                media.setCarListing(listing);
+                media.setFileKey("listings/query-count/" + i + "/" + m + ".jpg");
+                media.setFileName(m + ".jpg");
+                media.setContentType("image/jpeg");
+                media.setSize(1024L);
+                media.setSortOrder(m);
+                media.setIsPrimary(m == 0);
+                media.setMediaType("image");
+                listing.addMedia(media);
+            }
+            listing = carListingRepository.save(listing);
+            listings.add(listing);
+
+            Favorite favorite = new Favorite();
+            favorite.setUser(seller);
+            favorite.setCarListing(listing);
+            favorites.add(favoriteRepository.save(favorite));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        favoriteRepository.deleteAll(favorites);
+        carListingRepository.deleteAll(listings);
+        carModelRepository.delete(carModel);
+        carBrandRepository.delete(brand);
+        locationRepository.delete(location);
+        governorateRepository.delete(governorate);
+        userRepository.delete(seller);
+        favorites.clear();
+        listings.clear();
+    }
+
+    @Test
+    void getAllListings_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/listings").param("size", String.valueOf(LISTING_COUNT)));
+    }
+
+    @Test
+    void getFilteredListings_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(post("/api/listings/filter")
+                .param("size", String.valueOf(LISTING_COUNT))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"brand\":\"Query Count Brand\"}"));
+    }
+
+    @Test
+    void getFilteredListingsByParams_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/listings/filter")
+                .param("brand", "Query Count Brand")
+                .param("size", String.valueOf(LISTING_COUNT)));
+    }
+
+    @Test
+    void getListingsByCursor_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/listings/cursor").param("size", String.valueOf(LISTING_COUNT)));
+    }
+
+    @Test
+    void getFilteredListingsByCursor_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/listings/filter/cursor")
+                .param("brand", "Query Count Brand")
+                .param("size", String.valueOf(LISTING_COUNT)));
+    }
+
+    @Test
+    void getMyListings_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/listings/my-listings"));
+    }
+
+    @Test
+    void getUserFavorites_ShouldStayWithinStatementBudget() throws Exception {
+        assertWithinBudget(get("/api/favorites"));
+    }
+
+    @Test
+    void getListingFacets_ShouldCountAllFacetsInOneStatement() throws Exception {
+        statementCounter.reset();
+        mockMvc.perform(get("/api/listings/facets").param("brand", "Query Count Brand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(LISTING_COUNT))
+                .andExpect(jsonPath("$.brands[0].nameEn").value("Query Count Brand"))
+                .andExpect(jsonPath("$.brands[0].count").value(LISTING_COUNT))
+                .andExpect(jsonPath("$.models[0].count").value(LISTING_COUNT))
+                .andExpect(jsonPath("$.governorates[0].nameEn").value("Query Count Governorate"))
+                // Seeded listings are 2022 models at 25000.00 with 5000 km (default bucket edges)
+                .andExpect(jsonPath("$.modelYears[4].count").value(LISTING_COUNT))
+                .andExpect(jsonPath("$.prices[3].count").value(LISTING_COUNT))
+                .andExpect(jsonPath("$.mileages[0].count").value(LISTING_COUNT));
+        assertEquals(1, statementCounter.getCount(),
+                () -> "Expected one aggregate statement for all facets but was:\n"
+                        + String.join("\n", statementCounter.getStatements()));
+    }
+
+    private void assertWithinBudget(RequestBuilder request) throws Exception {
+        statementCounter.reset();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$..media[0]").exists());
+        int statements = statementCounter.getCount();
+        assertTrue(statements <= STATEMENT_BUDGET_PER_PAGE,
+                () -> "Expected at most " + STATEMENT_BUDGET_PER_PAGE + " SQL statements for a page of "
+                        + LISTING_COUNT + " listings but was " + statements + ":\n"
+                        + String.join("\n", statementCounter.getStatements()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.autotrader.autotraderbackend.events;
+
+import com.autotrader.autotraderbackend.config.EventDispatchProperties.OverflowPolicy;
+import com.autotrader.autotraderbackend.model.CarListing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedEventMulticasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstrumentedEventMulticaster multicaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        multicaster.destroy();
+    }
+
+    @Test
+    void multicastEvent_ShouldRecordListenerDurationPerOutcome() {
+        // Arrange
+        multicaster = new InstrumentedEventMulticaster(Map.of());
+        multicaster.bindTo(meterRegistry);
+        multicaster.addApplicationListener((ApplicationListener<ListingUpdatedEvent>) event -> { });
+
+        // Act
+        multicaster.multicastEvent(new ListingUpdatedEvent(this, new CarListing()));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("events.listener.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void multicastEvent_WithListenerLimit_ShouldNotRunListenerConcurrently() throws InterruptedException {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        ApplicationListener<ListingUpdatedEvent> listener = event -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            done.countDown();
+        };
+        multicaster = new InstrumentedEventMulticaster(Map.of(InstrumentedEventMulticaster.listenerName(listener), 1));
+        multicaster.setTaskExecutor(pool(4, 100, OverflowPolicy.CALLER_RUNS));
+        multicaster.addApplicationListener(listener);
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            multicaster.multicastEvent(new ListingUpdatedEvent(this, new CarListing()));
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void multicastEvent_WhenQueueFull_ShouldRunListenerOnPublisher() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        Thread publisher = Thread.currentThread();
+        AtomicInteger ranByPublisher = new AtomicInteger();
+        multicaster = new InstrumentedEventMulticaster(Map.of());
+        multicaster.setTaskExecutor(pool(1, 1, OverflowPolicy.CALLER_RUNS));
+        multicaster.bindTo(meterRegistry);
+        multicaster.addApplicationListener((ApplicationListener<ListingUpdatedEvent>) event -> {
+            if (Thread.currentThread() == publisher) {
+                ranByPublisher.incrementAndGet();
+            } else {
+                await(release);
+            }
+        });
+
+        // Act: the first event occupies the thread, the second the queue
+        for (int i = 0; i < 3; i++) {
+            multicaster.multicastEvent(new ListingUpdatedEvent(this, new CarListing()));
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals(1, ranByPublisher.get());
+        assertEquals(1.0, meterRegistry.get("events.dispatch.overflow").tag("outcome", "caller_runs").functionCounter().count());
+    }
+
+    @Test
+    void overflowHandler_WithBlockPolicy_ShouldQueueOnceSpaceFrees() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        multicaster = new InstrumentedEventMulticaster(Map.of());
+        multicaster.setTaskExecutor(pool(1, 1, OverflowPolicy.BLOCK));
+        multicaster.bindTo(meterRegistry);
+        multicaster.addApplicationListener((ApplicationListener<ListingUpdatedEvent>) event -> {
+            await(release);
+            done.countDown();
+        });
+        new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        }).start();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            multicaster.multicastEvent(new ListingUpdatedEvent(this, new CarListing()));
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("events.dispatch.overflow").tag("outcome", "queued").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("events.dispatch.overflow").tag("outcome", "caller_runs").functionCounter().count());
+    }
+
+    @Test
+    void listenerName_ShouldUseClassNameForPlainListeners() {
+        assertEquals("NamedListener", InstrumentedEventMulticaster.listenerName(new NamedListener()));
+    }
+
+    private ThreadPoolTaskExecutor pool(int threads, int queueCapacity, OverflowPolicy policy) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(multicaster.overflowHandler(policy, Duration.ofSeconds(5)));
+        executor.initialize();
+        return executor;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class NamedListener implements ApplicationListener<ListingUpdatedEvent> {
+        @Override
+        public void onApplicationEvent(ListingUpdatedEvent event) {
+        }
+    }
+}
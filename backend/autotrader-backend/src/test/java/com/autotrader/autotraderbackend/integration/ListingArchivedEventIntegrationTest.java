@@ -8,13 +8,13 @@ import com.autotrader.autotraderbackend.model.User;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
 import com.autotrader.autotraderbackend.service.CarListingStatusService;
+import com.autotrader.autotraderbackend.service.ListingEventOutbox;
 import org.mockito.InjectMocks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -25,7 +25,7 @@ import static org.mockito.Mockito.*;
 public class ListingArchivedEventIntegrationTest {
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ListingEventOutbox eventOutbox;
 
     @Mock
     private UserRepository userRepository;
@@ -72,12 +72,12 @@ public class ListingArchivedEventIntegrationTest {
     @Test
     public void testListingArchivedEventPublished() {
         // Arrange
-        doNothing().when(eventPublisher).publishEvent(any(ListingArchivedEvent.class));
+        doNothing().when(eventOutbox).enqueue(any(ListingArchivedEvent.class));
 
         // Act
         carListingStatusService.archiveListing(mockListing.getId(), "testuser");
 
         // Assert
-        verify(eventPublisher, times(1)).publishEvent(any(ListingArchivedEvent.class));
+        verify(eventOutbox, times(1)).enqueue(any(ListingArchivedEvent.class));
     }
 }
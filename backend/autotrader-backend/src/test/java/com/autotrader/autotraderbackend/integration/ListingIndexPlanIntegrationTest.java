@@ -0,0 +1,164 @@
+package com.autotrader.autotraderbackend.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with {@code EXPLAIN} that PostgreSQL answers the public listing queries from the indexes added in
+ * {@code V16__Add_public_listing_indexes} and {@code V17__Add_listing_full_text_search}. The queries have the
+ * shape Hibernate renders for {@code CarListingSpecification}: the public visibility predicate, a keyset order
+ * with the ID as tie-breaker, {@code lower(name) LIKE '%x%'} for brand and model searches, and the ranked
+ * {@code search_vector} match of keyword searches.
+ */
+@Testcontainers
+public class ListingIndexPlanIntegrationTest {
+
+    private static final int LISTINGS = 50_000;
+    private static final String PUBLIC_LISTING = "l.approved AND NOT l.sold AND NOT l.archived AND l.is_user_active "
+            + "AND NOT l.expired AND (l.expiration_date IS NULL OR l.expiration_date > now())";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUpDatabase() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // Mostly public listings of common brands, with one in 500 of a rare one
+            statement.execute("INSERT INTO car_listings (title, description, price, mileage, model_year, brand, model, "
+                    + "model_id, seller_id, approved, sold, archived, expired, is_user_active, "
+                    + "brand_name_en, brand_name_ar, model_name_en, model_name_ar, created_at, updated_at) "
+                    + "SELECT 'Listing ' || g, 'Description ' || g, 5000 + g % 20000, g % 200000, 2000 + g % 25, "
+                    + "b.en, 'Model', (SELECT MIN(id) FROM models), 1, g % 10 <> 0, g % 20 = 1, g % 50 = 2, false, true, "
+                    + "b.en, b.ar, b.en || ' Model ' || g % 40, b.ar || ' موديل', "
+                    + "now() - g * interval '1 minute', now() "
+                    + "FROM generate_series(1, " + LISTINGS + ") g "
+                    + "CROSS JOIN LATERAL (SELECT CASE WHEN g % 500 = 0 THEN 'Lamborghini' ELSE "
+                    + "(ARRAY['Toyota', 'Nissan', 'Hyundai', 'Kia'])[1 + g % 4] END AS en, "
+                    + "CASE WHEN g % 500 = 0 THEN 'لامبورغيني' ELSE "
+                    + "(ARRAY['تويوتا', 'نيسان', 'هيونداي', 'كيا'])[1 + g % 4] END AS ar) b");
+            statement.execute("INSERT INTO car_listings (title, description, price, mileage, model_year, brand, model, "
+                    + "model_id, seller_id, approved, sold, archived, expired, is_user_active, "
+                    + "brand_name_en, brand_name_ar, model_name_en, model_name_ar, created_at, updated_at) "
+                    + "VALUES ('هيونداي إلنترا للبيع', 'سيارة نظيفة، فتحة سقف', 9000, 80000, 2018, 'Hyundai', 'Elantra', "
+                    + "(SELECT MIN(id) FROM models), 1, true, false, false, false, true, "
+                    + "'Hyundai', 'هيونداي', 'Elantra', 'إلنترا', now(), now())");
+            statement.execute("ANALYZE car_listings");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void newestFirstPage_ShouldScanPublicCreatedIndex() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE " + PUBLIC_LISTING
+                + " ORDER BY l.created_at DESC, l.id DESC LIMIT 21");
+
+        assertTrue(plan.contains("Index Scan using idx_car_listings_public_created"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void newestNextPage_ShouldSeekInPublicCreatedIndex() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE " + PUBLIC_LISTING
+                + " AND (l.created_at < now() - interval '1 day' OR (l.created_at = now() - interval '1 day' AND l.id < 25000))"
+                + " ORDER BY l.created_at DESC, l.id DESC LIMIT 21");
+
+        assertTrue(plan.contains("idx_car_listings_public_created"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void cheapestFirstPage_ShouldScanPublicPriceIndex() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE " + PUBLIC_LISTING
+                + " ORDER BY l.price, l.id LIMIT 21");
+
+        assertTrue(plan.contains("Index Scan using idx_car_listings_public_price"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void mostExpensiveFirstPage_ShouldScanPublicPriceIndexBackward() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE " + PUBLIC_LISTING
+                + " ORDER BY l.price DESC, l.id DESC LIMIT 21");
+
+        assertTrue(plan.contains("Index Scan Backward using idx_car_listings_public_price"), plan);
+    }
+
+    @Test
+    void brandSearch_ShouldUseTrigramIndexesOnBothNames() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE "
+                + "(lower(l.brand_name_en) LIKE '%lambo%' OR lower(l.brand_name_ar) LIKE '%lambo%')");
+
+        assertTrue(plan.contains("Bitmap Index Scan on idx_car_listings_brand_name_en_trgm"), plan);
+        assertTrue(plan.contains("Bitmap Index Scan on idx_car_listings_brand_name_ar_trgm"), plan);
+    }
+
+    @Test
+    void modelSearch_ShouldUseTrigramIndexesOnBothNames() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE "
+                + "(lower(l.model_name_en) LIKE '%lamborghini model 1%' OR lower(l.model_name_ar) LIKE '%لامبورغيني%')");
+
+        assertTrue(plan.contains("Bitmap Index Scan on idx_car_listings_model_name_en_trgm"), plan);
+        assertTrue(plan.contains("Bitmap Index Scan on idx_car_listings_model_name_ar_trgm"), plan);
+    }
+
+    @Test
+    void keywordSearch_ShouldUseSearchVectorIndex() throws SQLException {
+        String plan = explain("SELECT l.id FROM car_listings l WHERE " + PUBLIC_LISTING
+                + " AND l.search_vector @@ listing_search_query('lamborghini')"
+                + " ORDER BY ts_rank(l.search_vector, listing_search_query('lamborghini'), 1) DESC, l.created_at DESC LIMIT 21");
+
+        assertTrue(plan.contains("Bitmap Index Scan on idx_car_listings_search_vector"), plan);
+    }
+
+    @Test
+    void keywordSearch_ShouldMatchArabicSpellingVariants() throws SQLException {
+        // Without hamza, with haa for taa marbuta and with diacritics
+        for (String keywords : new String[] {"النترا", "سياره نظيفه", "إِلْنْتْرَا"}) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT count(*) FROM car_listings l "
+                         + "WHERE l.search_vector @@ listing_search_query('" + keywords + "')")) {
+                rows.next();
+                assertEquals(1, rows.getInt(1), keywords);
+            }
+        }
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.add(rows.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -8,13 +8,13 @@ import com.autotrader.autotraderbackend.model.User;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
 import com.autotrader.autotraderbackend.service.CarListingStatusService;
+import com.autotrader.autotraderbackend.service.ListingEventOutbox;
 import org.mockito.InjectMocks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -28,7 +28,7 @@ public class ListingMarkedAsSoldEventIntegrationTest {
     private CarListingStatusService carListingStatusService;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ListingEventOutbox eventOutbox;
 
     @Mock
     private UserRepository userRepository;
@@ -73,12 +73,12 @@ public class ListingMarkedAsSoldEventIntegrationTest {
     @Test
     public void testListingMarkedAsSoldEventPublished() {
         // Arrange
-        doNothing().when(eventPublisher).publishEvent(any(ListingMarkedAsSoldEvent.class));
+        doNothing().when(eventOutbox).enqueue(any(ListingMarkedAsSoldEvent.class));
 
         // Act
         carListingStatusService.markListingAsSold(mockListing.getId(), "testuser");
 
         // Assert
-        verify(eventPublisher, times(1)).publishEvent(any(ListingMarkedAsSoldEvent.class));
+        verify(eventOutbox, times(1)).enqueue(any(ListingMarkedAsSoldEvent.class));
     }
 }
\ No newline at end of file
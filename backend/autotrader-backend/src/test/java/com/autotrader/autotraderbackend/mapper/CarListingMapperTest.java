@@ -10,6 +10,7 @@ import com.autotrader.autotraderbackend.model.Country;
 import com.autotrader.autotraderbackend.model.Governorate;
 import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
 import com.autotrader.autotraderbackend.payload.response.ListingMediaResponse;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
 // Ensure com.autotrader.autotraderbackend.payload.response.LocationResponse is NOT imported here
 import com.autotrader.autotraderbackend.service.storage.StorageService;
 import com.autotrader.autotraderbackend.util.TestDataGenerator;
@@ -23,6 +24,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -100,6 +103,9 @@ class CarListingMapperTest {
         primaryImage.setIsPrimary(true);
         primaryImage.setMediaType("image");
         testCarListing.addMedia(primaryImage);
+
+        // The bulk lookup delegates to getSignedUrl, so per-key stubs below still apply
+        lenient().when(storageService.getSignedUrls(anyCollection(), anyLong())).thenCallRealMethod();
     }
 
     @Test
@@ -324,4 +330,109 @@ class CarListingMapperTest {
         verify(storageService).getSignedUrl(eq("listings/10/image1.jpg"), anyLong());
         verify(storageService).getSignedUrl(eq("listings/10/image2.jpg"), anyLong());
     }
+
+    @Test
+    void toCarListingResponses_ShouldRequestSignedUrlsOnceForWholePage() {
+        // Arrange - a second listing sharing one image key with the first
+        CarListing secondListing = new CarListing();
+        secondListing.setId(11L);
+        secondListing.setSeller(testSeller);
+        ListingMedia sharedImage = new ListingMedia();
+        sharedImage.setCarListing(secondListing);
+        sharedImage.setFileKey("listings/10/image.jpg");
+        sharedImage.setSortOrder(0);
+        secondListing.addMedia(sharedImage);
+        ListingMedia ownImage = new ListingMedia();
+        ownImage.setCarListing(secondListing);
+        ownImage.setFileKey("listings/11/image.jpg");
+        ownImage.setSortOrder(1);
+        secondListing.addMedia(ownImage);
+
+        when(storageService.getSignedUrls(anyCollection(), anyLong())).thenReturn(Map.of(
+                "listings/10/image.jpg", "http://example.com/signed/10.jpg",
+                "listings/11/image.jpg", "http://example.com/signed/11.jpg"));
+
+        // Act
+        List<CarListingResponse> responses = carListingMapper.toCarListingResponses(List.of(testCarListing, secondListing));
+
+        // Assert
+        assertEquals(2, responses.size());
+        assertEquals("http://example.com/signed/10.jpg", responses.get(0).getMedia().get(0).getUrl());
+        assertEquals("http://example.com/signed/10.jpg", responses.get(1).getMedia().get(0).getUrl());
+        assertEquals("http://example.com/signed/11.jpg", responses.get(1).getMedia().get(1).getUrl());
+        verify(storageService, times(1)).getSignedUrls(
+                argThat(keys -> keys.size() == 2 && keys.containsAll(List.of("listings/10/image.jpg", "listings/11/image.jpg"))),
+                anyLong());
+        verify(storageService, never()).getSignedUrl(anyString(), anyLong());
+    }
+
+    @Test
+    void toCarListingResponses_WhenSignedUrlsFail_ShouldMapWithNullUrls() {
+        when(storageService.getSignedUrls(anyCollection(), anyLong())).thenThrow(new RuntimeException("Storage down"));
+
+        List<CarListingResponse> responses = carListingMapper.toCarListingResponses(List.of(testCarListing));
+
+        assertEquals(1, responses.size());
+        assertEquals(testCarListing.getId(), responses.get(0).getId());
+        assertNull(responses.get(0).getMedia().get(0).getUrl());
+    }
+
+    @Test
+    void toCarListingResponse_WithGeneratedVariants_ShouldSignVariantsInTheSameBatch() {
+        // Arrange
+        testCarListing.getMedia().get(0).setVariantKeys(
+                "card=thumbnails/listings_10_image.jpg/card.jpg,gallery=thumbnails/listings_10_image.jpg/gallery.jpg");
+        when(storageService.getSignedUrls(anyCollection(), anyLong())).thenReturn(Map.of(
+                "listings/10/image.jpg", "http://example.com/signed/image.jpg",
+                "thumbnails/listings_10_image.jpg/card.jpg", "http://example.com/signed/card.jpg"));
+
+        // Act
+        CarListingResponse response = carListingMapper.toCarListingResponse(testCarListing);
+
+        // Assert
+        ListingMediaResponse media = response.getMedia().get(0);
+        assertEquals("http://example.com/signed/image.jpg", media.getUrl());
+        assertEquals(Map.of("card", "http://example.com/signed/card.jpg"), media.getVariantUrls()); // unsigned variants are left out
+        verify(storageService, times(1)).getSignedUrls(argThat(keys -> keys.size() == 3), anyLong());
+    }
+
+    @Test
+    void toCarListingResponsesFromSummaries_ShouldMapAllFieldsWithOneSignedUrlBatch() {
+        // Arrange
+        ListingSummaryView.LocationSummary location = new ListingSummaryView.LocationSummary(
+                5L, "Mazzeh", "المزة", "mazzeh", "West", 33.5, 36.2, true, 3L, "Damascus", "دمشق", "SY");
+        ListingSummaryView.GovernorateSummary governorate = new ListingSummaryView.GovernorateSummary(
+                3L, "Damascus", "دمشق", "damascus", "South", 33.5, 36.3, 1L, "SY", "Syria", "سوريا");
+        List<ListingSummaryView.MediaSummary> media = List.of(
+                new ListingSummaryView.MediaSummary(20L, 202L, "listings/20/b.jpg", "b.jpg", "image/jpeg", 20L, 1, false, "image", null),
+                new ListingSummaryView.MediaSummary(20L, 201L, "listings/20/a.jpg", "a.jpg", "image/jpeg", 10L, 0, true, "image", null));
+        ListingSummaryView summary = new ListingSummaryView(20L, "Summary Car", 2021, 5000, new BigDecimal("12000.00"),
+                "Description", "Toyota", "تويوتا", "Camry", "كامري", "Damascus", "دمشق", LocalDateTime.of(2024, 1, 1, 12, 0),
+                true, false, false, false, 7L, "seller", location, governorate, media);
+        when(storageService.getSignedUrls(anyCollection(), anyLong())).thenReturn(Map.of(
+                "listings/20/a.jpg", "http://example.com/signed/a.jpg",
+                "listings/20/b.jpg", "http://example.com/signed/b.jpg"));
+
+        // Act
+        List<CarListingResponse> responses = carListingMapper.toCarListingResponsesFromSummaries(List.of(summary));
+
+        // Assert
+        assertEquals(1, responses.size());
+        CarListingResponse response = responses.get(0);
+        assertEquals(20L, response.getId());
+        assertEquals("Summary Car", response.getTitle());
+        assertEquals("Toyota", response.getBrandNameEn());
+        assertEquals(7L, response.getSellerId());
+        assertEquals("seller", response.getSellerUsername());
+        assertTrue(response.getApproved());
+        assertEquals("mazzeh", response.getLocationDetails().getSlug());
+        assertEquals("SY", response.getLocationDetails().getCountryCode());
+        assertEquals(3L, response.getLocationDetails().getGovernorateId());
+        assertEquals("Syria", response.getGovernorateDetails().getCountryNameEn());
+        assertEquals(2, response.getMedia().size());
+        assertEquals(201L, response.getMedia().get(0).getId()); // sorted by sortOrder
+        assertEquals("http://example.com/signed/a.jpg", response.getMedia().get(0).getUrl());
+        assertEquals("http://example.com/signed/b.jpg", response.getMedia().get(1).getUrl());
+        verify(storageService, times(1)).getSignedUrls(anyCollection(), anyLong());
+    }
 }
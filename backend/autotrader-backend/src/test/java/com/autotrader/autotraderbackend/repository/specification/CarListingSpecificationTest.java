@@ -57,6 +57,7 @@ class CarListingSpecificationTest {
         // Mock criteriaBuilder methods to return a generic predicate
         // Specific interactions will be verified in tests
         lenient().when(criteriaBuilder.like(any(), anyString())).thenReturn(mockPredicate);
+        lenient().when(criteriaBuilder.like(any(), anyString(), anyChar())).thenReturn(mockPredicate);
         lenient().when(criteriaBuilder.equal(any(), any())).thenReturn(mockPredicate);
         lenient().when(criteriaBuilder.or(any(Predicate.class), any(Predicate.class))).thenReturn(mockPredicate);
         // These lines cause the warnings, suppressed by annotation on method
@@ -117,6 +118,31 @@ class CarListingSpecificationTest {
         assertEquals(1, predicateCaptor.getValue().length, "Should combine exactly 1 predicate");
     }
 
+    @Test
+    void containsKeywords_shouldRequireEachKeywordInSomeField() {
+        Specification<CarListing> spec = CarListingSpecification.containsKeywords("  Camry   SUNROOF ");
+
+        spec.toPredicate(root, query, criteriaBuilder);
+
+        // Title, description and both names of brand and model, for each keyword
+        verify(criteriaBuilder, times(6)).like(any(), eq("%camry%"), eq('\\'));
+        verify(criteriaBuilder, times(6)).like(any(), eq("%sunroof%"), eq('\\'));
+        ArgumentCaptor<Predicate[]> predicateCaptor = ArgumentCaptor.forClass(Predicate[].class);
+        verify(criteriaBuilder).and(predicateCaptor.capture());
+        assertEquals(2, predicateCaptor.getValue().length, "Should combine one predicate per keyword");
+    }
+
+    @Test
+    void containsKeywords_shouldEscapeLikeWildcards() {
+        Specification<CarListing> spec = CarListingSpecification.containsKeywords("100% A_B C:\\X");
+
+        spec.toPredicate(root, query, criteriaBuilder);
+
+        verify(criteriaBuilder, times(6)).like(any(), eq("%100\\%%"), eq('\\'));
+        verify(criteriaBuilder, times(6)).like(any(), eq("%a\\_b%"), eq('\\'));
+        verify(criteriaBuilder, times(6)).like(any(), eq("%c:\\\\x%"), eq('\\'));
+    }
+
     @Test
     void fromFilter_withMinMaxYear_shouldAddYearPredicates() {
         ListingFilterRequest filter = new ListingFilterRequest();
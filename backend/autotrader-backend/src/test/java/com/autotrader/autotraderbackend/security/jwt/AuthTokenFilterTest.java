@@ -1,6 +1,12 @@
 package com.autotrader.autotraderbackend.security.jwt;
 
+import com.autotrader.autotraderbackend.config.JwtAuthenticationProperties;
+import com.autotrader.autotraderbackend.exception.jwt.MalformedJwtTokenException;
+import com.autotrader.autotraderbackend.security.services.UserDetailsImpl;
 import com.autotrader.autotraderbackend.security.services.UserDetailsServiceImpl;
+import com.autotrader.autotraderbackend.security.services.UserStateCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -19,6 +25,8 @@ import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -31,6 +39,9 @@ public class AuthTokenFilterTest {
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private UserStateCache userStateCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -66,8 +77,7 @@ public class AuthTokenFilterTest {
         String token = "valid.jwt.token";
         
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn("testuser");
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().setSubject("testuser"));
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
         
         // Act
@@ -85,7 +95,7 @@ public class AuthTokenFilterTest {
         String token = "invalid.jwt.token";
         
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(false);
+        when(jwtUtils.parseClaims(token)).thenThrow(new MalformedJwtTokenException("Invalid JWT token"));
         
         // Act
         authTokenFilter.doFilterInternal(request, response, filterChain);
@@ -107,7 +117,7 @@ public class AuthTokenFilterTest {
         // Assert
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateJwtToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -122,7 +132,7 @@ public class AuthTokenFilterTest {
         // Assert
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateJwtToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -132,8 +142,7 @@ public class AuthTokenFilterTest {
         String token = "valid.jwt.token";
         
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenThrow(new RuntimeException("Test exception"));
+        when(jwtUtils.parseClaims(token)).thenThrow(new RuntimeException("Test exception"));
         
         // Act
         authTokenFilter.doFilterInternal(request, response, filterChain);
@@ -142,4 +151,94 @@ public class AuthTokenFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
     }
+
+    @Test
+    void doFilterInternal_WithClaimsToken_ShouldAuthenticateWithoutLoadingUser() throws Exception {
+        // Arrange
+        String token = "claims.jwt.token";
+        Claims claims = Jwts.claims().setSubject("testuser");
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "testuser", null, null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        AuthTokenFilter claimsFilter = new AuthTokenFilter(jwtUtils, userDetailsService, userStateCache,
+                new JwtAuthenticationProperties());
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseClaims(token)).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(principal);
+        when(userStateCache.isActive(42L)).thenReturn(true);
+
+        // Act
+        claimsFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertSame(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithClaimsTokenOfDeletedUser_ShouldNotSetAuthentication() throws Exception {
+        // Arrange
+        String token = "claims.jwt.token";
+        Claims claims = Jwts.claims().setSubject("testuser");
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "testuser", null, null, Collections.emptyList());
+        AuthTokenFilter claimsFilter = new AuthTokenFilter(jwtUtils, userDetailsService, userStateCache,
+                new JwtAuthenticationProperties());
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseClaims(token)).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(principal);
+        when(userStateCache.isActive(42L)).thenReturn(false);
+
+        // Act
+        claimsFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithTokenWithoutClaims_ShouldLoadUser() throws Exception {
+        // Arrange
+        String token = "legacy.jwt.token";
+        Claims claims = Jwts.claims().setSubject("testuser");
+        AuthTokenFilter claimsFilter = new AuthTokenFilter(jwtUtils, userDetailsService, userStateCache,
+                new JwtAuthenticationProperties());
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseClaims(token)).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(null);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+
+        // Act
+        claimsFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        verifyNoInteractions(userStateCache);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithClaimsAuthenticationDisabled_ShouldLoadUser() throws Exception {
+        // Arrange
+        String token = "claims.jwt.token";
+        JwtAuthenticationProperties properties = new JwtAuthenticationProperties();
+        properties.setClaimsAuthentication(false);
+        AuthTokenFilter loadingFilter = new AuthTokenFilter(jwtUtils, userDetailsService, userStateCache, properties);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().setSubject("testuser"));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+
+        // Act
+        loadingFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(jwtUtils, never()).getUserDetailsFromClaims(any());
+        verifyNoInteractions(userStateCache);
+    }
 }
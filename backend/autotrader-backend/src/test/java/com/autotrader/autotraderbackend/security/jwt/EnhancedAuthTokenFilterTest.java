@@ -1,5 +1,7 @@
 package com.autotrader.autotraderbackend.security.jwt;
 
+import com.autotrader.autotraderbackend.exception.jwt.MalformedJwtTokenException;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -72,8 +74,7 @@ public class EnhancedAuthTokenFilterTest {
     void doFilterInternal_WithValidToken_ShouldSetAuthentication() throws Exception {
         // Arrange
         String token = "valid.jwt.token";
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn("testuser");
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().setSubject("testuser"));
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
         
         request.addHeader("Authorization", "Bearer " + token);
@@ -97,7 +98,7 @@ public class EnhancedAuthTokenFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
-        verify(jwtUtils, never()).validateJwtToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
@@ -112,7 +113,7 @@ public class EnhancedAuthTokenFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
-        verify(jwtUtils, never()).validateJwtToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
@@ -127,14 +128,14 @@ public class EnhancedAuthTokenFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
-        verify(jwtUtils, never()).validateJwtToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
     void doFilterInternal_WithInvalidToken_ShouldNotSetAuthentication() throws Exception {
         // Arrange
         String token = "invalid.jwt.token";
-        when(jwtUtils.validateJwtToken(token)).thenReturn(false);
+        when(jwtUtils.parseClaims(token)).thenThrow(new MalformedJwtTokenException("Invalid JWT token"));
         
         request.addHeader("Authorization", "Bearer " + token);
         
@@ -144,7 +145,7 @@ public class EnhancedAuthTokenFilterTest {
         // Assert
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
+        verify(jwtUtils).parseClaims(token);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -152,8 +153,7 @@ public class EnhancedAuthTokenFilterTest {
     void doFilterInternal_WithValidTokenButUserNotFound_ShouldNotSetAuthentication() throws Exception {
         // Arrange
         String token = "valid.jwt.token";
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn("testuser");
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().setSubject("testuser"));
         when(userDetailsService.loadUserByUsername("testuser")).thenThrow(new RuntimeException("User not found"));
         
         request.addHeader("Authorization", "Bearer " + token);
@@ -164,8 +164,7 @@ public class EnhancedAuthTokenFilterTest {
         // Assert
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
+        verify(jwtUtils).parseClaims(token);
         verify(userDetailsService).loadUserByUsername("testuser");
     }
 
@@ -194,7 +193,7 @@ public class EnhancedAuthTokenFilterTest {
             // Assert
             assertNull(SecurityContextHolder.getContext().getAuthentication());
             verify(filterChain).doFilter(request, response);
-            verify(jwtUtils, never()).validateJwtToken(anyString());
+            verify(jwtUtils, never()).parseClaims(anyString());
             verify(userDetailsService, never()).loadUserByUsername(anyString());
         }
     }
@@ -203,7 +202,7 @@ public class EnhancedAuthTokenFilterTest {
     void doFilterInternal_WhenJWTValidationThrowsException_ShouldNotSetAuthentication() throws Exception {
         // Arrange
         String token = "exception.token";
-        when(jwtUtils.validateJwtToken(token)).thenThrow(new RuntimeException("JWT validation error"));
+        when(jwtUtils.parseClaims(token)).thenThrow(new RuntimeException("JWT validation error"));
         
         request.addHeader("Authorization", "Bearer " + token);
         
@@ -1,21 +1,30 @@
 package com.autotrader.autotraderbackend.security.jwt;
 
 import com.autotrader.autotraderbackend.exception.jwt.ExpiredJwtTokenException;
+import com.autotrader.autotraderbackend.exception.jwt.InvalidJwtSignatureException;
 import com.autotrader.autotraderbackend.exception.jwt.MalformedJwtTokenException;
+import com.autotrader.autotraderbackend.model.Role;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class JwtUtilsTest {
@@ -105,4 +114,63 @@ public class JwtUtilsTest {
             jwtUtils.validateJwtToken(token);
         });
     }
+
+    @Test
+    void generateJwtToken_WithUserDetailsImpl_ShouldEmbedUserIdAndRoles() {
+        // Arrange
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(authentication.getPrincipal()).thenReturn(principal);
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        UserDetailsImpl fromClaims = jwtUtils.getUserDetailsFromClaims(jwtUtils.parseClaims(token));
+
+        // Assert
+        assertNotNull(fromClaims);
+        assertEquals(42L, fromClaims.getId());
+        assertEquals("testuser", fromClaims.getUsername());
+        assertNull(fromClaims.getPassword());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                fromClaims.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void generateJwtTokenForUser_ShouldEmbedUserIdAndRoles() {
+        // Arrange
+        User user = new User("testuser", "test@example.com", "password");
+        user.setId(7L);
+        user.setRoles(Set.of(new Role("ROLE_USER")));
+
+        // Act
+        Claims claims = jwtUtils.parseClaims(jwtUtils.generateJwtTokenForUser(user));
+
+        // Assert
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(7, ((Number) claims.get(JwtUtils.USER_ID_CLAIM)).intValue());
+        assertEquals(List.of("ROLE_USER"), claims.get(JwtUtils.ROLES_CLAIM));
+    }
+
+    @Test
+    void getUserDetailsFromClaims_WithoutIdClaim_ShouldReturnNull() {
+        // Arrange - tokens issued before the claims were added only carry the subject
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act & Assert
+        assertNull(jwtUtils.getUserDetailsFromClaims(jwtUtils.parseClaims(token)));
+    }
+
+    @Test
+    void parseClaims_AfterSecretChange_ShouldRejectTokensSignedWithOldSecret() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+        assertEquals("testuser", jwtUtils.parseClaims(token).getSubject());
+
+        // Act
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "QUJDREVGR0hJSktMTU5PUFFSU1RVVldYWVphYmNkZWZnaGlqa2xtbm9wcXJzdHV2d3h5ejAxMjM0NTY=");
+
+        // Assert
+        assertThrows(InvalidJwtSignatureException.class, () -> jwtUtils.parseClaims(token));
+    }
 }
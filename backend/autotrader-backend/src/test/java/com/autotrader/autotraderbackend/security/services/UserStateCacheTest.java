@@ -0,0 +1,47 @@
+package com.autotrader.autotraderbackend.security.services;
+
+import com.autotrader.autotraderbackend.config.JwtAuthenticationProperties;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStateCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserStateCache userStateCache;
+
+    @BeforeEach
+    void setUp() {
+        userStateCache = new UserStateCache(userRepository, new JwtAuthenticationProperties());
+    }
+
+    @Test
+    void isActive_ShouldQueryDatabaseOncePerUser() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertTrue(userStateCache.isActive(1L));
+        assertTrue(userStateCache.isActive(1L));
+        assertFalse(userStateCache.isActive(2L));
+        assertFalse(userStateCache.isActive(2L));
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    void isActive_WithNullId_ShouldReturnFalse() {
+        assertFalse(userStateCache.isActive(null));
+        verifyNoInteractions(userRepository);
+    }
+}
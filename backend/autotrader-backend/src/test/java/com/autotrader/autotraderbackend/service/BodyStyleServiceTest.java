@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.BodyStyle;
 import com.autotrader.autotraderbackend.repository.BodyStyleRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class BodyStyleServiceTest {
     @Mock
     private BodyStyleRepository bodyStyleRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private BodyStyleService bodyStyleService;
 
@@ -157,6 +161,7 @@ class BodyStyleServiceTest {
         assertNotNull(result);
         assertEquals(testBodyStyle.getName(), result.getName());
         verify(bodyStyleRepository, times(1)).save(testBodyStyle);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -181,6 +186,7 @@ class BodyStyleServiceTest {
         
         verify(bodyStyleRepository, times(1)).findById(1L);
         verify(bodyStyleRepository, times(1)).save(any(BodyStyle.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -195,5 +201,6 @@ class BodyStyleServiceTest {
         // Assert
         verify(bodyStyleRepository, times(1)).findById(1L);
         verify(bodyStyleRepository, times(1)).delete(testBodyStyle);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.CarCondition;
 import com.autotrader.autotraderbackend.repository.CarConditionRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class CarConditionServiceTest {
     @Mock
     private CarConditionRepository carConditionRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private CarConditionService carConditionService;
 
@@ -151,6 +155,7 @@ class CarConditionServiceTest {
         assertNotNull(result);
         assertEquals(testCondition.getName(), result.getName());
         verify(carConditionRepository, times(1)).save(testCondition);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -175,6 +180,7 @@ class CarConditionServiceTest {
         
         verify(carConditionRepository, times(1)).findById(1L);
         verify(carConditionRepository, times(1)).save(any(CarCondition.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -189,5 +195,6 @@ class CarConditionServiceTest {
         // Assert
         verify(carConditionRepository, times(1)).findById(1L);
         verify(carConditionRepository, times(1)).delete(testCondition);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
@@ -1,5 +1,6 @@
 package com.autotrader.autotraderbackend.service;
 
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.mapper.CarListingMapper;
 import com.autotrader.autotraderbackend.model.CarListing;
@@ -15,16 +16,19 @@ import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
 import com.autotrader.autotraderbackend.repository.LocationRepository;
-import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage;
+import com.autotrader.autotraderbackend.service.search.ListingSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,11 +51,17 @@ public class CarListingCrudOperationsTest {
     private CarModelService carModelService;
 
     @Mock
-    private StorageService storageService;
+    private ListingMediaStorage listingMediaStorage;
 
     @Mock
     private CarListingMapper carListingMapper;
 
+    @Mock
+    private ListingSearchIndex listingSearchIndex;
+
+    @Mock
+    private ListingEventOutbox eventOutbox;
+
     @InjectMocks
     private CarListingService carListingService;
 
@@ -246,8 +256,11 @@ public class CarListingCrudOperationsTest {
         carListingService.deleteListing(TEST_LISTING_ID, TEST_USERNAME);
         
         // Assert
-        testListing.getMedia().forEach(media -> verify(storageService).delete(media.getFileKey()));
-        verify(carListingRepository).delete(testListing);
+        InOrder inOrder = inOrder(carListingRepository, listingMediaStorage);
+        inOrder.verify(carListingRepository).delete(testListing);
+        inOrder.verify(carListingRepository).flush();
+        inOrder.verify(listingMediaStorage).release(TEST_LISTING_ID, List.copyOf(testListing.getMedia()));
+        verify(eventOutbox).enqueue(any(ListingDeletedEvent.class));
     }
 
     @Test
@@ -261,7 +274,7 @@ public class CarListingCrudOperationsTest {
         
         assertEquals("You are not authorized to delete this listing", exception.getMessage());
         verify(carListingRepository, never()).delete(any(CarListing.class));
-        verify(storageService, never()).delete(anyString());
+        verifyNoInteractions(listingMediaStorage);
     }
     
     @Test
@@ -285,8 +298,11 @@ public class CarListingCrudOperationsTest {
         carListingService.deleteListingAsAdmin(TEST_LISTING_ID);
         
         // Assert
-        testListing.getMedia().forEach(media -> verify(storageService).delete(media.getFileKey()));
-        verify(carListingRepository).delete(testListing);
+        InOrder inOrder = inOrder(carListingRepository, listingMediaStorage);
+        inOrder.verify(carListingRepository).delete(testListing);
+        inOrder.verify(carListingRepository).flush();
+        inOrder.verify(listingMediaStorage).release(TEST_LISTING_ID, List.copyOf(testListing.getMedia()));
+        verify(eventOutbox).enqueue(any(ListingDeletedEvent.class));
     }
     
     @Test
@@ -1,5 +1,7 @@
 package com.autotrader.autotraderbackend.service;
 
+import com.autotrader.autotraderbackend.config.FullTextSearchProperties;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.exception.StorageException;
 import com.autotrader.autotraderbackend.mapper.CarListingMapper;
@@ -14,31 +16,41 @@ import com.autotrader.autotraderbackend.model.Governorate;
 import com.autotrader.autotraderbackend.payload.request.CreateListingRequest;
 import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
 import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.autotrader.autotraderbackend.payload.response.CursorPageResponse;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.LocationRepository;
 import com.autotrader.autotraderbackend.repository.UserRepository;
-import com.autotrader.autotraderbackend.service.storage.StorageService;
-import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.repository.projection.ListingSummaryView;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage.StoredMedia;
+import com.autotrader.autotraderbackend.service.search.ListingSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.ArgumentCaptor;
+import org.mockito.Spy;
 import org.mockito.ArgumentMatchers;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,13 +73,22 @@ class CarListingServiceTest {
     private CarModelService carModelService; // Added mock for CarModelService
 
     @Mock
-    private StorageService storageService;
+    private ListingMediaStorage listingMediaStorage;
 
     @Mock
-    private StorageKeyGenerator storageKeyGenerator;
+    private CarListingMapper carListingMapper;
 
     @Mock
-    private CarListingMapper carListingMapper;
+    private ListingSearchIndex listingSearchIndex;
+
+    @Mock
+    private ListingEventOutbox eventOutbox;
+
+    @Spy
+    private FullTextSearchProperties fullTextSearchProperties = new FullTextSearchProperties();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private CarListingService carListingService;
@@ -137,18 +158,6 @@ class CarListingServiceTest {
         testListingResponse.setBrandNameAr(testCarBrand.getDisplayNameAr());
         testListingResponse.setModelNameEn(testCarModel.getDisplayNameEn());
         testListingResponse.setModelNameAr(testCarModel.getDisplayNameAr());
-        
-        // Setup StorageKeyGenerator mock (lenient to avoid unnecessary stubbing exceptions)
-        lenient().when(storageKeyGenerator.generateListingMediaKey(anyLong(), anyString()))
-                .thenAnswer(invocation -> {
-                    Long listingId = invocation.getArgument(0);
-                    String filename = invocation.getArgument(1);
-                    if (filename == null || filename.trim().isEmpty()) {
-                        return "listings/" + listingId + "/123456_";
-                    } else {
-                        return "listing-media/" + listingId + "/" + filename;
-                    }
-                });
     }
 
     @Test
@@ -310,18 +319,8 @@ class CarListingServiceTest {
     void getAllApprovedListings_ShouldReturnPageOfApprovedListings() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        CarListing approvedListing1 = new CarListing(); // Setup listing 1
-        approvedListing1.setId(1L);
-        approvedListing1.setApproved(true);
-        approvedListing1.setSold(false);
-        approvedListing1.setArchived(false);
-        CarListing approvedListing2 = new CarListing(); // Setup listing 2
-        approvedListing2.setId(2L);
-        approvedListing2.setApproved(true);
-        approvedListing2.setSold(false);
-        approvedListing2.setArchived(false);
-        List<CarListing> listings = Arrays.asList(approvedListing1, approvedListing2);
-        Page<CarListing> listingPage = new PageImpl<>(listings, pageable, listings.size());
+        List<ListingSummaryView> listings = Arrays.asList(listingSummary(1L, "Toyota"), listingSummary(2L, "Toyota"));
+        Page<Long> idPage = new PageImpl<>(Arrays.asList(1L, 2L), pageable, listings.size());
 
         CarListingResponse response1 = new CarListingResponse(); // Setup response 1
         response1.setId(1L);
@@ -331,10 +330,10 @@ class CarListingServiceTest {
         response2.setApproved(true);
 
         // Old: when(carListingRepository.findByApprovedTrue(pageable)).thenReturn(listingPage);
-        when(carListingRepository.findAll(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable))).thenReturn(listingPage);
-        // Mock mapper for each listing in the page
-        when(carListingMapper.toCarListingResponse(approvedListing1)).thenReturn(response1);
-        when(carListingMapper.toCarListingResponse(approvedListing2)).thenReturn(response2);
+        when(carListingRepository.findIdPage(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable))).thenReturn(idPage);
+        when(carListingRepository.findSummariesForDisplay(Arrays.asList(1L, 2L))).thenReturn(listings);
+        // Mock mapper for the whole page (signed URLs are resolved once per page)
+        when(carListingMapper.toCarListingResponsesFromSummaries(listings)).thenReturn(Arrays.asList(response1, response2));
 
         // Act
         Page<CarListingResponse> responsePage = carListingService.getAllApprovedListings(pageable);
@@ -346,19 +345,21 @@ class CarListingServiceTest {
         assertEquals(response1, responsePage.getContent().get(0));
         assertEquals(response2, responsePage.getContent().get(1));
         // verify(carListingRepository).findByApprovedTrue(pageable);
-        verify(carListingRepository).findAll(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable));
-        verify(carListingMapper, times(2)).toCarListingResponse(any(CarListing.class)); // Verify mapper called twice
+        verify(carListingRepository).findIdPage(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable));
+        verify(carListingRepository).findSummariesForDisplay(Arrays.asList(1L, 2L)); // Projections loaded for the whole page at once
+        verify(carListingRepository, never()).findAllForDisplay(any()); // No managed entities for public pages
+        verify(carListingMapper).toCarListingResponsesFromSummaries(listings); // Verify page mapped in one call
+        verify(carListingMapper, never()).toCarListingResponse(any(CarListing.class));
     }
 
      @Test
     void getAllApprovedListings_WhenNoneFound_ShouldReturnEmptyPage() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<CarListing> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<Long> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
         // Old: when(carListingRepository.findByApprovedTrue(pageable)).thenReturn(emptyPage);
-        when(carListingRepository.findAll(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable))).thenReturn(emptyPage);
-        // No need to mock mapper as it won't be called for an empty page's map operation
+        when(carListingRepository.findIdPage(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable))).thenReturn(emptyPage);
 
         // Act
         Page<CarListingResponse> responsePage = carListingService.getAllApprovedListings(pageable);
@@ -368,7 +369,8 @@ class CarListingServiceTest {
         assertTrue(responsePage.isEmpty());
         assertEquals(0, responsePage.getTotalElements());
         // verify(carListingRepository).findByApprovedTrue(pageable);
-        verify(carListingRepository).findAll(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable));
+        verify(carListingRepository).findIdPage(ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<CarListing>>any(), eq(pageable));
+        verify(carListingRepository, never()).findSummariesForDisplay(any());
         verify(carListingMapper, never()).toCarListingResponse(any()); // Mapper should not be called
     }
 
@@ -379,14 +381,9 @@ class CarListingServiceTest {
         ListingFilterRequest filter = new ListingFilterRequest(); // Populate filter
         filter.setBrand("Honda"); // Keep this for filter logic, but CarListing/Response will use denormalized fields
 
-        CarListing filteredListing = new CarListing(); // Setup listing
-        filteredListing.setId(1L);
-        // Set denormalized brand name for the listing itself
-        filteredListing.setBrandNameEn("Honda"); 
-        filteredListing.setBrandNameAr("هوندا");
-        filteredListing.setApproved(true);
-        List<CarListing> listings = Collections.singletonList(filteredListing);
-        Page<CarListing> listingPage = new PageImpl<>(listings, pageable, 1);
+        // Summary with the denormalized brand name of the listing itself
+        List<ListingSummaryView> listings = Collections.singletonList(listingSummary(1L, "Honda"));
+        Page<Long> idPage = new PageImpl<>(Collections.singletonList(1L), pageable, 1);
 
         CarListingResponse filteredResponse = new CarListingResponse(); // Setup response
         filteredResponse.setId(1L);
@@ -396,8 +393,9 @@ class CarListingServiceTest {
         filteredResponse.setApproved(true);
 
         // FIX: Use ArgumentMatchers.<Specification<CarListing>>any() for type safety
-        when(carListingRepository.findAll(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable))).thenReturn(listingPage);
-        when(carListingMapper.toCarListingResponse(filteredListing)).thenReturn(filteredResponse);
+        when(carListingRepository.findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable))).thenReturn(idPage);
+        when(carListingRepository.findSummariesForDisplay(Collections.singletonList(1L))).thenReturn(listings);
+        when(carListingMapper.toCarListingResponsesFromSummaries(listings)).thenReturn(Collections.singletonList(filteredResponse));
 
         // Act
         Page<CarListingResponse> responsePage = carListingService.getFilteredListings(filter, pageable);
@@ -408,8 +406,8 @@ class CarListingServiceTest {
         assertEquals(1, responsePage.getContent().size());
         assertEquals(filteredResponse, responsePage.getContent().get(0));
         // FIX: Use ArgumentMatchers.<Specification<CarListing>>any() for type safety
-        verify(carListingRepository).findAll(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable));
-        verify(carListingMapper).toCarListingResponse(filteredListing);
+        verify(carListingRepository).findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable));
+        verify(carListingMapper).toCarListingResponsesFromSummaries(listings);
     }
 
     @Test
@@ -418,9 +416,9 @@ class CarListingServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         ListingFilterRequest filter = new ListingFilterRequest(); // Populate filter
         filter.setBrand("NonExistent");
-        Page<CarListing> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<Long> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
-        when(carListingRepository.findAll(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable))).thenReturn(emptyPage);
+        when(carListingRepository.findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable))).thenReturn(emptyPage);
 
         // Act
         Page<CarListingResponse> responsePage = carListingService.getFilteredListings(filter, pageable);
@@ -429,9 +427,145 @@ class CarListingServiceTest {
         assertNotNull(responsePage);
         assertTrue(responsePage.isEmpty());
         assertEquals(0, responsePage.getTotalElements());
-        verify(carListingRepository).findAll(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable));
+        verify(carListingRepository).findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable));
         verify(carListingMapper, never()).toCarListingResponse(any());
     }
+
+    @Test
+    void getFilteredListings_WhenSearchIndexReady_ShouldHydrateIndexedIdsInOrder() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setBrand("Honda");
+
+        ListingSummaryView first = listingSummary(7L, "Honda");
+        ListingSummaryView second = listingSummary(3L, "Honda");
+        CarListingResponse firstResponse = new CarListingResponse();
+        firstResponse.setId(7L);
+        CarListingResponse secondResponse = new CarListingResponse();
+        secondResponse.setId(3L);
+
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(listingSearchIndex.search(filter, null, pageable)).thenReturn(new PageImpl<>(Arrays.asList(7L, 3L), pageable, 42));
+        when(carListingRepository.findSummariesForDisplay(Arrays.asList(7L, 3L))).thenReturn(Arrays.asList(first, second));
+        when(carListingMapper.toCarListingResponsesFromSummaries(Arrays.asList(first, second))).thenReturn(Arrays.asList(firstResponse, secondResponse));
+
+        // Act
+        Page<CarListingResponse> responsePage = carListingService.getFilteredListings(filter, pageable);
+
+        // Assert
+        assertEquals(42, responsePage.getTotalElements());
+        assertEquals(7L, responsePage.getContent().get(0).getId());
+        assertEquals(3L, responsePage.getContent().get(1).getId());
+        verify(carListingRepository, never()).findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getFilteredListings_WithKeywords_ShouldQueryDatabaseInsteadOfSearchIndex() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setQ("camry sunroof");
+        fullTextSearchProperties.setEnabled(true);
+        Page<Long> idPage = new PageImpl<>(Collections.singletonList(5L), pageable, 1);
+        List<ListingSummaryView> listings = Collections.singletonList(listingSummary(5L, "Toyota"));
+
+        when(listingSearchIndex.isReady()).thenReturn(true);
+        when(carListingRepository.findIdPage(ArgumentMatchers.<Specification<CarListing>>any(), eq(pageable))).thenReturn(idPage);
+        when(carListingRepository.findSummariesForDisplay(Collections.singletonList(5L))).thenReturn(listings);
+        when(carListingMapper.toCarListingResponsesFromSummaries(listings)).thenReturn(Collections.singletonList(new CarListingResponse()));
+
+        // Act
+        Page<CarListingResponse> responsePage = carListingService.getFilteredListings(filter, pageable);
+
+        // Assert
+        assertEquals(1, responsePage.getTotalElements());
+        verify(listingSearchIndex, never()).search(any(), any(), any());
+    }
+
+    // --- Tests for cursor pagination ---
+    @Test
+    void getAllApprovedListingsByCursor_WhenMoreRowsThanPage_ShouldReturnNextCursorWithoutCount() {
+        // Arrange
+        CarListing newer = new CarListing();
+        newer.setId(9L);
+        newer.setCreatedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+        CarListing older = new CarListing();
+        older.setId(4L);
+        older.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        when(carListingRepository.findIds(ArgumentMatchers.<Specification<CarListing>>any(), eq(3)))
+                .thenReturn(Arrays.asList(9L, 4L, 2L));
+        // Only the rows of the page are loaded; the extra ID just signals a next page
+        when(carListingRepository.findAllForDisplay(Arrays.asList(9L, 4L))).thenReturn(Arrays.asList(newer, older));
+        when(carListingMapper.toCarListingResponses(Arrays.asList(newer, older)))
+                .thenReturn(Arrays.asList(testListingResponse, testListingResponse));
+
+        // Act
+        CursorPageResponse<CarListingResponse> response = carListingService.getAllApprovedListingsByCursor(
+                null, 2, Sort.by(Sort.Direction.DESC, "createdAt"), false);
+
+        // Assert
+        assertEquals(2, response.getContent().size());
+        assertTrue(response.isHasNext());
+        assertNull(response.getTotalElements());
+        ListingCursor next = ListingCursor.decode(response.getNextCursor());
+        assertEquals(SortableCarListingField.CREATED_AT, next.field());
+        assertEquals(Sort.Direction.DESC, next.direction());
+        assertEquals(older.getCreatedAt(), next.value());
+        assertEquals(4L, next.id());
+        verify(carListingRepository, never()).count(ArgumentMatchers.<Specification<CarListing>>any());
+    }
+
+    @Test
+    void getFilteredListingsByCursor_WithCursorAndIncludeTotal_ShouldReturnLastPageWithTotal() {
+        // Arrange
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setBrand("Test");
+        testListing.setApproved(true);
+        String cursor = new ListingCursor(SortableCarListingField.PRICE, Sort.Direction.ASC, new BigDecimal("15000.00"), 8L).encode();
+        when(carListingRepository.findIds(ArgumentMatchers.<Specification<CarListing>>any(), eq(11)))
+                .thenReturn(Collections.singletonList(testListing.getId()));
+        when(carListingRepository.findAllForDisplay(Collections.singletonList(testListing.getId())))
+                .thenReturn(Collections.singletonList(testListing));
+        when(carListingRepository.count(ArgumentMatchers.<Specification<CarListing>>any())).thenReturn(11L);
+        when(carListingMapper.toCarListingResponses(Collections.singletonList(testListing)))
+                .thenReturn(Collections.singletonList(testListingResponse));
+
+        // Act
+        CursorPageResponse<CarListingResponse> response = carListingService.getFilteredListingsByCursor(
+                filter, cursor, 10, Sort.by(Sort.Direction.DESC, "createdAt"), true);
+
+        // Assert
+        assertEquals(1, response.getContent().size());
+        assertFalse(response.isHasNext());
+        assertNull(response.getNextCursor());
+        assertEquals(11L, response.getTotalElements());
+    }
+
+    @Test
+    void getFilteredListingsByCursor_WithUnknownLocation_ShouldReturnEmptyPage() {
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setLocation("nowhere");
+        when(locationRepository.findBySlug("nowhere")).thenReturn(Optional.empty());
+
+        CursorPageResponse<CarListingResponse> response = carListingService.getFilteredListingsByCursor(
+                filter, null, 10, Sort.unsorted(), false);
+
+        assertTrue(response.getContent().isEmpty());
+        assertFalse(response.isHasNext());
+        verify(carListingRepository, never()).findIds(ArgumentMatchers.<Specification<CarListing>>any(), anyInt());
+    }
+
+    @Test
+    void getAllApprovedListingsByCursor_WithInvalidCursorOrSort_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                carListingService.getAllApprovedListingsByCursor("not-a-cursor", 10, Sort.unsorted(), false));
+        assertThrows(IllegalArgumentException.class, () ->
+                carListingService.getAllApprovedListingsByCursor(null, 10, Sort.by("mileage"), false));
+        assertThrows(IllegalArgumentException.class, () ->
+                carListingService.getAllApprovedListingsByCursor(null, 10, Sort.by("price", "createdAt"), false));
+    }
+
     // --- Tests for uploadListingImage ---
     @Test
     void uploadListingImage_Success() throws IOException {
@@ -442,16 +576,16 @@ class CarListingServiceTest {
                 "file", "hello.jpg", "image/jpeg", "Hello, World!".getBytes()
         );
         
-        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        String storedKey = "listings/" + listingId + "/20240101_120000_hello.jpg";
         
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
         when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
-        when(storageService.store(eq(file), keyCaptor.capture())).thenAnswer(invocation -> keyCaptor.getValue());
+        when(listingMediaStorage.store(listingId, file)).thenReturn(new StoredMedia(storedKey, null, true));
         when(carListingRepository.save(any(CarListing.class))).thenAnswer(invocation -> {
             CarListing listingToSave = invocation.getArgument(0);
             assertNotNull(listingToSave.getMedia());
             assertFalse(listingToSave.getMedia().isEmpty());
-            assertEquals(keyCaptor.getValue(), listingToSave.getMedia().get(0).getFileKey());
+            assertEquals(storedKey, listingToSave.getMedia().get(0).getFileKey());
             return listingToSave;
         });
         // Act
@@ -459,11 +593,11 @@ class CarListingServiceTest {
 
         // Assert
         assertNotNull(returnedKey);
-        assertEquals(returnedKey, keyCaptor.getValue());
+        assertEquals(storedKey, returnedKey);
         // Verify interactions
         verify(userRepository).findByUsername(username);
         verify(carListingRepository).findById(listingId);
-        verify(storageService).store(eq(file), keyCaptor.capture());
+        verify(listingMediaStorage).store(listingId, file);
         verify(carListingRepository).save(argThat(l -> {
             if (l.getId().equals(listingId) && !l.getMedia().isEmpty()) {
                 ListingMedia media = l.getMedia().get(0);
@@ -471,6 +605,8 @@ class CarListingServiceTest {
             }
             return false;
         }));
+        verify(eventOutbox).enqueue(argThat((ApplicationEvent event) -> event instanceof ListingMediaCreatedEvent created
+                && returnedKey.equals(created.getFileKey())));
     }
     @Test
     void uploadListingImage_ListingNotFound_ThrowsResourceNotFoundException() throws IOException {
@@ -490,7 +626,7 @@ class CarListingServiceTest {
         // Verify interactions
         verify(userRepository).findByUsername(username);
         verify(carListingRepository).findById(nonExistentId);
-        verify(storageService, never()).store(any(MultipartFile.class), anyString());
+        verify(listingMediaStorage, never()).store(anyLong(), any(MultipartFile.class));
         verify(carListingRepository, never()).save(any());
     }
 
@@ -516,7 +652,7 @@ class CarListingServiceTest {
         // Verify interactions
         verify(userRepository).findByUsername(wrongUsername);
         verify(carListingRepository).findById(listingId);
-        verify(storageService, never()).store(any(MultipartFile.class), anyString());
+        verify(listingMediaStorage, never()).store(anyLong(), any(MultipartFile.class));
         verify(carListingRepository, never()).save(any());
     }
     @Test
@@ -538,7 +674,7 @@ class CarListingServiceTest {
         // Verify interactions
         verify(userRepository).findByUsername(username);
         verify(carListingRepository, never()).findById(anyLong());
-        verify(storageService, never()).store(any(MultipartFile.class), anyString());
+        verify(listingMediaStorage, never()).store(anyLong(), any(MultipartFile.class));
         verify(carListingRepository, never()).save(any());
     }
 
@@ -548,11 +684,10 @@ class CarListingServiceTest {
         Long listingId = testListing.getId();
         String username = testUser.getUsername();
         MockMultipartFile file = new MockMultipartFile("file", "hello.jpg", "image/jpeg", "content".getBytes());
-        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
         
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
         when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
-        doThrow(new StorageException("Disk full")).when(storageService).store(eq(file), keyCaptor.capture());
+        doThrow(new StorageException("Disk full")).when(listingMediaStorage).store(listingId, file);
         
         // Act & Assert
         StorageException exception = assertThrows(StorageException.class, () -> {
@@ -564,7 +699,7 @@ class CarListingServiceTest {
         // Verify interactions
         verify(userRepository).findByUsername(username);
         verify(carListingRepository).findById(listingId);
-        verify(storageService).store(eq(file), anyString());
+        verify(listingMediaStorage).store(listingId, file);
         verify(carListingRepository, never()).save(any());
     }
 
@@ -579,7 +714,7 @@ class CarListingServiceTest {
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
         when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
-        when(storageService.store(eq(file), anyString())).thenReturn(expectedKey);
+        when(listingMediaStorage.store(listingId, file)).thenReturn(new StoredMedia(expectedKey, null, true));
         when(carListingRepository.save(any(CarListing.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
@@ -589,8 +724,8 @@ class CarListingServiceTest {
         assertNotNull(returnedKey);
         assertEquals(expectedKey, returnedKey);
 
-        // Verify store was called with the expected key
-        verify(storageService).store(eq(file), eq(expectedKey));
+        // Verify the file was stored
+        verify(listingMediaStorage).store(listingId, file);
 
         // Assert the format of the returned key
         assertTrue(returnedKey.startsWith("listings/" + listingId + "/"));
@@ -607,18 +742,107 @@ class CarListingServiceTest {
         }));
     }
 
+    @Test
+    void uploadListingImage_WithStoredDuplicate_ShouldReuseObjectAndVariants() {
+        // Arrange
+        Long listingId = testListing.getId();
+        String username = testUser.getUsername();
+        MockMultipartFile file = new MockMultipartFile("file", "hello.jpg", "image/jpeg", "content".getBytes());
+        String sharedKey = "media/ab/" + "ab".repeat(32) + ".jpg";
+        String variantKeys = "card=thumbnails/media_ab_ab.jpg/card.jpg";
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
+        when(listingMediaStorage.store(listingId, file)).thenReturn(new StoredMedia(sharedKey, variantKeys, false));
+        when(carListingRepository.save(any(CarListing.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        String returnedKey = carListingService.uploadListingImage(listingId, file, username);
+
+        // Assert
+        assertEquals(sharedKey, returnedKey);
+        ListingMedia media = testListing.getMedia().get(0);
+        assertEquals(sharedKey, media.getFileKey());
+        assertEquals(variantKeys, media.getVariantKeys());
+        verify(eventOutbox, never()).enqueue(any(ApplicationEvent.class));
+    }
+
+    @Test
+    void uploadListingImageAsync_ShouldAttachMediaOnceImageIsStored() {
+        // Arrange
+        Long listingId = testListing.getId();
+        String username = testUser.getUsername();
+        MockMultipartFile file = new MockMultipartFile("file", "hello.jpg", "image/jpeg", "content".getBytes());
+        String storedKey = "listings/" + listingId + "/20240101_120000_hello.jpg";
+        CompletableFuture<StoredMedia> upload = new CompletableFuture<>();
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
+        when(listingMediaStorage.storeAsync(listingId, file)).thenReturn(upload);
+        when(carListingRepository.save(any(CarListing.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        CompletableFuture<String> result = carListingService.uploadListingImageAsync(listingId, file, username);
+
+        // Assert
+        assertFalse(result.isDone());
+        verify(carListingRepository, never()).save(any());
+
+        upload.complete(new StoredMedia(storedKey, null, true));
+
+        assertEquals(storedKey, result.join());
+        assertEquals(storedKey, testListing.getMedia().get(0).getFileKey());
+        assertTrue(testListing.getMedia().get(0).getIsPrimary());
+        verify(carListingRepository).save(testListing);
+        verify(eventOutbox).enqueue(argThat((ApplicationEvent event) -> event instanceof ListingMediaCreatedEvent created
+                && storedKey.equals(created.getFileKey())));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void uploadListingImageAsync_UnauthorizedUser_ThrowsBeforeUpload() {
+        // Arrange
+        User wrongUser = new User();
+        wrongUser.setId(99L);
+        wrongUser.setUsername("wronguser");
+        MockMultipartFile file = new MockMultipartFile("file", "hello.jpg", "image/jpeg", "content".getBytes());
+        when(userRepository.findByUsername("wronguser")).thenReturn(Optional.of(wrongUser));
+        when(carListingRepository.findById(testListing.getId())).thenReturn(Optional.of(testListing));
+
+        // Act & Assert
+        assertThrows(SecurityException.class,
+                () -> carListingService.uploadListingImageAsync(testListing.getId(), file, "wronguser"));
+        verify(listingMediaStorage, never()).storeAsync(anyLong(), any(MultipartFile.class));
+    }
+
+    @Test
+    void uploadListingImageAsync_StorageFailure_CompletesExceptionally() {
+        // Arrange
+        Long listingId = testListing.getId();
+        String username = testUser.getUsername();
+        MockMultipartFile file = new MockMultipartFile("file", "hello.jpg", "image/jpeg", "content".getBytes());
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(carListingRepository.findById(listingId)).thenReturn(Optional.of(testListing));
+        when(listingMediaStorage.storeAsync(listingId, file))
+                .thenReturn(CompletableFuture.failedFuture(new StorageException("Bucket unavailable")));
+
+        // Act
+        CompletableFuture<String> result = carListingService.uploadListingImageAsync(listingId, file, username);
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(StorageException.class, exception.getCause());
+        assertEquals("Bucket unavailable", exception.getCause().getMessage());
+        verify(carListingRepository, never()).save(any());
+        verifyNoInteractions(eventOutbox);
+    }
+
     // --- Test for getMyListings ---
     @Test
     void getMyListings_ShouldReturnUserListings() {
         // Arrange
         String username = testUser.getUsername();
-        CarListing listing1 = new CarListing(); // Setup listing 1 for testUser
-        listing1.setId(1L);
-        listing1.setSeller(testUser);
-        CarListing listing2 = new CarListing(); // Setup listing 2 for testUser
-        listing2.setId(2L);
-        listing2.setSeller(testUser);
-        List<CarListing> userListings = Arrays.asList(listing1, listing2);
+        List<ListingSummaryView> userListings = Arrays.asList(listingSummary(1L, "Toyota"), listingSummary(2L, "Toyota"));
 
         CarListingResponse response1 = new CarListingResponse(); // Setup response 1
         response1.setId(1L);
@@ -626,9 +850,9 @@ class CarListingServiceTest {
         response2.setId(2L);
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
-        when(carListingRepository.findBySeller(testUser)).thenReturn(userListings);
-        when(carListingMapper.toCarListingResponse(listing1)).thenReturn(response1);
-        when(carListingMapper.toCarListingResponse(listing2)).thenReturn(response2);
+        when(carListingRepository.findIdsBySeller(testUser)).thenReturn(Arrays.asList(1L, 2L));
+        when(carListingRepository.findSummariesForDisplay(Arrays.asList(1L, 2L))).thenReturn(userListings);
+        when(carListingMapper.toCarListingResponsesFromSummaries(userListings)).thenReturn(Arrays.asList(response1, response2));
 
         // Act
         List<CarListingResponse> result = carListingService.getMyListings(username);
@@ -640,7 +864,13 @@ class CarListingServiceTest {
         assertEquals(2L, result.get(1).getId());
 
         verify(userRepository).findByUsername(username);
-        verify(carListingRepository).findBySeller(testUser);
-        verify(carListingMapper, times(2)).toCarListingResponse(any());
+        verify(carListingRepository).findIdsBySeller(testUser);
+        verify(carListingMapper).toCarListingResponsesFromSummaries(userListings);
+    }
+
+    private ListingSummaryView listingSummary(Long id, String brandNameEn) {
+        return new ListingSummaryView(id, "Listing " + id, 2020, 10000, new BigDecimal("15000.00"), "Description",
+                brandNameEn, null, "Model", null, "Damascus", null, LocalDateTime.now(), true, false, false, false,
+                testUser.getId(), testUser.getUsername(), null, null, List.of());
     }
 }
@@ -17,7 +17,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -40,7 +39,7 @@ class CarListingStatusServiceTest {
     private CarListingMapper carListingMapper;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ListingEventOutbox eventOutbox;
 
     @InjectMocks
     private CarListingStatusService carListingStatusService;
@@ -79,7 +78,7 @@ class CarListingStatusServiceTest {
         carListingStatusService.markListingAsSold(testListing.getId(), testUser.getUsername());
 
         verify(carListingRepository).save(testListing);
-        verify(eventPublisher).publishEvent(any(ListingMarkedAsSoldEvent.class));
+        verify(eventOutbox).enqueue(any(ListingMarkedAsSoldEvent.class));
         assertThat(testListing.getSold()).isTrue();
     }
 
@@ -93,7 +92,7 @@ class CarListingStatusServiceTest {
         carListingStatusService.markListingAsSold(testListing.getId(), testUser.getUsername());
 
         verify(carListingRepository, never()).save(any());
-        verify(eventPublisher, never()).publishEvent(any());
+        verify(eventOutbox, never()).enqueue(any());
     }
 
     @Test
@@ -106,7 +105,7 @@ class CarListingStatusServiceTest {
         carListingStatusService.archiveListing(testListing.getId(), testUser.getUsername());
 
         verify(carListingRepository).save(testListing);
-        verify(eventPublisher).publishEvent(any(ListingArchivedEvent.class));
+        verify(eventOutbox).enqueue(any(ListingArchivedEvent.class));
         assertThat(testListing.getArchived()).isTrue();
     }
 
@@ -161,7 +160,7 @@ class CarListingStatusServiceTest {
         carListingStatusService.approveListing(testListing.getId());
 
         verify(carListingRepository).save(testListing);
-        verify(eventPublisher).publishEvent(any(ListingApprovedEvent.class));
+        verify(eventOutbox).enqueue(any(ListingApprovedEvent.class));
         assertThat(testListing.getApproved()).isTrue();
     }
 
@@ -402,6 +401,6 @@ class CarListingStatusServiceTest {
             !listing.getIsUserActive()
         ));
         verify(carListingMapper).toCarListingResponse(testListing);
-        verify(eventPublisher).publishEvent(any(ListingExpiredEvent.class));
+        verify(eventOutbox).enqueue(any(ListingExpiredEvent.class));
     }
 }
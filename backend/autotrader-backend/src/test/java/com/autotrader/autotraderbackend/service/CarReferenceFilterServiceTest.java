@@ -3,6 +3,9 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.model.CarBrand;
 import com.autotrader.autotraderbackend.model.CarModel;
 import com.autotrader.autotraderbackend.model.CarTrim;
+import com.autotrader.autotraderbackend.repository.CarModelRepository;
+import com.autotrader.autotraderbackend.repository.CarTrimRepository;
+import com.autotrader.autotraderbackend.repository.projection.CarHierarchyRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +33,12 @@ class CarReferenceFilterServiceTest {
     
     @Mock
     private CarTrimService carTrimService;
+    
+    @Mock
+    private CarModelRepository carModelRepository;
+    
+    @Mock
+    private CarTrimRepository carTrimRepository;
 
     @InjectMocks
     private CarReferenceFilterService carReferenceFilterService;
@@ -113,16 +122,15 @@ class CarReferenceFilterServiceTest {
     void getActiveCarHierarchy_ShouldReturnCompleteHierarchyOfActiveEntities() {
         // Arrange
         List<CarBrand> activeBrands = Arrays.asList(testBrand1, testBrand2);
-        List<CarModel> activeModelsForBrand1 = Collections.singletonList(testModel1);
-        List<CarModel> activeModelsForBrand2 = Collections.singletonList(testModel2);
-        List<CarTrim> activeTrimsForModel1 = Collections.singletonList(testTrim1);
-        List<CarTrim> activeTrimsForModel2 = Collections.singletonList(testTrim2);
-        
         when(carBrandService.getActiveBrands()).thenReturn(activeBrands);
-        when(carModelService.getActiveModelsByBrandId(1L)).thenReturn(activeModelsForBrand1);
-        when(carModelService.getActiveModelsByBrandId(2L)).thenReturn(activeModelsForBrand2);
-        when(carTrimService.getActiveTrimsByModelId(1L)).thenReturn(activeTrimsForModel1);
-        when(carTrimService.getActiveTrimsByModelId(2L)).thenReturn(activeTrimsForModel2);
+        when(carModelRepository.findActiveHierarchyRows()).thenReturn(Arrays.asList(
+                new CarHierarchyRow(1L, 1L, "Camry", "camry", "Camry", "كامري"),
+                new CarHierarchyRow(2L, 2L, "Accord", "accord", "Accord", "أكورد"),
+                new CarHierarchyRow(3L, 1L, "Corolla", "corolla", "Corolla", "كورولا")));
+        when(carTrimRepository.findActiveHierarchyRows()).thenReturn(Arrays.asList(
+                new CarHierarchyRow(1L, 1L, "LE", "LE", "إل إي"),
+                new CarHierarchyRow(2L, 2L, "EX", "EX", "إي إكس"),
+                new CarHierarchyRow(3L, 1L, "XLE", "XLE", "إكس إل إي")));
 
         // Act
         List<CarBrand> result = carReferenceFilterService.getActiveCarHierarchy();
@@ -132,32 +140,56 @@ class CarReferenceFilterServiceTest {
         
         // Check brand 1
         assertEquals(testBrand1.getName(), result.get(0).getName());
-        assertEquals(1, result.get(0).getModels().size());
+        assertEquals(2, result.get(0).getModels().size());
         
-        // Check model of brand 1
-        assertEquals(testModel1.getName(), result.get(0).getModels().get(0).getName());
-        assertEquals(1, result.get(0).getModels().get(0).getTrims().size());
+        // Check models of brand 1
+        assertEquals("Camry", result.get(0).getModels().get(0).getName());
+        assertEquals("camry", result.get(0).getModels().get(0).getSlug());
+        assertEquals("Corolla", result.get(0).getModels().get(1).getName());
+        assertEquals(2, result.get(0).getModels().get(0).getTrims().size());
+        assertTrue(result.get(0).getModels().get(1).getTrims().isEmpty());
         
-        // Check trim of model 1
-        assertEquals(testTrim1.getName(), result.get(0).getModels().get(0).getTrims().get(0).getName());
+        // Check trims of model 1
+        assertEquals("LE", result.get(0).getModels().get(0).getTrims().get(0).getName());
+        assertEquals("XLE", result.get(0).getModels().get(0).getTrims().get(1).getName());
         
         // Check brand 2
         assertEquals(testBrand2.getName(), result.get(1).getName());
         assertEquals(1, result.get(1).getModels().size());
+        assertEquals("Accord", result.get(1).getModels().get(0).getName());
+        assertEquals("EX", result.get(1).getModels().get(0).getTrims().get(0).getName());
         
-        // Check model of brand 2
-        assertEquals(testModel2.getName(), result.get(1).getModels().get(0).getName());
-        assertEquals(1, result.get(1).getModels().get(0).getTrims().size());
-        
-        // Check trim of model 2
-        assertEquals(testTrim2.getName(), result.get(1).getModels().get(0).getTrims().get(0).getName());
+        // The managed brands are left untouched
+        assertNotSame(testBrand1, result.get(0));
+        assertSame(testModel1, testBrand1.getModels().get(0));
+        assertEquals(1, testBrand1.getModels().size());
         
-        // Verify calls
+        // Verify one flat query per level and no per-parent lookups
         verify(carBrandService, times(1)).getActiveBrands();
-        verify(carModelService, times(1)).getActiveModelsByBrandId(1L);
-        verify(carModelService, times(1)).getActiveModelsByBrandId(2L);
-        verify(carTrimService, times(1)).getActiveTrimsByModelId(1L);
-        verify(carTrimService, times(1)).getActiveTrimsByModelId(2L);
+        verify(carModelRepository, times(1)).findActiveHierarchyRows();
+        verify(carTrimRepository, times(1)).findActiveHierarchyRows();
+        verifyNoInteractions(carModelService, carTrimService);
+    }
+
+    @Test
+    void getActiveCarHierarchy_ShouldSkipRowsWithoutActiveParent() {
+        // Arrange
+        when(carBrandService.getActiveBrands()).thenReturn(Collections.singletonList(testBrand1));
+        when(carModelRepository.findActiveHierarchyRows()).thenReturn(Arrays.asList(
+                new CarHierarchyRow(1L, 1L, "Camry", "camry", "Camry", "كامري"),
+                new CarHierarchyRow(2L, 2L, "Accord", "accord", "Accord", "أكورد")));
+        when(carTrimRepository.findActiveHierarchyRows()).thenReturn(Arrays.asList(
+                new CarHierarchyRow(1L, 1L, "LE", "LE", "إل إي"),
+                new CarHierarchyRow(2L, 2L, "EX", "EX", "إي إكس")));
+
+        // Act
+        List<CarBrand> result = carReferenceFilterService.getActiveCarHierarchy();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getModels().size());
+        assertEquals(1, result.get(0).getModels().get(0).getTrims().size());
+        assertEquals("LE", result.get(0).getModels().get(0).getTrims().get(0).getName());
     }
 
     @Test
@@ -165,7 +197,6 @@ class CarReferenceFilterServiceTest {
         // Arrange
         List<CarBrand> activeBrands = Arrays.asList(testBrand1, testBrand2);
         when(carBrandService.getActiveBrands()).thenReturn(activeBrands);
-        when(carModelService.getActiveModelsByBrandId(anyLong())).thenReturn(Collections.emptyList());
         
         // Act
         List<CarBrand> result = carReferenceFilterService.searchCarHierarchy("");
@@ -262,4 +293,30 @@ class CarReferenceFilterServiceTest {
         verify(carModelService, times(1)).searchModels(query);
         verify(carTrimService, times(1)).searchTrims(query);
     }
+
+    @Test
+    void searchCarHierarchy_WithOverlappingMatches_ShouldMergeParentsOnce() {
+        // Arrange
+        String query = "a";
+        when(carBrandService.searchBrands(query)).thenReturn(Collections.singletonList(testBrand1));
+        when(carModelService.searchModels(query)).thenReturn(Arrays.asList(testModel1, testModel2));
+        when(carTrimService.searchTrims(query)).thenReturn(Arrays.asList(testTrim1, testTrim2));
+        
+        // Act
+        List<CarBrand> result = carReferenceFilterService.searchCarHierarchy(query);
+        
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(testBrand1.getId(), result.get(0).getId());
+        assertEquals(testBrand2.getId(), result.get(1).getId());
+        assertEquals(1, result.get(0).getModels().size());
+        assertEquals(1, result.get(0).getModels().get(0).getTrims().size());
+        assertEquals(testTrim1.getId(), result.get(0).getModels().get(0).getTrims().get(0).getId());
+        assertEquals(1, result.get(1).getModels().size());
+        assertEquals(testTrim2.getId(), result.get(1).getModels().get(0).getTrims().get(0).getId());
+        
+        // The matched entities are left untouched
+        assertEquals(1, testModel1.getTrims().size());
+        assertSame(testTrim1, testModel1.getTrims().get(0));
+    }
 }
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.DriveType;
 import com.autotrader.autotraderbackend.repository.DriveTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class DriveTypeServiceTest {
     @Mock
     private DriveTypeRepository driveTypeRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private DriveTypeService driveTypeService;
 
@@ -151,6 +155,7 @@ class DriveTypeServiceTest {
         assertNotNull(result);
         assertEquals(testDriveType.getName(), result.getName());
         verify(driveTypeRepository, times(1)).save(testDriveType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -175,6 +180,7 @@ class DriveTypeServiceTest {
         
         verify(driveTypeRepository, times(1)).findById(1L);
         verify(driveTypeRepository, times(1)).save(any(DriveType.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -189,5 +195,6 @@ class DriveTypeServiceTest {
         // Assert
         verify(driveTypeRepository, times(1)).findById(1L);
         verify(driveTypeRepository, times(1)).delete(testDriveType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
@@ -1,9 +1,11 @@
 package com.autotrader.autotraderbackend.service;
 
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
+import com.autotrader.autotraderbackend.mapper.CarListingMapper;
 import com.autotrader.autotraderbackend.model.CarListing;
 import com.autotrader.autotraderbackend.model.Favorite;
 import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
 import com.autotrader.autotraderbackend.payload.response.FavoriteResponse;
 import com.autotrader.autotraderbackend.repository.CarListingRepository;
 import com.autotrader.autotraderbackend.repository.FavoriteRepository;
@@ -36,6 +38,9 @@ class FavoriteServiceTest {
     @Mock
     private CarListingRepository carListingRepository;
 
+    @Mock
+    private CarListingMapper carListingMapper;
+
     @InjectMocks
     private FavoriteService favoriteService;
 
@@ -161,6 +166,26 @@ class FavoriteServiceTest {
         assertEquals(expectedResponse.getCarListingId(), response.getCarListingId());
     }
 
+    @Test
+    void getUserFavoriteListingResponses_ShouldLoadFavoritedListingsByIdInOneBatch() {
+        // Arrange
+        CarListingResponse listingResponse = new CarListingResponse();
+        listingResponse.setId(testListingId);
+        when(userRepository.findByUsername(testUsername)).thenReturn(Optional.of(testUser));
+        when(favoriteRepository.findCarListingIdsByUserOrderByCreatedAtDesc(testUser)).thenReturn(List.of(testListingId));
+        when(carListingRepository.findAllForDisplay(List.of(testListingId))).thenReturn(List.of(testListing));
+        when(carListingMapper.toCarListingResponses(List.of(testListing))).thenReturn(List.of(listingResponse));
+
+        // Act
+        List<CarListingResponse> result = favoriteService.getUserFavoriteListingResponses(testUsername);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(testListingId, result.get(0).getId());
+        verify(favoriteRepository, never()).findByUserOrderByCreatedAtDesc(any());
+        verify(carListingMapper, never()).toCarListingResponse(any());
+    }
+
     @Test
     void isFavorite_True() {
         // Arrange
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.FuelType;
 import com.autotrader.autotraderbackend.repository.FuelTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class FuelTypeServiceTest {
     @Mock
     private FuelTypeRepository fuelTypeRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private FuelTypeService fuelTypeService;
 
@@ -157,6 +161,7 @@ class FuelTypeServiceTest {
         assertNotNull(result);
         assertEquals(testFuelType.getName(), result.getName());
         verify(fuelTypeRepository, times(1)).save(testFuelType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -181,6 +186,7 @@ class FuelTypeServiceTest {
         
         verify(fuelTypeRepository, times(1)).findById(1L);
         verify(fuelTypeRepository, times(1)).save(any(FuelType.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -195,5 +201,6 @@ class FuelTypeServiceTest {
         // Assert
         verify(fuelTypeRepository, times(1)).findById(1L);
         verify(fuelTypeRepository, times(1)).delete(testFuelType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
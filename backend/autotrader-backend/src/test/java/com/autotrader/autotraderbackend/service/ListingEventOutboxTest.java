@@ -0,0 +1,262 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.AsyncEventsConfig;
+import com.autotrader.autotraderbackend.config.EventDispatchProperties;
+import com.autotrader.autotraderbackend.config.ListingEventOutboxProperties;
+import com.autotrader.autotraderbackend.events.InstrumentedEventMulticaster;
+import com.autotrader.autotraderbackend.events.ListingApprovedEvent;
+import com.autotrader.autotraderbackend.events.ListingArchivedEvent;
+import com.autotrader.autotraderbackend.events.ListingDeletedEvent;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.events.ListingUpdatedEvent;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.OutboxEvent;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingEventOutboxTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private InstrumentedEventMulticaster eventMulticaster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ListingEventOutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ListingEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListingEventOutboxProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new ListingEventOutbox(outboxEventRepository, carListingRepository, eventPublisher, eventMulticaster,
+                objectMapper, properties, transactionManager, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void enqueue_ShouldSaveRowWithEventFields() {
+        // Act
+        outbox.enqueue(new ListingArchivedEvent(this, listing(7L), true));
+
+        // Assert
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertEquals(7L, captor.getValue().getListingId());
+        assertEquals("ListingArchivedEvent", captor.getValue().getEventType());
+        assertEquals("{\"adminAction\":true}", captor.getValue().getPayload());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void enqueue_WhenDisabled_ShouldPublishImmediately() {
+        // Arrange
+        properties.setEnabled(false);
+        ListingApprovedEvent event = new ListingApprovedEvent(this, listing(7L));
+
+        // Act
+        outbox.enqueue(event);
+
+        // Assert
+        verify(eventPublisher).publishEvent(event);
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void enqueue_WithOtherEvent_ShouldThrowIllegalArgumentException() {
+        ApplicationEvent event = new ApplicationEvent(this) {};
+
+        assertThrows(IllegalArgumentException.class, () -> outbox.enqueue(event));
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void enqueueAll_ShouldSaveRowsInOrder() {
+        // Act
+        outbox.enqueueAll(List.of(new ListingExpiredEvent(this, listing(7L), false),
+                new ListingExpiredEvent(this, listing(8L), false)));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).saveAll(captor.capture());
+        assertEquals(List.of(7L, 8L), captor.getValue().stream().map(OutboxEvent::getListingId).toList());
+        assertEquals("ListingExpiredEvent", captor.getValue().get(0).getEventType());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void processBatch_ShouldDeliverEventsWithReloadedListingAndRemoveRows() {
+        // Arrange
+        CarListing current = listing(7L);
+        OutboxEvent archived = row(1L, 7L, "ListingArchivedEvent", "{\"adminAction\":true}");
+        OutboxEvent media = row(2L, 8L, "ListingMediaCreatedEvent", "{\"fileKey\":\"listings/8/a.jpg\",\"mediaType\":\"image\"}");
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(archived, media));
+        when(carListingRepository.findById(7L)).thenReturn(Optional.of(current));
+
+        // Act
+        int claimed = outbox.processBatch(10);
+
+        // Assert
+        assertEquals(2, claimed);
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventMulticaster, times(2)).multicastEventAndWait(captor.capture());
+        ListingArchivedEvent archivedEvent = assertInstanceOf(ListingArchivedEvent.class, captor.getAllValues().get(0));
+        assertSame(current, archivedEvent.getListing());
+        assertTrue(archivedEvent.isAdminAction());
+        ListingMediaCreatedEvent mediaEvent = assertInstanceOf(ListingMediaCreatedEvent.class, captor.getAllValues().get(1));
+        assertEquals("listings/8/a.jpg", mediaEvent.getFileKey());
+        verify(outboxEventRepository).deleteAllInBatch(List.of(archived, media));
+        assertEquals(2.0, meterRegistry.get("listing.events.outbox").tag("result", "delivered").counter().count());
+    }
+
+    @Test
+    void processBatch_WithDeletedListing_ShouldSkipEventButDeliverDeletion() {
+        // Arrange
+        OutboxEvent updated = row(1L, 7L, "ListingUpdatedEvent", "{}");
+        OutboxEvent deleted = row(2L, 9L, "ListingDeletedEvent", "{\"adminAction\":false}");
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(updated, deleted));
+        when(carListingRepository.findById(7L)).thenReturn(Optional.empty());
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventMulticaster).multicastEventAndWait(captor.capture());
+        ListingDeletedEvent deletedEvent = assertInstanceOf(ListingDeletedEvent.class, captor.getValue());
+        assertEquals(9L, deletedEvent.getListing().getId());
+        verify(carListingRepository, never()).findById(9L);
+        verify(outboxEventRepository).deleteAllInBatch(List.of(updated, deleted));
+        assertEquals(1.0, meterRegistry.get("listing.events.outbox").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void processBatch_WhenListenerFails_ShouldScheduleRetryWithBackoff() {
+        // Arrange
+        OutboxEvent failing = row(1L, 7L, "ListingUpdatedEvent", "{}");
+        failing.setAttempts(2);
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(failing));
+        when(carListingRepository.findById(7L)).thenReturn(Optional.of(listing(7L)));
+        doThrow(new IllegalStateException("Index unavailable")).when(eventMulticaster).multicastEventAndWait(any(ListingUpdatedEvent.class));
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        assertEquals(3, failing.getAttempts());
+        assertEquals(LOCAL_NOW.plusSeconds(4), failing.getNextAttemptAt());
+        assertEquals("Index unavailable", failing.getLastError());
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        assertEquals(1.0, meterRegistry.get("listing.events.outbox").tag("result", "retried").counter().count());
+    }
+
+    @Test
+    void processBatch_WhenListenerKeepsFailing_ShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        properties.setMaxAttempts(3);
+        OutboxEvent exhausted = row(1L, 7L, "ListingUpdatedEvent", "{}");
+        exhausted.setAttempts(2);
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(exhausted));
+        when(carListingRepository.findById(7L)).thenReturn(Optional.of(listing(7L)));
+        doThrow(new IllegalStateException("Index unavailable")).when(eventMulticaster).multicastEventAndWait(any(ListingUpdatedEvent.class));
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        verify(outboxEventRepository).deleteAllInBatch(List.of(exhausted));
+        assertEquals(1.0, meterRegistry.get("listing.events.outbox").tag("result", "abandoned").counter().count());
+    }
+
+    @Test
+    void processBatch_WithNothingDue_ShouldReturnZero() {
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, outbox.processBatch(10));
+
+        verifyNoInteractions(eventMulticaster);
+    }
+
+    @Test
+    void processBatch_WithAsyncDispatch_WhenListenerFails_ShouldKeepRowForRetry() throws Exception {
+        // Arrange: the application's multicaster, which runs listeners on its dispatch pool
+        InstrumentedEventMulticaster asyncMulticaster =
+                new AsyncEventsConfig().applicationEventMulticaster(new EventDispatchProperties());
+        asyncMulticaster.addApplicationListener((ApplicationListener<ListingUpdatedEvent>) event -> {
+            throw new IllegalStateException("Index unavailable");
+        });
+        outbox = new ListingEventOutbox(outboxEventRepository, carListingRepository, eventPublisher, asyncMulticaster,
+                objectMapper, properties, transactionManager, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        OutboxEvent failing = row(1L, 7L, "ListingUpdatedEvent", "{}");
+        when(outboxEventRepository.findDeliverableForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(failing));
+        when(carListingRepository.findById(7L)).thenReturn(Optional.of(listing(7L)));
+
+        try {
+            // Act
+            outbox.processBatch(10);
+        } finally {
+            asyncMulticaster.destroy();
+        }
+
+        // Assert
+        assertEquals(1, failing.getAttempts());
+        assertEquals("Index unavailable", failing.getLastError());
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static CarListing listing(Long id) {
+        CarListing listing = new CarListing();
+        listing.setId(id);
+        return listing;
+    }
+
+    private static OutboxEvent row(Long id, Long listingId, String eventType, String payload) {
+        OutboxEvent row = new OutboxEvent(listingId, eventType, payload);
+        row.setId(id);
+        row.setCreatedAt(LOCAL_NOW.minusSeconds(1));
+        row.setNextAttemptAt(LOCAL_NOW);
+        return row;
+    }
+}
@@ -0,0 +1,164 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.ListingExpirationProperties;
+import com.autotrader.autotraderbackend.events.ListingExpiredEvent;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingExpirationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    @Mock
+    private ListingEventOutbox eventOutbox;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ListingExpirationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ListingExpirationService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListingExpirationProperties();
+        properties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ListingExpirationService(carListingRepository, eventOutbox, lockService, properties,
+                transactionManager, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void expireBatch_ShouldMarkDueListingsExpiredAndQueueEvents() {
+        // Arrange
+        when(carListingRepository.findIdsDueForExpiration(LOCAL_NOW, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(carListingRepository.markExpired(List.of(1L, 2L))).thenReturn(2);
+        when(carListingRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(listing(1L, true), listing(2L, true)));
+
+        // Act
+        int processed = service.expireBatch(2);
+
+        // Assert
+        assertEquals(2, processed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ListingExpiredEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventOutbox).enqueueAll(captor.capture());
+        assertEquals(List.of(1L, 2L), captor.getValue().stream().map(e -> e.getListing().getId()).toList());
+        assertFalse(captor.getValue().get(0).isAdminAction());
+        assertEquals(2.0, meterRegistry.get("listing.expiration.expired").counter().count());
+    }
+
+    @Test
+    void expireBatch_WhenListingChangedConcurrently_ShouldQueueEventsOnlyForExpiredListings() {
+        // Arrange: listing 2 was sold between the query and the update
+        when(carListingRepository.findIdsDueForExpiration(any(), any())).thenReturn(List.of(1L, 2L));
+        when(carListingRepository.markExpired(List.of(1L, 2L))).thenReturn(1);
+        when(carListingRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(listing(1L, true), listing(2L, false)));
+
+        // Act
+        service.expireBatch(2);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ListingExpiredEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventOutbox).enqueueAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(1.0, meterRegistry.get("listing.expiration.expired").counter().count());
+    }
+
+    @Test
+    void expireDueListings_ShouldProcessBatchesUntilOneIsNotFull() {
+        // Arrange
+        when(lockService.tryLock(ListingExpirationService.LOCK_NAME, Duration.ofMillis(properties.getLockTimeoutMillis())))
+                .thenReturn(true);
+        when(carListingRepository.findIdsDueForExpiration(eq(LOCAL_NOW), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(carListingRepository.markExpired(anyCollection())).thenReturn(2, 1);
+        when(carListingRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // Act
+        int expired = service.expireDueListings();
+
+        // Assert
+        assertEquals(3, expired);
+        verify(carListingRepository, times(2)).findIdsDueForExpiration(any(), any());
+        verify(lockService).unlock(ListingExpirationService.LOCK_NAME);
+        assertEquals(2, meterRegistry.get("listing.expiration.batch").timer().count());
+    }
+
+    @Test
+    void expireDueListings_WhenLockHeldElsewhere_ShouldDoNothing() {
+        // Arrange
+        when(lockService.tryLock(eq(ListingExpirationService.LOCK_NAME), any())).thenReturn(false);
+
+        // Act
+        int expired = service.expireDueListings();
+
+        // Assert
+        assertEquals(0, expired);
+        verifyNoInteractions(carListingRepository, eventOutbox);
+        verify(lockService, never()).unlock(any());
+    }
+
+    @Test
+    void expireDueListings_WhenBatchFails_ShouldReleaseLock() {
+        // Arrange
+        when(lockService.tryLock(eq(ListingExpirationService.LOCK_NAME), any())).thenReturn(true);
+        when(carListingRepository.findIdsDueForExpiration(any(), any())).thenThrow(new IllegalStateException("Database down"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.expireDueListings());
+        verify(lockService).unlock(ListingExpirationService.LOCK_NAME);
+    }
+
+    @Test
+    void scheduledExpire_WhenDisabled_ShouldNotTakeLock() {
+        // Arrange
+        properties.setEnabled(false);
+
+        // Act
+        service.scheduledExpire();
+
+        // Assert
+        verifyNoInteractions(lockService, carListingRepository);
+    }
+
+    private static CarListing listing(Long id, boolean expired) {
+        CarListing listing = new CarListing();
+        listing.setId(id);
+        listing.setExpired(expired);
+        return listing;
+    }
+}
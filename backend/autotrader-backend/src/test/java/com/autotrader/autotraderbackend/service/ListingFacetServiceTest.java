@@ -0,0 +1,197 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.ListingFacetProperties;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse;
+import com.autotrader.autotraderbackend.payload.response.ListingFacetsResponse.FacetRange;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingFacetRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingFacetServiceTest {
+
+    @Mock
+    private CarListingService carListingService;
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    @Mock
+    private Specification<CarListing> spec;
+
+    private ListingFacetProperties properties;
+    private MutableClock clock;
+    private ListingFacetService listingFacetService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListingFacetProperties();
+        properties.setCacheTtlSeconds(30);
+        properties.setModelYearBucketEdges(List.of(2010, 2020));
+        properties.setPriceBucketEdges(List.of(new BigDecimal("10000"), new BigDecimal("20000")));
+        properties.setMileageBucketEdges(List.of(50000));
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        listingFacetService = new ListingFacetService(carListingService, carListingRepository, properties,
+                new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void getFacets_ShouldFoldGroupedRowsIntoFacets() {
+        ListingFilterRequest filter = new ListingFilterRequest();
+        when(carListingService.publicFilterSpecification(filter)).thenReturn(Optional.of(spec));
+        when(carListingRepository.findFacetRows(spec, properties.getPriceBucketEdges(), properties.getMileageBucketEdges()))
+                .thenReturn(List.of(
+                        new ListingFacetRow("Toyota", "تويوتا", "Corolla", "كورولا", "Damascus", "دمشق", 2015, 3,
+                                new long[]{1, 2, 0}, new long[]{3, 0}),
+                        new ListingFacetRow("Toyota", "تويوتا", "Camry", "كامري", "Aleppo", "حلب", 2021, 2,
+                                new long[]{0, 0, 2}, new long[]{1, 1}),
+                        new ListingFacetRow("Kia", "كيا", "Rio", "ريو", "Damascus", "دمشق", 2008, 1,
+                                new long[]{1, 0, 0}, new long[]{0, 1})));
+
+        ListingFacetsResponse facets = listingFacetService.getFacets(filter);
+
+        assertEquals(6, facets.getTotalElements());
+        assertEquals(2, facets.getBrands().size());
+        assertEquals("Toyota", facets.getBrands().get(0).getNameEn());
+        assertEquals("تويوتا", facets.getBrands().get(0).getNameAr());
+        assertEquals(5, facets.getBrands().get(0).getCount());
+        assertEquals("Kia", facets.getBrands().get(1).getNameEn());
+        assertEquals(1, facets.getBrands().get(1).getCount());
+        assertEquals(List.of("Corolla", "Camry", "Rio"),
+                facets.getModels().stream().map(ListingFacetsResponse.FacetValue::getNameEn).toList());
+        assertEquals("Damascus", facets.getGovernorates().get(0).getNameEn());
+        assertEquals(4, facets.getGovernorates().get(0).getCount());
+
+        assertRanges(facets.getModelYears(), new long[]{1, 3, 2});
+        assertNull(facets.getModelYears().get(0).getMin());
+        assertEquals(2010, facets.getModelYears().get(0).getMax());
+        assertEquals(2020, facets.getModelYears().get(2).getMin());
+        assertNull(facets.getModelYears().get(2).getMax());
+        assertRanges(facets.getPrices(), new long[]{2, 2, 2});
+        assertRanges(facets.getMileages(), new long[]{4, 2});
+    }
+
+    @Test
+    void getFacets_ShouldServeEquivalentFiltersFromCacheUntilTtlExpires() {
+        when(carListingService.publicFilterSpecification(any())).thenReturn(Optional.of(spec));
+        when(carListingRepository.findFacetRows(any(), anyList(), anyList())).thenReturn(List.of());
+
+        ListingFilterRequest first = new ListingFilterRequest();
+        first.setBrand("Toyota");
+        first.setMinPrice(new BigDecimal("5000.00"));
+        ListingFilterRequest equivalent = new ListingFilterRequest();
+        equivalent.setBrand("toyota");
+        equivalent.setMinPrice(new BigDecimal("5000"));
+
+        ListingFacetsResponse cached = listingFacetService.getFacets(first);
+        clock.advance(Duration.ofSeconds(29));
+        assertSame(cached, listingFacetService.getFacets(equivalent));
+        verify(carListingRepository, times(1)).findFacetRows(any(), anyList(), anyList());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertNotSame(cached, listingFacetService.getFacets(equivalent));
+        verify(carListingRepository, times(2)).findFacetRows(any(), anyList(), anyList());
+    }
+
+    @Test
+    void getFacets_ShouldRecordCacheMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        listingFacetService = new ListingFacetService(carListingService, carListingRepository, properties,
+                meterRegistry, clock);
+        ListingFilterRequest filter = new ListingFilterRequest();
+        when(carListingService.publicFilterSpecification(filter)).thenReturn(Optional.of(spec));
+        when(carListingRepository.findFacetRows(any(), anyList(), anyList())).thenReturn(List.of());
+
+        listingFacetService.getFacets(filter);
+        listingFacetService.getFacets(filter);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "listingFacets").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "listingFacets").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getFacets_ShouldNotCacheWhenTtlIsZero() {
+        properties.setCacheTtlSeconds(0);
+        listingFacetService = new ListingFacetService(carListingService, carListingRepository, properties,
+                new SimpleMeterRegistry(), clock);
+        ListingFilterRequest filter = new ListingFilterRequest();
+        when(carListingService.publicFilterSpecification(filter)).thenReturn(Optional.of(spec));
+        when(carListingRepository.findFacetRows(any(), anyList(), anyList())).thenReturn(List.of());
+
+        listingFacetService.getFacets(filter);
+        listingFacetService.getFacets(filter);
+
+        verify(carListingRepository, times(2)).findFacetRows(any(), anyList(), anyList());
+    }
+
+    @Test
+    void getFacets_WithUnknownLocation_ShouldReturnEmptyBucketsWithoutQuery() {
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setLocation("nowhere");
+        when(carListingService.publicFilterSpecification(filter)).thenReturn(Optional.empty());
+
+        ListingFacetsResponse facets = listingFacetService.getFacets(filter);
+
+        assertEquals(0, facets.getTotalElements());
+        assertTrue(facets.getBrands().isEmpty());
+        assertRanges(facets.getPrices(), new long[]{0, 0, 0});
+        verifyNoInteractions(carListingRepository);
+    }
+
+    private static void assertRanges(List<? extends FacetRange<?>> ranges, long[] expectedCounts) {
+        assertEquals(expectedCounts.length, ranges.size());
+        for (int i = 0; i < expectedCounts.length; i++) {
+            assertEquals(expectedCounts[i], ranges.get(i).getCount(), "count of bucket " + i);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.events.ListingMediaCreatedEvent;
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
+import com.autotrader.autotraderbackend.model.CarListing;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.model.User;
+import com.autotrader.autotraderbackend.payload.request.CompleteImageUploadRequest;
+import com.autotrader.autotraderbackend.payload.request.ImageUploadUrlRequest;
+import com.autotrader.autotraderbackend.payload.response.ImageUploadUrlResponse;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.UserRepository;
+import com.autotrader.autotraderbackend.service.storage.PresignedUpload;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.storage.StoredObjectMetadata;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor.IngestedImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingImageUploadServiceTest {
+
+    private static final Long LISTING_ID = 1L;
+    private static final String IMAGE_KEY = "listings/1/20240101_120000_photo.jpg";
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private StorageKeyGenerator storageKeyGenerator;
+
+    @Mock
+    private StreamingImageIngestor imageIngestor;
+
+    @Mock
+    private ListingEventOutbox eventOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ListingImageUploadService listingImageUploadService;
+    private User seller;
+    private CarListing listing;
+
+    @BeforeEach
+    void setUp() {
+        FileUploadProperties uploadProperties = new FileUploadProperties();
+        listingImageUploadService = new ListingImageUploadService(carListingRepository, userRepository, storageService,
+                storageKeyGenerator, imageIngestor, uploadProperties, eventOutbox, transactionManager);
+
+        seller = new User("seller", "seller@example.com", "password");
+        seller.setId(10L);
+        listing = new CarListing();
+        listing.setId(LISTING_ID);
+        listing.setSeller(seller);
+    }
+
+    @Test
+    void createUploadUrl_ShouldPresignUploadForOwner() {
+        // Arrange
+        ImageUploadUrlRequest request = uploadUrlRequest("image/jpeg", 1024L);
+        PresignedUpload upload = new PresignedUpload("https://storage/presigned", "PUT",
+                Map.of("content-type", "image/jpeg"), Instant.parse("2024-01-01T12:15:00Z"));
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageKeyGenerator.generateListingMediaKey(LISTING_ID, "photo.jpg")).thenReturn(IMAGE_KEY);
+        when(storageService.createPresignedUpload(IMAGE_KEY, "image/jpeg", 1024L, 900L)).thenReturn(upload);
+
+        // Act
+        ImageUploadUrlResponse response = listingImageUploadService.createUploadUrl(LISTING_ID, request, "seller");
+
+        // Assert
+        assertEquals(IMAGE_KEY, response.getImageKey());
+        assertEquals("https://storage/presigned", response.getUploadUrl());
+        assertEquals("PUT", response.getMethod());
+        assertEquals(Map.of("content-type", "image/jpeg"), response.getHeaders());
+        assertEquals(upload.expiresAt(), response.getExpiresAt());
+    }
+
+    @Test
+    void createUploadUrl_WithDisallowedTypeOrSize_ShouldNotPresign() {
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.createUploadUrl(LISTING_ID, uploadUrlRequest("application/pdf", 1024L), "seller"));
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.createUploadUrl(LISTING_ID, uploadUrlRequest("image/png", 50_000_000L), "seller"));
+
+        verifyNoInteractions(storageService, carListingRepository);
+    }
+
+    @Test
+    void createUploadUrl_ForListingOfAnotherUser_ShouldThrowSecurityException() {
+        // Arrange
+        User other = new User("other", "other@example.com", "password");
+        other.setId(20L);
+        when(userRepository.findByUsername("other")).thenReturn(Optional.of(other));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+
+        // Act & Assert
+        assertThrows(SecurityException.class, () ->
+                listingImageUploadService.createUploadUrl(LISTING_ID, uploadUrlRequest("image/jpeg", 1024L), "other"));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void completeUpload_ShouldRecordVerifiedObjectAsPrimaryMedia() {
+        // Arrange
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(storageService.getMetadata(IMAGE_KEY))
+                .thenReturn(Optional.of(new StoredObjectMetadata(IMAGE_KEY, "image/jpeg", 2048L)));
+        when(imageIngestor.verifyStored(IMAGE_KEY)).thenReturn("image/jpeg");
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+
+        // Act
+        String imageKey = listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, "photo.jpg"), "seller");
+
+        // Assert
+        assertEquals(IMAGE_KEY, imageKey);
+        assertEquals(1, listing.getMedia().size());
+        ListingMedia media = listing.getMedia().get(0);
+        assertEquals(IMAGE_KEY, media.getFileKey());
+        assertEquals("photo.jpg", media.getFileName());
+        assertEquals("image/jpeg", media.getContentType());
+        assertEquals(2048L, media.getSize());
+        assertTrue(media.getIsPrimary());
+        verify(carListingRepository).save(listing);
+        verify(eventOutbox).enqueue(any(ListingMediaCreatedEvent.class));
+    }
+
+    @Test
+    void completeUpload_WhenAlreadyRecorded_ShouldNotAddDuplicate() {
+        // Arrange
+        ListingMedia existing = new ListingMedia();
+        existing.setFileKey(IMAGE_KEY);
+        listing.addMedia(existing);
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(storageService.getMetadata(IMAGE_KEY))
+                .thenReturn(Optional.of(new StoredObjectMetadata(IMAGE_KEY, "image/jpeg", 2048L)));
+        when(imageIngestor.verifyStored(IMAGE_KEY)).thenReturn("image/jpeg");
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+
+        // Act
+        listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, null), "seller");
+
+        // Assert
+        assertEquals(1, listing.getMedia().size());
+        verify(carListingRepository, never()).save(any());
+        verifyNoInteractions(eventOutbox);
+    }
+
+    @Test
+    void completeUpload_WithKeyOfAnotherListing_ShouldNotTouchStorage() {
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, "listings/2/photo.jpg")).thenReturn(false);
+
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.completeUpload(LISTING_ID, completeRequest("listings/2/photo.jpg", null), "seller"));
+        verifyNoInteractions(storageService, carListingRepository);
+    }
+
+    @Test
+    void completeUpload_ForListingOfAnotherUser_ShouldNotTouchStorage() {
+        User other = new User("other", "other@example.com", "password");
+        other.setId(20L);
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(userRepository.findByUsername("other")).thenReturn(Optional.of(other));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+
+        assertThrows(SecurityException.class, () ->
+                listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, null), "other"));
+        verifyNoInteractions(storageService, imageIngestor);
+    }
+
+    @Test
+    void completeUpload_WithoutUploadedObject_ShouldThrow() {
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageService.getMetadata(IMAGE_KEY)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, null), "seller"));
+        verify(carListingRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUpload_WithDisallowedObject_ShouldDeleteItAndThrow() {
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageService.getMetadata(IMAGE_KEY))
+                .thenReturn(Optional.of(new StoredObjectMetadata(IMAGE_KEY, "text/html", 2048L)));
+
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, null), "seller"));
+        verify(storageService).delete(IMAGE_KEY);
+        verify(carListingRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUpload_WithContentNotMatchingDeclaredImageType_ShouldDeleteItAndThrow() {
+        // Arrange: uploaded with an image content type, but the bytes are not an image
+        when(storageKeyGenerator.isListingMediaKey(LISTING_ID, IMAGE_KEY)).thenReturn(true);
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageService.getMetadata(IMAGE_KEY))
+                .thenReturn(Optional.of(new StoredObjectMetadata(IMAGE_KEY, "image/jpeg", 2048L)));
+        when(imageIngestor.verifyStored(IMAGE_KEY)).thenThrow(new InvalidFileException("File type text/html is not allowed"));
+
+        // Act & Assert
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.completeUpload(LISTING_ID, completeRequest(IMAGE_KEY, null), "seller"));
+        verify(storageService).delete(IMAGE_KEY);
+        assertTrue(listing.getMedia().isEmpty());
+        verify(carListingRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadStream_ShouldIngestAndRecordMedia() {
+        // Arrange
+        InputStream content = new ByteArrayInputStream(new byte[16]);
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageKeyGenerator.generateListingMediaKey(LISTING_ID, "photo.jpg")).thenReturn(IMAGE_KEY);
+        when(imageIngestor.ingest(content, 16L, IMAGE_KEY))
+                .thenReturn(new IngestedImage(IMAGE_KEY, "image/jpeg", 16L, "abc123"));
+
+        // Act
+        IngestedImage image = listingImageUploadService.uploadStream(LISTING_ID, content, "photo.jpg", 16L, "seller");
+
+        // Assert
+        assertEquals(IMAGE_KEY, image.key());
+        assertEquals(1, listing.getMedia().size());
+        ListingMedia media = listing.getMedia().get(0);
+        assertEquals(IMAGE_KEY, media.getFileKey());
+        assertEquals("image/jpeg", media.getContentType());
+        assertEquals(16L, media.getSize());
+        assertTrue(media.getIsPrimary());
+        verify(carListingRepository).save(listing);
+    }
+
+    @Test
+    void uploadStream_ForListingOfAnotherUser_ShouldNotReadContent() {
+        User other = new User("other", "other@example.com", "password");
+        other.setId(20L);
+        when(userRepository.findByUsername("other")).thenReturn(Optional.of(other));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+
+        assertThrows(SecurityException.class, () -> listingImageUploadService.uploadStream(LISTING_ID,
+                new ByteArrayInputStream(new byte[16]), "photo.jpg", 16L, "other"));
+        verifyNoInteractions(imageIngestor, storageService);
+    }
+
+    @Test
+    void uploadStream_WithRejectedContent_ShouldNotRecordMedia() {
+        InputStream content = new ByteArrayInputStream(new byte[16]);
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(seller));
+        when(carListingRepository.findById(LISTING_ID)).thenReturn(Optional.of(listing));
+        when(storageKeyGenerator.generateListingMediaKey(LISTING_ID, "photo.jpg")).thenReturn(IMAGE_KEY);
+        when(imageIngestor.ingest(content, -1L, IMAGE_KEY)).thenThrow(new InvalidFileException("File type text/html is not allowed"));
+
+        assertThrows(InvalidFileException.class, () ->
+                listingImageUploadService.uploadStream(LISTING_ID, content, "photo.jpg", -1L, "seller"));
+        assertTrue(listing.getMedia().isEmpty());
+        verify(carListingRepository, never()).save(any());
+    }
+
+    private static ImageUploadUrlRequest uploadUrlRequest(String contentType, long size) {
+        ImageUploadUrlRequest request = new ImageUploadUrlRequest();
+        request.setFileName("photo.jpg");
+        request.setContentType(contentType);
+        request.setSize(size);
+        return request;
+    }
+
+    private static CompleteImageUploadRequest completeRequest(String imageKey, String fileName) {
+        CompleteImageUploadRequest request = new CompleteImageUploadRequest();
+        request.setImageKey(imageKey);
+        request.setFileName(fileName);
+        return request;
+    }
+}
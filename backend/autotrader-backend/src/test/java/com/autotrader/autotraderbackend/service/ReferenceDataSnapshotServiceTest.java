@@ -0,0 +1,171 @@
+package com.autotrader.autotraderbackend.service;
+
+import com.autotrader.autotraderbackend.model.CarCondition;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataSnapshotServiceTest {
+
+    @Mock
+    private CarConditionService carConditionService;
+
+    @Mock
+    private DriveTypeService driveTypeService;
+
+    @Mock
+    private BodyStyleService bodyStyleService;
+
+    @Mock
+    private FuelTypeService fuelTypeService;
+
+    @Mock
+    private TransmissionService transmissionService;
+
+    @Mock
+    private SellerTypeService sellerTypeService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private ReferenceDataVersion referenceDataVersion;
+    private ReferenceDataSnapshotService referenceDataSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataVersion = new ReferenceDataVersion();
+        referenceDataSnapshotService = new ReferenceDataSnapshotService(carConditionService, driveTypeService,
+                bodyStyleService, fuelTypeService, transmissionService, sellerTypeService,
+                referenceDataVersion, objectMapper, 60, clock);
+    }
+
+    @Test
+    void getSnapshot_ShouldSerializeAllLookupsOnce() throws IOException {
+        when(carConditionService.getAllConditions()).thenReturn(conditions(50));
+
+        ReferenceDataSnapshotService.Snapshot first = referenceDataSnapshotService.getSnapshot();
+        ReferenceDataSnapshotService.Snapshot second = referenceDataSnapshotService.getSnapshot();
+
+        assertSame(first, second);
+        verify(carConditionService, times(1)).getAllConditions();
+        verify(sellerTypeService, times(1)).getAllSellerTypes();
+
+        JsonNode json = objectMapper.readTree(first.json());
+        assertEquals(50, json.get("carConditions").size());
+        assertEquals("Condition 7", json.get("carConditions").get(7).get("displayNameEn").asText());
+        assertTrue(json.has("sellerTypes"));
+
+        assertNotNull(first.gzip());
+        assertTrue(first.gzip().length < first.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+        assertTrue(first.etag().matches("\"[0-9a-f]{64}\""));
+        assertNotEquals(first.etag(), first.gzipEtag());
+    }
+
+    @Test
+    void getSnapshot_AfterChange_ShouldRebuildWithNewEtag() {
+        when(carConditionService.getAllConditions()).thenReturn(conditions(1), conditions(2));
+
+        ReferenceDataSnapshotService.Snapshot before = referenceDataSnapshotService.getSnapshot();
+        referenceDataVersion.markChanged();
+        ReferenceDataSnapshotService.Snapshot after = referenceDataSnapshotService.getSnapshot();
+
+        assertNotSame(before, after);
+        assertNotEquals(before.etag(), after.etag());
+        assertSame(after, referenceDataSnapshotService.getSnapshot());
+        verify(carConditionService, times(2)).getAllConditions();
+    }
+
+    @Test
+    void getSnapshot_WithUnchangedData_ShouldKeepEtagAcrossRebuilds() {
+        when(carConditionService.getAllConditions()).thenReturn(conditions(3));
+
+        String etag = referenceDataSnapshotService.getSnapshot().etag();
+        referenceDataVersion.markChanged();
+
+        assertEquals(etag, referenceDataSnapshotService.getSnapshot().etag());
+    }
+
+    @Test
+    void getSnapshot_WhenOlderThanMaxAge_ShouldRebuild() {
+        // An edit on another instance does not move the local version
+        when(carConditionService.getAllConditions()).thenReturn(conditions(1), conditions(2));
+
+        ReferenceDataSnapshotService.Snapshot before = referenceDataSnapshotService.getSnapshot();
+        clock.advance(Duration.ofSeconds(59));
+        assertSame(before, referenceDataSnapshotService.getSnapshot());
+        clock.advance(Duration.ofSeconds(1));
+        ReferenceDataSnapshotService.Snapshot after = referenceDataSnapshotService.getSnapshot();
+
+        assertNotEquals(before.etag(), after.etag());
+        verify(carConditionService, times(2)).getAllConditions();
+    }
+
+    @Test
+    void getSnapshot_WhenPayloadIsSmall_ShouldOmitGzip() {
+        ReferenceDataSnapshotService.Snapshot snapshot = referenceDataSnapshotService.getSnapshot();
+
+        assertTrue(snapshot.json().length < ReferenceDataSnapshotService.GZIP_MIN_SIZE);
+        assertNull(snapshot.gzip());
+    }
+
+    private static List<CarCondition> conditions(int count) {
+        List<CarCondition> conditions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CarCondition condition = new CarCondition();
+            condition.setId((long) i);
+            condition.setName("condition-" + i);
+            condition.setDisplayNameEn("Condition " + i);
+            condition.setDisplayNameAr("حالة " + i);
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.SellerType;
 import com.autotrader.autotraderbackend.repository.SellerTypeRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class SellerTypeServiceTest {
     @Mock
     private SellerTypeRepository sellerTypeRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private SellerTypeService sellerTypeService;
 
@@ -157,6 +161,7 @@ class SellerTypeServiceTest {
         assertNotNull(result);
         assertEquals(testSellerType.getName(), result.getName());
         verify(sellerTypeRepository, times(1)).save(testSellerType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -181,6 +186,7 @@ class SellerTypeServiceTest {
         
         verify(sellerTypeRepository, times(1)).findById(1L);
         verify(sellerTypeRepository, times(1)).save(any(SellerType.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -195,5 +201,6 @@ class SellerTypeServiceTest {
         // Assert
         verify(sellerTypeRepository, times(1)).findById(1L);
         verify(sellerTypeRepository, times(1)).delete(testSellerType);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
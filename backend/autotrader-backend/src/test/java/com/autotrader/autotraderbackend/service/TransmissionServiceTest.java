@@ -3,6 +3,7 @@ package com.autotrader.autotraderbackend.service;
 import com.autotrader.autotraderbackend.exception.ResourceNotFoundException;
 import com.autotrader.autotraderbackend.model.Transmission;
 import com.autotrader.autotraderbackend.repository.TransmissionRepository;
+import com.autotrader.autotraderbackend.service.cache.ReferenceDataVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class TransmissionServiceTest {
     @Mock
     private TransmissionRepository transmissionRepository;
 
+    @Mock
+    private ReferenceDataVersion referenceDataVersion;
+
     @InjectMocks
     private TransmissionService transmissionService;
 
@@ -157,6 +161,7 @@ class TransmissionServiceTest {
         assertNotNull(result);
         assertEquals(testTransmission.getName(), result.getName());
         verify(transmissionRepository, times(1)).save(testTransmission);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -181,6 +186,7 @@ class TransmissionServiceTest {
         
         verify(transmissionRepository, times(1)).findById(1L);
         verify(transmissionRepository, times(1)).save(any(Transmission.class));
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 
     @Test
@@ -195,5 +201,6 @@ class TransmissionServiceTest {
         // Assert
         verify(transmissionRepository, times(1)).findById(1L);
         verify(transmissionRepository, times(1)).delete(testTransmission);
+        verify(referenceDataVersion, times(1)).markChanged();
     }
 }
@@ -0,0 +1,99 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingCacheKeysTest {
+
+    @Test
+    void filter_ShouldIgnoreBrandCaseAndPriceScale() {
+        ListingFilterRequest first = new ListingFilterRequest();
+        first.setBrand("Toyota");
+        first.setMaxPrice(new BigDecimal("20000.00"));
+        ListingFilterRequest second = new ListingFilterRequest();
+        second.setBrand("TOYOTA");
+        second.setMaxPrice(new BigDecimal("2E+4"));
+
+        assertEquals(ListingCacheKeys.filter(first), ListingCacheKeys.filter(second));
+    }
+
+    @Test
+    void filter_ShouldPreferLocationIdOverSlug() {
+        ListingFilterRequest byId = new ListingFilterRequest();
+        byId.setLocationId(7L);
+        ListingFilterRequest byIdAndSlug = new ListingFilterRequest();
+        byIdAndSlug.setLocationId(7L);
+        byIdAndSlug.setLocation("damascus");
+        ListingFilterRequest bySlug = new ListingFilterRequest();
+        bySlug.setLocation("damascus");
+
+        assertEquals(ListingCacheKeys.filter(byId), ListingCacheKeys.filter(byIdAndSlug));
+        assertNotEquals(ListingCacheKeys.filter(byId), ListingCacheKeys.filter(bySlug));
+    }
+
+    @Test
+    void filter_ShouldDistinguishSoldFlagFromUnset() {
+        ListingFilterRequest unset = new ListingFilterRequest();
+        ListingFilterRequest unsold = new ListingFilterRequest();
+        unsold.setIsSold(false);
+
+        assertNotEquals(ListingCacheKeys.filter(unset), ListingCacheKeys.filter(unsold));
+    }
+
+    @Test
+    void filter_ShouldKeepKeywordsApartFromBrand() {
+        ListingFilterRequest byKeywords = new ListingFilterRequest();
+        byKeywords.setQ(" Toyota ");
+        ListingFilterRequest sameKeywords = new ListingFilterRequest();
+        sameKeywords.setQ("toyota");
+        ListingFilterRequest byBrand = new ListingFilterRequest();
+        byBrand.setBrand("Toyota");
+
+        assertEquals(ListingCacheKeys.filter(byKeywords), ListingCacheKeys.filter(sameKeywords));
+        assertNotEquals(ListingCacheKeys.filter(byKeywords), ListingCacheKeys.filter(byBrand));
+    }
+
+    @Test
+    void filter_WithSeparatorInKeywords_ShouldNotCollideWithOtherFields() {
+        ListingFilterRequest crafted = new ListingFilterRequest();
+        crafted.setQ("|toyota");
+        ListingFilterRequest byBrand = new ListingFilterRequest();
+        byBrand.setBrand("toyota");
+        ListingFilterRequest shifted = new ListingFilterRequest();
+        shifted.setBrand("toyota|camry");
+        ListingFilterRequest byBrandAndModel = new ListingFilterRequest();
+        byBrandAndModel.setBrand("toyota");
+        byBrandAndModel.setModel("camry");
+
+        assertNotEquals(ListingCacheKeys.filter(crafted), ListingCacheKeys.filter(byBrand));
+        assertNotEquals(ListingCacheKeys.filter(shifted), ListingCacheKeys.filter(byBrandAndModel));
+    }
+
+    @Test
+    void filter_ShouldTrimBrandAndModel() {
+        ListingFilterRequest padded = new ListingFilterRequest();
+        padded.setBrand(" Toyota ");
+        padded.setModel("Camry ");
+        ListingFilterRequest trimmed = new ListingFilterRequest();
+        trimmed.setBrand("toyota");
+        trimmed.setModel("camry");
+
+        assertEquals(ListingCacheKeys.filter(padded), ListingCacheKeys.filter(trimmed));
+    }
+
+    @Test
+    void page_ShouldIncludePageSizeAndSort() {
+        String byDate = ListingCacheKeys.page(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(byDate, ListingCacheKeys.page(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))));
+        assertNotEquals(byDate, ListingCacheKeys.page(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "createdAt"))));
+        assertNotEquals(byDate, ListingCacheKeys.page(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+        assertNotEquals(byDate, ListingCacheKeys.page(PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price"))));
+    }
+}
@@ -0,0 +1,248 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import com.autotrader.autotraderbackend.config.ListingPageCacheProperties;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.payload.response.CarListingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingPageCacheTest {
+
+    private ListingPageCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ListingPageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListingPageCacheProperties();
+        properties.setTtlSeconds(30);
+        properties.setMaxEntries(2);
+        properties.setMaxPages(2);
+        properties.setMaxPageSize(20);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        cache = new ListingPageCache(properties, objectMapper, meterRegistry, clock);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getApprovedPage_ShouldServeCopyOfCachedPageUntilTtlExpires() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        Page<CarListingResponse> first = cache.getApprovedPage(pageable, loader(pageable));
+        clock.advance(Duration.ofSeconds(29));
+        Page<CarListingResponse> second = cache.getApprovedPage(pageable, loader(pageable));
+
+        assertEquals(1, loads.get());
+        assertNotSame(first.getContent().get(0), second.getContent().get(0));
+        assertEquals(first.getContent().get(0).getTitle(), second.getContent().get(0).getTitle());
+        assertEquals(first.getContent().get(0).getPrice(), second.getContent().get(0).getPrice());
+        assertEquals(first.getContent().get(0).getCreatedAt(), second.getContent().get(0).getCreatedAt());
+        assertEquals(42, second.getTotalElements());
+        assertEquals(pageable, second.getPageable());
+
+        clock.advance(Duration.ofSeconds(1));
+        cache.getApprovedPage(pageable, loader(pageable));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, meterRegistry.get("listing.page.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void getFilteredPage_ShouldShareEntriesBetweenEquivalentFilters() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ListingFilterRequest first = new ListingFilterRequest();
+        first.setBrand("Toyota");
+        ListingFilterRequest equivalent = new ListingFilterRequest();
+        equivalent.setBrand("toyota");
+        ListingFilterRequest other = new ListingFilterRequest();
+        other.setBrand("Kia");
+
+        cache.getFilteredPage(first, pageable, loader(pageable));
+        cache.getFilteredPage(equivalent, pageable, loader(pageable));
+        assertEquals(1, loads.get());
+
+        cache.getFilteredPage(other, pageable, loader(pageable));
+        cache.getApprovedPage(pageable, loader(pageable));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCachePagesBeyondLimits() {
+        Pageable deepPage = PageRequest.of(2, 10);
+        Pageable largePage = PageRequest.of(0, 21);
+
+        cache.getApprovedPage(deepPage, loader(deepPage));
+        cache.getApprovedPage(deepPage, loader(deepPage));
+        cache.getApprovedPage(largePage, loader(largePage));
+        cache.getApprovedPage(largePage, loader(largePage));
+
+        assertEquals(4, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysLoad() {
+        properties.setEnabled(false);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        cache.getApprovedPage(pageable, loader(pageable));
+        cache.getApprovedPage(pageable, loader(pageable));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void invalidateAll_ShouldDropCachedPages() {
+        Pageable pageable = PageRequest.of(0, 10);
+        cache.getApprovedPage(pageable, loader(pageable));
+
+        cache.invalidateAll();
+        cache.getApprovedPage(pageable, loader(pageable));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateAll_DuringLoad_ShouldNotCacheTheLoadedPage() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        cache.getApprovedPage(pageable, () -> {
+            cache.invalidateAll();
+            return loader(pageable).get();
+        });
+        cache.getApprovedPage(pageable, loader(pageable));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenFull_ShouldStayWithinMaxEntries() {
+        Pageable first = PageRequest.of(0, 10);
+        Pageable second = PageRequest.of(1, 10);
+        Pageable third = PageRequest.of(0, 20);
+
+        cache.getApprovedPage(first, loader(first));
+        cache.getApprovedPage(second, loader(second));
+        cache.getApprovedPage(third, loader(third));
+
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_ShouldPropagateLoaderFailureWithoutCaching() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.getApprovedPage(pageable, () -> {
+            throw new IllegalArgumentException("Sorting by field 'title' is not allowed.");
+        }));
+        cache.getApprovedPage(pageable, loader(pageable));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentMissesForTheSamePage() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Page<CarListingResponse>> leader = executor.submit(() -> cache.getApprovedPage(pageable, () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                return loader(pageable).get();
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Future<Page<CarListingResponse>> follower = executor.submit(() -> cache.getApprovedPage(pageable, loader(pageable)));
+
+            // Give the follower time to find the running load before it completes
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS).getTotalElements());
+            assertEquals(42, follower.get(5, TimeUnit.SECONDS).getTotalElements());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Supplier<Page<CarListingResponse>> loader(Pageable pageable) {
+        return () -> {
+            int load = loads.incrementAndGet();
+            CarListingResponse listing = new CarListingResponse();
+            listing.setId((long) load);
+            listing.setTitle("Listing " + load);
+            listing.setPrice(new BigDecimal("25000.00"));
+            listing.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+            return new PageImpl<>(List.of(listing), pageable, 42);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
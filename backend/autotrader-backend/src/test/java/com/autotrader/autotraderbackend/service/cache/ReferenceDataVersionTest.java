@@ -0,0 +1,49 @@
+package com.autotrader.autotraderbackend.service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataVersionTest {
+
+    private final ReferenceDataVersion referenceDataVersion = new ReferenceDataVersion();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markChanged_WithoutTransaction_ShouldBumpImmediately() {
+        referenceDataVersion.markChanged();
+
+        assertEquals(1, referenceDataVersion.current());
+    }
+
+    @Test
+    void markChanged_InTransaction_ShouldBumpOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        referenceDataVersion.markChanged();
+        assertEquals(0, referenceDataVersion.current());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, referenceDataVersion.current());
+    }
+
+    @Test
+    void markChanged_InRolledBackTransaction_ShouldNotBump() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        referenceDataVersion.markChanged();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, referenceDataVersion.current());
+    }
+}
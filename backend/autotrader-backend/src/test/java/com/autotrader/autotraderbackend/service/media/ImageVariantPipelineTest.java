@@ -0,0 +1,213 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.ImageVariantProperties;
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.util.MediaVariantKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantPipelineTest {
+
+    private static final Long LISTING_ID = 1L;
+    private static final String FILE_KEY = "listings/1/20240101_120000_photo.png";
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private ListingMediaRepository listingMediaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImageVariantProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageVariantPipeline pipeline;
+    private Map<String, BufferedImage> storedVariants;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImageVariantProperties();
+        properties.setMaxAttempts(1);
+        meterRegistry = new SimpleMeterRegistry();
+        storedVariants = new LinkedHashMap<>();
+        pipeline = newPipeline();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void process_ShouldStoreAndRecordEachVariantFromLargestToSmallest() throws IOException {
+        // Arrange
+        when(storageService.loadAsResource(FILE_KEY)).thenReturn(new ByteArrayResource(png(2400, 1200)));
+        captureStoredVariants();
+        when(listingMediaRepository.updateVariantKeys(eq(FILE_KEY), anyString())).thenReturn(1);
+
+        // Act
+        pipeline.process(LISTING_ID, FILE_KEY);
+
+        // Assert
+        Map<String, String> expectedKeys = new LinkedHashMap<>();
+        expectedKeys.put("full", "thumbnails/listings_1_20240101_120000_photo.png/full.jpg");
+        expectedKeys.put("gallery", "thumbnails/listings_1_20240101_120000_photo.png/gallery.jpg");
+        expectedKeys.put("card", "thumbnails/listings_1_20240101_120000_photo.png/card.jpg");
+        verify(listingMediaRepository).updateVariantKeys(FILE_KEY, MediaVariantKeys.format(expectedKeys));
+        assertEquals(expectedKeys.values().stream().toList(), storedVariants.keySet().stream().toList());
+        assertEquals(1920, storedVariants.get(expectedKeys.get("full")).getWidth());
+        assertEquals(960, storedVariants.get(expectedKeys.get("full")).getHeight());
+        assertEquals(1024, storedVariants.get(expectedKeys.get("gallery")).getWidth());
+        assertEquals(480, storedVariants.get(expectedKeys.get("card")).getWidth());
+        assertEquals(1.0, meterRegistry.get("media.variants.images").tag("result", "completed").counter().count());
+        assertEquals(3, meterRegistry.get("media.variants.stage.duration").tag("stage", "resize").timer().count());
+    }
+
+    @Test
+    void process_WithSmallImage_ShouldNotUpscale() throws IOException {
+        when(storageService.loadAsResource(FILE_KEY)).thenReturn(new ByteArrayResource(png(300, 200)));
+        captureStoredVariants();
+        when(listingMediaRepository.updateVariantKeys(eq(FILE_KEY), anyString())).thenReturn(1);
+
+        pipeline.process(LISTING_ID, FILE_KEY);
+
+        assertEquals(3, storedVariants.size());
+        storedVariants.values().forEach(variant -> assertEquals(300, variant.getWidth()));
+    }
+
+    @Test
+    void process_WithUndecodableMedia_ShouldSkipWithoutStoring() {
+        when(storageService.loadAsResource(FILE_KEY)).thenReturn(new ByteArrayResource("not an image".getBytes()));
+
+        pipeline.process(LISTING_ID, FILE_KEY);
+
+        verify(storageService, never()).storeStream(any(InputStream.class), anyString(), anyString(), anyLong());
+        verifyNoInteractions(listingMediaRepository);
+        assertEquals(1.0, meterRegistry.get("media.variants.images").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void process_WithOversizedImageHeader_ShouldSkipWithoutDecoding() throws IOException {
+        // Arrange: a small file declaring 30000x30000 px, 3.6 GB once decoded
+        byte[] image = png(100, 100);
+        ByteBuffer header = ByteBuffer.wrap(image);
+        header.putInt(16, 30_000).putInt(20, 30_000);
+        CRC32 crc = new CRC32();
+        crc.update(image, 12, 17);
+        header.putInt(29, (int) crc.getValue());
+        when(storageService.loadAsResource(FILE_KEY)).thenReturn(new ByteArrayResource(image));
+
+        // Act
+        pipeline.process(LISTING_ID, FILE_KEY);
+
+        // Assert
+        verify(storageService, never()).storeStream(any(InputStream.class), anyString(), anyString(), anyLong());
+        verifyNoInteractions(listingMediaRepository);
+        assertEquals(1.0, meterRegistry.get("media.variants.images").tag("result", "skipped").counter().count());
+        assertEquals(0.0, meterRegistry.get("media.variants.images").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void process_WhenMediaNoLongerExists_ShouldDeleteStoredVariants() throws IOException {
+        when(storageService.loadAsResource(FILE_KEY)).thenReturn(new ByteArrayResource(png(800, 600)));
+        when(listingMediaRepository.updateVariantKeys(eq(FILE_KEY), anyString())).thenReturn(0);
+
+        pipeline.process(LISTING_ID, FILE_KEY);
+
+        verify(storageService, times(3)).storeStream(any(InputStream.class), anyString(), eq("image/jpeg"), anyLong());
+        verify(storageService).delete("thumbnails/listings_1_20240101_120000_photo.png/full.jpg");
+        verify(storageService).delete("thumbnails/listings_1_20240101_120000_photo.png/gallery.jpg");
+        verify(storageService).delete("thumbnails/listings_1_20240101_120000_photo.png/card.jpg");
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldDropImage() throws Exception {
+        // Arrange
+        pipeline.shutdown();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(0);
+        properties.setSubmitTimeoutMillis(0);
+        pipeline = newPipeline();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.loadAsResource(FILE_KEY)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new ByteArrayResource("not an image".getBytes());
+        });
+
+        // Act
+        boolean first = pipeline.submit(LISTING_ID, FILE_KEY);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        boolean second = pipeline.submit(LISTING_ID, "listings/1/other.png");
+        release.countDown();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1.0, meterRegistry.get("media.variants.images").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void submit_WhenDisabled_ShouldNotQueue() {
+        properties.setEnabled(false);
+
+        assertFalse(pipeline.submit(LISTING_ID, FILE_KEY));
+        verifyNoInteractions(storageService);
+    }
+
+    private ImageVariantPipeline newPipeline() {
+        return new ImageVariantPipeline(storageService, new StorageKeyGenerator(new StorageProperties()),
+                listingMediaRepository, properties, transactionManager, meterRegistry);
+    }
+
+    private void captureStoredVariants() {
+        doAnswer(invocation -> {
+            storedVariants.put(invocation.getArgument(1), ImageIO.read(invocation.getArgument(0, InputStream.class)));
+            return null;
+        }).when(storageService).storeStream(any(InputStream.class), anyString(), eq("image/jpeg"), anyLong());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x += 10) {
+            for (int y = 0; y < height; y += 10) {
+                image.setRGB(x, y, 0xFF000000 | (x * 31 + y * 17));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,211 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.model.ListingMedia;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.service.media.ListingMediaStorage.StoredMedia;
+import com.autotrader.autotraderbackend.service.storage.AsyncStorageService;
+import com.autotrader.autotraderbackend.service.storage.StorageDeletionOutbox;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingMediaStorageTest {
+
+    private static final Long LISTING_ID = 1L;
+    private static final byte[] CONTENT = "same photo".getBytes();
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private AsyncStorageService asyncStorageService;
+
+    @Mock
+    private ListingMediaRepository listingMediaRepository;
+
+    @Mock
+    private StorageDeletionOutbox deletionOutbox;
+
+    private FileUploadProperties uploadProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ListingMediaStorage listingMediaStorage;
+    private String contentAddressedKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploadProperties = new FileUploadProperties();
+        uploadProperties.setContentAddressedStorage(true);
+        meterRegistry = new SimpleMeterRegistry();
+        listingMediaStorage = new ListingMediaStorage(storageService, asyncStorageService, new StorageKeyGenerator(new StorageProperties()),
+                listingMediaRepository, uploadProperties, deletionOutbox, meterRegistry);
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        contentAddressedKey = "media/" + sha256.substring(0, 2) + "/" + sha256 + ".jpg";
+    }
+
+    @Test
+    void store_WithNewContent_ShouldStoreUnderContentHash() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", CONTENT);
+        when(listingMediaRepository.findFirstByFileKey(contentAddressedKey)).thenReturn(Optional.empty());
+
+        // Act
+        StoredMedia stored = listingMediaStorage.store(LISTING_ID, file);
+
+        // Assert
+        assertEquals(new StoredMedia(contentAddressedKey, null, true), stored);
+        verify(storageService).store(file, contentAddressedKey);
+        assertEquals(1.0, meterRegistry.get("media.uploads").tag("result", "stored").counter().count());
+    }
+
+    @Test
+    void store_WithStoredContent_ShouldSkipUploadAndReuseVariants() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "copy.JPG", "image/jpeg", CONTENT);
+        ListingMedia existing = media(contentAddressedKey, "card=thumbnails/card.jpg");
+        when(listingMediaRepository.findFirstByFileKey(contentAddressedKey)).thenReturn(Optional.of(existing));
+
+        // Act
+        StoredMedia stored = listingMediaStorage.store(2L, file);
+
+        // Assert
+        assertEquals(new StoredMedia(contentAddressedKey, "card=thumbnails/card.jpg", false), stored);
+        verifyNoInteractions(storageService);
+        assertEquals(1.0, meterRegistry.get("media.uploads").tag("result", "deduplicated").counter().count());
+    }
+
+    @Test
+    void store_WhenDisabled_ShouldStoreUnderListingKey() {
+        uploadProperties.setContentAddressedStorage(false);
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", CONTENT);
+
+        StoredMedia stored = listingMediaStorage.store(LISTING_ID, file);
+
+        assertTrue(stored.key().matches("listings/1/\\d{8}_\\d{6}_photo\\.jpg"), stored.key());
+        assertTrue(stored.stored());
+        verify(storageService).store(file, stored.key());
+        verifyNoInteractions(listingMediaRepository);
+    }
+
+    @Test
+    void store_WhenFileCannotBeRead_ShouldThrowStorageException() throws Exception {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getInputStream()).thenThrow(new IOException("gone"));
+
+        assertThrows(StorageException.class, () -> listingMediaStorage.store(LISTING_ID, file));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void storeAsync_WithNewContent_ShouldCompleteOnceStored() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", CONTENT);
+        CompletableFuture<String> upload = new CompletableFuture<>();
+        when(listingMediaRepository.findFirstByFileKey(contentAddressedKey)).thenReturn(Optional.empty());
+        when(asyncStorageService.storeAsync(file, contentAddressedKey)).thenReturn(upload);
+
+        // Act
+        CompletableFuture<StoredMedia> stored = listingMediaStorage.storeAsync(LISTING_ID, file);
+
+        // Assert
+        assertFalse(stored.isDone());
+        upload.complete(contentAddressedKey);
+        assertEquals(new StoredMedia(contentAddressedKey, null, true), stored.join());
+        assertEquals(1.0, meterRegistry.get("media.uploads").tag("result", "stored").counter().count());
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void storeAsync_WithStoredContent_ShouldCompleteWithoutUpload() {
+        MockMultipartFile file = new MockMultipartFile("file", "copy.jpg", "image/jpeg", CONTENT);
+        when(listingMediaRepository.findFirstByFileKey(contentAddressedKey))
+                .thenReturn(Optional.of(media(contentAddressedKey, "card=thumbnails/card.jpg")));
+
+        CompletableFuture<StoredMedia> stored = listingMediaStorage.storeAsync(2L, file);
+
+        assertEquals(new StoredMedia(contentAddressedKey, "card=thumbnails/card.jpg", false), stored.join());
+        verifyNoInteractions(asyncStorageService, storageService);
+    }
+
+    @Test
+    void storeAsync_WhenUploadFails_ShouldCompleteExceptionally() {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", CONTENT);
+        when(listingMediaRepository.findFirstByFileKey(contentAddressedKey)).thenReturn(Optional.empty());
+        when(asyncStorageService.storeAsync(file, contentAddressedKey))
+                .thenReturn(CompletableFuture.failedFuture(new StorageException("bucket unavailable")));
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> listingMediaStorage.storeAsync(LISTING_ID, file).join());
+
+        assertInstanceOf(StorageException.class, thrown.getCause());
+        assertEquals(0.0, meterRegistry.get("media.uploads").tag("result", "stored").counter().count());
+    }
+
+    @Test
+    void release_WithSharedObject_ShouldKeepIt() {
+        when(listingMediaRepository.countByFileKey(contentAddressedKey)).thenReturn(1L);
+
+        listingMediaStorage.release(LISTING_ID, List.of(media(contentAddressedKey, "card=thumbnails/card.jpg")));
+
+        verifyNoInteractions(deletionOutbox, storageService);
+    }
+
+    @Test
+    void release_WithLastReference_ShouldQueueObjectAndVariantsAsSharedMedia() {
+        // Arrange
+        when(listingMediaRepository.countByFileKey(contentAddressedKey)).thenReturn(0L);
+        ListingMedia first = media(contentAddressedKey, null);
+        ListingMedia second = media(contentAddressedKey, "card=thumbnails/card.jpg,full=thumbnails/full.jpg");
+
+        // Act
+        listingMediaStorage.release(LISTING_ID, List.of(first, second));
+
+        // Assert
+        verify(deletionOutbox).enqueue(List.of(contentAddressedKey, "thumbnails/card.jpg", "thumbnails/full.jpg"),
+                contentAddressedKey);
+        verify(listingMediaRepository).countByFileKey(contentAddressedKey);
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void release_WithListingKey_ShouldQueueWithoutCountingReferences() {
+        String listingKey = "listings/1/20240101_120000_photo.jpg";
+
+        listingMediaStorage.release(LISTING_ID, List.of(media(listingKey, "card=thumbnails/card.jpg")));
+
+        verify(deletionOutbox).enqueue(eq(List.of(listingKey, "thumbnails/card.jpg")), isNull());
+        verify(listingMediaRepository, never()).countByFileKey(anyString());
+        verifyNoInteractions(storageService);
+    }
+
+    private static ListingMedia media(String fileKey, String variantKeys) {
+        ListingMedia media = new ListingMedia();
+        media.setFileKey(fileKey);
+        media.setVariantKeys(variantKeys);
+        return media;
+    }
+}
@@ -0,0 +1,142 @@
+package com.autotrader.autotraderbackend.service.media;
+
+import com.autotrader.autotraderbackend.config.StorageDeletionProperties;
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.service.SchedulerLockService;
+import com.autotrader.autotraderbackend.service.storage.StorageDeletionOutbox;
+import com.autotrader.autotraderbackend.service.storage.StorageKeyGenerator;
+import com.autotrader.autotraderbackend.service.storage.StorageService;
+import com.autotrader.autotraderbackend.service.storage.StoredObjectSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanedMediaReconcilerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-02T03:30:00Z");
+    private static final Instant OLD = NOW.minus(Duration.ofDays(2));
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    @Mock
+    private StorageDeletionOutbox deletionOutbox;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    private StorageDeletionProperties properties;
+    private OrphanedMediaReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageDeletionProperties();
+        reconciler = new OrphanedMediaReconciler(storageService, new StorageKeyGenerator(new StorageProperties()),
+                carListingRepository, deletionOutbox, lockService, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        lenient().when(lockService.tryLock(eq(OrphanedMediaReconciler.LOCK_NAME), any())).thenReturn(true);
+    }
+
+    @Test
+    void reconcile_ShouldQueueFilesOfRemovedListingsOnly() {
+        // Arrange
+        listingPages(List.of(
+                new StoredObjectSummary("listings/1/a.jpg", 10, OLD),
+                new StoredObjectSummary("listings/2/b.jpg", 10, OLD),
+                new StoredObjectSummary("listings/2/c.jpg", 10, OLD),
+                new StoredObjectSummary("listings/3/recent.jpg", 10, NOW.minus(Duration.ofMinutes(5))),
+                new StoredObjectSummary("listings/not-a-listing.txt", 10, OLD)));
+        when(carListingRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        // Act
+        int queued = reconciler.reconcile();
+
+        // Assert
+        assertEquals(2, queued);
+        verify(deletionOutbox).enqueue(List.of("listings/2/b.jpg", "listings/2/c.jpg"), null);
+        verify(lockService).unlock(OrphanedMediaReconciler.LOCK_NAME);
+    }
+
+    @Test
+    void reconcile_ShouldCheckAndQueueEachPageOnItsOwn() {
+        // Arrange
+        listingPages(List.of(new StoredObjectSummary("listings/1/a.jpg", 10, OLD)),
+                List.of(new StoredObjectSummary("listings/2/b.jpg", 10, OLD)));
+        when(carListingRepository.findExistingIds(List.of(1L))).thenReturn(List.of());
+        when(carListingRepository.findExistingIds(List.of(2L))).thenReturn(List.of());
+
+        // Act
+        int queued = reconciler.reconcile();
+
+        // Assert
+        assertEquals(2, queued);
+        verify(deletionOutbox).enqueue(List.of("listings/1/a.jpg"), null);
+        verify(deletionOutbox).enqueue(List.of("listings/2/b.jpg"), null);
+    }
+
+    @Test
+    void reconcile_WhenLockedByAnotherInstance_ShouldNotListStorage() {
+        when(lockService.tryLock(eq(OrphanedMediaReconciler.LOCK_NAME), any())).thenReturn(false);
+
+        assertEquals(0, reconciler.reconcile());
+        verifyNoInteractions(storageService, carListingRepository, deletionOutbox);
+        verify(lockService, never()).unlock(any());
+    }
+
+    @Test
+    void reconcile_WhenAllListingsExist_ShouldQueueNothing() {
+        listingPages(List.of(new StoredObjectSummary("listings/1/a.jpg", 10, OLD)));
+        when(carListingRepository.findExistingIds(List.of(1L))).thenReturn(List.of(1L));
+
+        assertEquals(0, reconciler.reconcile());
+        verifyNoInteractions(deletionOutbox);
+    }
+
+    @Test
+    void scheduledReconcile_WhenDisabled_ShouldNotListStorage() {
+        properties.setReconcileEnabled(false);
+
+        reconciler.scheduledReconcile();
+
+        verifyNoInteractions(storageService, carListingRepository, deletionOutbox, lockService);
+    }
+
+    @Test
+    void scheduledReconcile_WhenListingIsUnsupported_ShouldNotThrowAndReleaseLock() {
+        doThrow(new UnsupportedOperationException("not supported")).when(storageService).listObjectPages(any(), any());
+
+        assertDoesNotThrow(() -> reconciler.scheduledReconcile());
+        verifyNoInteractions(deletionOutbox);
+        verify(lockService).unlock(OrphanedMediaReconciler.LOCK_NAME);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void listingPages(List<StoredObjectSummary>... pages) {
+        doAnswer(invocation -> {
+            Consumer<List<StoredObjectSummary>> consumer = invocation.getArgument(1);
+            for (List<StoredObjectSummary> page : pages) {
+                consumer.accept(page);
+            }
+            return null;
+        }).when(storageService).listObjectPages(eq("listings/"), any(Consumer.class));
+    }
+}
@@ -0,0 +1,190 @@
+package com.autotrader.autotraderbackend.service.search;
+
+import com.autotrader.autotraderbackend.config.ListingSearchProperties;
+import com.autotrader.autotraderbackend.payload.request.ListingFilterRequest;
+import com.autotrader.autotraderbackend.repository.CarListingRepository;
+import com.autotrader.autotraderbackend.repository.projection.ListingSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ListingSearchIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private CarListingRepository carListingRepository;
+
+    private ListingSearchProperties properties;
+    private ListingSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListingSearchProperties();
+        properties.setEnabled(true);
+        properties.setLoadBatchSize(2);
+        index = new ListingSearchIndex(carListingRepository, properties);
+
+        index.upsert(doc(1L, "Toyota", "تويوتا", "Camry", "كامري", 2018, "15000.00", 1L, 1, false, false, true));
+        index.upsert(doc(2L, "Toyota", "تويوتا", "Corolla", "كورولا", 2020, "12000.00", 2L, 2, false, false, true));
+        index.upsert(doc(3L, "Honda", "هوندا", "Civic", "سيفيك", 2019, "11000.00", 1L, 3, false, false, true));
+        index.upsert(doc(4L, "Toyota", "تويوتا", "Camry", "كامري", 2021, "25000.00", 1L, 4, true, false, true));  // sold
+        index.upsert(doc(5L, "Toyota", "تويوتا", "Camry", "كامري", 2022, "30000.00", 1L, 5, false, false, false)); // paused
+    }
+
+    @Test
+    void search_ByBrandSubstring_MatchesEnglishAndArabicNames() {
+        ListingFilterRequest english = new ListingFilterRequest();
+        english.setBrand("OYO");
+        ListingFilterRequest arabic = new ListingFilterRequest();
+        arabic.setBrand("تويو");
+
+        Page<Long> englishPage = index.search(english, null, PageRequest.of(0, 10, Sort.by("createdAt")));
+        Page<Long> arabicPage = index.search(arabic, null, PageRequest.of(0, 10, Sort.by("createdAt")));
+
+        assertEquals(List.of(1L, 2L), englishPage.getContent());
+        assertEquals(List.of(1L, 2L), arabicPage.getContent());
+        assertEquals(2, englishPage.getTotalElements());
+    }
+
+    @Test
+    void search_ExcludesSoldAndPausedByDefault_ButHonoursExplicitSoldFilter() {
+        ListingFilterRequest filter = new ListingFilterRequest();
+        Page<Long> defaultPage = index.search(filter, null, PageRequest.of(0, 10, Sort.by("createdAt")));
+        assertEquals(List.of(1L, 2L, 3L), defaultPage.getContent());
+
+        filter.setIsSold(true);
+        Page<Long> soldPage = index.search(filter, null, PageRequest.of(0, 10));
+        assertEquals(List.of(4L), soldPage.getContent());
+    }
+
+    @Test
+    void search_AppliesRangesLocationAndPriceSort() {
+        ListingFilterRequest filter = new ListingFilterRequest();
+        filter.setMinYear(2018);
+        filter.setMaxPrice(new BigDecimal("14999.99"));
+
+        Page<Long> page = index.search(filter, null, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(List.of(2L, 3L), page.getContent());
+
+        Page<Long> located = index.search(filter, 1L, PageRequest.of(0, 10));
+        assertEquals(List.of(3L), located.getContent());
+    }
+
+    @Test
+    void search_PaginatesWithTotalCount() {
+        Pageable secondPage = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Page<Long> page = index.search(new ListingFilterRequest(), null, secondPage);
+
+        assertEquals(List.of(1L), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void search_RejectsNonWhitelistedSortField() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("description"));
+        assertThrows(IllegalArgumentException.class, () -> index.search(new ListingFilterRequest(), null, pageable));
+    }
+
+    @Test
+    void upsertAndRemove_KeepPostingsCurrent() {
+        // Listing 3 is re-branded, then removed
+        index.upsert(doc(3L, "Toyota", "تويوتا", "Yaris", "يارس", 2019, "11000.00", 1L, 3, false, false, true));
+        ListingFilterRequest honda = new ListingFilterRequest();
+        honda.setBrand("honda");
+        assertEquals(0, index.search(honda, null, PageRequest.of(0, 10)).getTotalElements());
+
+        index.remove(3L);
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L, 2L), index.search(new ListingFilterRequest(), null, PageRequest.of(0, 10, Sort.by("createdAt"))).getContent());
+    }
+
+    @Test
+    void search_ExcludesListingsFlaggedOrPastTheirExpirationDate() {
+        ListingSearchDocument live = doc(1L, "Toyota", "تويوتا", "Camry", "كامري", 2018, "15000.00", 1L, 1, false, false, true);
+        index.upsert(withExpiration(live, false, LocalDateTime.now().plusDays(1)));
+        ListingSearchDocument due = doc(2L, "Toyota", "تويوتا", "Corolla", "كورولا", 2020, "12000.00", 2L, 2, false, false, true);
+        index.upsert(withExpiration(due, false, LocalDateTime.now().minusMinutes(1)));
+        ListingSearchDocument flagged = doc(3L, "Honda", "هوندا", "Civic", "سيفيك", 2019, "11000.00", 1L, 3, false, false, true);
+        index.upsert(withExpiration(flagged, true, null));
+
+        Page<Long> page = index.search(new ListingFilterRequest(), null, PageRequest.of(0, 10, Sort.by("createdAt")));
+
+        assertEquals(List.of(1L), page.getContent());
+    }
+
+    @Test
+    void rebuild_LoadsAllBatchesAndBecomesReady() {
+        when(carListingRepository.findSearchDocumentsAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(doc(10L, "Kia", "كيا", "Rio", "ريو", 2017, "8000.00", 1L, 10, false, false, true),
+                                    doc(11L, "Kia", "كيا", "Soul", "سول", 2018, "9000.00", 1L, 11, false, false, true)));
+        when(carListingRepository.findSearchDocumentsAfter(eq(11L), any(Pageable.class)))
+                .thenReturn(List.of(doc(12L, "Kia", "كيا", "Rio", "ريو", 2019, "9500.00", 1L, 12, false, false, true)));
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void resync_ReplacesChangedAndRemovesDeletedListings() {
+        // Listing 2 was sold and listings 4 and 5 deleted on another instance; listing 6 is new
+        when(carListingRepository.findSearchDocumentsAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(doc(1L, "Toyota", "تويوتا", "Camry", "كامري", 2018, "15000.00", 1L, 1, false, false, true),
+                                    doc(2L, "Toyota", "تويوتا", "Corolla", "كورولا", 2020, "12000.00", 2L, 2, true, false, true)));
+        when(carListingRepository.findSearchDocumentsAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(doc(3L, "Honda", "هوندا", "Civic", "سيفيك", 2019, "11000.00", 1L, 3, false, false, true),
+                                    doc(6L, "Kia", "كيا", "Rio", "ريو", 2017, "8000.00", 1L, 6, false, false, true)));
+        when(carListingRepository.findSearchDocumentsAfter(eq(6L), any(Pageable.class))).thenReturn(List.of());
+
+        index.resync();
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L, 3L, 6L),
+                index.search(new ListingFilterRequest(), null, PageRequest.of(0, 10, Sort.by("createdAt"))).getContent());
+    }
+
+    @Test
+    void isReady_FalseWhenDisabled() {
+        properties.setEnabled(false);
+        index.onApplicationReady();
+        assertFalse(index.isReady());
+        verifyNoInteractions(carListingRepository);
+    }
+
+    private static ListingSearchDocument withExpiration(ListingSearchDocument document, boolean expired,
+                                                        LocalDateTime expirationDate) {
+        return new ListingSearchDocument(document.id(), document.brandNameEn(), document.brandNameAr(),
+                document.modelNameEn(), document.modelNameAr(), document.modelYear(), document.price(),
+                document.mileage(), document.locationId(), document.createdAt(), document.approved(),
+                document.sold(), document.archived(), document.isUserActive(), expired, expirationDate);
+    }
+
+    private static ListingSearchDocument doc(Long id, String brandEn, String brandAr, String modelEn, String modelAr,
+                                             int year, String price, Long locationId, int minutesAfterBase,
+                                             boolean sold, boolean archived, boolean userActive) {
+        return new ListingSearchDocument(id, brandEn, brandAr, modelEn, modelAr, year, new BigDecimal(price), 50000,
+                locationId, BASE_TIME.plusMinutes(minutesAfterBase), true, sold, archived, userActive, false, null);
+    }
+}
@@ -0,0 +1,182 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileResponderTest {
+
+    private static final String KEY = "listings/1/photo.jpg";
+    private static final String CONTENT = "0123456789";
+    private static final Instant MODIFIED = Instant.parse("2024-01-01T12:00:00Z");
+
+    @TempDir
+    Path root;
+
+    private Path file;
+    private LocalFileResponder responder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = root.resolve("photo.jpg");
+        Files.writeString(file, CONTENT);
+        Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+        responder = new LocalFileResponder(new StorageProperties.Local());
+    }
+
+    @Test
+    void respond_ShouldSendWholeFileWithValidatorsAndImmutableCaching() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/storage/" + KEY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responder.respond(file, KEY, request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("max-age=31536000, public, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals(MODIFIED.toEpochMilli(), response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void respond_WithMatchingEtag_ShouldAnswerNotModified() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        responder.respond(file, KEY, new MockHttpServletRequest("GET", "/"), first);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responder.respond(file, KEY, request, response);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void respond_WithUnchangedModificationDate_ShouldAnswerNotModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED.toEpochMilli());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(file, KEY, request, response);
+
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void respond_WithRange_ShouldSendPartialContent() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responder.respond(file, KEY, request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+    }
+
+    @Test
+    void respond_WithSuffixRange_ShouldSendFileEnd() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(file, KEY, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    void respond_WithRangeBeyondEnd_ShouldAnswerNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(file, KEY, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void respond_WithStaleIfRange_ShouldSendWholeFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"another-version\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(file, KEY, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void respond_WithSendfileSupport_ShouldHandTransferToContainer() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(LocalFileResponder.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responder.respond(file, KEY, request, response);
+
+        // Assert
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(LocalFileResponder.SENDFILE_FILENAME));
+        assertEquals(4L, request.getAttribute(LocalFileResponder.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(LocalFileResponder.SENDFILE_END));
+        assertEquals(6, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void respond_WithHead_ShouldSendHeadersOnly() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(file, KEY, new MockHttpServletRequest("HEAD", "/"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void respond_WithMissingFile_ShouldAnswerNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responder.respond(root.resolve("missing.jpg"), KEY, new MockHttpServletRequest("GET", "/"), response);
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void getCacheControl_WithMutableKey_ShouldRequireRevalidation() {
+        assertEquals("no-cache", responder.getCacheControl("samples/car/photo.jpg").getHeaderValue());
+    }
+}
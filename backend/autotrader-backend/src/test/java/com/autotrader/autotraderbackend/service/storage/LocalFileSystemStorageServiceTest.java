@@ -0,0 +1,180 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileSystemStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private StorageProperties.Local properties;
+    private LocalFileSystemStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties.Local();
+        properties.setRootDirectory(root.toString());
+        properties.setPublicUrl("http://localhost:8080/api/storage/");
+        properties.setUrlSigningKey("test-signing-key");
+        storageService = new LocalFileSystemStorageService(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        storageService.init();
+    }
+
+    @Test
+    void store_ShouldWriteFileUnderKeyWithoutLeavingTempFiles() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "jpeg".getBytes());
+
+        // Act
+        String result = storageService.store(file, "listings/1/photo.jpg");
+
+        // Assert
+        assertEquals("listings/1/photo.jpg", result);
+        assertEquals("jpeg", Files.readString(root.resolve("listings/1/photo.jpg")));
+        try (var files = Files.list(root.resolve("listings/1"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void store_WithEmptyFile_ShouldThrow() {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[0]);
+
+        assertThrows(StorageException.class, () -> storageService.store(file, "listings/1/photo.jpg"));
+    }
+
+    @Test
+    void storeStream_WithShortContent_ShouldThrowAndKeepNothing() {
+        assertThrows(StorageException.class, () -> storageService.storeStream(
+                new ByteArrayInputStream("abc".getBytes()), "media/ab/abc.jpg", "image/jpeg", 10));
+
+        assertFalse(Files.exists(root.resolve("media/ab/abc.jpg")));
+        assertEquals(List.of(), storageService.listObjects("media/"));
+    }
+
+    @Test
+    void load_WithKeyOutsideRoot_ShouldThrow() {
+        assertThrows(StorageException.class, () -> storageService.load("../outside.txt"));
+        assertThrows(StorageException.class, () -> storageService.load("listings/../../outside.txt"));
+        assertThrows(StorageException.class, () -> storageService.load(" "));
+    }
+
+    @Test
+    void loadAsResource_WithMissingFile_ShouldThrowNotFound() {
+        assertThrows(StorageFileNotFoundException.class, () -> storageService.loadAsResource("listings/1/missing.jpg"));
+    }
+
+    @Test
+    void listObjects_ShouldReturnFilesUnderPrefixOnly() {
+        // Arrange
+        storageService.storeStream(new ByteArrayInputStream("a".getBytes()), "listings/1/a.jpg", "image/jpeg", 1);
+        storageService.storeStream(new ByteArrayInputStream("bb".getBytes()), "listings/12/b.jpg", "image/jpeg", 2);
+        storageService.storeStream(new ByteArrayInputStream("c".getBytes()), "media/ab/c.jpg", "image/jpeg", 1);
+
+        // Act
+        List<StoredObjectSummary> objects = storageService.listObjects("listings/1");
+
+        // Assert
+        assertEquals(List.of("listings/1/a.jpg", "listings/12/b.jpg"),
+                objects.stream().map(StoredObjectSummary::key).sorted().toList());
+        assertTrue(objects.stream().allMatch(object -> object.lastModified() != null));
+        assertEquals(List.of(), storageService.listObjects("missing/"));
+    }
+
+    @Test
+    void delete_ShouldRemoveFileAndTreatMissingFileAsDeleted() {
+        storageService.storeStream(new ByteArrayInputStream("a".getBytes()), "listings/1/a.jpg", "image/jpeg", 1);
+
+        assertTrue(storageService.delete("listings/1/a.jpg"));
+        assertTrue(storageService.delete("listings/1/a.jpg"));
+        assertFalse(Files.exists(root.resolve("listings/1/a.jpg")));
+    }
+
+    @Test
+    void getMetadata_ShouldReportSizeAndTypeFromExtension() {
+        storageService.storeStream(new ByteArrayInputStream("png".getBytes()), "images/a.png", "image/png", 3);
+
+        assertEquals(Optional.of(new StoredObjectMetadata("images/a.png", "image/png", 3)),
+                storageService.getMetadata("images/a.png"));
+        assertEquals(Optional.empty(), storageService.getMetadata("images/missing.png"));
+    }
+
+    @Test
+    void getSignedUrl_ShouldPointToPublicUrlWithEncodedKeyAndExpiry() {
+        String url = storageService.getSignedUrl("listings/1/my photo.jpg", 3600);
+
+        assertTrue(url.startsWith("http://localhost:8080/api/storage/listings/1/my%20photo.jpg?expires="
+                + (NOW.getEpochSecond() + 3600) + "&signature="), url);
+    }
+
+    @Test
+    void getSignedUrl_ShouldStayTheSameWithinAnHour() {
+        LocalFileSystemStorageService earlier = new LocalFileSystemStorageService(properties,
+                Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        LocalFileSystemStorageService later = new LocalFileSystemStorageService(properties,
+                Clock.fixed(NOW.plusSeconds(3540), ZoneOffset.UTC));
+        LocalFileSystemStorageService nextHour = new LocalFileSystemStorageService(properties,
+                Clock.fixed(NOW.plusSeconds(3660), ZoneOffset.UTC));
+
+        String url = earlier.getSignedUrl("listings/1/photo.jpg", 600);
+
+        assertTrue(url.contains("?expires=" + (NOW.getEpochSecond() + 3600 + 600) + "&"), url);
+        assertEquals(url, later.getSignedUrl("listings/1/photo.jpg", 600));
+        assertNotEquals(url, nextHour.getSignedUrl("listings/1/photo.jpg", 600));
+    }
+
+    @Test
+    void isValidSignature_ShouldAcceptOnlyUnexpiredSignatureForSameKey() {
+        // Arrange
+        long expires = NOW.getEpochSecond() + 60;
+        String signature = signatureOf(storageService.getSignedUrl("listings/1/photo.jpg", 60));
+        LocalFileSystemStorageService later = new LocalFileSystemStorageService(properties,
+                Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        properties.setUrlSigningKey("other-signing-key");
+        LocalFileSystemStorageService otherKey = new LocalFileSystemStorageService(properties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Act & Assert
+        assertTrue(storageService.isValidSignature("listings/1/photo.jpg", expires, signature));
+        assertFalse(storageService.isValidSignature("listings/2/photo.jpg", expires, signature));
+        assertFalse(storageService.isValidSignature("listings/1/photo.jpg", expires + 1, signature));
+        assertFalse(storageService.isValidSignature("listings/1/photo.jpg", expires, null));
+        assertFalse(storageService.isValidSignature("listings/1/photo.jpg", null, signature));
+        assertFalse(later.isValidSignature("listings/1/photo.jpg", expires, signature));
+        assertFalse(otherKey.isValidSignature("listings/1/photo.jpg", expires, signature));
+    }
+
+    @Test
+    void loadAsResource_WithTempFileKey_ShouldThrowNotFound() throws Exception {
+        Files.createDirectories(root.resolve("listings/1"));
+        Files.writeString(root.resolve("listings/1/.upload-123.tmp"), "partial");
+
+        assertTrue(LocalFileSystemStorageService.isTempFileKey("listings/1/.upload-123.tmp"));
+        assertFalse(LocalFileSystemStorageService.isTempFileKey("listings/1/photo.jpg"));
+        assertThrows(StorageFileNotFoundException.class,
+                () -> storageService.loadAsResource("listings/1/.upload-123.tmp"));
+    }
+
+    private static String signatureOf(String url) {
+        return url.substring(url.indexOf("&signature=") + "&signature=".length());
+    }
+}
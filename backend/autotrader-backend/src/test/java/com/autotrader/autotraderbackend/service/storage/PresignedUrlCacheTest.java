@@ -0,0 +1,135 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresignedUrlCacheTest {
+
+    private StorageProperties.PresignCache properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private PresignedUrlCache cache;
+    private AtomicInteger signatures;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties.PresignCache();
+        properties.setSafetyMarginSeconds(900);
+        properties.setMaxEntries(2);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cache = new PresignedUrlCache(properties, meterRegistry, clock);
+        signatures = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldReuseUrlUntilSafetyMarginBeforeExpiry() {
+        String first = cache.get("bucket", "key", 3600, this::sign);
+        clock.advance(Duration.ofSeconds(2699));
+        String second = cache.get("bucket", "key", 3600, this::sign);
+        clock.advance(Duration.ofSeconds(1));
+        String third = cache.get("bucket", "key", 3600, this::sign);
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+        assertEquals(2, signatures.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0, meterRegistry.get("storage.presign.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("storage.presign.cache.requests").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldKeepBucketsAndExpirationsApart() {
+        cache.get("bucket-a", "key", 3600, this::sign);
+        cache.get("bucket-b", "key", 3600, this::sign);
+        cache.get("bucket-a", "key", 7200, this::sign);
+
+        assertEquals(3, signatures.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void get_ShouldNotCacheShortLivedOrDisabled() {
+        cache.get("bucket", "key", 900, this::sign);
+        cache.get("bucket", "key", 900, this::sign);
+        properties.setEnabled(false);
+        cache.get("bucket", "other", 3600, this::sign);
+        cache.get("bucket", "other", 3600, this::sign);
+
+        assertEquals(4, signatures.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldStayWithinMaxEntries() {
+        cache.get("bucket", "a", 3600, this::sign);
+        cache.get("bucket", "b", 3600, this::sign);
+        cache.get("bucket", "c", 3600, this::sign);
+
+        assertTrue(cache.size() <= properties.getMaxEntries());
+    }
+
+    @Test
+    void evict_ShouldDropAllExpirationsForObject() {
+        cache.get("bucket", "key", 3600, this::sign);
+        cache.get("bucket", "key", 7200, this::sign);
+
+        cache.evict("bucket", "key");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evict_ShouldKeepOtherObjects() {
+        cache.get("bucket", "key", 3600, this::sign);
+        cache.get("bucket", "other", 3600, this::sign);
+
+        cache.evict("bucket", "key");
+        cache.get("bucket", "other", 3600, this::sign);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    private String sign() {
+        return "http://signed/" + signatures.incrementAndGet();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the service against an in-process stand-in for the S3 object API, so requests go through the real
+ * Netty client and its connection pool.
+ */
+class S3AsyncStorageServiceTest {
+
+    private static final String BUCKET = "test-bucket";
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+    private StorageService storageService;
+    private PresignedUrlCache presignedUrlCache;
+    private StorageObjectCache objectCache;
+    private S3AsyncStorageService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        StorageProperties properties = new StorageProperties();
+        properties.getS3().setBucketName(BUCKET);
+        executor = Executors.newFixedThreadPool(2);
+        S3AsyncClient client = S3AsyncClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(4))
+                .asyncConfiguration(configuration -> configuration
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, executor))
+                .build();
+        storageService = mock(StorageService.class);
+        presignedUrlCache = mock(PresignedUrlCache.class);
+        objectCache = mock(StorageObjectCache.class);
+        service = new S3AsyncStorageService(client, storageService,
+                new StorageConfigurationManager(properties, new StorageKeyGenerator(properties)),
+                presignedUrlCache, objectCache, executor);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void storeAsync_ShouldUploadContentAndEvictCachedCopy() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "photo".getBytes());
+
+        // Act
+        String key = service.storeAsync(file, "listings/1/photo.jpg").join();
+
+        // Assert
+        assertEquals("listings/1/photo.jpg", key);
+        assertArrayEquals("photo".getBytes(), objects.get(key));
+        verify(objectCache).evict(BUCKET, key);
+    }
+
+    @Test
+    void storeAsync_WithMoreUploadsThanConnections_ShouldCompleteAll() {
+        // Act
+        List<CompletableFuture<String>> uploads = IntStream.range(0, 20)
+                .mapToObj(i -> service.storeAsync(
+                        new MockMultipartFile("file", i + ".jpg", "image/jpeg", ("photo " + i).getBytes()),
+                        "listings/1/" + i + ".jpg"))
+                .toList();
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+
+        // Assert
+        assertEquals(20, objects.size());
+        assertArrayEquals("photo 7".getBytes(), objects.get("listings/1/7.jpg"));
+    }
+
+    @Test
+    void storeAsync_WhenBucketRejectsUpload_ShouldFailWithStorageException() {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "photo".getBytes());
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> service.storeAsync(file, "denied/photo.jpg").join());
+
+        assertInstanceOf(StorageException.class, thrown.getCause());
+        verifyNoInteractions(objectCache);
+    }
+
+    @Test
+    void storeAsync_WithEmptyFile_ShouldFailWithoutRequest() {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[0]);
+
+        CompletableFuture<String> result = service.storeAsync(file, "listings/1/photo.jpg");
+
+        assertTrue(result.isCompletedExceptionally());
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void loadAsResourceAsync_ShouldReturnContent() throws IOException {
+        objects.put("listings/1/photo.jpg", "photo".getBytes());
+
+        Resource resource = service.loadAsResourceAsync("listings/1/photo.jpg").join();
+
+        assertArrayEquals("photo".getBytes(), resource.getContentAsByteArray());
+        assertEquals("listings/1/photo.jpg", resource.getFilename());
+    }
+
+    @Test
+    void loadAsResourceAsync_WithMissingKey_ShouldFailWithStorageFileNotFoundException() {
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> service.loadAsResourceAsync("listings/1/missing.jpg").join());
+
+        assertInstanceOf(StorageFileNotFoundException.class, thrown.getCause());
+    }
+
+    @Test
+    void deleteAsync_ShouldDeleteObjectAndEvictCaches() {
+        objects.put("listings/1/photo.jpg", "photo".getBytes());
+
+        assertTrue(service.deleteAsync("listings/1/photo.jpg").join());
+
+        assertFalse(objects.containsKey("listings/1/photo.jpg"));
+        verify(presignedUrlCache).evict(BUCKET, "listings/1/photo.jpg");
+        verify(objectCache).evict(BUCKET, "listings/1/photo.jpg");
+    }
+
+    @Test
+    void deleteAsync_WhenBucketRejectsDelete_ShouldCompleteWithFalse() {
+        assertFalse(service.deleteAsync("denied/photo.jpg").join());
+
+        verifyNoInteractions(presignedUrlCache, objectCache);
+    }
+
+    @Test
+    void getSignedUrlsAsync_ShouldSignWithBlockingService() {
+        when(storageService.getSignedUrls(List.of("a.jpg"), 60)).thenReturn(Map.of("a.jpg", "http://signed/a.jpg"));
+
+        Map<String, String> urls = service.getSignedUrlsAsync(List.of("a.jpg"), 60).join();
+
+        assertEquals(Map.of("a.jpg", "http://signed/a.jpg"), urls);
+    }
+
+    /**
+     * Path-style object API: PUT, GET and DELETE on {@code /bucket/key}. Keys under {@code denied/} are rejected.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String key = exchange.getRequestURI().getPath().substring(BUCKET.length() + 2);
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (key.startsWith("denied/")) {
+                sendError(exchange, 403, "AccessDenied");
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+                    byte[] content = contentSha256 != null && contentSha256.startsWith("STREAMING-") ? decodeChunks(body) : body;
+                    objects.put(key, content);
+                    // The client compares the ETag with the MD5 of what it sent
+                    exchange.getResponseHeaders().add("ETag", "\"" + md5(content) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    byte[] content = objects.get(key);
+                    if (content == null) {
+                        sendError(exchange, 404, "NoSuchKey");
+                        return;
+                    }
+                    exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+                    exchange.sendResponseHeaders(200, content.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(content);
+                    }
+                }
+                case "DELETE" -> {
+                    objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> sendError(exchange, 405, "MethodNotAllowed");
+            }
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code) throws IOException {
+        byte[] error = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code><Message>" + code
+                + "</Message></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, error.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(error);
+        }
+    }
+
+    /**
+     * Strip the framing of a signed streaming upload: {@code <hex size>;chunk-signature=...\r\n<data>\r\n}, ending
+     * with a chunk of size 0.
+     */
+    private static byte[] decodeChunks(byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = position;
+            while (body[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            if (size == 0) {
+                return content.toByteArray();
+            }
+            content.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static String md5(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.autotrader.autotraderbackend.service.storage;
 
+import com.autotrader.autotraderbackend.config.StorageProperties;
 import com.autotrader.autotraderbackend.exception.StorageException;
 import com.autotrader.autotraderbackend.exception.StorageFileNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,8 +18,18 @@ import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.MalformedURLException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
@@ -34,6 +48,8 @@ class S3StorageServiceTest {
     @Mock
     private StorageUrlGenerator urlGenerator;
 
+    private PresignedUrlCache presignedUrlCache;
+
     @BeforeEach
     void setUp() {
         s3Client = mock(S3Client.class);
@@ -51,7 +67,9 @@ class S3StorageServiceTest {
         when(urlGenerator.generateUrl(anyString(), any(StorageUrlGenerator.UrlType.class), anyLong()))
                 .thenReturn("http://localhost:9000/test-bucket/test-key");
         
-        s3StorageService = new S3StorageService(s3Client, configManager, urlGenerator);
+        presignedUrlCache = new PresignedUrlCache(new StorageProperties.PresignCache(), new SimpleMeterRegistry(), Clock.systemUTC());
+        s3StorageService = new S3StorageService(s3Client, configManager, urlGenerator, presignedUrlCache,
+                new StorageObjectCache(new StorageProperties(), new SimpleMeterRegistry()));
         
         // Mock the init call for headBucket
         HeadBucketResponse headBucketResponse = HeadBucketResponse.builder().build();
@@ -204,6 +222,43 @@ class S3StorageServiceTest {
         verify(urlGenerator, times(1)).generateUrl(eq(key), eq(StorageUrlGenerator.UrlType.SIGNED), eq(expirationSeconds));
     }
     
+    @Test
+    void testGetSignedUrlServesRepeatedRequestsFromCache() {
+        String key = "test_key";
+        when(urlGenerator.generateUrl(eq(key), eq(StorageUrlGenerator.UrlType.SIGNED), eq(3600L)))
+                .thenReturn("http://localhost:9000/test-bucket/test_key?X-Amz-Signature=abc");
+
+        String first = s3StorageService.getSignedUrl(key, 3600);
+        String second = s3StorageService.getSignedUrl(key, 3600);
+
+        assertEquals(first, second);
+        verify(urlGenerator, times(1)).generateUrl(eq(key), eq(StorageUrlGenerator.UrlType.SIGNED), eq(3600L));
+        assertEquals(1, presignedUrlCache.getHitCount());
+        assertEquals(1, presignedUrlCache.getMissCount());
+    }
+
+    @Test
+    void testGetSignedUrlsSkipsBlankKeysAndFailures() {
+        when(urlGenerator.generateUrl(eq("a"), eq(StorageUrlGenerator.UrlType.SIGNED), anyLong())).thenReturn("http://signed/a");
+        when(urlGenerator.generateUrl(eq("b"), eq(StorageUrlGenerator.UrlType.SIGNED), anyLong())).thenThrow(new RuntimeException("boom"));
+
+        Map<String, String> urls = s3StorageService.getSignedUrls(Arrays.asList("a", "", "b", "a"), 3600);
+
+        assertEquals(Map.of("a", "http://signed/a"), urls);
+        verify(urlGenerator, times(1)).generateUrl(eq("a"), eq(StorageUrlGenerator.UrlType.SIGNED), anyLong());
+    }
+
+    @Test
+    void testDeleteEvictsCachedSignedUrl() {
+        String key = "test_key";
+        s3StorageService.getSignedUrl(key, 3600);
+        assertEquals(1, presignedUrlCache.size());
+
+        assertTrue(s3StorageService.delete(key));
+
+        assertEquals(0, presignedUrlCache.size());
+    }
+
     @Test
     void testLoadAsResourceNotFound() {
         String key = "missing_file.txt";
@@ -322,4 +377,209 @@ class S3StorageServiceTest {
         
         assertTrue(exception.getMessage().contains("Expiration seconds cannot be negative"));
     }
+
+    @Test
+    void testCreatePresignedUpload() {
+        PresignedUpload upload = new PresignedUpload("http://localhost:9000/test-bucket/listings/1/a.jpg?X-Amz-Signature=abc",
+                "PUT", Map.of("content-type", "image/jpeg", "content-length", "1024"), Instant.now().plusSeconds(900));
+        when(urlGenerator.generatePresignedUpload("listings/1/a.jpg", "image/jpeg", 1024L, 900L)).thenReturn(upload);
+
+        assertSame(upload, s3StorageService.createPresignedUpload("listings/1/a.jpg", "image/jpeg", 1024L, 900L));
+    }
+
+    @Test
+    void testCreatePresignedUploadRejectsInvalidArguments() {
+        assertThrows(StorageException.class, () -> s3StorageService.createPresignedUpload("", "image/jpeg", 1024L, 900L));
+        assertThrows(StorageException.class, () -> s3StorageService.createPresignedUpload("key", null, 1024L, 900L));
+        assertThrows(StorageException.class, () -> s3StorageService.createPresignedUpload("key", "image/jpeg", 0L, 900L));
+        verify(urlGenerator, never()).generatePresignedUpload(anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testGetMetadata() {
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentType("image/png")
+                .contentLength(2048L)
+                .build());
+
+        StoredObjectMetadata metadata = s3StorageService.getMetadata("listings/1/a.png").orElseThrow();
+
+        assertEquals("listings/1/a.png", metadata.key());
+        assertEquals("image/png", metadata.contentType());
+        assertEquals(2048L, metadata.contentLength());
+    }
+
+    @Test
+    void testGetMetadataOfMissingObjectIsEmpty() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow((S3Exception) S3Exception.builder().statusCode(404).message("Not Found").build());
+
+        assertTrue(s3StorageService.getMetadata("listings/1/missing.png").isEmpty());
+    }
+
+    @Test
+    void testGetMetadataPropagatesOtherErrors() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow((S3Exception) S3Exception.builder().statusCode(403).message("Forbidden").build());
+
+        assertThrows(StorageException.class, () -> s3StorageService.getMetadata("listings/1/a.png"));
+    }
+
+    @Test
+    void testReadHeadRequestsOnlyTheFirstBytes() {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(4L).build(), new ByteArrayInputStream("test".getBytes())));
+
+        byte[] head = s3StorageService.readHead("listings/1/a.png", 4);
+
+        assertArrayEquals("test".getBytes(), head);
+        ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client).getObject(captor.capture());
+        assertEquals("bytes=0-3", captor.getValue().range());
+    }
+
+    @Test
+    void testStoreStreamWithKnownLengthUsesSinglePut() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        s3StorageService.storeStream(new ByteArrayInputStream(new byte[100]), "listings/1/a.jpg", "image/jpeg", 100L);
+
+        verify(s3Client).putObject(argThat((PutObjectRequest request) -> "image/jpeg".equals(request.contentType())),
+                argThat((RequestBody body) -> body.optionalContentLength().orElse(-1L) == 100L));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testStoreStreamWithUnknownLengthUploadsParts() {
+        when(configManager.getMultipartPartSizeBytes()).thenReturn(10);
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        s3StorageService.storeStream(new ByteArrayInputStream(new byte[25]), "listings/1/a.jpg", "image/jpeg", -1L);
+
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                "upload-1".equals(request.uploadId()) && request.multipartUpload().parts().size() == 3));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testStoreStreamWithUnknownLengthThatFitsOnePartUsesSinglePut() {
+        when(configManager.getMultipartPartSizeBytes()).thenReturn(10);
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        s3StorageService.storeStream(new ByteArrayInputStream(new byte[5]), "listings/1/a.jpg", "image/jpeg", -1L);
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testStoreStreamAbortsMultipartUploadWhenContentFails() {
+        when(configManager.getMultipartPartSizeBytes()).thenReturn(10);
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(new byte[15]), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        assertThrows(StorageException.class, () ->
+                s3StorageService.storeStream(failing, "listings/1/a.jpg", "image/jpeg", -1L));
+
+        verify(s3Client).abortMultipartUpload(argThat((AbortMultipartUploadRequest request) -> "upload-1".equals(request.uploadId())));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testDeleteBatchSplitsIntoRequestsOfAtMostThousandKeys() {
+        List<String> keys = IntStream.range(0, 1500).mapToObj(i -> "listings/1/" + i + ".jpg").toList();
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder().build());
+
+        Set<String> failed = s3StorageService.deleteBatch(keys);
+
+        assertTrue(failed.isEmpty());
+        verify(s3Client).deleteObjects(argThat((DeleteObjectsRequest request) -> request.delete().objects().size() == 1000
+                && Boolean.TRUE.equals(request.delete().quiet())));
+        verify(s3Client).deleteObjects(argThat((DeleteObjectsRequest request) -> request.delete().objects().size() == 500));
+        verify(s3Client, never()).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void testDeleteBatchReportsFailedKeysAndEvictsDeletedOnes() {
+        s3StorageService.getSignedUrl("a", 3600);
+        s3StorageService.getSignedUrl("b", 3600);
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("b").code("AccessDenied").message("Access Denied").build())
+                .build());
+
+        Set<String> failed = s3StorageService.deleteBatch(List.of("a", "b", " "));
+
+        assertEquals(Set.of("b"), failed);
+        assertEquals(1, presignedUrlCache.size());
+    }
+
+    @Test
+    void testDeleteBatchReportsWholeBatchWhenRequestFails() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenThrow((S3Exception) S3Exception.builder().message("Slow Down").build());
+
+        Set<String> failed = s3StorageService.deleteBatch(List.of("a", "b"));
+
+        assertEquals(Set.of("a", "b"), failed);
+    }
+
+    @Test
+    void testListObjectsFollowsContinuationTokens() {
+        Instant modified = Instant.parse("2024-01-01T00:00:00Z");
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("listings/1/a.jpg").size(10L).lastModified(modified).build())
+                        .isTruncated(true)
+                        .nextContinuationToken("next")
+                        .build())
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(S3Object.builder().key("listings/2/b.jpg").size(20L).lastModified(modified).build())
+                        .isTruncated(false)
+                        .build());
+
+        List<StoredObjectSummary> objects = s3StorageService.listObjects("listings/");
+
+        assertEquals(List.of(new StoredObjectSummary("listings/1/a.jpg", 10L, modified),
+                new StoredObjectSummary("listings/2/b.jpg", 20L, modified)), objects);
+        verify(s3Client).listObjectsV2(argThat((ListObjectsV2Request request) -> "listings/".equals(request.prefix())
+                && "next".equals(request.continuationToken())));
+    }
+
+    @Test
+    void testLoadAsResourceReadsThroughObjectCacheUntilDeleted(@TempDir Path cacheDirectory) throws IOException {
+        // Arrange
+        StorageProperties.ObjectCache cacheProperties = new StorageProperties.ObjectCache();
+        cacheProperties.setEnabled(true);
+        cacheProperties.setDiskDirectory(cacheDirectory.toString());
+        S3StorageService cachingService = new S3StorageService(s3Client, configManager, urlGenerator, presignedUrlCache,
+                new StorageObjectCache(cacheProperties, new SimpleMeterRegistry(), Runnable::run));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(9L).build(), new ByteArrayInputStream("test data".getBytes())));
+        when(s3Client.deleteObject(any(DeleteObjectRequest.class))).thenReturn(DeleteObjectResponse.builder().build());
+
+        // Act
+        Resource first = cachingService.loadAsResource("listings/1/photo.jpg");
+        Resource second = cachingService.loadAsResource("listings/1/photo.jpg");
+        cachingService.delete("listings/1/photo.jpg");
+        cachingService.loadAsResource("listings/1/photo.jpg");
+
+        // Assert
+        assertArrayEquals("test data".getBytes(), first.getContentAsByteArray());
+        assertArrayEquals("test data".getBytes(), second.getContentAsByteArray());
+        assertEquals("listings/1/photo.jpg", second.getFilename());
+        verify(s3Client, times(2)).getObject(any(GetObjectRequest.class));
+    }
 }
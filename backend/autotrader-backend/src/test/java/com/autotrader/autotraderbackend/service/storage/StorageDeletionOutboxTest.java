@@ -0,0 +1,196 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageDeletionProperties;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.model.StorageDeletion;
+import com.autotrader.autotraderbackend.repository.ListingMediaRepository;
+import com.autotrader.autotraderbackend.repository.StorageDeletionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageDeletionOutboxTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private StorageDeletionRepository deletionRepository;
+
+    @Mock
+    private ListingMediaRepository listingMediaRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorageDeletionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private StorageDeletionOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageDeletionProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new StorageDeletionOutbox(deletionRepository, listingMediaRepository, storageService, properties,
+                transactionManager, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void enqueue_ShouldSaveOneRowPerDistinctKey() {
+        // Act
+        outbox.enqueue(Arrays.asList("listings/1/a.jpg", "", null, "thumbnails/a/card.jpg", "listings/1/a.jpg"), "media/ab/ab.jpg");
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StorageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deletionRepository).saveAll(captor.capture());
+        assertEquals(List.of("listings/1/a.jpg", "thumbnails/a/card.jpg"),
+                captor.getValue().stream().map(StorageDeletion::getObjectKey).toList());
+        assertTrue(captor.getValue().stream().allMatch(deletion -> "media/ab/ab.jpg".equals(deletion.getMediaKey())));
+    }
+
+    @Test
+    void enqueue_WithNoKeys_ShouldNotSave() {
+        outbox.enqueue(List.of(" "), null);
+
+        verifyNoInteractions(deletionRepository);
+    }
+
+    @Test
+    void processBatch_ShouldDeleteObjectsInOneBatchAndRemoveRows() {
+        // Arrange
+        StorageDeletion first = deletion(1L, "listings/1/a.jpg", null);
+        StorageDeletion second = deletion(2L, "listings/1/b.jpg", null);
+        when(deletionRepository.findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(storageService.deleteBatch(anyCollection())).thenReturn(Set.of());
+
+        // Act
+        int claimed = outbox.processBatch(10);
+
+        // Assert
+        assertEquals(2, claimed);
+        verify(storageService).deleteBatch(Set.of("listings/1/a.jpg", "listings/1/b.jpg"));
+        verify(deletionRepository).deleteAllInBatch(List.of(first, second));
+        assertEquals(2.0, meterRegistry.get("storage.deletions").tag("result", "deleted").counter().count());
+    }
+
+    @Test
+    void processBatch_WithFailedKey_ShouldScheduleRetryWithBackoff() {
+        // Arrange
+        StorageDeletion ok = deletion(1L, "listings/1/a.jpg", null);
+        StorageDeletion failing = deletion(2L, "listings/1/b.jpg", null);
+        failing.setAttempts(2);
+        when(deletionRepository.findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(ok, failing));
+        when(storageService.deleteBatch(anyCollection())).thenReturn(Set.of("listings/1/b.jpg"));
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        verify(deletionRepository).deleteAllInBatch(List.of(ok));
+        assertEquals(3, failing.getAttempts());
+        assertEquals(LOCAL_NOW.plusMinutes(2), failing.getNextAttemptAt());
+        assertNotNull(failing.getLastError());
+        assertEquals(1.0, meterRegistry.get("storage.deletions").tag("result", "retried").counter().count());
+    }
+
+    @Test
+    void processBatch_WhenStorageThrows_ShouldRetryAllAndGiveUpAfterMaxAttempts() {
+        // Arrange
+        properties.setMaxAttempts(3);
+        StorageDeletion retried = deletion(1L, "listings/1/a.jpg", null);
+        StorageDeletion exhausted = deletion(2L, "listings/1/b.jpg", null);
+        exhausted.setAttempts(2);
+        when(deletionRepository.findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(retried, exhausted));
+        when(storageService.deleteBatch(anyCollection())).thenThrow(new StorageException("S3 unavailable"));
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        verify(deletionRepository).deleteAllInBatch(List.of(exhausted));
+        assertEquals(1, retried.getAttempts());
+        assertEquals(LOCAL_NOW.plusSeconds(30), retried.getNextAttemptAt());
+        assertEquals("S3 unavailable", retried.getLastError());
+        assertEquals(1.0, meterRegistry.get("storage.deletions").tag("result", "abandoned").counter().count());
+    }
+
+    @Test
+    void processBatch_WithSharedMediaReferencedAgain_ShouldKeepObjects() {
+        // Arrange
+        String mediaKey = "media/ab/ab.jpg";
+        StorageDeletion original = deletion(1L, mediaKey, mediaKey);
+        StorageDeletion variant = deletion(2L, "thumbnails/media_ab_ab.jpg/card.jpg", mediaKey);
+        when(deletionRepository.findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class))).thenReturn(List.of(original, variant));
+        when(listingMediaRepository.countByFileKey(mediaKey)).thenReturn(1L);
+
+        // Act
+        outbox.processBatch(10);
+
+        // Assert
+        verify(listingMediaRepository, times(1)).countByFileKey(mediaKey);
+        verifyNoInteractions(storageService);
+        verify(deletionRepository).deleteAllInBatch(List.of(original, variant));
+        assertEquals(2.0, meterRegistry.get("storage.deletions").tag("result", "kept").counter().count());
+    }
+
+    @Test
+    void drain_ShouldProcessBatchesUntilOneIsNotFull() {
+        // Arrange
+        properties.setBatchSize(2);
+        List<List<StorageDeletion>> batches = new ArrayList<>(List.of(
+                List.of(deletion(1L, "a", null), deletion(2L, "b", null)),
+                List.of(deletion(3L, "c", null))));
+        when(deletionRepository.findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class)))
+                .thenAnswer(invocation -> batches.remove(0));
+        when(storageService.deleteBatch(anyCollection())).thenReturn(Set.of());
+
+        // Act
+        outbox.drain();
+
+        // Assert
+        verify(deletionRepository, times(2)).findDueForUpdate(eq(LOCAL_NOW), any(Pageable.class));
+        verify(storageService, times(2)).deleteBatch(anyCollection());
+    }
+
+    @Test
+    void drain_WhenDisabled_ShouldNotPoll() {
+        properties.setEnabled(false);
+
+        outbox.drain();
+
+        verifyNoInteractions(deletionRepository, storageService);
+    }
+
+    private static StorageDeletion deletion(Long id, String objectKey, String mediaKey) {
+        StorageDeletion deletion = new StorageDeletion(objectKey, mediaKey);
+        deletion.setId(id);
+        deletion.setNextAttemptAt(LOCAL_NOW);
+        return deletion;
+    }
+}
@@ -43,6 +43,7 @@ class StorageKeyGeneratorTest {
         lenient().when(keyPatterns.getThumbnails()).thenReturn("thumbnails/{originalPath}/{filename}");
         lenient().when(keyPatterns.getBackups()).thenReturn("backups/{date}/{category}/{filename}");
         lenient().when(keyPatterns.getLogs()).thenReturn("logs/{date}/{level}/{filename}");
+        lenient().when(keyPatterns.getContentAddressedMedia()).thenReturn("media/{hashPrefix}/{hash}{extension}");
         
         // Default bucket names
         lenient().when(general.getDefaultBucketName()).thenReturn("app-assets");
@@ -410,4 +411,77 @@ void generateListingMediaKey_WithUnsafeFilename_ShouldSanitize() {
         // Assert
         assertThat(result).isFalse();
     }
+
+    @Test
+    void isListingMediaKey_WithKeyOfListing_ShouldReturnTrue() {
+        // Arrange
+        String storageKey = storageKeyGenerator.generateListingMediaKey(123L, "photo.jpg");
+
+        // Act & Assert
+        assertThat(storageKeyGenerator.isListingMediaKey(123L, storageKey)).isTrue();
+    }
+
+    @Test
+    void isListingMediaKey_WithKeyOfOtherListingOrTraversal_ShouldReturnFalse() {
+        assertThat(storageKeyGenerator.isListingMediaKey(12L, "listings/123/20240101_120000_photo.jpg")).isFalse();
+        assertThat(storageKeyGenerator.isListingMediaKey(123L, "listings/123/../456/photo.jpg")).isFalse();
+        assertThat(storageKeyGenerator.isListingMediaKey(123L, "listings/123/")).isFalse();
+        assertThat(storageKeyGenerator.isListingMediaKey(123L, "users/123/avatar.jpg")).isFalse();
+        assertThat(storageKeyGenerator.isListingMediaKey(123L, null)).isFalse();
+    }
+
+    @Test
+    void generateContentAddressedKey_ShouldDependOnlyOnContentHashAndExtension() {
+        // Arrange
+        String sha256 = "AB" + "cd".repeat(31);
+
+        // Act
+        String key = storageKeyGenerator.generateContentAddressedKey(sha256, "My Photo.JPG");
+
+        // Assert
+        assertThat(key).isEqualTo("media/ab/ab" + "cd".repeat(31) + ".jpg");
+        assertThat(storageKeyGenerator.generateContentAddressedKey(sha256, "other.jpg")).isEqualTo(key);
+        assertThat(storageKeyGenerator.isContentAddressedKey(key)).isTrue();
+        assertThat(storageKeyGenerator.isListingMediaKey(key)).isFalse();
+    }
+
+    @Test
+    void generateContentAddressedKey_WithoutUsableExtension_ShouldOmitIt() {
+        String sha256 = "ab".repeat(32);
+
+        assertThat(storageKeyGenerator.generateContentAddressedKey(sha256, null)).isEqualTo("media/ab/" + sha256);
+        assertThat(storageKeyGenerator.generateContentAddressedKey(sha256, "photo")).isEqualTo("media/ab/" + sha256);
+        assertThat(storageKeyGenerator.generateContentAddressedKey(sha256, "photo.verylongext")).isEqualTo("media/ab/" + sha256);
+    }
+
+    @Test
+    void generateContentAddressedKey_WithInvalidHash_ShouldThrowException() {
+        assertThatThrownBy(() -> storageKeyGenerator.generateContentAddressedKey("abc", "photo.jpg"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storageKeyGenerator.generateContentAddressedKey(null, "photo.jpg"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isContentAddressedKey_WithOtherKeys_ShouldReturnFalse() {
+        assertThat(storageKeyGenerator.isContentAddressedKey("listings/123/20240101_120000_photo.jpg")).isFalse();
+        assertThat(storageKeyGenerator.isContentAddressedKey("media")).isFalse();
+        assertThat(storageKeyGenerator.isContentAddressedKey(null)).isFalse();
+    }
+
+    @Test
+    void extractListingId_WithListingMediaKey_ShouldReturnListingId() {
+        assertThat(storageKeyGenerator.getListingMediaRootPrefix()).isEqualTo("listings/");
+        assertThat(storageKeyGenerator.extractListingId("listings/123/20240101_120000_photo.jpg")).isEqualTo(123L);
+    }
+
+    @Test
+    void extractListingId_WithOtherKeys_ShouldReturnNull() {
+        assertThat(storageKeyGenerator.extractListingId("listings/abc/photo.jpg")).isNull();
+        assertThat(storageKeyGenerator.extractListingId("listings/123")).isNull();
+        assertThat(storageKeyGenerator.extractListingId("listings/123/../456/photo.jpg")).isNull();
+        assertThat(storageKeyGenerator.extractListingId("listings/99999999999999999999/photo.jpg")).isNull();
+        assertThat(storageKeyGenerator.extractListingId("media/ab/abcd.jpg")).isNull();
+        assertThat(storageKeyGenerator.extractListingId(null)).isNull();
+    }
 }
@@ -0,0 +1,210 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.StorageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageObjectCacheTest {
+
+    private static final String BUCKET = "bucket";
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties.ObjectCache properties;
+    private SimpleMeterRegistry meterRegistry;
+    private StorageObjectCache cache;
+    private AtomicInteger fetches;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties.ObjectCache();
+        properties.setEnabled(true);
+        properties.setDiskDirectory(directory.toString());
+        properties.setHeapMaxObjectBytes(16);
+        properties.setDiskMaxObjectBytes(64);
+        properties.setDiskMaxBytes(100);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new StorageObjectCache(properties, meterRegistry, Runnable::run);
+        fetches = new AtomicInteger();
+    }
+
+    @Test
+    void get_WithSmallObject_ShouldServeRepeatReadsFromHeap() throws Exception {
+        // Act
+        Resource first = cache.get(BUCKET, "a.jpg", () -> origin(10));
+        Resource second = cache.get(BUCKET, "a.jpg", () -> origin(10));
+
+        // Assert
+        assertEquals(1, fetches.get());
+        assertArrayEquals(content(10), second.getContentAsByteArray());
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+        assertEquals("a.jpg", second.getFilename());
+        assertEquals(1.0, meterRegistry.get("storage.object.cache.requests").tag("tier", "heap").functionCounter().count());
+        assertEquals(10.0, meterRegistry.get("storage.object.cache.bytes").tag("tier", "heap").functionCounter().count());
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(1, meterRegistry.get("storage.object.cache.origin.fetch").timer().count());
+    }
+
+    @Test
+    void get_WithLargerObject_ShouldServeRepeatReadsFromMappedFile() throws Exception {
+        // Act
+        cache.get(BUCKET, "b.jpg", () -> origin(40));
+        Resource cached = cache.get(BUCKET, "b.jpg", () -> origin(40));
+
+        // Assert
+        assertEquals(1, fetches.get());
+        assertArrayEquals(content(40), cached.getContentAsByteArray());
+        assertArrayEquals(content(40), cached.getInputStream().readAllBytes());
+        assertEquals(40, cached.contentLength());
+        assertEquals(1, cachedFiles());
+        assertEquals(1.0, meterRegistry.get("storage.object.cache.requests").tag("tier", "disk").functionCounter().count());
+        assertEquals(40.0, meterRegistry.get("storage.object.cache.size").tag("tier", "disk").gauge().value());
+    }
+
+    @Test
+    void get_WithObjectAboveDiskLimitOrOfUnknownSize_ShouldStreamWithoutCaching() {
+        cache.get(BUCKET, "c.jpg", () -> origin(80));
+        cache.get(BUCKET, "c.jpg", () -> origin(80));
+        cache.get(BUCKET, "d.jpg", StorageObjectCacheTest::originOfUnknownSize);
+        cache.get(BUCKET, "d.jpg", StorageObjectCacheTest::originOfUnknownSize);
+
+        assertEquals(2, fetches.get());
+        assertEquals(0, cachedFiles());
+        assertEquals(4.0, meterRegistry.get("storage.object.cache.requests").tag("tier", "origin").functionCounter().count());
+    }
+
+    @Test
+    void get_WhenDiskTierIsFull_ShouldEvictAndDeleteFiles() {
+        cache.get(BUCKET, "1.jpg", () -> origin(40));
+        cache.get(BUCKET, "2.jpg", () -> origin(40));
+        cache.get(BUCKET, "3.jpg", () -> origin(40));
+
+        assertTrue(cachedFiles() <= 2);
+    }
+
+    @Test
+    void evict_ShouldDropBothTiers() {
+        // Arrange
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+        cache.get(BUCKET, "b.jpg", () -> origin(40));
+
+        // Act
+        cache.evict(BUCKET, "a.jpg");
+        cache.evict(BUCKET, "b.jpg");
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+        cache.get(BUCKET, "b.jpg", () -> origin(40));
+
+        // Assert
+        assertEquals(4, fetches.get());
+        assertEquals(1, cachedFiles());
+    }
+
+    @Test
+    void get_WhenEvictedWhileLoading_ShouldNotCacheStaleContent() {
+        // Arrange
+        Supplier<Resource> evictingOrigin = () -> {
+            Resource resource = origin(10);
+            cache.evict(BUCKET, "a.jpg");
+            return resource;
+        };
+        Supplier<Resource> evictingDiskOrigin = () -> {
+            Resource resource = origin(40);
+            cache.evict(BUCKET, "b.jpg");
+            return resource;
+        };
+
+        // Act
+        cache.get(BUCKET, "a.jpg", evictingOrigin);
+        cache.get(BUCKET, "b.jpg", evictingDiskOrigin);
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+        cache.get(BUCKET, "b.jpg", () -> origin(40));
+
+        // Assert
+        assertEquals(4, fetches.get());
+        assertEquals(1, cachedFiles());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldFetchAgain() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        properties.setTtlSeconds(60);
+        cache = new StorageObjectCache(properties, meterRegistry, Runnable::run, nanos::get);
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+
+        // Act
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+
+        // Assert
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysFetch() {
+        properties.setEnabled(false);
+
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+        cache.get(BUCKET, "a.jpg", () -> origin(10));
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void constructor_ShouldRemoveFilesOfPreviousRun() throws Exception {
+        Files.write(directory.resolve("object-stale.bin"), content(8));
+
+        new StorageObjectCache(properties, new SimpleMeterRegistry(), Runnable::run);
+
+        assertEquals(0, cachedFiles());
+    }
+
+    private Resource origin(int length) {
+        fetches.incrementAndGet();
+        return new ByteArrayResource(content(length));
+    }
+
+    private static Resource originOfUnknownSize() {
+        return new InputStreamResource(new ByteArrayInputStream(content(4))) {
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+        };
+    }
+
+    private long cachedFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+}
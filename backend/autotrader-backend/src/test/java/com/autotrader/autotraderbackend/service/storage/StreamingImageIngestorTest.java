@@ -0,0 +1,161 @@
+package com.autotrader.autotraderbackend.service.storage;
+
+import com.autotrader.autotraderbackend.config.FileUploadProperties;
+import com.autotrader.autotraderbackend.exception.InvalidFileException;
+import com.autotrader.autotraderbackend.exception.StorageException;
+import com.autotrader.autotraderbackend.service.storage.StreamingImageIngestor.IngestedImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingImageIngestorTest {
+
+    private static final String KEY = "listings/1/20240101_120000_photo.jpg";
+
+    @Mock
+    private StorageService storageService;
+
+    private FileUploadProperties uploadProperties;
+    private StreamingImageIngestor ingestor;
+    private ByteArrayOutputStream stored;
+
+    @BeforeEach
+    void setUp() {
+        uploadProperties = new FileUploadProperties();
+        uploadProperties.setMaxFileSize(64 * 1024);
+        ingestor = new StreamingImageIngestor(storageService, uploadProperties);
+        stored = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void ingest_ShouldStreamImageAndComputeChecksum() throws Exception {
+        // Arrange
+        byte[] image = jpeg(20_000);
+        drainOnStore();
+
+        // Act
+        IngestedImage result = ingestor.ingest(new ByteArrayInputStream(image), image.length, KEY);
+
+        // Assert
+        assertEquals(KEY, result.key());
+        assertEquals("image/jpeg", result.contentType());
+        assertEquals(image.length, result.size());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image)), result.sha256());
+        assertArrayEquals(image, stored.toByteArray());
+        verify(storageService).storeStream(any(InputStream.class), eq(KEY), eq("image/jpeg"), eq((long) image.length));
+    }
+
+    @Test
+    void ingest_WithUnknownLength_ShouldCountStoredBytes() {
+        byte[] image = jpeg(30_000);
+        drainOnStore();
+
+        IngestedImage result = ingestor.ingest(new ByteArrayInputStream(image), -1L, KEY);
+
+        assertEquals(image.length, result.size());
+        assertArrayEquals(image, stored.toByteArray());
+    }
+
+    @Test
+    void ingest_WithDisallowedType_ShouldRejectBeforeStorage() {
+        byte[] html = "<html><body>not an image</body></html>".getBytes();
+
+        assertThrows(InvalidFileException.class, () -> ingestor.ingest(new ByteArrayInputStream(html), html.length, KEY));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void ingest_WithDeclaredLengthOverLimit_ShouldRejectWithoutReading() {
+        InputStream body = mock(InputStream.class);
+
+        assertThrows(InvalidFileException.class, () -> ingestor.ingest(body, 64 * 1024 + 1, KEY));
+        verifyNoInteractions(storageService, body);
+    }
+
+    @Test
+    void ingest_WithUndeclaredOversizeBody_ShouldAbortUpload() {
+        byte[] image = jpeg(100_000);
+        drainOnStore();
+
+        InvalidFileException e = assertThrows(InvalidFileException.class, () ->
+                ingestor.ingest(new ByteArrayInputStream(image), -1L, KEY));
+        assertTrue(e.getMessage().contains("exceeds"));
+        assertTrue(stored.size() <= 64 * 1024);
+    }
+
+    @Test
+    void ingest_WithEmptyBody_ShouldThrow() {
+        assertThrows(InvalidFileException.class, () -> ingestor.ingest(new ByteArrayInputStream(new byte[0]), -1L, KEY));
+        assertThrows(InvalidFileException.class, () -> ingestor.ingest(new ByteArrayInputStream(new byte[0]), 0L, KEY));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void ingest_WhenStorageFails_ShouldPropagate() {
+        byte[] image = jpeg(1_000);
+        doThrow(new StorageException("S3 unavailable"))
+                .when(storageService).storeStream(any(InputStream.class), anyString(), anyString(), anyLong());
+
+        assertThrows(StorageException.class, () -> ingestor.ingest(new ByteArrayInputStream(image), image.length, KEY));
+    }
+
+    /**
+     * Make the storage mock read the content to its end like a real store, the way
+     * {@link NoOpStorageService} surfaces read failures.
+     */
+    private void drainOnStore() {
+        doAnswer(invocation -> {
+            try {
+                invocation.getArgument(0, InputStream.class).transferTo(stored);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }).when(storageService).storeStream(any(InputStream.class), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void verifyStored_ShouldDetectTypeFromFirstBytes() {
+        when(storageService.readHead(KEY, StreamingImageIngestor.SNIFF_BYTES)).thenReturn(jpeg(1_000));
+
+        assertEquals("image/jpeg", ingestor.verifyStored(KEY));
+    }
+
+    @Test
+    void verifyStored_WithDisallowedContent_ShouldThrow() {
+        when(storageService.readHead(KEY, StreamingImageIngestor.SNIFF_BYTES))
+                .thenReturn("<html><body>not an image</body></html>".getBytes());
+
+        assertThrows(InvalidFileException.class, () -> ingestor.verifyStored(KEY));
+    }
+
+    private static byte[] jpeg(int size) {
+        byte[] image = new byte[size];
+        for (int i = 0; i < size; i++) {
+            image[i] = (byte) (i * 31);
+        }
+        image[0] = (byte) 0xFF;
+        image[1] = (byte) 0xD8;
+        image[2] = (byte) 0xFF;
+        image[3] = (byte) 0xE0;
+        return image;
+    }
+}
@@ -0,0 +1,39 @@
+package com.autotrader.autotraderbackend.test;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate {@link StatementInspector} that records every SQL statement Hibernate prepares,
+ * so tests can assert how many queries an endpoint issues.
+ * <p>
+ * Register it with {@link com.autotrader.autotraderbackend.config.QueryCountTestConfig},
+ * call {@link #reset()} right before the request under test and read {@link #getCount()} after it.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public int getCount() {
+        return statements.size();
+    }
+
+    public List<String> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+}
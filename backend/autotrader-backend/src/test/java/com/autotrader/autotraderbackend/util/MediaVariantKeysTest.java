@@ -0,0 +1,47 @@
+package com.autotrader.autotraderbackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaVariantKeysTest {
+
+    @Test
+    void formatAndParse_shouldRoundTripInOrder() {
+        Map<String, String> variantKeys = new LinkedHashMap<>();
+        variantKeys.put("full", "thumbnails/listings_1_a.jpg/full.jpg");
+        variantKeys.put("card", "thumbnails/listings_1_a.jpg/card.jpg");
+
+        String encoded = MediaVariantKeys.format(variantKeys);
+
+        assertEquals("full=thumbnails/listings_1_a.jpg/full.jpg,card=thumbnails/listings_1_a.jpg/card.jpg", encoded);
+        Map<String, String> parsed = MediaVariantKeys.parse(encoded);
+        assertEquals(variantKeys, parsed);
+        assertEquals(List.of("full", "card"), List.copyOf(parsed.keySet()));
+    }
+
+    @Test
+    void format_withNoVariants_shouldReturnNull() {
+        assertNull(MediaVariantKeys.format(null));
+        assertNull(MediaVariantKeys.format(Map.of()));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void parse_withNullOrEmptyValue_shouldReturnEmptyMap(String value) {
+        assertTrue(MediaVariantKeys.parse(value).isEmpty());
+    }
+
+    @Test
+    void parse_shouldSkipMalformedPairs() {
+        Map<String, String> parsed = MediaVariantKeys.parse("card=thumbnails/a/card.jpg,broken,=nokey,empty=");
+
+        assertEquals(Map.of("card", "thumbnails/a/card.jpg"), parsed);
+    }
+}